@@ -31,10 +31,16 @@ package net.sf.jasperreports.compilers;
 import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.UnsupportedEncodingException;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
+import org.apache.commons.collections.map.ReferenceMap;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
 import org.codehaus.groovy.ast.ClassNode;
+import org.codehaus.groovy.control.ClassNodeResolver;
 import org.codehaus.groovy.control.CompilationFailedException;
 import org.codehaus.groovy.control.CompilationUnit;
 import org.codehaus.groovy.control.CompilerConfiguration;
@@ -42,7 +48,10 @@ import org.codehaus.groovy.control.Phases;
 
 import groovyjarjarasm.asm.ClassVisitor;
 import groovyjarjarasm.asm.ClassWriter;
+import net.sf.jasperreports.annotations.properties.Property;
+import net.sf.jasperreports.annotations.properties.PropertyScope;
 import net.sf.jasperreports.engine.JRException;
+import net.sf.jasperreports.engine.JRPropertiesUtil;
 import net.sf.jasperreports.engine.JRReport;
 import net.sf.jasperreports.engine.JRRuntimeException;
 import net.sf.jasperreports.engine.JasperReportsContext;
@@ -51,6 +60,7 @@ import net.sf.jasperreports.engine.design.JRCompilationSourceCode;
 import net.sf.jasperreports.engine.design.JRCompilationUnit;
 import net.sf.jasperreports.engine.design.JRDefaultCompilationSourceCode;
 import net.sf.jasperreports.engine.design.JRSourceCompileTask;
+import net.sf.jasperreports.properties.PropertyConstants;
 
 /**
  * Calculator compiler that uses groovy to compile expressions.
@@ -60,11 +70,80 @@ import net.sf.jasperreports.engine.design.JRSourceCompileTask;
 public class JRGroovyCompiler extends JRAbstractJavaCompiler 
 {
 
+	private static final Log log = LogFactory.getLog(JRGroovyCompiler.class);
+	
+	/**
+	 * Property that determines whether the expression evaluation methods of the generated Groovy classes
+	 * are statically compiled (annotated with <code>groovy.transform.CompileStatic</code>).
+	 * 
+	 * <p>
+	 * Statically compiled expressions use the declared classes of the report parameters, fields and variables
+	 * and avoid the Groovy meta-class dispatch on each evaluation.
+	 * Report units that contain expressions which cannot be statically compiled (such as function calls
+	 * or dynamically typed expressions) are compiled again in dynamic mode.
+	 * </p>
+	 */
+	@Property(
+			category = PropertyConstants.CATEGORY_COMPILE,
+			defaultValue = PropertyConstants.BOOLEAN_FALSE,
+			scopes = {PropertyScope.CONTEXT},
+			sinceVersion = PropertyConstants.VERSION_6_4_3,
+			valueType = Boolean.class
+			)
+	public static final String PROPERTY_COMPILE_STATIC = JRPropertiesUtil.PROPERTY_PREFIX + "compiler.groovy.compile.static";
+	
+	/**
+	 * Property that determines whether Groovy compilations share the cache of classes that could not be resolved.
+	 * 
+	 * <p>
+	 * When the cache is shared, the failed class lookups performed while compiling a report (mostly caused by 
+	 * the star imports) are remembered per class loader and reused by subsequent compilations,
+	 * for the time specified by {@link #PROPERTY_SHARED_CLASS_CACHE_EXPIRY}.
+	 * The classes that are found are only cached for the duration of a compilation.
+	 * </p>
+	 */
+	@Property(
+			category = PropertyConstants.CATEGORY_COMPILE,
+			defaultValue = PropertyConstants.BOOLEAN_TRUE,
+			scopes = {PropertyScope.CONTEXT},
+			sinceVersion = PropertyConstants.VERSION_6_4_3,
+			valueType = Boolean.class
+			)
+	public static final String PROPERTY_SHARED_CLASS_CACHE = JRPropertiesUtil.PROPERTY_PREFIX + "compiler.groovy.shared.class.cache";
+	
+	/**
+	 * Property that specifies the time in milliseconds for which a class that could not be resolved
+	 * is remembered in the shared cache.
+	 * 
+	 * <p>
+	 * After this time the class is looked up again, so that classes added later to the class loader are found.
+	 * The default value is 60000 (one minute).
+	 * </p>
+	 * 
+	 * @see #PROPERTY_SHARED_CLASS_CACHE
+	 */
+	@Property(
+			category = PropertyConstants.CATEGORY_COMPILE,
+			defaultValue = "60000",
+			scopes = {PropertyScope.CONTEXT},
+			sinceVersion = PropertyConstants.VERSION_6_4_3,
+			valueType = Integer.class
+			)
+	public static final String PROPERTY_SHARED_CLASS_CACHE_EXPIRY = JRPropertiesUtil.PROPERTY_PREFIX + "compiler.groovy.shared.class.cache.expiry";
+	
+	protected static final int DEFAULT_SHARED_CLASS_CACHE_EXPIRY = 60000;
+	
+	private static final int MISSING_CLASS_CACHE_SIZE = 10000;
+
 	protected static final String SOURCE_ENCODING = "UTF-8";
 	public static final String EXCEPTION_MESSAGE_KEY_COMPILING_EXPRESSIONS_CLASS_FILE = "compilers.compiling.expressions.class.file";
 	public static final String EXCEPTION_MESSAGE_KEY_TOO_FEW_CLASSES_GENERATED = "compilers.groovy.too.few.classes.generated";
 	public static final String EXCEPTION_MESSAGE_KEY_TOO_MANY_CLASSES_GENERATED = "compilers.groovy.too.many.classes.generated";
 	
+	@SuppressWarnings("unchecked")
+	private static final Map<Object, MissingClassCache> missingClassCaches = 
+		new ReferenceMap(ReferenceMap.WEAK, ReferenceMap.HARD);
+	
 	/**
 	 * 
 	 */
@@ -76,18 +155,132 @@ public class JRGroovyCompiler extends JRAbstractJavaCompiler
 
 	@Override
 	protected String compileUnits(JRCompilationUnit[] units, String classpath, File tempDirFile) throws JRException
+	{
+		Map<String, String> sources = new LinkedHashMap<String, String>();
+		for (int i = 0; i < units.length; i++)
+		{
+			sources.put(units[i].getName(), units[i].getSourceCode());
+		}
+		
+		Map<String, byte[]> classes;
+		try
+		{
+			classes = compileSources(sources);
+		}
+		catch (CompilationFailedException e)
+		{
+			if (!isCompileStatic())
+			{
+				throw 
+					new JRException(
+						EXCEPTION_MESSAGE_KEY_COMPILING_EXPRESSIONS_CLASS_FILE, 
+						new Object[] { e.toString()}, 
+						e);
+			}
+			
+			if (log.isDebugEnabled())
+			{
+				log.debug("static compilation failed, compiling units separately: " + e.getMessage());
+			}
+			
+			classes = compileUnitsSeparately(units);
+		}
+
+		for (int i = 0; i < units.length; i++)
+		{
+			units[i].setCompileData(classes.get(units[i].getName()));
+		}
+		
+		return null;
+	}
+
+	/**
+	 * Compiles each unit on its own, falling back to dynamic Groovy code for the units
+	 * that cannot be statically compiled.
+	 * The units that fall back to dynamic code are replaced in the array by units that hold the dynamic code.
+	 */
+	protected Map<String, byte[]> compileUnitsSeparately(JRCompilationUnit[] units) throws JRException
+	{
+		Map<String, byte[]> classes = new HashMap<String, byte[]>();
+		for (int i = 0; i < units.length; i++)
+		{
+			JRCompilationUnit unit = units[i];
+			Map<String, byte[]> unitClasses;
+			try
+			{
+				unitClasses = compileSources(Collections.singletonMap(unit.getName(), unit.getSourceCode()));
+			}
+			catch (CompilationFailedException e)
+			{
+				if (log.isDebugEnabled())
+				{
+					log.debug("compiling unit " + unit.getName() + " in dynamic mode: " + e.getMessage());
+				}
+				
+				unit = recreateDynamicCompileUnit(unit);
+				units[i] = unit;
+				
+				try
+				{
+					unitClasses = compileSources(Collections.singletonMap(unit.getName(), unit.getSourceCode()));
+				}
+				catch (CompilationFailedException de)
+				{
+					throw 
+						new JRException(
+							EXCEPTION_MESSAGE_KEY_COMPILING_EXPRESSIONS_CLASS_FILE, 
+							new Object[] { de.toString()}, 
+							de);
+				}
+			}
+			classes.putAll(unitClasses);
+		}
+		return classes;
+	}
+
+	/**
+	 * Creates a unit that contains the dynamic Groovy code for the expressions of a unit,
+	 * overwriting the saved source file if any.
+	 */
+	protected JRCompilationUnit recreateDynamicCompileUnit(JRCompilationUnit unit) throws JRException
+	{
+		String unitName = unit.getName();
+		JRSourceCompileTask sourceTask = unit.getCompileTask();
+		JRCompilationSourceCode sourceCode = new JRDefaultCompilationSourceCode(
+				JRGroovyGenerator.generateClass(sourceTask, false), null);
+		
+		File sourceFile = unit.getSourceFile();
+		File saveSourceDir = sourceFile == null ? null : sourceFile.getParentFile();
+		sourceFile = getSourceFile(saveSourceDir, unitName, sourceCode);
+		
+		return new JRCompilationUnit(unitName, sourceCode, sourceFile, 
+				unit.getExpressions(), sourceTask);
+	}
+
+	/**
+	 * Compiles a set of Groovy sources, each source being expected to produce a single class
+	 * named after the unit.
+	 * 
+	 * @param sources the source code of the units, indexed by unit name
+	 * @return the class bytes indexed by class name
+	 */
+	protected Map<String, byte[]> compileSources(Map<String, String> sources) throws JRException, CompilationFailedException
 	{
 		CompilerConfiguration config = new CompilerConfiguration();
 		config.setSourceEncoding(SOURCE_ENCODING);
 		//config.setClasspath(classpath);
 		CompilationUnit unit = new CompilationUnit(config);
+		if (JRPropertiesUtil.getInstance(jasperReportsContext).getBooleanProperty(PROPERTY_SHARED_CLASS_CACHE, true))
+		{
+			unit.setClassNodeResolver(getSharedClassNodeResolver());
+		}
 		
-		for (int i = 0; i < units.length; i++)
+		for (Map.Entry<String, String> entry : sources.entrySet())
 		{
 			try
 			{
-				byte[] sourceBytes = units[i].getSourceCode().getBytes(SOURCE_ENCODING);
-				unit.addSource("calculator_" + units[i].getName(), new ByteArrayInputStream(sourceBytes));
+				byte[] sourceBytes = entry.getValue().getBytes(SOURCE_ENCODING);
+				unit.addSource("calculator_" + entry.getKey(), new ByteArrayInputStream(sourceBytes));
 			}
 			catch (UnsupportedEncodingException e)
 			{
@@ -97,27 +290,16 @@ public class JRGroovyCompiler extends JRAbstractJavaCompiler
 		
 		ClassCollector collector = new ClassCollector();
 		unit.setClassgenCallback(collector);
-		try 
-		{
-			unit.compile(Phases.CLASS_GENERATION);
-		} 
-		catch (CompilationFailedException e) 
-		{
-			throw 
-				new JRException(
-					EXCEPTION_MESSAGE_KEY_COMPILING_EXPRESSIONS_CLASS_FILE, 
-					new Object[] { e.toString()}, 
-					e);
-		}
+		unit.compile(Phases.CLASS_GENERATION);
 
-		if (collector.classes.size() < units.length) 
+		if (collector.classes.size() < sources.size()) 
 		{
 			throw 
 				new JRException(
 					EXCEPTION_MESSAGE_KEY_TOO_FEW_CLASSES_GENERATED,
 					(Object[])null);
 		} 
-		else if (collector.classCount > units.length) 
+		else if (collector.classCount > sources.size()) 
 		{
 			throw 
 				new JRException(
@@ -125,12 +307,125 @@ public class JRGroovyCompiler extends JRAbstractJavaCompiler
 					(Object[])null);
 		}
 		
-		for (int i = 0; i < units.length; i++)
+		return collector.classes;
+	}
+	
+	protected boolean isCompileStatic()
+	{
+		return JRPropertiesUtil.getInstance(jasperReportsContext).getBooleanProperty(PROPERTY_COMPILE_STATIC, false);
+	}
+	
+	/**
+	 * Returns a class node resolver that shares the cache of missing classes with the compilations 
+	 * that use the current context class loader.
+	 */
+	protected ClassNodeResolver getSharedClassNodeResolver()
+	{
+		long missingClassExpiry = JRPropertiesUtil.getInstance(jasperReportsContext).getIntegerProperty(
+				PROPERTY_SHARED_CLASS_CACHE_EXPIRY, DEFAULT_SHARED_CLASS_CACHE_EXPIRY);
+		
+		// the Groovy compilation unit loads classes via a class loader created on top of the context class loader
+		Object loaderKey = Thread.currentThread().getContextClassLoader();
+		if (loaderKey == null)
 		{
-			units[i].setCompileData(collector.classes.get(units[i].getName()));
+			loaderKey = JRGroovyCompiler.class;
 		}
 		
-		return null;
+		MissingClassCache missingClasses;
+		synchronized (missingClassCaches)
+		{
+			missingClasses = missingClassCaches.get(loaderKey);
+			if (missingClasses == null)
+			{
+				missingClasses = new MissingClassCache();
+				missingClassCaches.put(loaderKey, missingClasses);
+			}
+		}
+		return new SharedClassNodeResolver(missingClasses, missingClassExpiry);
+	}
+
+	
+	/**
+	 * Bounded cache of the names of the classes that were not found by a class loader, along with the time of the lookup.
+	 * The cache only contains strings so that it does not prevent the class loader from being collected.
+	 */
+	static class MissingClassCache
+	{
+		private final Map<String, Long> lookupTimes = new LinkedHashMap<String, Long>(16, 0.75f, true)
+		{
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, Long> eldest)
+			{
+				return size() > MISSING_CLASS_CACHE_SIZE;
+			}
+		};
+		
+		public synchronized boolean isMissing(String name, long expiry)
+		{
+			Long lookupTime = lookupTimes.get(name);
+			if (lookupTime == null)
+			{
+				return false;
+			}
+			
+			if (System.currentTimeMillis() - lookupTime > expiry)
+			{
+				// looking up the class again, it might have been added to the class loader
+				lookupTimes.remove(name);
+				return false;
+			}
+			
+			return true;
+		}
+		
+		public synchronized void setMissing(String name)
+		{
+			lookupTimes.put(name, System.currentTimeMillis());
+		}
+	}
+
+	
+	/**
+	 * Class node resolver that uses a shared cache for missing classes.
+	 * The classes found are only cached for the compilation, as the class nodes reference the class loader.
+	 */
+	static class SharedClassNodeResolver extends ClassNodeResolver
+	{
+		private final MissingClassCache missingClasses;
+		private final long missingClassExpiry;
+		private final Map<String, ClassNode> foundClasses = new HashMap<String, ClassNode>();
+		
+		public SharedClassNodeResolver(MissingClassCache missingClasses, long missingClassExpiry)
+		{
+			this.missingClasses = missingClasses;
+			this.missingClassExpiry = missingClassExpiry;
+		}
+		
+		@Override
+		public ClassNode getFromClassCache(String name)
+		{
+			ClassNode res = foundClasses.get(name);
+			if (res == null && missingClasses.isMissing(name, missingClassExpiry))
+			{
+				res = NO_CLASS;
+			}
+			return res;
+		}
+		
+		@Override
+		public void cacheClass(String name, ClassNode res)
+		{
+			if (res == NO_CLASS)
+			{
+				missingClasses.setMissing(name);
+			}
+			else
+			{
+				foundClasses.put(name, res);
+			}
+		}
 	}
 
 	
@@ -180,7 +475,7 @@ public class JRGroovyCompiler extends JRAbstractJavaCompiler
 	@Override
 	protected JRCompilationSourceCode generateSourceCode(JRSourceCompileTask sourceTask) throws JRException
 	{
-		return new JRDefaultCompilationSourceCode(JRGroovyGenerator.generateClass(sourceTask), null);
+		return new JRDefaultCompilationSourceCode(JRGroovyGenerator.generateClass(sourceTask, isCompileStatic()), null);
 	}
 
 
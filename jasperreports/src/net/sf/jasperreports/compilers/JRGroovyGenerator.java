@@ -103,6 +103,8 @@ public class JRGroovyGenerator
 	protected final JRSourceCompileTask sourceTask;
 
 	private final int maxMethodSize;
+	
+	private final boolean compileStatic;
 
 	protected Map<String, ? extends JRParameter> parametersMap;
 	protected Map<String, JRField> fieldsMap;
@@ -110,8 +112,21 @@ public class JRGroovyGenerator
 	protected JRVariable[] variables;
 	
 	protected JRGroovyGenerator(JRSourceCompileTask sourceTask)
+	{
+		this(sourceTask, false);
+	}
+	
+	/**
+	 * Creates a generator.
+	 * 
+	 * @param sourceTask the source task
+	 * @param compileStatic whether the expression evaluation methods are annotated with 
+	 * <code>groovy.transform.CompileStatic</code>
+	 */
+	protected JRGroovyGenerator(JRSourceCompileTask sourceTask, boolean compileStatic)
 	{
 		this.sourceTask = sourceTask;
+		this.compileStatic = compileStatic;
 		
 		this.parametersMap = sourceTask.getParametersMap();
 		this.fieldsMap = sourceTask.getFieldsMap();
@@ -128,7 +143,23 @@ public class JRGroovyGenerator
 	 */
 	public static String generateClass(JRSourceCompileTask sourceTask) throws JRException
 	{
-		JRGroovyGenerator generator = new JRGroovyGenerator(sourceTask);
+		return generateClass(sourceTask, false);
+	}
+	
+	
+	/**
+	 * Generates the Groovy evaluator class for a source task.
+	 * 
+	 * @param sourceTask the source task
+	 * @param compileStatic whether the expression evaluation methods are to be statically compiled,
+	 * using the declared parameter, field and variable classes
+	 * @return the source code of the class
+	 * @throws JRException
+	 * @see JRGroovyCompiler#PROPERTY_COMPILE_STATIC
+	 */
+	public static String generateClass(JRSourceCompileTask sourceTask, boolean compileStatic) throws JRException
+	{
+		JRGroovyGenerator generator = new JRGroovyGenerator(sourceTask, compileStatic);
 		return generator.generateClass();
 	}
 	
@@ -470,6 +501,7 @@ public class JRGroovyGenerator
 			sb.append("    /**\n");
 			sb.append("     *\n");
 			sb.append("     */\n");
+			writeCompileStaticAnnotation(sb);
 			sb.append("    Object evaluate");
 			sb.append(methodSuffixMap.get(new Byte(evaluationType)));
 			sb.append("(int id)\n");
@@ -546,6 +578,7 @@ public class JRGroovyGenerator
 		sb.append("    /**\n");
 		sb.append("     *\n");
 		sb.append("     */\n");
+		writeCompileStaticAnnotation(sb);
 		sb.append("    Object evaluate");
 		sb.append( methodSuffixMap.get(new Byte(evaluationType)));
 		if (methodIndex > 0)
@@ -558,6 +591,14 @@ public class JRGroovyGenerator
 		sb.append("\n");
 	}
 
+	protected void writeCompileStaticAnnotation(StringBuilder sb)
+	{
+		if (compileStatic)
+		{
+			sb.append("    @groovy.transform.CompileStatic\n");
+		}
+	}
+
 	protected void writeMethodEnd(StringBuilder sb)
 	{
 		sb.append("\n");
@@ -61,6 +61,27 @@ public class JavaScriptEvaluator extends JREvaluator implements JasperReportsCon
 	public static final String PROPERTY_OPTIMIZATION_LEVEL = JRPropertiesUtil.PROPERTY_PREFIX 
 			+ "javascript.evaluator.optimization.level";
 	
+	/**
+	 * Property that determines whether the standard JavaScript objects are created once per JasperReports context
+	 * and shared by all JavaScript evaluators as a sealed scope.
+	 * 
+	 * <p>
+	 * Sharing the standard objects makes the creation of evaluators considerably faster.
+	 * Expressions are not able to modify the standard objects when the scope is shared.
+	 * The property applies to both {@link JavaScriptEvaluator} and {@link JavaScriptCompiledEvaluator}.
+	 * The default value is <code>true</code>.
+	 * </p>
+	 */
+	@Property(
+			category = PropertyConstants.CATEGORY_COMPILE,
+			defaultValue = PropertyConstants.BOOLEAN_TRUE,
+			scopes = {PropertyScope.CONTEXT},
+			sinceVersion = PropertyConstants.VERSION_6_4_3,
+			valueType = Boolean.class
+			)
+	public static final String PROPERTY_SHARED_SCOPE = JRPropertiesUtil.PROPERTY_PREFIX 
+			+ "javascript.evaluator.shared.scope";
+	
 	public static final String EXCEPTION_MESSAGE_KEY_EVALUATOR_LOAD_ERROR = "compilers.javascript.evaluator.load.error";
 	
 	private final JasperReportsContext jrContext;
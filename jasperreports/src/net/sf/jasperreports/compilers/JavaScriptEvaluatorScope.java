@@ -36,6 +36,7 @@ import net.sf.jasperreports.engine.fill.JRFillParameter;
 import net.sf.jasperreports.engine.fill.JRFillVariable;
 import net.sf.jasperreports.functions.FunctionsUtil;
 
+import org.apache.commons.collections.map.ReferenceMap;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.mozilla.javascript.Context;
@@ -53,6 +54,75 @@ public class JavaScriptEvaluatorScope
 	
 	protected static final String EVALUATOR_VAR = "_jreval";
 	
+	/**
+	 * Sealed scopes containing the standard JavaScript objects, per JasperReports context.
+	 */
+	private static final ReferenceMap sharedScopes = new ReferenceMap(ReferenceMap.WEAK, ReferenceMap.HARD);
+	
+	/**
+	 * Scripts compiled from expression texts, shared by all evaluators.
+	 */
+	private static final ReferenceMap compiledScripts = new ReferenceMap(ReferenceMap.HARD, ReferenceMap.SOFT);
+	
+	protected static ScriptableObject getSharedScope(JasperReportsContext jrContext, Context context)
+	{
+		ScriptableObject sharedScope;
+		boolean created = false;
+		synchronized (sharedScopes)
+		{
+			sharedScope = (ScriptableObject) sharedScopes.get(jrContext);
+			if (sharedScope == null)
+			{
+				sharedScope = context.initStandardObjects(null, true);
+				sharedScope.sealObject();
+				sharedScopes.put(jrContext, sharedScope);
+				created = true;
+			}
+		}
+		
+		if (created && log.isDebugEnabled())
+		{
+			log.debug("created shared scope " + sharedScope + " for " + jrContext);
+		}
+		return sharedScope;
+	}
+	
+	/**
+	 * Key for compiled scripts.
+	 */
+	protected static class ScriptKey
+	{
+		private final int optimizationLevel;
+		private final String expression;
+		
+		public ScriptKey(int optimizationLevel, String expression)
+		{
+			this.optimizationLevel = optimizationLevel;
+			this.expression = expression;
+		}
+
+		@Override
+		public int hashCode()
+		{
+			return 31 * optimizationLevel + expression.hashCode();
+		}
+
+		@Override
+		public boolean equals(Object obj)
+		{
+			if (obj == this)
+			{
+				return true;
+			}
+			if (!(obj instanceof ScriptKey))
+			{
+				return false;
+			}
+			ScriptKey key = (ScriptKey) obj;
+			return optimizationLevel == key.optimizationLevel && expression.equals(key.expression);
+		}
+	}
+	
 	/**
 	 * Base JavaScript value class.
 	 */
@@ -144,6 +214,7 @@ public class JavaScriptEvaluatorScope
 	}
 	
 	private Context context;
+	private int optimizationLevel;
 	private ScriptableObject scope;
 	private Map<String, Script> compiledExpressions = new HashMap<String, Script>();
 
@@ -151,7 +222,8 @@ public class JavaScriptEvaluatorScope
 	{
 		context = enter(null);
 		
-		int optimizationLevel = JRPropertiesUtil.getInstance(jrContext).getIntegerProperty(JavaScriptEvaluator.PROPERTY_OPTIMIZATION_LEVEL);
+		JRPropertiesUtil propertiesUtil = JRPropertiesUtil.getInstance(jrContext);
+		optimizationLevel = propertiesUtil.getIntegerProperty(JavaScriptEvaluator.PROPERTY_OPTIMIZATION_LEVEL);
 		if (log.isDebugEnabled())
 		{
 			log.debug("optimization level " + optimizationLevel);
@@ -161,10 +233,24 @@ public class JavaScriptEvaluatorScope
 		context.getWrapFactory().setJavaPrimitiveWrap(false);
 		
 		JavaScriptFunctionsObject functionsObject = new JavaScriptFunctionsObject(context, functionsUtil, evaluator);
-		this.scope = context.initStandardObjects();
-		// is this OK?  the original prototype set by initStandardObjects is lost, and functionsObject has no prototype.
-		// seems to be fine for now, if not we could try setting the Object prototype to functionsObject.
-		this.scope.setPrototype(functionsObject);
+		if (propertiesUtil.getBooleanProperty(JavaScriptEvaluator.PROPERTY_SHARED_SCOPE, true))
+		{
+			// the standard objects are looked up in the shared sealed scope, 
+			// after the report objects in the evaluator scope and after the functions
+			ScriptableObject sharedScope = getSharedScope(jrContext, context);
+			functionsObject.setPrototype(sharedScope);
+			
+			this.scope = (ScriptableObject) context.newObject(sharedScope);
+			this.scope.setPrototype(functionsObject);
+			this.scope.setParentScope(null);
+		}
+		else
+		{
+			this.scope = context.initStandardObjects();
+			// is this OK?  the original prototype set by initStandardObjects is lost, and functionsObject has no prototype.
+			// seems to be fine for now, if not we could try setting the Object prototype to functionsObject.
+			this.scope.setPrototype(functionsObject);
+		}
 		
 		this.scope.put(EVALUATOR_VAR, this.scope, evaluator);
 		
@@ -256,14 +342,29 @@ public class JavaScriptEvaluatorScope
 		Script compiledExpression = compiledExpressions.get(expression);
 		if (compiledExpression == null)
 		{
-			if (log.isTraceEnabled())
+			ScriptKey scriptKey = new ScriptKey(optimizationLevel, expression);
+			synchronized (compiledScripts)
 			{
-				log.trace("compiling expression " + expression);
+				compiledExpression = (Script) compiledScripts.get(scriptKey);
 			}
 			
-			ensureContext();
+			if (compiledExpression == null)
+			{
+				if (log.isTraceEnabled())
+				{
+					log.trace("compiling expression " + expression);
+				}
+				
+				ensureContext();
+				
+				compiledExpression = context.compileString(expression, "expression", 0, null);
+				
+				synchronized (compiledScripts)
+				{
+					compiledScripts.put(scriptKey, compiledExpression);
+				}
+			}
 			
-			compiledExpression = context.compileString(expression, "expression", 0, null);
 			compiledExpressions.put(expression, compiledExpression);
 		}
 		return compiledExpression;
@@ -0,0 +1,164 @@
+/*
+ * JasperReports - Free Java Reporting Library.
+ * Copyright (C) 2001 - 2016 TIBCO Software Inc. All rights reserved.
+ * http://www.jaspersoft.com
+ *
+ * Unless you have purchased a commercial license agreement from Jaspersoft,
+ * the following license terms apply:
+ *
+ * This program is part of JasperReports.
+ *
+ * JasperReports is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JasperReports is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with JasperReports. If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.sf.jasperreports.engine.export;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import net.sf.jasperreports.engine.JRException;
+import net.sf.jasperreports.export.ExportInterruptedException;
+
+/**
+ * Base for processing the upcoming pages of a report concurrently while an exporter writes the current page.
+ * <p>
+ * When the exporter starts a page, the result computed for the page is picked up and the pages 
+ * that follow it, up to a fixed number of pages ahead, are submitted to a pool of threads.
+ * The page tasks are created on the exporter thread, so that they can take what they need from 
+ * the pages, which can be virtualized, before being run by the pool.
+ * </p>
+ * 
+ * @param <T> the type of the page results
+ * @see PdfPagePreprocessor
+ * @see GridLayoutPreprocessor
+ */
+public abstract class AbstractPagePreprocessor<T>
+{
+	private static final Log log = LogFactory.getLog(AbstractPagePreprocessor.class);
+	
+	private final int lookAheadPages;
+	private final ExecutorService executor;
+	
+	private final Map<Integer, Future<T>> pageTasks;
+	private int lastSubmittedPageIndex = -1;
+	
+	/**
+	 * @param threadName the name of the processing threads, suffixed by a thread counter
+	 * @param lookAheadPages the number of pages that are processed ahead of the exported page,
+	 * also used as the number of processing threads
+	 */
+	protected AbstractPagePreprocessor(String threadName, int lookAheadPages)
+	{
+		this.lookAheadPages = lookAheadPages;
+		this.executor = Executors.newFixedThreadPool(lookAheadPages, new PreprocessorThreadFactory(threadName));
+		this.pageTasks = new HashMap<Integer, Future<T>>();
+	}
+
+	/**
+	 * Returns the result of a page that the exporter starts and submits the next pages for processing.
+	 * 
+	 * @param pageIndex the index of the page that is being exported
+	 * @param endPageIndex the index of the last page to be exported
+	 * @return the result computed for the page, or <code>null</code> if the page was not processed
+	 * or if its processing failed, in which case the exporter does the work itself
+	 */
+	protected T nextPage(int pageIndex, int endPageIndex) throws JRException
+	{
+		Future<T> pageTask = pageTasks.remove(pageIndex);
+		T result = pageTask == null ? null : getResult(pageTask);
+		
+		int lastPageIndex = Math.min(pageIndex + lookAheadPages, endPageIndex);
+		for (int nextPageIndex = Math.max(pageIndex + 1, lastSubmittedPageIndex + 1); 
+				nextPageIndex <= lastPageIndex; nextPageIndex++)
+		{
+			pageTasks.put(nextPageIndex, executor.submit(createPageTask(nextPageIndex)));
+			lastSubmittedPageIndex = nextPageIndex;
+		}
+		
+		return result;
+	}
+	
+	/**
+	 * Creates the task that processes a page, called on the exporter thread.
+	 * 
+	 * @param pageIndex the page index
+	 * @return the page task
+	 */
+	protected abstract Callable<T> createPageTask(int pageIndex);
+	
+	protected T getResult(Future<T> pageTask) throws JRException
+	{
+		try
+		{
+			return pageTask.get();
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+			throw new ExportInterruptedException();
+		}
+		catch (ExecutionException e)
+		{
+			if (log.isDebugEnabled())
+			{
+				log.debug("page preprocessing failed", e.getCause());
+			}
+			return null;
+		}
+	}
+	
+	/**
+	 * Cancels the pending page tasks and stops the processing threads.
+	 */
+	public void dispose()
+	{
+		for (Future<T> pageTask : new ArrayList<Future<T>>(pageTasks.values()))
+		{
+			pageTask.cancel(false);
+		}
+		pageTasks.clear();
+		
+		executor.shutdown();
+	}
+	
+	protected static class PreprocessorThreadFactory implements ThreadFactory
+	{
+		private static final AtomicInteger threadCounter = new AtomicInteger();
+		
+		private final String threadName;
+		
+		public PreprocessorThreadFactory(String threadName)
+		{
+			this.threadName = threadName;
+		}
+		
+		@Override
+		public Thread newThread(Runnable r)
+		{
+			Thread thread = new Thread(r, threadName + " " + threadCounter.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		}
+	}
+}
@@ -32,14 +32,18 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.StringTokenizer;
 
+import net.sf.jasperreports.annotations.properties.Property;
+import net.sf.jasperreports.annotations.properties.PropertyScope;
 import net.sf.jasperreports.engine.JRParagraph;
 import net.sf.jasperreports.engine.JRPrintText;
+import net.sf.jasperreports.engine.JRPropertiesUtil;
 import net.sf.jasperreports.engine.JasperReportsContext;
 import net.sf.jasperreports.engine.TabStop;
 import net.sf.jasperreports.engine.type.HorizontalTextAlignEnum;
 import net.sf.jasperreports.engine.util.JRStringUtil;
 import net.sf.jasperreports.engine.util.JRStyledText;
 import net.sf.jasperreports.engine.util.ParagraphUtil;
+import net.sf.jasperreports.properties.PropertyConstants;
 
 
 /**
@@ -49,6 +53,30 @@ public abstract class AbstractTextRenderer
 {
 	public static final FontRenderContext LINE_BREAK_FONT_RENDER_CONTEXT = new FontRenderContext(null, true, true);
 
+	/**
+	 * Property that determines whether the line break positions saved at fill time are used
+	 * when rendering texts, instead of wrapping the texts again.
+	 * 
+	 * <p>
+	 * Line break positions are saved when {@link net.sf.jasperreports.engine.JRTextElement#PROPERTY_SAVE_LINE_BREAKS}
+	 * is set at fill time.
+	 * Saved line breaks are only used for paragraphs that do not contain tabs.
+	 * If a line does not fit the available width, for instance because the fonts used at export time
+	 * differ from the ones used at fill time, the rest of the paragraph is wrapped as usual.
+	 * </p>
+	 */
+	@Property(
+			category = PropertyConstants.CATEGORY_EXPORT,
+			defaultValue = PropertyConstants.BOOLEAN_TRUE,
+			scopes = {PropertyScope.CONTEXT, PropertyScope.TEXT_ELEMENT},
+			sinceVersion = PropertyConstants.VERSION_6_4_3,
+			valueType = Boolean.class
+			)
+	public static final String PROPERTY_USE_SAVED_LINE_BREAKS = 
+			JRPropertiesUtil.PROPERTY_PREFIX + "export.text.use.saved.line.breaks";
+	
+	private static final float SAVED_LINE_BREAK_WIDTH_TOLERANCE = 0.01f;
+
 	protected final JasperReportsContext jasperReportsContext;
 	protected JRPrintText text;
 	protected JRStyledText styledText;
@@ -70,6 +98,7 @@ public abstract class AbstractTextRenderer
 	protected boolean isMaxHeightReached;
 	protected List<TabSegment> segments;
 	protected int segmentIndex;
+	protected int[] savedLineBreaks;
 	
 	/**
 	 * 
@@ -244,10 +273,63 @@ public abstract class AbstractTextRenderer
 	
 		isMaxHeightReached = false;
 		
+		savedLineBreaks = getSavedLineBreaks(text);
+		
 		//maxFontSizeFinder = MaxFontSizeFinder.getInstance(!JRCommonText.MARKUP_NONE.equals(text.getMarkup()));
 	}
 	
 
+	/**
+	 * Returns the positions of the line breaks saved at fill time.
+	 * 
+	 * @param text the text element
+	 * @return the line break positions in the text, or <code>null</code> if saved line breaks are not to be used
+	 */
+	protected int[] getSavedLineBreaks(JRPrintText text)
+	{
+		short[] lineBreakOffsets = text.getLineBreakOffsets();
+		if (lineBreakOffsets == null
+				|| !JRPropertiesUtil.getInstance(jasperReportsContext).getBooleanProperty(
+						text, PROPERTY_USE_SAVED_LINE_BREAKS, true))
+		{
+			return null;
+		}
+		
+		int[] lineBreaks = new int[lineBreakOffsets.length];
+		int position = 0;
+		for (int i = 0; i < lineBreakOffsets.length; i++)
+		{
+			position += lineBreakOffsets[i];
+			if (position > allText.length())
+			{
+				// the offsets do not match the text
+				return null;
+			}
+			lineBreaks[i] = position;
+		}
+		return lineBreaks;
+	}
+
+	/**
+	 * Returns the next saved line break in a paragraph.
+	 * 
+	 * @return the position of the next line break relative to the paragraph start, 
+	 * or the paragraph end if there are no more line breaks in the paragraph
+	 */
+	private int nextSavedLineBreak(int paragraphStart, int position, int paragraphEnd)
+	{
+		// line breaks are few, a linear search will do
+		for (int i = 0; i < savedLineBreaks.length; i++)
+		{
+			int lineBreak = savedLineBreaks[i] - paragraphStart;
+			if (lineBreak > position)
+			{
+				return Math.min(lineBreak, paragraphEnd);
+			}
+		}
+		return paragraphEnd;
+	}
+
 	/**
 	 * 
 	 */
@@ -326,6 +408,10 @@ public abstract class AbstractTextRenderer
 
 		List<Integer> tabIndexes = JRStringUtil.getTabIndexes(lastParagraphText);
 		
+		// saved line breaks do not include tab segment positions
+		boolean useSavedLineBreaks = savedLineBreaks != null 
+				&& (tabIndexes == null || tabIndexes.isEmpty());
+		
 		int currentTab = 0;
 		int lines = 0;
 		float endX = 0;
@@ -380,13 +466,31 @@ public abstract class AbstractTextRenderer
 				//float availableWidth = formatWidth - ParagraphUtil.getSegmentOffset(nextTabStop, rightX); // nextTabStop can be null here; and that's OK
 				float availableWidth = endX - text.getParagraph().getLeftIndent() - ParagraphUtil.getSegmentOffset(nextTabStop, rightX); // nextTabStop can be null here; and that's OK
 				
-				// creating a text layout object for each tab segment 
-				TextLayout layout = 
-					lineMeasurer.nextLayout(
-						availableWidth,
-						tabIndexOrEndIndex,
-						requireNextWord
-						);
+				TextLayout layout = null;
+				if (useSavedLineBreaks)
+				{
+					// laying out the text up to the line break found at fill time
+					int lineBreak = nextSavedLineBreak(lastParagraphStart, startIndex, paragraph.getEndIndex());
+					layout = lineMeasurer.nextLayout(Float.MAX_VALUE, lineBreak, false);
+					if (layout != null 
+							&& layout.getVisibleAdvance() > availableWidth + SAVED_LINE_BREAK_WIDTH_TOLERANCE)
+					{
+						// the line no longer fits, wrapping the rest of the paragraph
+						useSavedLineBreaks = false;
+						lineMeasurer.setPosition(startIndex);
+					}
+				}
+				
+				if (!useSavedLineBreaks)
+				{
+					// creating a text layout object for each tab segment 
+					layout = 
+						lineMeasurer.nextLayout(
+							availableWidth,
+							tabIndexOrEndIndex,
+							requireNextWord
+							);
+				}
 				
 				if (layout != null)
 				{
@@ -0,0 +1,120 @@
+/*
+ * JasperReports - Free Java Reporting Library.
+ * Copyright (C) 2001 - 2016 TIBCO Software Inc. All rights reserved.
+ * http://www.jaspersoft.com
+ *
+ * Unless you have purchased a commercial license agreement from Jaspersoft,
+ * the following license terms apply:
+ *
+ * This program is part of JasperReports.
+ *
+ * JasperReports is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JasperReports is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with JasperReports. If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.sf.jasperreports.engine.export;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+
+import net.sf.jasperreports.engine.JRException;
+import net.sf.jasperreports.engine.JRPrintElement;
+import net.sf.jasperreports.engine.JasperPrint;
+import net.sf.jasperreports.engine.PrintPageFormat;
+
+/**
+ * Creates the grid layouts of upcoming pages concurrently while a grid exporter writes the current page.
+ * <p>
+ * When each page is exported on its own sheet, the grid layouts of the pages are independent of each other.
+ * The layouts of the next pages are created by a pool of threads and picked up by the exporter when it 
+ * reaches the pages, while the sheets are written sequentially.
+ * </p>
+ * 
+ * @see net.sf.jasperreports.export.XlsExporterConfiguration#PROPERTY_PARALLEL_SHEETS
+ */
+public class GridLayoutPreprocessor extends AbstractPagePreprocessor<JRGridLayout>
+{
+	private final ExporterNature nature;
+	private final int offsetX;
+	private final int offsetY;
+	
+	private JasperPrint jasperPrint;
+	private JRGridLayout currentPageLayout;
+	
+	public GridLayoutPreprocessor(ExporterNature nature, int offsetX, int offsetY, int lookAheadPages)
+	{
+		super("JasperReports grid layout preprocessor", lookAheadPages);
+		
+		this.nature = nature;
+		this.offsetX = offsetX;
+		this.offsetY = offsetY;
+	}
+
+	/**
+	 * Called when the exporter starts a page, submits the next pages for processing.
+	 * 
+	 * @param jasperPrint the report
+	 * @param pageIndex the index of the page that is being exported
+	 * @param endPageIndex the index of the last page to be exported
+	 */
+	public void startPage(JasperPrint jasperPrint, int pageIndex, int endPageIndex) throws JRException
+	{
+		this.jasperPrint = jasperPrint;
+		currentPageLayout = nextPage(pageIndex, endPageIndex);
+	}
+	
+	@Override
+	protected Callable<JRGridLayout> createPageTask(int pageIndex)
+	{
+		// getting the elements on the current thread as pages can be virtualized
+		final List<JRPrintElement> elements = jasperPrint.getPages().get(pageIndex).getElements();
+		final PrintPageFormat pageFormat = jasperPrint.getPageFormat(pageIndex);
+		return new Callable<JRGridLayout>()
+		{
+			@Override
+			public JRGridLayout call()
+			{
+				return new JRGridLayout(
+						nature,
+						elements,
+						pageFormat.getPageWidth(),
+						pageFormat.getPageHeight(),
+						offsetX,
+						offsetY,
+						null //xCuts
+						);
+			}
+		};
+	}
+
+	/**
+	 * Returns the grid layout of the current page.
+	 * 
+	 * @return the grid layout, <code>null</code> if not available
+	 */
+	public JRGridLayout getPageLayout()
+	{
+		// the layout is only used once
+		JRGridLayout layout = currentPageLayout;
+		currentPageLayout = null;
+		return layout;
+	}
+	
+	@Override
+	public void dispose()
+	{
+		super.dispose();
+		
+		jasperPrint = null;
+		currentPageLayout = null;
+	}
+}
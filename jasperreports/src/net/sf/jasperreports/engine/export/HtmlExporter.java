@@ -202,6 +202,12 @@ public class HtmlExporter extends AbstractHtmlExporter<HtmlReportConfiguration,
 
 	private List<HyperlinkData> hyperlinksData = new ArrayList<HyperlinkData>();
 	
+	private int flushRowCount;
+	private int unflushedRowCount;
+	
+	private HtmlStyleClassRegistry styleClassRegistry;
+	private boolean customCellClass;
+	
 	public HtmlExporter()
 	{
 		this(DefaultJasperReportsContext.getInstance());
@@ -337,6 +343,13 @@ public class HtmlExporter extends AbstractHtmlExporter<HtmlReportConfiguration,
 		String betweenPagesHtml = configuration.getBetweenPagesHtml();
 		String htmlFooter = configuration.getHtmlFooter();
 		boolean flushOutput = configuration.isFlushOutput();//FIXMEEXPORT maybe move flush flag to output
+		flushRowCount = getPropertiesUtil().getIntegerProperty(jasperPrint, 
+				HtmlExporterConfiguration.PROPERTY_FLUSH_ROW_COUNT, 0);
+		unflushedRowCount = 0;
+		
+		boolean compactMarkup = getPropertiesUtil().getBooleanProperty(jasperPrint, 
+				HtmlExporterConfiguration.PROPERTY_COMPACT_MARKUP, false);
+		styleClassRegistry = compactMarkup ? new HtmlStyleClassRegistry() : null;
 
 		if (htmlHeader == null)
 		{
@@ -360,6 +373,12 @@ public class HtmlExporter extends AbstractHtmlExporter<HtmlReportConfiguration,
 		{
 			writer.write(htmlHeader);
 		}
+		
+		if (flushRowCount > 0)
+		{
+			// sending the header right away
+			writer.flush();
+		}
 
 		List<ExporterInputItem> items = exporterInput.getItems();
 		
@@ -404,6 +423,12 @@ public class HtmlExporter extends AbstractHtmlExporter<HtmlReportConfiguration,
 					}
 
 					writer.write("\n");
+					
+					if (flushRowCount > 0)
+					{
+						writer.flush();
+						unflushedRowCount = 0;
+					}
 				}
 			}
 		}
@@ -490,6 +515,8 @@ public class HtmlExporter extends AbstractHtmlExporter<HtmlReportConfiguration,
 		
 		exportTable(tableVisitor, table, isWhitePageBackground, true);
 		
+		writePendingStyles();
+		
 		if (isWhitePageBackground)
 		{
 			restoreBackcolor();
@@ -502,6 +529,20 @@ public class HtmlExporter extends AbstractHtmlExporter<HtmlReportConfiguration,
 		}
 	}
 
+	/**
+	 * Writes the CSS classes introduced since the last call in compact markup mode.
+	 * A <code>style</code> element applies to the whole document, so the classes can follow
+	 * the cells that use them; the classes are written after the tables are closed, 
+	 * never between table rows.
+	 */
+	protected void writePendingStyles() throws IOException
+	{
+		if (styleClassRegistry != null)
+		{
+			styleClassRegistry.writePendingStyles(writer);
+		}
+	}
+
 	public void exportElements(List<JRPrintElement> elements) throws IOException
 	{
 		Tabulator tabulator = new Tabulator(tableFilter, elements);
@@ -513,6 +554,8 @@ public class HtmlExporter extends AbstractHtmlExporter<HtmlReportConfiguration,
 		TableVisitor tableVisitor = new TableVisitor(tabulator, elementVisitor);
 		
 		exportTable(tableVisitor, table, false, false);
+		
+		writePendingStyles();
 	}
 
 	protected void exportTable(TableVisitor tableVisitor, Table table, boolean whiteBackground, boolean isMainReportTable) throws IOException
@@ -594,6 +637,14 @@ public class HtmlExporter extends AbstractHtmlExporter<HtmlReportConfiguration,
 			}
 			
 			writer.write("</tr>\n");
+			
+			if (isMainReportTable && flushRowCount > 0 && ++unflushedRowCount >= flushRowCount)
+			{
+				// sending the rows written so far, blocks while the client does not keep up.
+				// the classes used by the rows are written after the table as style elements are not allowed between rows
+				writer.flush();
+				unflushedRowCount = 0;
+			}
 		}
 		
 		writer.write("</table>\n");
@@ -1929,6 +1980,10 @@ public class HtmlExporter extends AbstractHtmlExporter<HtmlReportConfiguration,
 		{
 			writer.write(dataAttr);
 		}
+		
+		// the style class would clash with the custom class attribute
+		customCellClass = styleClassRegistry != null 
+				&& getCellProperty(element, cell, PROPERTY_HTML_CLASS) != null;
 	}
 	
 	public String getDataAttributes(JRPrintElement element, TableCell cell)
@@ -2012,6 +2067,8 @@ public class HtmlExporter extends AbstractHtmlExporter<HtmlReportConfiguration,
 
 	protected void startCell(int colSpan, int rowSpan) throws IOException
 	{
+		customCellClass = false;
+		
 		writer.write("<td");
 		if (colSpan > 1)
 		{
@@ -2035,6 +2092,7 @@ public class HtmlExporter extends AbstractHtmlExporter<HtmlReportConfiguration,
 	protected void endCell() throws IOException
 	{
 		writer.write("</td>\n");
+		customCellClass = false;
 	}
 	
 	protected void writeEmptyCell(int colSpan, int rowSpan) throws IOException
@@ -2059,12 +2117,28 @@ public class HtmlExporter extends AbstractHtmlExporter<HtmlReportConfiguration,
 	}
 
 	protected void writeStyle(StringBuilder styleBuffer) throws IOException
+	{
+		writeStyle(styleBuffer, !customCellClass);
+	}
+
+	protected void writeStyle(StringBuilder styleBuffer, boolean allowStyleClass) throws IOException
 	{
 		if (styleBuffer.length() > 0)
 		{
-			writer.write(" style=\"");
-			writer.write(styleBuffer.toString());
-			writer.write("\"");
+			String styleClass = allowStyleClass && styleClassRegistry != null 
+					? styleClassRegistry.getStyleClass(styleBuffer.toString()) : null;
+			if (styleClass != null)
+			{
+				writer.write(" class=\"");
+				writer.write(styleClass);
+				writer.write("\"");
+			}
+			else
+			{
+				writer.write(" style=\"");
+				writer.write(styleBuffer.toString());
+				writer.write("\"");
+			}
 		}
 	}
 	
@@ -2719,29 +2793,30 @@ public class HtmlExporter extends AbstractHtmlExporter<HtmlReportConfiguration,
 
 		// do not put single quotes around family name here because the value might already contain quotes, 
 		// especially if it is coming from font extension export configuration
-		writer.write("<span style=\"font-family: ");
-		writer.write(fontFamily);
-		writer.write("; ");
+		StringBuilder styleBuffer = new StringBuilder();
+		styleBuffer.append("font-family: ");
+		styleBuffer.append(fontFamily);
+		styleBuffer.append("; ");
 
 		Color forecolor = (Color)attributes.get(TextAttribute.FOREGROUND);
 		if (!hyperlinkStarted || !Color.black.equals(forecolor))
 		{
-			writer.write("color: ");
-			writer.write(JRColorUtil.getCssColor(forecolor));
-			writer.write("; ");
+			styleBuffer.append("color: ");
+			styleBuffer.append(JRColorUtil.getCssColor(forecolor));
+			styleBuffer.append("; ");
 		}
 
 		Color runBackcolor = (Color)attributes.get(TextAttribute.BACKGROUND);
 		if (runBackcolor != null && !runBackcolor.equals(backcolor))
 		{
-			writer.write("background-color: ");
-			writer.write(JRColorUtil.getCssColor(runBackcolor));
-			writer.write("; ");
+			styleBuffer.append("background-color: ");
+			styleBuffer.append(JRColorUtil.getCssColor(runBackcolor));
+			styleBuffer.append("; ");
 		}
 
-		writer.write("font-size: ");
-		writer.write(toSizeUnit((Float)attributes.get(TextAttribute.SIZE)));
-		writer.write(";");
+		styleBuffer.append("font-size: ");
+		styleBuffer.append(toSizeUnit((Float)attributes.get(TextAttribute.SIZE)));
+		styleBuffer.append(";");
 			
 		switch (lineSpacing)
 		{
@@ -2750,11 +2825,11 @@ public class HtmlExporter extends AbstractHtmlExporter<HtmlReportConfiguration,
 			{
 				if (lineSpacingFactor == 0)
 				{
-					writer.write(" line-height: 1; *line-height: normal;");
+					styleBuffer.append(" line-height: 1; *line-height: normal;");
 				}
 				else
 				{
-					writer.write(" line-height: " + lineSpacingFactor + ";");
+					styleBuffer.append(" line-height: " + lineSpacingFactor + ";");
 				}
 				break;
 			}
@@ -2762,11 +2837,11 @@ public class HtmlExporter extends AbstractHtmlExporter<HtmlReportConfiguration,
 			{
 				if (lineSpacingFactor == 0)
 				{
-					writer.write(" line-height: 1.5;");
+					styleBuffer.append(" line-height: 1.5;");
 				}
 				else
 				{
-					writer.write(" line-height: " + lineSpacingFactor + ";");
+					styleBuffer.append(" line-height: " + lineSpacingFactor + ";");
 				}
 				break;
 			}
@@ -2774,18 +2849,18 @@ public class HtmlExporter extends AbstractHtmlExporter<HtmlReportConfiguration,
 			{
 				if (lineSpacingFactor == 0)
 				{
-					writer.write(" line-height: 2.0;");
+					styleBuffer.append(" line-height: 2.0;");
 				}
 				else
 				{
-					writer.write(" line-height: " + lineSpacingFactor + ";");
+					styleBuffer.append(" line-height: " + lineSpacingFactor + ";");
 				}
 				break;
 			}
 			case PROPORTIONAL:
 			{
 				if (lineSpacingSize != null) {
-					writer.write(" line-height: " + lineSpacingSize.floatValue() + ";");
+					styleBuffer.append(" line-height: " + lineSpacingSize.floatValue() + ";");
 				}
 				break;
 			}
@@ -2793,7 +2868,7 @@ public class HtmlExporter extends AbstractHtmlExporter<HtmlReportConfiguration,
 			case FIXED:
 			{
 				if (lineSpacingSize != null) {
-					writer.write(" line-height: " + lineSpacingSize.floatValue() + "px;");
+					styleBuffer.append(" line-height: " + lineSpacingSize.floatValue() + "px;");
 				}
 				break;
 			}
@@ -2810,31 +2885,32 @@ public class HtmlExporter extends AbstractHtmlExporter<HtmlReportConfiguration,
 
 		if (isBold)
 		{
-			writer.write(" font-weight: bold;");
+			styleBuffer.append(" font-weight: bold;");
 		}
 		if (isItalic)
 		{
-			writer.write(" font-style: italic;");
+			styleBuffer.append(" font-style: italic;");
 		}
 		if (TextAttribute.UNDERLINE_ON.equals(attributes.get(TextAttribute.UNDERLINE)))
 		{
-			writer.write(" text-decoration: underline;");
+			styleBuffer.append(" text-decoration: underline;");
 		}
 		if (TextAttribute.STRIKETHROUGH_ON.equals(attributes.get(TextAttribute.STRIKETHROUGH)))
 		{
-			writer.write(" text-decoration: line-through;");
+			styleBuffer.append(" text-decoration: line-through;");
 		}
 
 		if (TextAttribute.SUPERSCRIPT_SUPER.equals(attributes.get(TextAttribute.SUPERSCRIPT)))
 		{
-			writer.write(" vertical-align: super;");
+			styleBuffer.append(" vertical-align: super;");
 		}
 		else if (TextAttribute.SUPERSCRIPT_SUB.equals(attributes.get(TextAttribute.SUPERSCRIPT)))
 		{
-			writer.write(" vertical-align: sub;");
+			styleBuffer.append(" vertical-align: sub;");
 		}
 			
-		writer.write("\"");
+		writer.write("<span");
+		writeStyle(styleBuffer, true);
 
 		if (tooltip != null)
 		{
@@ -0,0 +1,123 @@
+/*
+ * JasperReports - Free Java Reporting Library.
+ * Copyright (C) 2001 - 2016 TIBCO Software Inc. All rights reserved.
+ * http://www.jaspersoft.com
+ *
+ * Unless you have purchased a commercial license agreement from Jaspersoft,
+ * the following license terms apply:
+ *
+ * This program is part of JasperReports.
+ *
+ * JasperReports is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JasperReports is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with JasperReports. If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.sf.jasperreports.engine.export;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import net.sf.jasperreports.engine.util.DigestUtils;
+
+
+/**
+ * Registry of the CSS styles written by the HTML exporter in compact markup mode.
+ * <p>
+ * Each distinct style is mapped to a CSS class whose name is derived only from the MD5 digest of the style,
+ * so that identical styles are written only once per document and get the same class name
+ * in all exports. If two different styles of a document lead to the same name, the style registered 
+ * last is not given a class and is written inline instead, so that the names do not depend on 
+ * the order in which the styles are registered.
+ * The classes registered since the last call of {@link #writePendingStyles(Writer)}
+ * are kept as pending and written as a style sheet by that method.
+ * </p>
+ * 
+ * @see net.sf.jasperreports.export.HtmlExporterConfiguration#PROPERTY_COMPACT_MARKUP
+ */
+public class HtmlStyleClassRegistry
+{
+	public static final String STYLE_CLASS_PREFIX = "jrs";
+	
+	private static final int STYLE_CLASS_DIGEST_LENGTH = 16;
+	
+	private final Map<String, String> styleClasses = new HashMap<String, String>();
+	private final Set<String> classNames = new HashSet<String>();
+	private final Map<String, String> pendingStyles = new LinkedHashMap<String, String>();
+	
+	/**
+	 * Returns the name of the CSS class that corresponds to a style, registering the style if needed.
+	 * 
+	 * @param style the CSS declarations of the style
+	 * @return the CSS class name, or <code>null</code> if the style is to be written inline
+	 */
+	public String getStyleClass(String style)
+	{
+		if (styleClasses.containsKey(style))
+		{
+			return styleClasses.get(style);
+		}
+		
+		String className = getClassName(style);
+		if (classNames.contains(className))
+		{
+			// digest collision between different styles
+			className = null;
+		}
+		else
+		{
+			classNames.add(className);
+			pendingStyles.put(className, style);
+		}
+		
+		styleClasses.put(style, className);
+		return className;
+	}
+	
+	protected String getClassName(String style)
+	{
+		// 64 bits of the digest
+		String digest = DigestUtils.instance().md5(style).toString();
+		return STYLE_CLASS_PREFIX + digest.substring(0, STYLE_CLASS_DIGEST_LENGTH);
+	}
+	
+	/**
+	 * Writes the classes registered since the last call as a <code>style</code> element.
+	 * 
+	 * @param writer the writer
+	 * @throws IOException
+	 */
+	public void writePendingStyles(Writer writer) throws IOException
+	{
+		if (pendingStyles.isEmpty())
+		{
+			return;
+		}
+		
+		writer.write("<style type=\"text/css\">\n");
+		for (Map.Entry<String, String> entry : pendingStyles.entrySet())
+		{
+			writer.write(".");
+			writer.write(entry.getKey());
+			writer.write(" {");
+			writer.write(entry.getValue());
+			writer.write("}\n");
+		}
+		writer.write("</style>\n");
+		
+		pendingStyles.clear();
+	}
+}
@@ -33,7 +33,6 @@ import java.io.Writer;
 import java.nio.charset.Charset;
 import java.nio.charset.CharsetEncoder;
 import java.util.List;
-import java.util.StringTokenizer;
 
 import net.sf.jasperreports.engine.DefaultJasperReportsContext;
 import net.sf.jasperreports.engine.JRAbstractExporter;
@@ -67,6 +66,8 @@ public abstract class JRAbstractCsvExporter<RC extends CsvReportConfiguration, C
 	 * {@link GenericElementHandlerEnviroment#getElementHandler(JRGenericElementType, String)}.
 	 */
 	public static final String CSV_EXPORTER_KEY = JRPropertiesUtil.PROPERTY_PREFIX + "csv";
+	
+	private static final int BUFFER_WRITE_THRESHOLD = 1 << 16;
 
 	/**
 	 *
@@ -76,6 +77,22 @@ public abstract class JRAbstractCsvExporter<RC extends CsvReportConfiguration, C
 	protected ExporterNature nature;
 
 	protected int pageIndex;
+	
+	/**
+	 * Buffer into which rows are formatted, written to the output by {@link #writeBuffer(boolean)}.
+	 * Subclasses that write to the writer directly need to call <code>writeBuffer(true)</code> first, 
+	 * so that the output keeps the order of the rows.
+	 */
+	protected StringBuilder buffer = new StringBuilder(BUFFER_WRITE_THRESHOLD);
+	private char[] bufferChars;
+	private StringBuilder textBuffer = new StringBuilder();
+	
+	protected String fieldDelimiter;
+	protected String recordDelimiter;
+	private int fieldDelimiterChar;
+	private int recordDelimiterChar;
+	private char enclosure;
+	private boolean forceFieldEnclosure;
 
 	
 	/**
@@ -141,7 +158,7 @@ public abstract class JRAbstractCsvExporter<RC extends CsvReportConfiguration, C
 			CharsetEncoder charsetEncoder = charset.newEncoder();
 			if (charsetEncoder.canEncode(BOM_CHARACTER))
 			{
-				writer.write(BOM_CHARACTER);
+				buffer.append(BOM_CHARACTER);
 			}
 		}
 
@@ -175,6 +192,7 @@ public abstract class JRAbstractCsvExporter<RC extends CsvReportConfiguration, C
 			}
 		}
 				
+		writeBuffer(true);
 		writer.flush();
 	}
 
@@ -201,55 +219,79 @@ public abstract class JRAbstractCsvExporter<RC extends CsvReportConfiguration, C
 		
 		if (source != null)
 		{
-			CsvExporterConfiguration configuration = getCurrentConfiguration();
-			String fieldDelimiter = configuration.getFieldDelimiter();
-			String recordDelimiter = configuration.getRecordDelimiter();
-			boolean putQuotes = configuration.getForceFieldEnclosure();
+			textBuffer.setLength(0);
+			appendText(textBuffer, source);
 			
-			// single character used for field enclosure; white spaces are not considered; default value is "
-			String quotes = configuration.getFieldEnclosure().trim().length() == 0 
-					? DEFAULT_ENCLOSURE 
-					: configuration.getFieldEnclosure().trim().substring(0, 1);
-
-			if (
-				source.indexOf(fieldDelimiter) >= 0
-				|| source.indexOf(recordDelimiter) >= 0
-				)
+			// characters are only ever added to the source text
+			str = textBuffer.length() == source.length() ? source : textBuffer.toString();
+		}
+		return str;
+	}
+	
+	
+	/**
+	 * Appends a field value to a buffer, enclosing it in quotes when it contains delimiters, 
+	 * new lines or quotes, and doubling the quotes it contains.
+	 * <p>
+	 * The value is scanned once and copied directly into the buffer, 
+	 * the opening quote being inserted only if the scan finds that quotes are needed.
+	 * </p>
+	 */
+	protected void appendText(StringBuilder sb, String source)
+	{
+		if (source == null)
+		{
+			return;
+		}
+		
+		int start = sb.length();
+		int length = source.length();
+		
+		boolean putQuotes = forceFieldEnclosure
+				|| (fieldDelimiterChar < 0 && source.indexOf(fieldDelimiter) >= 0)
+				|| (recordDelimiterChar < 0 && source.indexOf(recordDelimiter) >= 0);
+		
+		for (int i = 0; i < length; i++)
+		{
+			char c = source.charAt(i);
+			if (c == enclosure)
 			{
 				putQuotes = true;
+				sb.append(c);
 			}
-			
-			StringBuilder sb = new StringBuilder();
-			StringTokenizer tkzer = new StringTokenizer(source, quotes+"\n", true);
-			String token = null;
-			while(tkzer.hasMoreTokens())
+			else if (c == '\n' || c == fieldDelimiterChar || c == recordDelimiterChar)
 			{
-				token = tkzer.nextToken();
-				if (quotes.equals(token))
-				{
-					putQuotes = true;
-					sb.append(quotes+quotes);
-				}
-				else if ("\n".equals(token))
-				{
-					//sbuffer.append(" ");
-					putQuotes = true;
-					sb.append("\n");
-				}
-				else
-				{
-					sb.append(token);
-				}
+				putQuotes = true;
 			}
-			
-			str = sb.toString();
-			
-			if (putQuotes)
+			sb.append(c);
+		}
+		
+		if (putQuotes)
+		{
+			sb.insert(start, enclosure);
+			sb.append(enclosure);
+		}
+	}
+	
+	
+	/**
+	 * Writes the content of the output buffer when it exceeds its threshold size or when forced,
+	 * and clears the buffer.
+	 */
+	protected void writeBuffer(boolean force) throws IOException
+	{
+		int length = buffer.length();
+		if (length > 0 && (force || length >= BUFFER_WRITE_THRESHOLD))
+		{
+			if (bufferChars == null || bufferChars.length < length)
 			{
-				str = quotes + str + quotes;
+				bufferChars = new char[Math.max(length, BUFFER_WRITE_THRESHOLD + BUFFER_WRITE_THRESHOLD / 4)];
 			}
+			
+			buffer.getChars(0, length, bufferChars, 0);
+			writer.write(bufferChars, 0, length);
+			buffer.setLength(0);
 		}
-		return str;
 	}
 	
 	
@@ -257,6 +299,10 @@ public abstract class JRAbstractCsvExporter<RC extends CsvReportConfiguration, C
 	protected void initExport()
 	{
 		super.initExport();
+		
+		// discarding anything left over by a previous export that failed
+		buffer.setLength(0);
+		textBuffer.setLength(0);
 	}
 	
 	
@@ -266,6 +312,19 @@ public abstract class JRAbstractCsvExporter<RC extends CsvReportConfiguration, C
 		super.initReport();
 
 		nature = new JRCsvExporterNature(jasperReportsContext, filter);
+		
+		CsvExporterConfiguration configuration = getCurrentConfiguration();
+		fieldDelimiter = configuration.getFieldDelimiter();
+		recordDelimiter = configuration.getRecordDelimiter();
+		forceFieldEnclosure = configuration.getForceFieldEnclosure();
+		
+		// single character used for field enclosure; white spaces are not considered; default value is "
+		String fieldEnclosure = configuration.getFieldEnclosure().trim();
+		enclosure = fieldEnclosure.length() == 0 ? DEFAULT_ENCLOSURE.charAt(0) : fieldEnclosure.charAt(0);
+		
+		// single character delimiters are detected while scanning the text, the rest are searched for
+		fieldDelimiterChar = fieldDelimiter.length() == 1 ? fieldDelimiter.charAt(0) : -1;
+		recordDelimiterChar = recordDelimiter.length() == 1 ? recordDelimiter.charAt(0) : -1;
 	}
 
 
@@ -133,11 +133,35 @@ public class JRCsvExporter extends JRAbstractCsvExporter<CsvReportConfiguration,
 	@Override
 	protected void exportPage(JRPrintPage page) throws IOException
 	{
-		CsvExporterConfiguration configuration = getCurrentConfiguration();
+		CsvReportConfiguration lcItemConfiguration = getCurrentItemConfiguration();
+		
+		TabularLayout tabularLayout = null;
+		if (getPropertiesUtil().getBooleanProperty(jasperPrint, CsvExporterConfiguration.PROPERTY_TABULAR_LAYOUT, false))
+		{
+			tabularLayout = TabularLayout.create(nature, page.getElements());
+		}
+		
+		if (tabularLayout == null)
+		{
+			exportGrid(page);
+		}
+		else
+		{
+			exportTabularLayout(tabularLayout);
+		}
 		
-		String fieldDelimiter = configuration.getFieldDelimiter();
-		String recordDelimiter = configuration.getRecordDelimiter();
+		// the rows of the page are written before the page is reported as exported
+		writeBuffer(true);
 		
+		JRExportProgressMonitor progressMonitor  = lcItemConfiguration.getProgressMonitor();
+		if (progressMonitor != null)
+		{
+			progressMonitor.afterPageExport();
+		}
+	}
+
+	protected void exportGrid(JRPrintPage page) throws IOException
+	{
 		CsvReportConfiguration lcItemConfiguration = getCurrentItemConfiguration();
 		
 		PrintPageFormat pageFormat = jasperPrint.getPageFormat(pageIndex); 
@@ -158,18 +182,15 @@ public class JRCsvExporter extends JRAbstractCsvExporter<CsvReportConfiguration,
 		CutsInfo xCuts = layout.getXCuts();
 		CutsInfo yCuts = layout.getYCuts();
 
-		StringBuilder rowBuilder = null;
-		
 		boolean isFirstColumn = true;
 		int rowCount = grid.getRowCount();
 		for(int y = 0; y < rowCount; y++)
 		{
 			Cut yCut = yCuts.getCut(y);
 
-			rowBuilder = new StringBuilder();
-
 			if (yCut.isCutNotEmpty())
 			{
+				int rowStart = buffer.length();
 				isFirstColumn = true;
 				GridRow row = grid.getRow(y);
 				int rowSize = row.size();
@@ -178,52 +199,15 @@ public class JRCsvExporter extends JRAbstractCsvExporter<CsvReportConfiguration,
 					JRPrintElement element = row.get(x).getElement();
 					if(element != null)
 					{
-						String text = null;
-						if (element instanceof JRPrintText)
-						{
-							JRStyledText styledText = getStyledText((JRPrintText)element);
-							if (styledText == null)
-							{
-								text = "";
-							}
-							else
-							{
-								text = styledText.getText();
-							}
-						}
-						else if (element instanceof JRGenericPrintElement)
-						{
-							JRGenericPrintElement genericPrintElement = (JRGenericPrintElement)element;
-							GenericElementCsvHandler handler = (GenericElementCsvHandler) 
-								GenericElementHandlerEnviroment.getInstance(getJasperReportsContext()).getElementHandler(
-										genericPrintElement.getGenericType(), CSV_EXPORTER_KEY);
-							
-							if (handler == null)
-							{
-								if (log.isDebugEnabled())
-								{
-									log.debug("No CSV generic element handler for " 
-											+ genericPrintElement.getGenericType());
-								}
-								
-								// it shouldn't get to this due to JRCsvExporterNature.isToExport, but let's be safe
-								text = "";
-							}
-							else
-							{
-								text = handler.getTextValue(exporterContext, genericPrintElement);
-							}
-						}
+						String text = getElementText(element);
 
 						if (text != null)
 						{
 							if (!isFirstColumn)
 							{
-								rowBuilder.append(fieldDelimiter);
+								buffer.append(fieldDelimiter);
 							}
-							rowBuilder.append(
-								prepareText(text)
-								);
+							appendText(buffer, text);
 							isFirstColumn = false;
 						}
 					}
@@ -233,25 +217,97 @@ public class JRCsvExporter extends JRAbstractCsvExporter<CsvReportConfiguration,
 						{
 							if (!isFirstColumn)
 							{
-								rowBuilder.append(fieldDelimiter);
+								buffer.append(fieldDelimiter);
 							}
 							isFirstColumn = false;
 						}
 					}
 				}
 				
-				if (rowBuilder.length() > 0)
+				if (buffer.length() > rowStart)
 				{
-					writer.write(rowBuilder.toString());
-					writer.write(recordDelimiter);
+					buffer.append(recordDelimiter);
+					writeBuffer(false);
 				}
 			}
 		}
-		
-		JRExportProgressMonitor progressMonitor  = lcItemConfiguration.getProgressMonitor();
-		if (progressMonitor != null)
+	}
+
+	/**
+	 * Writes the rows of a page whose content is tabular, producing the same text as {@link #exportGrid(JRPrintPage)}.
+	 * 
+	 * @see CsvExporterConfiguration#PROPERTY_TABULAR_LAYOUT
+	 */
+	protected void exportTabularLayout(TabularLayout layout) throws IOException
+	{
+		int rowCount = layout.getRowCount();
+		for (int y = 0; y < rowCount; y++)
 		{
-			progressMonitor.afterPageExport();
+			int rowStart = buffer.length();
+			
+			boolean isFirstColumn = true;
+			JRPrintElement[] row = layout.getRow(y);
+			for (int x = 0; x < row.length; x++)
+			{
+				JRPrintElement element = row[x];
+				String text = element == null ? null : getElementText(element);
+				if (element == null || text != null)
+				{
+					if (!isFirstColumn)
+					{
+						buffer.append(fieldDelimiter);
+					}
+					appendText(buffer, text);
+					isFirstColumn = false;
+				}
+			}
+			
+			if (buffer.length() > rowStart)
+			{
+				buffer.append(recordDelimiter);
+				writeBuffer(false);
+			}
+		}
+	}
+
+	protected String getElementText(JRPrintElement element)
+	{
+		String text = null;
+		if (element instanceof JRPrintText)
+		{
+			JRStyledText styledText = getStyledText((JRPrintText)element);
+			if (styledText == null)
+			{
+				text = "";
+			}
+			else
+			{
+				text = styledText.getText();
+			}
+		}
+		else if (element instanceof JRGenericPrintElement)
+		{
+			JRGenericPrintElement genericPrintElement = (JRGenericPrintElement)element;
+			GenericElementCsvHandler handler = (GenericElementCsvHandler) 
+				GenericElementHandlerEnviroment.getInstance(getJasperReportsContext()).getElementHandler(
+						genericPrintElement.getGenericType(), CSV_EXPORTER_KEY);
+			
+			if (handler == null)
+			{
+				if (log.isDebugEnabled())
+				{
+					log.debug("No CSV generic element handler for " 
+							+ genericPrintElement.getGenericType());
+				}
+				
+				// it shouldn't get to this due to JRCsvExporterNature.isToExport, but let's be safe
+				text = "";
+			}
+			else
+			{
+				text = handler.getTextValue(exporterContext, genericPrintElement);
+			}
 		}
+		return text;
 	}
 }
\ No newline at end of file
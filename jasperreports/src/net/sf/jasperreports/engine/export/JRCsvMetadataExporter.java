@@ -37,11 +37,11 @@ import net.sf.jasperreports.engine.JRPrintElement;
 import net.sf.jasperreports.engine.JRPrintFrame;
 import net.sf.jasperreports.engine.JRPrintPage;
 import net.sf.jasperreports.engine.JRPrintText;
+import net.sf.jasperreports.engine.JRPropertiesMap;
 import net.sf.jasperreports.engine.JRPropertiesUtil;
 import net.sf.jasperreports.engine.JasperReportsContext;
 import net.sf.jasperreports.engine.util.JRStringUtil;
 import net.sf.jasperreports.engine.util.JRStyledText;
-import net.sf.jasperreports.export.CsvExporterConfiguration;
 import net.sf.jasperreports.export.CsvMetadataExporterConfiguration;
 import net.sf.jasperreports.export.CsvMetadataReportConfiguration;
 import net.sf.jasperreports.properties.PropertyConstants;
@@ -189,6 +189,9 @@ public class JRCsvMetadataExporter extends JRAbstractCsvExporter<CsvMetadataRepo
 			writeCurrentRow(currentRow, repeatedValues);
 		}
 
+		// the rows of the page are written before the page is reported as exported
+		writeBuffer(true);
+		
 		JRExportProgressMonitor progressMonitor  = configuration.getProgressMonitor();
 		if (progressMonitor != null)
 		{
@@ -228,13 +231,14 @@ public class JRCsvMetadataExporter extends JRAbstractCsvExporter<CsvMetadataRepo
 		
 		String currentTextValue = null;
 
-		if (textElement.getPropertiesMap().getPropertyNames().length > 0) 
+		JRPropertiesMap propertiesMap = textElement.getPropertiesMap();
+		if (propertiesMap.hasProperties()) 
 		{
-			String currentColumnName = textElement.getPropertiesMap().getProperty(PROPERTY_COLUMN_NAME);
-			String currentColumnData = textElement.getPropertiesMap().getProperty(PROPERTY_DATA);
+			String currentColumnName = propertiesMap.getProperty(PROPERTY_COLUMN_NAME);
+			String currentColumnData = propertiesMap.getProperty(PROPERTY_DATA);
 			boolean repeatValue = getPropertiesUtil().getBooleanProperty(textElement, PROPERTY_REPEAT_VALUE, false);
 			
-			if (textElement.getPropertiesMap().containsProperty(PROPERTY_DATA))
+			if (propertiesMap.containsProperty(PROPERTY_DATA))
 			{
 				currentTextValue = currentColumnData;
 				
@@ -266,12 +270,12 @@ public class JRCsvMetadataExporter extends JRAbstractCsvExporter<CsvMetadataRepo
 			
 			if (columnNames.size() > 0)
 			{
-				if (columnNames.contains(currentColumnName) && !currentRow.containsKey(currentColumnName) && isColumnReadOnTime(currentRow, currentColumnName)) // the column is for export but was not read yet and comes in the expected order
+				int columnIndex = columnNames.indexOf(currentColumnName);
+				if (columnIndex >= 0 && !currentRow.containsKey(currentColumnName) && isColumnReadOnTime(currentRow, columnIndex)) // the column is for export but was not read yet and comes in the expected order
 				{
 					currentRow.put(currentColumnName, currentTextValue);
 						
-				} else if ( (columnNames.contains(currentColumnName) && !currentRow.containsKey(currentColumnName) && !isColumnReadOnTime(currentRow, currentColumnName)) // the column is for export, was not read yet, but it is read after it should be
-						|| (columnNames.contains(currentColumnName) && currentRow.containsKey(currentColumnName)) ) // the column is for export and was already read
+				} else if (columnIndex >= 0) // the column is for export and was already read, or was not read yet, but it is read after it should be
 				{
 					// write header 
 					if (isFirstRow && configuration.isWriteHeader())
@@ -319,29 +323,20 @@ public class JRCsvMetadataExporter extends JRAbstractCsvExporter<CsvMetadataRepo
 	 */
 	protected void writeReportHeader() throws IOException 
 	{
-		CsvExporterConfiguration configuration = getCurrentConfiguration();
-		String fieldDelimiter = configuration.getFieldDelimiter();
-		String recordDelimiter = configuration.getRecordDelimiter();
-		
-		StringBuilder rowBuilder = new StringBuilder();
-		
 		for (int i = 0; i < columnNames.size(); i++)
 		{
-			rowBuilder.append(columnNames.get(i));
+			buffer.append(columnNames.get(i));
 
 			if (i < (columnNames.size()-1))
 			{
-				rowBuilder.append(fieldDelimiter);
+				buffer.append(fieldDelimiter);
 			} else
 			{
-				rowBuilder.append(recordDelimiter);
+				buffer.append(recordDelimiter);
 			}
 		}
 		
-		if (rowBuilder.length() > 0)
-		{
-			writer.write(rowBuilder.toString());
-		}
+		writeBuffer(false);
 	}
 	
 
@@ -360,11 +355,7 @@ public class JRCsvMetadataExporter extends JRAbstractCsvExporter<CsvMetadataRepo
 		// FIXME: the rows that are incomplete (e.g. in case of a group, there are rows that contain only the group columns 
 		// because the report spanned over a new page and it contains only the values for the group columns, as header, and other information
 		// that is not for export, like counts or totals) should not be written
-		CsvExporterConfiguration configuration = getCurrentConfiguration();
-		String fieldDelimiter = configuration.getFieldDelimiter();
-		String recordDelimiter = configuration.getRecordDelimiter();
-
-		StringBuilder rowBuilder = new StringBuilder();
+		int rowStart = buffer.length();
 		boolean isEmptyRow = true;
 		
 		for (int i = 0; i < columnNames.size(); i++)
@@ -373,28 +364,33 @@ public class JRCsvMetadataExporter extends JRAbstractCsvExporter<CsvMetadataRepo
 			if (currentTextValue != null && currentTextValue.length() > 0)
 			{
 				isEmptyRow = false;
-				rowBuilder.append(prepareText(currentTextValue));
+				appendText(buffer, currentTextValue);
 			} else
 			{
 				String repeatedValue = repeatedValues.get(columnNames.get(i));
 				if (repeatedValue != null && repeatedValue.length() > 0)
 				{
-					rowBuilder.append(prepareText(repeatedValue));
+					appendText(buffer, repeatedValue);
 				}
 			}
 			
 			if (i < (columnNames.size()-1))
 			{
-				rowBuilder.append(fieldDelimiter);
+				buffer.append(fieldDelimiter);
 			} else
 			{
-				rowBuilder.append(recordDelimiter);
+				buffer.append(recordDelimiter);
 			}
 		}
 		
-		if (!isEmptyRow)
+		if (isEmptyRow)
+		{
+			// discarding the row
+			buffer.setLength(rowStart);
+		}
+		else
 		{
-			writer.write(rowBuilder.toString());
+			writeBuffer(false);
 		}
 	}
 	
@@ -404,18 +400,20 @@ public class JRCsvMetadataExporter extends JRAbstractCsvExporter<CsvMetadataRepo
 	 * to determine if the current column is read in the proper order
 	 * </p>
 	 * @param currentRow
-	 * @param currentColumnName
+	 * @param currentColumnIndex
 	 */
-	private boolean isColumnReadOnTime(Map<String, String> currentRow, String currentColumnName)
+	private boolean isColumnReadOnTime(Map<String, String> currentRow, int currentColumnIndex)
 	{
-		int indexOfLastFilledColumn = -1;
 		Set<String> currentlyFilledColumns = currentRow.keySet();
 		
 		for (String column: currentlyFilledColumns)
 		{
-			indexOfLastFilledColumn = Math.max(indexOfLastFilledColumn, columnNames.indexOf(column));
+			if (columnNames.indexOf(column) >= currentColumnIndex)
+			{
+				return false;
+			}
 		}
 		
-		return indexOfLastFilledColumn < columnNames.indexOf(currentColumnName);
+		return true;
 	}
 }
@@ -51,6 +51,7 @@ import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Locale;
@@ -427,6 +428,8 @@ public class JRPdfExporter extends JRAbstractExporter<PdfReportConfiguration, Pd
 
 	protected Document imageTesterDocument;
 	protected PdfContentByte imageTesterPdfContentByte;
+	private PdfWriter imageTesterPdfWriter;
+	private boolean imageTesterPageUsed;
 	
 	protected JRPdfExporterTagHelper tagHelper = new JRPdfExporterTagHelper(this);
 
@@ -456,6 +459,9 @@ public class JRPdfExporter extends JRAbstractExporter<PdfReportConfiguration, Pd
 	private boolean glyphRendererAddActualText;
 	private PdfVersionEnum minimalVersion;
 	private Map<FontKey, Boolean> glyphRendererFonts;
+	private PdfPagePreprocessor pagePreprocessor;
+	private boolean streaming;
+	private PdfImageCache imageCache;
 	
 	/**
 	 * @see #JRPdfExporter(JasperReportsContext)
@@ -580,6 +586,8 @@ public class JRPdfExporter extends JRAbstractExporter<PdfReportConfiguration, Pd
 		awtIgnoreMissingFont = getPropertiesUtil().getBooleanProperty(
 				JRStyledText.PROPERTY_AWT_IGNORE_MISSING_FONT);//FIXMECONTEXT replace with getPropertiesUtil in all exporters
 		
+		imageCache = PdfImageCache.getInstance();
+		
 		glyphRendererAddActualText = propertiesUtil.getBooleanProperty( 
 				PdfReportConfiguration.PROPERTY_GLYPH_RENDERER_ADD_ACTUAL_TEXT, false);
 		if (glyphRendererAddActualText && !tagHelper.isTagged && PdfGlyphRenderer.supported())
@@ -609,7 +617,29 @@ public class JRPdfExporter extends JRAbstractExporter<PdfReportConfiguration, Pd
 		initGlyphRenderer();
 
 		renderersCache = new RenderersCache(getJasperReportsContext());
-		loadedImagesMap = new HashMap<String,Image>();
+		
+		streaming = propertiesUtil.getBooleanProperty(getCurrentJasperPrint(), 
+				PdfExporterConfiguration.PROPERTY_STREAMING, false);
+		if (streaming)
+		{
+			final int imageCacheSize = propertiesUtil.getIntegerProperty(getCurrentJasperPrint(), 
+					PdfExporterConfiguration.PROPERTY_STREAMING_IMAGE_CACHE_SIZE, 100);
+			// least recently used images are discarded and written again if used after that
+			loadedImagesMap = new LinkedHashMap<String,Image>(16, 0.75f, true)
+			{
+				private static final long serialVersionUID = 1L;
+
+				@Override
+				protected boolean removeEldestEntry(Map.Entry<String,Image> eldest)
+				{
+					return size() > imageCacheSize;
+				}
+			};
+		}
+		else
+		{
+			loadedImagesMap = new HashMap<String,Image>();
+		}
 	}
 
 
@@ -852,7 +882,7 @@ public class JRPdfExporter extends JRAbstractExporter<PdfReportConfiguration, Pd
 
 			tagHelper.init(pdfContentByte);
 			
-			PdfWriter imageTesterPdfWriter =
+			imageTesterPdfWriter =
 				PdfWriter.getInstance(
 					imageTesterDocument,
 					new NullOutputStream() // discard the output
@@ -902,36 +932,64 @@ public class JRPdfExporter extends JRAbstractExporter<PdfReportConfiguration, Pd
 					int startPageIndex = (pageRange == null || pageRange.getStartPageIndex() == null) ? 0 : pageRange.getStartPageIndex();
 					int endPageIndex = (pageRange == null || pageRange.getEndPageIndex() == null) ? (pages.size() - 1) : pageRange.getEndPageIndex();
 
-					for (int pageIndex = startPageIndex; pageIndex <= endPageIndex; pageIndex++)
+					int parallelPages = propertiesUtil.getIntegerProperty(jasperPrint, 
+							PdfExporterConfiguration.PROPERTY_PARALLEL_PAGES, 0);
+					if (parallelPages > 0 && endPageIndex > startPageIndex)
 					{
-						if (Thread.interrupted())
+						pagePreprocessor = new PdfPagePreprocessor(styledTextUtil, noBackcolorSelector, parallelPages);
+					}
+					
+					try
+					{
+						for (int pageIndex = startPageIndex; pageIndex <= endPageIndex; pageIndex++)
 						{
-							throw new ExportInterruptedException();
-						}
+							if (Thread.interrupted())
+							{
+								throw new ExportInterruptedException();
+							}
 
-						JRPrintPage page = pages.get(pageIndex);
+							JRPrintPage page = pages.get(pageIndex);
 
-						pageFormat = jasperPrint.getPageFormat(pageIndex);
+							pageFormat = jasperPrint.getPageFormat(pageIndex);
 						
-						if (sizePageToContent || oldPageFormat != pageFormat)
-						{
-							setPageSize(sizePageToContent ? page : null);
-						}
+							if (sizePageToContent || oldPageFormat != pageFormat)
+							{
+								setPageSize(sizePageToContent ? page : null);
+							}
 						
-						document.newPage();
+							document.newPage();
 						
-						pdfContentByte = pdfWriter.getDirectContent();
+							pdfContentByte = pdfWriter.getDirectContent();
 
-						pdfContentByte.setLineCap(2);//PdfContentByte.LINE_CAP_PROJECTING_SQUARE since iText 1.02b
+							pdfContentByte.setLineCap(2);//PdfContentByte.LINE_CAP_PROJECTING_SQUARE since iText 1.02b
 
-						writePageAnchor(pageIndex);
+							writePageAnchor(pageIndex);
+						
+							crtDocumentPageNumber++;
 						
-						crtDocumentPageNumber++;
+							if (pagePreprocessor != null)
+							{
+								pagePreprocessor.startPage(pages, pageIndex, endPageIndex);
+							}
 
-						/*   */
-						exportPage(page);
+							/*   */
+							exportPage(page);
+							
+							if (streaming)
+							{
+								flushPage();
+							}
 						
-						oldPageFormat = pageFormat;
+							oldPageFormat = pageFormat;
+						}
+					}
+					finally
+					{
+						if (pagePreprocessor != null)
+						{
+							pagePreprocessor.dispose();
+							pagePreprocessor = null;
+						}
 					}
 				}
 				else
@@ -990,6 +1048,31 @@ public class JRPdfExporter extends JRAbstractExporter<PdfReportConfiguration, Pd
 	}
 
 
+	/**
+	 * Releases the memory held for the page that was just exported, used in streaming mode.
+	 * 
+	 * <p>
+	 * iText writes the content of a page when the next page starts, 
+	 * this method flushes the written output to the output stream and starts a new page 
+	 * in the image tester document, which would otherwise accumulate content for all the tested images.
+	 * </p>
+	 * 
+	 * @see PdfExporterConfiguration#PROPERTY_STREAMING
+	 */
+	protected void flushPage() throws IOException
+	{
+		if (imageTesterPageUsed)
+		{
+			imageTesterDocument.newPage();
+			imageTesterPdfContentByte = imageTesterPdfWriter.getDirectContent();
+			imageTesterPdfContentByte.setLiteral("\n");
+			imageTesterPageUsed = false;
+		}
+		
+		pdfWriter.flush();
+	}
+
+
 	protected void writePageAnchor(int pageIndex) throws DocumentException 
 	{
 		Map<Attribute,Object> attributes = new HashMap<Attribute,Object>();
@@ -1718,8 +1801,9 @@ public class JRPdfExporter extends JRAbstractExporter<PdfReportConfiguration, Pd
 			{
 				try
 				{
-					image = Image.getInstance(renderer.getData(jasperReportsContext));
+					image = createImage(renderer.getData(jasperReportsContext));
 					imageTesterPdfContentByte.addImage(image, 10, 0, 0, 10, 0, 0);
+					imageTesterPageUsed = true;
 				}
 				catch (Exception e)
 				{
@@ -1756,8 +1840,9 @@ public class JRPdfExporter extends JRAbstractExporter<PdfReportConfiguration, Pd
 			{
 				try
 				{
-					image = Image.getInstance(renderer.getData(jasperReportsContext));
+					image = createImage(renderer.getData(jasperReportsContext));
 					imageTesterPdfContentByte.addImage(image, 10, 0, 0, 10, 0, 0);
+					imageTesterPageUsed = true;
 				}
 				catch (Exception e)
 				{
@@ -1910,6 +1995,16 @@ public class JRPdfExporter extends JRAbstractExporter<PdfReportConfiguration, Pd
 		}
 	}
 
+	/**
+	 * Creates an image from image data, using the process wide image cache when enabled.
+	 * 
+	 * @see PdfImageCache
+	 */
+	protected Image createImage(byte[] data) throws BadElementException, IOException
+	{
+		return imageCache == null ? Image.getInstance(data) : imageCache.getImage(data);
+	}
+
 	private class InternalImageProcessorResult
 	{
 		private final Chunk chunk;
@@ -2382,7 +2477,16 @@ public class JRPdfExporter extends JRAbstractExporter<PdfReportConfiguration, Pd
 	 */
 	public void exportText(JRPrintText text) throws DocumentException
 	{
-		JRStyledText styledText = styledTextUtil.getProcessedStyledText(text, noBackcolorSelector, null);
+		JRStyledText styledText;
+		if (pagePreprocessor != null && pagePreprocessor.hasProcessedStyledText(text))
+		{
+			styledText = pagePreprocessor.getProcessedStyledText(text);
+		}
+		else
+		{
+			styledText = styledTextUtil.getProcessedStyledText(text, noBackcolorSelector, null);
+		}
+		
 		if (styledText == null)
 		{
 			return;
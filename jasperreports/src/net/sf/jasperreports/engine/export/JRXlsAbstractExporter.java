@@ -671,6 +671,8 @@ public abstract class JRXlsAbstractExporter<RC extends XlsReportConfiguration, C
 	 * Used for counting the total number of sheets.
 	 */
 	protected int sheetIndex;
+	
+	private GridLayoutPreprocessor gridLayoutPreprocessor;
 
 	/**
 	 * Used for iterating through sheet names.
@@ -1071,19 +1073,50 @@ public abstract class JRXlsAbstractExporter<RC extends XlsReportConfiguration, C
 
 				if (configuration.isOnePagePerSheet())
 				{
-					for(pageIndex = startPageIndex; pageIndex <= endPageIndex; pageIndex++)
+					int parallelSheets = getPropertiesUtil().getIntegerProperty(jasperPrint, 
+							XlsExporterConfiguration.PROPERTY_PARALLEL_SHEETS, 0);
+					// filters that keep state need to see the pages in order
+					if (parallelSheets > 0 && endPageIndex > startPageIndex 
+							&& !(filter instanceof ResetableExporterFilter))
 					{
-						if (Thread.interrupted())
+						gridLayoutPreprocessor = 
+							new GridLayoutPreprocessor(
+								getNature(), 
+								configuration.getOffsetX() == null ? 0 : configuration.getOffsetX(), 
+								configuration.getOffsetY() == null ? 0 : configuration.getOffsetY(),
+								parallelSheets
+								);
+					}
+					
+					try
+					{
+						for(pageIndex = startPageIndex; pageIndex <= endPageIndex; pageIndex++)
 						{
-							throw new ExportInterruptedException();
-						}
+							if (Thread.interrupted())
+							{
+								throw new ExportInterruptedException();
+							}
 
-						JRPrintPage page = pages.get(pageIndex);
-						
-						pageFormat = jasperPrint.getPageFormat(pageIndex);
-						
-						/*   */
-						exportPage(page, /*xCuts*/null, /*startRow*/0, /*defaultSheetName*/null);
+							JRPrintPage page = pages.get(pageIndex);
+							
+							pageFormat = jasperPrint.getPageFormat(pageIndex);
+							
+							if (gridLayoutPreprocessor != null)
+							{
+								gridLayoutPreprocessor.startPage(jasperPrint, pageIndex, endPageIndex);
+							}
+							
+							/*   */
+							exportPage(page, /*xCuts*/null, /*startRow*/0, /*defaultSheetName*/null);
+						}
+					}
+					finally
+					{
+						if (gridLayoutPreprocessor != null)
+						{
+							gridLayoutPreprocessor.dispose();
+							gridLayoutPreprocessor = null;
+						}
 					}
 				}
 				else
@@ -1142,16 +1175,23 @@ public abstract class JRXlsAbstractExporter<RC extends XlsReportConfiguration, C
 		boolean isRemoveEmptySpaceBetweenColumns = configuration.isRemoveEmptySpaceBetweenColumns();
 		boolean isCollapseRowSpan = configuration.isCollapseRowSpan();
 		
-		JRGridLayout layout =
-			new JRGridLayout(
-				getNature(),
-				page.getElements(),
-				pageFormat.getPageWidth(),
-				pageFormat.getPageHeight(),
-				configuration.getOffsetX() == null ? 0 : configuration.getOffsetX(), 
-				configuration.getOffsetY() == null ? 0 : configuration.getOffsetY(),
-				xCuts
-				);
+		JRGridLayout layout = 
+			xCuts == null && gridLayoutPreprocessor != null 
+			? gridLayoutPreprocessor.getPageLayout() 
+			: null;
+		if (layout == null)
+		{
+			layout =
+				new JRGridLayout(
+					getNature(),
+					page.getElements(),
+					pageFormat.getPageWidth(),
+					pageFormat.getPageHeight(),
+					configuration.getOffsetX() == null ? 0 : configuration.getOffsetX(), 
+					configuration.getOffsetY() == null ? 0 : configuration.getOffsetY(),
+					xCuts
+					);
+		}
 
 		Grid grid = layout.getGrid();
 
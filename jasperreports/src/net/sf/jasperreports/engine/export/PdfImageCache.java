@@ -0,0 +1,213 @@
+/*
+ * JasperReports - Free Java Reporting Library.
+ * Copyright (C) 2001 - 2016 TIBCO Software Inc. All rights reserved.
+ * http://www.jaspersoft.com
+ *
+ * Unless you have purchased a commercial license agreement from Jaspersoft,
+ * the following license terms apply:
+ *
+ * This program is part of JasperReports.
+ *
+ * JasperReports is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JasperReports is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with JasperReports. If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.sf.jasperreports.engine.export;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.lowagie.text.BadElementException;
+import com.lowagie.text.Image;
+
+import net.sf.jasperreports.annotations.properties.Property;
+import net.sf.jasperreports.annotations.properties.PropertyScope;
+import net.sf.jasperreports.engine.DefaultJasperReportsContext;
+import net.sf.jasperreports.engine.JRPropertiesUtil;
+import net.sf.jasperreports.engine.JasperReportsContext;
+import net.sf.jasperreports.engine.util.DigestUtils;
+import net.sf.jasperreports.engine.util.MD5Digest;
+import net.sf.jasperreports.properties.PropertyConstants;
+
+/**
+ * Process wide cache of images decoded by the PDF exporter.
+ * <p>
+ * Image data such as logos and watermarks that are used in many exported documents is only
+ * decoded once; the images are identified by the digest of their data.
+ * Each export receives a copy of the cached image, which shares the decoded data but not the scaling 
+ * and positioning state, so that the cached images can be used by concurrent exports.
+ * Images that are written as templates, such as WMF images, are not cached as their templates
+ * belong to the PDF writer of a single export.
+ * </p>
+ * <p>
+ * A single cache is shared by all exports, regardless of the {@link JasperReportsContext} they use,
+ * so that exports using per request contexts such as {@link net.sf.jasperreports.engine.util.LocalJasperReportsContext}
+ * also benefit from it.
+ * The cache is bounded by {@link #PROPERTY_SIZE}, least recently used images being discarded.
+ * The cache properties are read from {@link DefaultJasperReportsContext} when the cache is first used, 
+ * later changes of the properties do not affect the existing cache.
+ * </p>
+ * 
+ * @see JRPdfExporter
+ */
+public class PdfImageCache
+{
+
+	/**
+	 * Property that specifies the maximum number of images kept by the process wide PDF image cache.
+	 * 
+	 * <p>
+	 * The property is read from the default context.
+	 * The cache is disabled by default.
+	 * </p>
+	 */
+	@Property(
+			category = PropertyConstants.CATEGORY_EXPORT,
+			defaultValue = "0",
+			scopes = {PropertyScope.GLOBAL},
+			sinceVersion = PropertyConstants.VERSION_6_4_3,
+			valueType = Integer.class
+			)
+	public static final String PROPERTY_SIZE = JRPropertiesUtil.PROPERTY_PREFIX + "export.pdf.image.cache.size";
+
+	/**
+	 * Property that specifies the maximum size in bytes of the image data that is cached by the PDF image cache.
+	 * 
+	 * <p>
+	 * The property is read from the default context.
+	 * </p>
+	 */
+	@Property(
+			category = PropertyConstants.CATEGORY_EXPORT,
+			defaultValue = "524288",
+			scopes = {PropertyScope.GLOBAL},
+			sinceVersion = PropertyConstants.VERSION_6_4_3,
+			valueType = Integer.class
+			)
+	public static final String PROPERTY_MAX_IMAGE_SIZE = JRPropertiesUtil.PROPERTY_PREFIX + "export.pdf.image.cache.max.image.size";
+	
+	private static final Object NO_CACHE = new Object();
+	
+	private static volatile Object instance;
+	
+	/**
+	 * Returns the process wide image cache.
+	 * 
+	 * @return the cache, or <code>null</code> if image caching is disabled
+	 */
+	public static PdfImageCache getInstance()
+	{
+		Object cache = instance;
+		if (cache == null)
+		{
+			synchronized (PdfImageCache.class)
+			{
+				cache = instance;
+				if (cache == null)
+				{
+					JRPropertiesUtil properties = JRPropertiesUtil.getInstance(DefaultJasperReportsContext.getInstance());
+					int size = properties.getIntegerProperty(PROPERTY_SIZE, 0);
+					int maxImageSize = properties.getIntegerProperty(PROPERTY_MAX_IMAGE_SIZE, 524288);
+					cache = size > 0 && maxImageSize > 0 
+							? new PdfImageCache(size, maxImageSize) 
+							: NO_CACHE;
+					instance = cache;
+				}
+			}
+		}
+		return cache == NO_CACHE ? null : (PdfImageCache) cache;
+	}
+	
+	private final int maxImageSize;
+	private final Map<MD5Digest, Image> images;
+	
+	protected PdfImageCache(final int size, int maxImageSize)
+	{
+		this.maxImageSize = maxImageSize;
+		this.images = new LinkedHashMap<MD5Digest, Image>(64, 0.75f, true)
+		{
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<MD5Digest, Image> eldest)
+			{
+				return size() > size;
+			}
+		};
+	}
+	
+	/**
+	 * Returns an image for the specified data, decoding the data if the image is not found in the cache.
+	 * 
+	 * @param data the image data
+	 * @return an image that can be used by the caller
+	 * @throws BadElementException
+	 * @throws IOException
+	 */
+	public Image getImage(byte[] data) throws BadElementException, IOException
+	{
+		if (data.length > maxImageSize)
+		{
+			return Image.getInstance(data);
+		}
+		
+		MD5Digest key = DigestUtils.instance().md5(data);
+		Image image;
+		synchronized (images)
+		{
+			image = images.get(key);
+		}
+		
+		if (image == null)
+		{
+			image = Image.getInstance(data);
+			if (!isCacheable(image))
+			{
+				return image;
+			}
+			
+			synchronized (images)
+			{
+				images.put(key, image);
+			}
+		}
+		
+		// the cached image is never handed out as the exporter changes the image scaling
+		return Image.getInstance(image);
+	}
+	
+	/**
+	 * Determines whether a decoded image can be shared by several exports.
+	 * 
+	 * <p>
+	 * Template images and WMF images, which are converted to templates, refer to templates that are 
+	 * created for the PDF writer that first writes the image, so they cannot be used by other exports.
+	 * </p>
+	 */
+	protected boolean isCacheable(Image image)
+	{
+		return !image.isImgTemplate() && image.getOriginalType() != Image.ORIGINAL_WMF;
+	}
+	
+	/**
+	 * Removes all images from the cache.
+	 */
+	public void clear()
+	{
+		synchronized (images)
+		{
+			images.clear();
+		}
+	}
+
+}
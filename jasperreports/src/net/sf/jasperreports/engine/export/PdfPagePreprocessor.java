@@ -0,0 +1,154 @@
+/*
+ * JasperReports - Free Java Reporting Library.
+ * Copyright (C) 2001 - 2016 TIBCO Software Inc. All rights reserved.
+ * http://www.jaspersoft.com
+ *
+ * Unless you have purchased a commercial license agreement from Jaspersoft,
+ * the following license terms apply:
+ *
+ * This program is part of JasperReports.
+ *
+ * JasperReports is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JasperReports is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with JasperReports. If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.sf.jasperreports.engine.export;
+
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+import net.sf.jasperreports.engine.JRException;
+import net.sf.jasperreports.engine.JRPrintElement;
+import net.sf.jasperreports.engine.JRPrintFrame;
+import net.sf.jasperreports.engine.JRPrintPage;
+import net.sf.jasperreports.engine.JRPrintText;
+import net.sf.jasperreports.engine.JRStyledTextAttributeSelector;
+import net.sf.jasperreports.engine.util.JRStyledText;
+import net.sf.jasperreports.engine.util.JRStyledTextUtil;
+
+/**
+ * Prepares the texts of upcoming pages concurrently while the PDF exporter writes the current page.
+ * <p>
+ * The PDF document is written sequentially through a single iText writer, which is not thread safe.
+ * The work that does not depend on the writer, namely text truncation, markup parsing, font
+ * resolution and the creation of attributed strings, is done for the next pages by a pool of threads,
+ * and the results are picked up by the exporter when it reaches the pages.
+ * </p>
+ * 
+ * @see net.sf.jasperreports.export.PdfExporterConfiguration#PROPERTY_PARALLEL_PAGES
+ */
+public class PdfPagePreprocessor extends AbstractPagePreprocessor<Map<JRPrintText, JRStyledText>>
+{
+	private final JRStyledTextUtil styledTextUtil;
+	private final JRStyledTextAttributeSelector attributeSelector;
+	
+	private List<JRPrintPage> pages;
+	private Map<JRPrintText, JRStyledText> currentPageTexts;
+	
+	public PdfPagePreprocessor(JRStyledTextUtil styledTextUtil, JRStyledTextAttributeSelector attributeSelector,
+			int lookAheadPages)
+	{
+		super("JasperReports PDF page preprocessor", lookAheadPages);
+		
+		this.styledTextUtil = styledTextUtil;
+		this.attributeSelector = attributeSelector;
+	}
+
+	/**
+	 * Called when the exporter starts a page, submits the next pages for processing.
+	 * 
+	 * @param pages the report pages
+	 * @param pageIndex the index of the page that is being exported
+	 * @param endPageIndex the index of the last page to be exported
+	 */
+	public void startPage(List<JRPrintPage> pages, int pageIndex, int endPageIndex) throws JRException
+	{
+		this.pages = pages;
+		currentPageTexts = nextPage(pageIndex, endPageIndex);
+	}
+	
+	@Override
+	protected Callable<Map<JRPrintText, JRStyledText>> createPageTask(int pageIndex)
+	{
+		// getting the elements on the current thread as pages can be virtualized
+		final List<JRPrintElement> elements = pages.get(pageIndex).getElements();
+		return new Callable<Map<JRPrintText, JRStyledText>>()
+		{
+			@Override
+			public Map<JRPrintText, JRStyledText> call()
+			{
+				Map<JRPrintText, JRStyledText> texts = new IdentityHashMap<JRPrintText, JRStyledText>();
+				processElements(elements, texts);
+				return texts;
+			}
+		};
+	}
+	
+	protected void processElements(List<JRPrintElement> elements, Map<JRPrintText, JRStyledText> texts)
+	{
+		if (elements == null)
+		{
+			return;
+		}
+		
+		for (JRPrintElement element : elements)
+		{
+			if (element instanceof JRPrintText)
+			{
+				JRPrintText text = (JRPrintText) element;
+				JRStyledText styledText = styledTextUtil.getProcessedStyledText(text, attributeSelector, null);
+				if (styledText != null)
+				{
+					// creating the attributed string, cached by the styled text
+					styledText.getAttributedString();
+				}
+				texts.put(text, styledText);
+			}
+			else if (element instanceof JRPrintFrame)
+			{
+				processElements(((JRPrintFrame) element).getElements(), texts);
+			}
+		}
+	}
+
+	/**
+	 * Determines whether the processed styled text of a text element is available.
+	 */
+	public boolean hasProcessedStyledText(JRPrintText text)
+	{
+		return currentPageTexts != null && currentPageTexts.containsKey(text);
+	}
+
+	/**
+	 * Returns the processed styled text of a text element on the current page.
+	 * 
+	 * @param text the text element
+	 * @return the processed styled text, <code>null</code> if not available
+	 * @see #hasProcessedStyledText(JRPrintText)
+	 */
+	public JRStyledText getProcessedStyledText(JRPrintText text)
+	{
+		// removing the text as it is only used once
+		return currentPageTexts == null ? null : currentPageTexts.remove(text);
+	}
+	
+	@Override
+	public void dispose()
+	{
+		super.dispose();
+		
+		pages = null;
+		currentPageTexts = null;
+	}
+}
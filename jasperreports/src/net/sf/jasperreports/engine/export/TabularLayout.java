@@ -0,0 +1,235 @@
+/*
+ * JasperReports - Free Java Reporting Library.
+ * Copyright (C) 2001 - 2016 TIBCO Software Inc. All rights reserved.
+ * http://www.jaspersoft.com
+ *
+ * Unless you have purchased a commercial license agreement from Jaspersoft,
+ * the following license terms apply:
+ *
+ * This program is part of JasperReports.
+ *
+ * JasperReports is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JasperReports is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with JasperReports. If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.sf.jasperreports.engine.export;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import net.sf.jasperreports.engine.JRPrintElement;
+import net.sf.jasperreports.engine.JRPrintFrame;
+
+
+/**
+ * Layout of page content whose elements are arranged as a table.
+ * <p/>
+ * The content is considered tabular when the elements of the page and of each frame are 
+ * grouped in horizontal bands that do not overlap, the elements of a band have the same 
+ * vertical position and height and do not overlap horizontally, and frame contents do 
+ * not exceed the frame bounds.
+ * For such content the rows and columns that a {@link JRGridLayout grid layout} would 
+ * use for exporters that do not span cells are determined directly from the element 
+ * positions, without creating the cell grid.
+ */
+public class TabularLayout
+{
+
+	private static final Comparator<ElementBounds> POSITION_COMPARATOR = new Comparator<ElementBounds>()
+	{
+		@Override
+		public int compare(ElementBounds o1, ElementBounds o2)
+		{
+			if (o1.y != o2.y)
+			{
+				return o1.y < o2.y ? -1 : 1;
+			}
+			return o1.x < o2.x ? -1 : (o1.x == o2.x ? 0 : 1);
+		}
+	};
+	
+	private final int columnCount;
+	private final List<JRPrintElement[]> rows;
+	
+	protected TabularLayout(int columnCount, List<JRPrintElement[]> rows)
+	{
+		this.columnCount = columnCount;
+		this.rows = rows;
+	}
+
+	/**
+	 * Creates the tabular layout of a list of elements.
+	 * 
+	 * @param nature the exporter nature, it should not span cells
+	 * @param elements the elements of the page
+	 * @return the tabular layout, or <code>null</code> if the elements are not arranged as a table
+	 */
+	public static TabularLayout create(ExporterNature nature, List<JRPrintElement> elements)
+	{
+		if (nature.isSpanCells())
+		{
+			return null;
+		}
+		
+		List<ElementBounds> cells = new ArrayList<ElementBounds>();
+		if (!collectCells(nature, elements, 0, 0, null, cells))
+		{
+			return null;
+		}
+		
+		Collections.sort(cells, POSITION_COMPARATOR);
+		
+		int[] columnOffsets = new int[cells.size()];
+		for (int i = 0; i < columnOffsets.length; i++)
+		{
+			columnOffsets[i] = cells.get(i).x;
+		}
+		Arrays.sort(columnOffsets);
+		int columnCount = 0;
+		for (int i = 0; i < columnOffsets.length; i++)
+		{
+			if (columnCount == 0 || columnOffsets[columnCount - 1] != columnOffsets[i])
+			{
+				columnOffsets[columnCount++] = columnOffsets[i];
+			}
+		}
+		
+		List<JRPrintElement[]> rows = new ArrayList<JRPrintElement[]>();
+		JRPrintElement[] row = null;
+		int rowY = 0;
+		for (ElementBounds cell : cells)
+		{
+			if (row == null || cell.y != rowY)
+			{
+				row = new JRPrintElement[columnCount];
+				rows.add(row);
+				rowY = cell.y;
+			}
+			row[Arrays.binarySearch(columnOffsets, 0, columnCount, cell.x)] = cell.element;
+		}
+		
+		return new TabularLayout(columnCount, rows);
+	}
+	
+	protected static boolean collectCells(ExporterNature nature, List<JRPrintElement> elements, 
+			int offsetX, int offsetY, ElementBounds parent, List<ElementBounds> cells)
+	{
+		List<ElementBounds> siblings = new ArrayList<ElementBounds>(elements.size());
+		for (JRPrintElement element : elements)
+		{
+			if (nature.isToExport(element))
+			{
+				if (element.getWidth() <= 0 || element.getHeight() <= 0)
+				{
+					return false;
+				}
+				
+				ElementBounds bounds = new ElementBounds(element, 
+						element.getX() + offsetX, element.getY() + offsetY);
+				if (parent != null 
+						&& (bounds.x < parent.x || bounds.y < parent.y 
+								|| bounds.x2 > parent.x2 || bounds.y2 > parent.y2))
+				{
+					return false;
+				}
+				siblings.add(bounds);
+			}
+		}
+		
+		Collections.sort(siblings, POSITION_COMPARATOR);
+		
+		int bandY = 0;
+		int bandY2 = 0;
+		int lastX2 = 0;
+		boolean firstBand = true;
+		for (ElementBounds bounds : siblings)
+		{
+			if (firstBand || bounds.y >= bandY2)
+			{
+				bandY = bounds.y;
+				bandY2 = bounds.y2;
+				firstBand = false;
+			}
+			else if (bounds.y != bandY || bounds.y2 != bandY2 || bounds.x < lastX2)
+			{
+				return false;
+			}
+			lastX2 = bounds.x2;
+			
+			JRPrintFrame frame = bounds.element instanceof JRPrintFrame ? (JRPrintFrame) bounds.element : null;
+			if (frame != null && nature.isDeep(frame))
+			{
+				if (!collectCells(nature, frame.getElements(), 
+						bounds.x + frame.getLineBox().getLeftPadding().intValue(),
+						bounds.y + frame.getLineBox().getTopPadding().intValue(),
+						bounds, cells))
+				{
+					return false;
+				}
+			}
+			else
+			{
+				cells.add(bounds);
+			}
+		}
+		
+		return true;
+	}
+
+	/**
+	 * Returns the number of columns of the layout.
+	 */
+	public int getColumnCount()
+	{
+		return columnCount;
+	}
+
+	/**
+	 * Returns the number of rows of the layout.
+	 */
+	public int getRowCount()
+	{
+		return rows.size();
+	}
+
+	/**
+	 * Returns the elements of a row, indexed by column.
+	 * 
+	 * @param rowIndex the row index
+	 * @return the row elements, with <code>null</code> values for the columns that are empty in the row
+	 */
+	public JRPrintElement[] getRow(int rowIndex)
+	{
+		return rows.get(rowIndex);
+	}
+	
+	protected static class ElementBounds
+	{
+		final JRPrintElement element;
+		final int x;
+		final int y;
+		final int x2;
+		final int y2;
+		
+		ElementBounds(JRPrintElement element, int x, int y)
+		{
+			this.element = element;
+			this.x = x;
+			this.y = y;
+			this.x2 = x + element.getWidth();
+			this.y2 = y + element.getHeight();
+		}
+	}
+}
@@ -38,6 +38,7 @@ import java.text.AttributedCharacterIterator;
 import java.util.HashMap;
 import java.util.Locale;
 import java.util.Map;
+import java.util.zip.Deflater;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -72,6 +73,7 @@ import net.sf.jasperreports.engine.export.JRXlsAbstractExporter;
 import net.sf.jasperreports.engine.export.LengthUtil;
 import net.sf.jasperreports.engine.export.OccupiedGridCell;
 import net.sf.jasperreports.engine.export.XlsRowLevelInfo;
+import net.sf.jasperreports.engine.export.zip.AbstractZip;
 import net.sf.jasperreports.engine.export.zip.ExportZipEntry;
 import net.sf.jasperreports.engine.export.zip.FileBufferedZipEntry;
 import net.sf.jasperreports.engine.type.LineDirectionEnum;
@@ -142,6 +144,9 @@ public class JROdsExporter extends JRXlsAbstractExporter<OdsReportConfiguration,
 	protected void openWorkbook(OutputStream os) throws JRException, IOException
 	{
 		oasisZip = new FileBufferedOasisZip(OasisZip.MIME_TYPE_ODS);
+		// ODF packages are not streamed, only the compression level applies
+		oasisZip.setCompressionLevel(getPropertiesUtil().getIntegerProperty(jasperPrint, 
+				AbstractZip.PROPERTY_COMPRESSION_LEVEL, Deflater.DEFAULT_COMPRESSION));
 
 		tempBodyEntry = new FileBufferedZipEntry(null);
 		tempStyleEntry = new FileBufferedZipEntry(null);
@@ -39,6 +39,7 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.zip.Deflater;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -74,6 +75,7 @@ import net.sf.jasperreports.engine.export.JRGridLayout;
 import net.sf.jasperreports.engine.export.JRHyperlinkProducer;
 import net.sf.jasperreports.engine.export.JRXmlExporter;
 import net.sf.jasperreports.engine.export.LengthUtil;
+import net.sf.jasperreports.engine.export.zip.AbstractZip;
 import net.sf.jasperreports.engine.export.zip.ExportZipEntry;
 import net.sf.jasperreports.engine.export.zip.FileBufferedZipEntry;
 import net.sf.jasperreports.engine.type.ModeEnum;
@@ -350,6 +352,9 @@ public class JROdtExporter extends JRAbstractExporter<OdtReportConfiguration, Od
 	protected void exportReportToOasisZip(OutputStream os) throws JRException, IOException
 	{
 		OasisZip oasisZip = new FileBufferedOasisZip(OasisZip.MIME_TYPE_ODT);
+		// ODF packages are not streamed, only the compression level applies
+		oasisZip.setCompressionLevel(getPropertiesUtil().getIntegerProperty(jasperPrint, 
+				AbstractZip.PROPERTY_COMPRESSION_LEVEL, Deflater.DEFAULT_COMPRESSION));
 
 		ExportZipEntry tempBodyEntry = new FileBufferedZipEntry(null);
 		ExportZipEntry tempStyleEntry = new FileBufferedZipEntry(null);
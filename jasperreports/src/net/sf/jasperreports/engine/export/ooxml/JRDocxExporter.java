@@ -80,6 +80,7 @@ import net.sf.jasperreports.engine.export.JRHyperlinkProducer;
 import net.sf.jasperreports.engine.export.JRXmlExporter;
 import net.sf.jasperreports.engine.export.LengthUtil;
 import net.sf.jasperreports.engine.export.OccupiedGridCell;
+import net.sf.jasperreports.engine.export.zip.ExportZipEntry;
 import net.sf.jasperreports.engine.export.zip.FileBufferedZipEntry;
 import net.sf.jasperreports.engine.type.HorizontalTextAlignEnum;
 import net.sf.jasperreports.engine.type.HyperlinkTypeEnum;
@@ -357,6 +358,7 @@ public class JRDocxExporter extends JRAbstractExporter<DocxReportConfiguration,
 	protected void exportReportToStream(OutputStream os) throws JRException, IOException
 	{
 		docxZip = new DocxZip();
+		docxZip.configure(getPropertiesUtil(), jasperPrint, os);
 
 		docWriter = docxZip.getDocumentEntry().getWriter();
 		
@@ -1303,12 +1305,13 @@ public class JRDocxExporter extends JRAbstractExporter<DocxReportConfiguration,
 					String fileExtension = JRTypeSniffer.getImageTypeValue(imageData).getFileExtension();
 					String imageName = IMAGE_NAME_PREFIX + imageIndex.toString() + (fileExtension == null ? "" : ("." + fileExtension));
 					
-					docxZip.addEntry(//FIXMEDOCX optimize with a different implementation of entry
+					ExportZipEntry imageEntry = 
 						new FileBufferedZipEntry(
 							"word/media/" + imageName,
 							imageData
-							)
-						);
+							);
+					docxZip.addEntry(imageEntry);//FIXMEDOCX optimize with a different implementation of entry
+					docxZip.writeEntry(imageEntry);
 					
 					relsHelper.exportImage(imageName);
 
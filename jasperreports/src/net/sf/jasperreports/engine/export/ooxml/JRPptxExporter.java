@@ -150,6 +150,8 @@ public class JRPptxExporter extends JRAbstractExporter<PptxReportConfiguration,
 	protected PropsCoreHelper coreHelper;
 	protected PptxSlideHelper slideHelper;
 	protected PptxSlideRelsHelper slideRelsHelper;
+	private ExportZipEntry slideEntry;
+	private ExportZipEntry slideRelsEntry;
 	protected Writer presentationWriter;
 
 	protected Map<String, String> rendererToImagePathMap;
@@ -300,6 +302,7 @@ public class JRPptxExporter extends JRAbstractExporter<PptxReportConfiguration,
 	protected void exportReportToStream(OutputStream os) throws JRException, IOException
 	{
 		pptxZip = new PptxZip();
+		pptxZip.configure(getPropertiesUtil(), jasperPrint, os);
 
 		presentationWriter = pptxZip.getPresentationEntry().getWriter();
 		
@@ -453,11 +456,11 @@ public class JRPptxExporter extends JRAbstractExporter<PptxReportConfiguration,
 
 //		pptxZip.addEntry("ppt/slides/_rels/slide" + (slideIndex + 1) + ".xml.rels", "net/sf/jasperreports/engine/export/ooxml/pptx/ppt/slides/_rels/slide1.xml.rels");
 		
-		ExportZipEntry slideRelsEntry = pptxZip.addSlideRels(slideIndex + 1);
+		slideRelsEntry = pptxZip.addSlideRels(slideIndex + 1);
 		Writer slideRelsWriter = slideRelsEntry.getWriter();
 		slideRelsHelper = new PptxSlideRelsHelper(jasperReportsContext, slideRelsWriter);
 		
-		ExportZipEntry slideEntry = pptxZip.addSlide(slideIndex + 1);
+		slideEntry = pptxZip.addSlide(slideIndex + 1);
 		Writer slideWriter = slideEntry.getWriter();
 		slideHelper = new PptxSlideHelper(jasperReportsContext, slideWriter, slideRelsHelper);
 
@@ -482,6 +485,16 @@ public class JRPptxExporter extends JRAbstractExporter<PptxReportConfiguration,
 			slideRelsHelper.exportFooter();
 			
 			slideRelsHelper.close();
+			
+			try
+			{
+				pptxZip.writeEntry(slideEntry);
+				pptxZip.writeEntry(slideRelsEntry);
+			}
+			catch (IOException e)
+			{
+				throw new JRRuntimeException(e);
+			}
 		}
 	}
 	
@@ -1458,12 +1471,13 @@ public class JRPptxExporter extends JRAbstractExporter<PptxReportConfiguration,
 					String fileExtension = JRTypeSniffer.getImageTypeValue(imageData).getFileExtension();
 					String imageName = IMAGE_NAME_PREFIX + imageIndex.toString() + (fileExtension == null ? "" : ("." + fileExtension));
 
-					pptxZip.addEntry(//FIXMEPPTX optimize with a different implementation of entry
+					ExportZipEntry imageEntry = 
 						new FileBufferedZipEntry(
 							"ppt/media/" + imageName,
 							imageData
-							)
-						);
+							);
+					pptxZip.addEntry(imageEntry);//FIXMEPPTX optimize with a different implementation of entry
+					pptxZip.writeEntry(imageEntry);
 					
 					//presentationRelsHelper.exportImage(imageName, extension);
 					
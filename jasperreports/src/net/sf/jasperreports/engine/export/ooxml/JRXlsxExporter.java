@@ -164,6 +164,7 @@ public class JRXlsxExporter extends JRXlsAbstractExporter<XlsxReportConfiguratio
 	protected XlsxDrawingRelsHelper drawingRelsHelper;
 	protected XlsxStyleHelper styleHelper;
 	protected XlsxCellHelper cellHelper;//FIXMEXLSX maybe cell helper should be part of sheet helper, just like in table helper
+	protected XlsxSharedStringsHelper sharedStringsHelper;
 	protected StringBuilder definedNames;
 	protected String firstSheetName;
 	protected String currentSheetName;
@@ -180,6 +181,8 @@ public class JRXlsxExporter extends JRXlsAbstractExporter<XlsxReportConfiguratio
 	protected Color backcolor;
 
 	private XlsxRunHelper runHelper;
+	
+	private ExportZipEntry[] sheetZipEntries;
 
 	protected String sheetAutoFilter;		
 	
@@ -692,6 +695,13 @@ public class JRXlsxExporter extends JRXlsAbstractExporter<XlsxReportConfiguratio
 			coreHelper.exportFooter();
 			coreHelper.close();
 
+			if (sharedStringsHelper != null)
+			{
+				sharedStringsHelper.exportFooter();
+				sharedStringsHelper.close();
+				sharedStringsHelper = null;
+			}
+
 			xlsxZip.zipEntries(os);
 
 			xlsxZip.dispose();
@@ -738,6 +748,8 @@ public class JRXlsxExporter extends JRXlsAbstractExporter<XlsxReportConfiguratio
 		Writer drawingWriter = drawingEntry.getWriter();
 		drawingHelper = new XlsxDrawingHelper(jasperReportsContext, drawingWriter, drawingRelsHelper);
 		
+		sheetZipEntries = new ExportZipEntry[]{sheetEntry, sheetRelsEntry, drawingEntry, drawingRelsEntry};
+		
 		cellHelper = new XlsxCellHelper(jasperReportsContext, sheetWriter, styleHelper);
 		
 		runHelper = new XlsxRunHelper(jasperReportsContext, sheetWriter, getExporterKey());
@@ -841,6 +853,24 @@ public class JRXlsxExporter extends JRXlsAbstractExporter<XlsxReportConfiguratio
 
 			drawingRelsHelper.exportFooter();
 			drawingRelsHelper.close();
+			
+			for (ExportZipEntry sheetZipEntry : sheetZipEntries)
+			{
+				writeZipEntry(sheetZipEntry);
+			}
+			sheetZipEntries = null;
+		}
+	}
+	
+	protected void writeZipEntry(ExportZipEntry entry)
+	{
+		try
+		{
+			xlsxZip.writeEntry(entry);
+		}
+		catch (IOException e)
+		{
+			throw new JRRuntimeException(e);
 		}
 	}
 
@@ -1293,12 +1323,13 @@ public class JRXlsxExporter extends JRXlsAbstractExporter<XlsxReportConfiguratio
 					String fileExtension = JRTypeSniffer.getImageTypeValue(imageData).getFileExtension();
 					String imageName = IMAGE_NAME_PREFIX + imageIndex.toString() + (fileExtension == null ? "" : ("." + fileExtension));
 
-					xlsxZip.addEntry(//FIXMEDOCX optimize with a different implementation of entry
+					ExportZipEntry imageEntry = 
 						new FileBufferedZipEntry(
 							"xl/media/" + imageName,
 							imageData
-							)
-						);
+							);
+					xlsxZip.addEntry(imageEntry);//FIXMEDOCX optimize with a different implementation of entry
+					writeZipEntry(imageEntry);
 					
 //					drawingRelsHelper.exportImage(imageName);
 
@@ -1431,6 +1462,19 @@ public class JRXlsxExporter extends JRXlsAbstractExporter<XlsxReportConfiguratio
 		
 		//FIXME: use localized pattern symbols similar to XLS export (via DateFormatConverter class)
 		final String convertedPattern = getConvertedPattern(text, pattern);
+		
+		String textFormula = getFormula(text);
+		
+		String markup = text.getMarkup();
+		final boolean isStyledText = markup != null && !JRCommonText.MARKUP_NONE.equals(markup);
+		
+		// plain texts go to the shared strings table and are written as an index in the cell
+		boolean isSharedString = 
+			sharedStringsHelper != null 
+			&& textFormula == null
+			&& !isStyledText
+			&& (textValue == null || textValue instanceof StringTextValue)
+			&& textStr != null && textStr.length() > 0;
 				
 		cellHelper.exportHeader(
 			gridCell, rowIndex, colIndex, maxColumnIndex, textValue, 
@@ -1442,11 +1486,11 @@ public class JRXlsxExporter extends JRXlsAbstractExporter<XlsxReportConfiguratio
 			isShrinkToFit(gridCell.getElement()), 
 			isIgnoreTextFormatting(text),
 			text.getRotationValue(),
-			sheetInfo
+			sheetInfo,
+			isSharedString
 			);
 		sheetHelper.exportMergedCells(rowIndex, colIndex, maxColumnIndex, gridCell.getRowSpan(), gridCell.getColSpan());
 
-		String textFormula = getFormula(text);
 		if (textFormula != null)
 		{
 			sheetHelper.write("<f>" + textFormula + "</f>\n");
@@ -1489,6 +1533,16 @@ public class JRXlsxExporter extends JRXlsAbstractExporter<XlsxReportConfiguratio
 		}
 
 		
+		if (isSharedString)
+		{
+			int stringIndex = sharedStringsHelper.getStringIndex(textStr, invalidCharReplacement);
+			sheetHelper.write("<v>");
+			sheetHelper.write(String.valueOf(stringIndex));
+			sheetHelper.write("</v>");
+			cellHelper.exportFooter();
+			return;
+		}
+		
 		TextValueHandler handler = 
 			new TextValueHandler() 
 			{
@@ -1547,8 +1601,6 @@ public class JRXlsxExporter extends JRXlsAbstractExporter<XlsxReportConfiguratio
 					if (textStr != null && textStr.length() > 0)
 					{
 						sheetHelper.write("<is>");	//FIXMENOW make writer util; check everywhere
-						String markup = text.getMarkup();
-						boolean isStyledText = markup != null && !JRCommonText.MARKUP_NONE.equals(markup);
 						exportStyledText(text.getStyle(), styledText, getTextLocale(text), isStyledText);
 						sheetHelper.write("</is>");
 					}
@@ -1611,6 +1663,7 @@ public class JRXlsxExporter extends JRXlsAbstractExporter<XlsxReportConfiguratio
 		{
 			String memoryThreshold = jasperPrint.getPropertiesMap().getProperty(FileBufferedOutputStream.PROPERTY_MEMORY_THRESHOLD);
 			xlsxZip = new XlsxZip(jasperReportsContext, memoryThreshold == null ? null : JRPropertiesUtil.asInteger(memoryThreshold));
+			xlsxZip.configure(getPropertiesUtil(), jasperPrint, os);
 
 			wbHelper = new XlsxWorkbookHelper(jasperReportsContext, xlsxZip.getWorkbookEntry().getWriter(), definedNames);
 			wbHelper.exportHeader();
@@ -1630,6 +1683,23 @@ public class JRXlsxExporter extends JRXlsAbstractExporter<XlsxReportConfiguratio
 				relsHelper.setContainsMacro(true);
 				ctHelper.setContainsMacro(true);
 			}
+			
+			sharedStringsHelper = null;
+			if (getPropertiesUtil().getBooleanProperty(jasperPrint, XlsxExporterConfiguration.PROPERTY_SHARED_STRINGS, false))
+			{
+				int dictionarySize = getPropertiesUtil().getIntegerProperty(jasperPrint, 
+						XlsxExporterConfiguration.PROPERTY_SHARED_STRINGS_DICTIONARY_SIZE, 100000);
+				sharedStringsHelper = 
+					new XlsxSharedStringsHelper(
+						jasperReportsContext, 
+						xlsxZip.addSharedStrings().getWriter(), 
+						dictionarySize
+						);
+				sharedStringsHelper.exportHeader();
+				relsHelper.setContainsSharedStrings(true);
+				ctHelper.setContainsSharedStrings(true);
+			}
+			
 			relsHelper.exportHeader();
 			ctHelper.exportHeader();
 
@@ -47,6 +47,7 @@ import net.sf.jasperreports.engine.type.RotationEnum;
  */
 public class XlsxCellHelper extends BaseHelper
 {
+	private static final int COLUMN_NAMES_CACHE_SIZE = 256;
 
 	/**
 	 *
@@ -55,6 +56,7 @@ public class XlsxCellHelper extends BaseHelper
 //	private XlsxBorderHelper borderHelper;
 	
 	private final TypeTextValueHandler textValueHandler = new TypeTextValueHandler();
+	private String[] columnNames;
 	
 	/**
 	 *
@@ -126,6 +128,46 @@ public class XlsxCellHelper extends BaseHelper
 		RotationEnum rotation,
 		JRXlsAbstractExporter.SheetInfo sheetInfo
 		) 
+	{
+		exportHeader(
+				gridCell, 
+				rowIndex, 
+				colIndex, 
+				maxColIndex, 
+				textValue, 
+				pattern, 
+				locale, 
+				isWrapText, 
+				isHidden, 
+				isLocked, 
+				isShrinkToFit, 
+				isIgnoreTextFormatting, 
+				rotation, 
+				sheetInfo, 
+				false);
+	}
+
+	/**
+	 * Writes the cell header, using the shared string cell type for string cells 
+	 * if <code>isSharedString</code> is set.
+	 */
+	public void exportHeader(
+		JRExporterGridCell gridCell,
+		int rowIndex,
+		int colIndex, 
+		int maxColIndex, 
+		TextValue textValue,
+		String pattern,
+		Locale locale,
+		boolean isWrapText,
+		boolean isHidden,
+		boolean isLocked,
+		boolean isShrinkToFit,
+		boolean isIgnoreTextFormatting, 
+		RotationEnum rotation,
+		JRXlsAbstractExporter.SheetInfo sheetInfo,
+		boolean isSharedString
+		) 
 	{
 		try
 		{
@@ -174,19 +216,44 @@ public class XlsxCellHelper extends BaseHelper
 			}
 		}
 		
-		write("  <c r=\"" 
-			+ JRXlsAbstractExporter.getColumIndexName(colIndex, maxColIndex) 
-			+ (rowIndex + 1) 
-			+ "\" s=\"" + styleIndex + "\""
-			);
-		String type = textValueHandler.getType();
+		// writing the pieces one by one avoids building a string for each cell
+		write("  <c r=\"");
+		write(getColumnName(colIndex, maxColIndex));
+		write(String.valueOf(rowIndex + 1));
+		write("\" s=\"");
+		write(styleIndex.toString());
+		write("\"");
+		String type = isSharedString && textValueHandler.isString() ? "s" : textValueHandler.getType();
 		if (type != null)
 		{
-			write(" t=\"" + type + "\"");
+			write(" t=\"");
+			write(type);
+			write("\"");
 		}
 		write(">");
 	}
 
+	private String getColumnName(int colIndex, int maxColIndex)
+	{
+		if (colIndex < 0 || colIndex > maxColIndex || colIndex >= COLUMN_NAMES_CACHE_SIZE)
+		{
+			return JRXlsAbstractExporter.getColumIndexName(colIndex, maxColIndex);
+		}
+		
+		if (columnNames == null)
+		{
+			columnNames = new String[COLUMN_NAMES_CACHE_SIZE];
+		}
+		
+		String columnName = columnNames[colIndex];
+		if (columnName == null)
+		{
+			columnName = JRXlsAbstractExporter.getColumIndexName(colIndex, maxColIndex);
+			columnNames[colIndex] = columnName;
+		}
+		return columnName;
+	}
+
 	/**
 	 *
 	 */
@@ -228,4 +295,9 @@ class TypeTextValueHandler implements TextValueHandler
 	{
 		return type;
 	}
+	
+	public boolean isString()
+	{
+		return "inlineStr".equals(type);
+	}
 }
@@ -0,0 +1,115 @@
+/*
+ * JasperReports - Free Java Reporting Library.
+ * Copyright (C) 2001 - 2016 TIBCO Software Inc. All rights reserved.
+ * http://www.jaspersoft.com
+ *
+ * Unless you have purchased a commercial license agreement from Jaspersoft,
+ * the following license terms apply:
+ *
+ * This program is part of JasperReports.
+ *
+ * JasperReports is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JasperReports is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with JasperReports. If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.sf.jasperreports.engine.export.ooxml;
+
+import java.io.Writer;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import net.sf.jasperreports.engine.JasperReportsContext;
+import net.sf.jasperreports.engine.util.JRStringUtil;
+
+
+/**
+ * Writes the shared strings table of a XLSX workbook as texts are added to it.
+ * <p/>
+ * The table entries are written directly to the zip entry, which is buffered to a file
+ * once it exceeds the memory threshold.
+ * Only the indexes of the most recently used texts are kept in memory for reuse;
+ * texts that were forgotten get new table entries if they occur again.
+ */
+public class XlsxSharedStringsHelper extends BaseHelper
+{
+
+	private final Map<String, Integer> stringIndexes;
+	private int stringCount;
+	private String invalidCharReplacement;
+
+	/**
+	 * 
+	 */
+	public XlsxSharedStringsHelper(JasperReportsContext jasperReportsContext, Writer writer, 
+			final int dictionarySize)
+	{
+		super(jasperReportsContext, writer);
+		
+		this.stringIndexes = new LinkedHashMap<String, Integer>(16, 0.75f, true)
+		{
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, Integer> eldest)
+			{
+				return size() > dictionarySize;
+			}
+		};
+	}
+
+	/**
+	 * 
+	 */
+	public void exportHeader()
+	{
+		write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+		write("<sst xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\">\n");
+	}
+
+	/**
+	 * Returns the index of the shared strings table entry for a text, adding a new entry if needed.
+	 */
+	public int getStringIndex(String text, String invalidCharReplacement)
+	{
+		if (
+			this.invalidCharReplacement == null 
+			? invalidCharReplacement != null 
+			: !this.invalidCharReplacement.equals(invalidCharReplacement)
+			)
+		{
+			// the encoded entries depend on the replacement
+			stringIndexes.clear();
+			this.invalidCharReplacement = invalidCharReplacement;
+		}
+		
+		Integer index = stringIndexes.get(text);
+		if (index == null)
+		{
+			index = stringCount++;
+			write("<si><t xml:space=\"preserve\">");
+			write(JRStringUtil.xmlEncode(text, invalidCharReplacement));
+			write("</t></si>\n");
+			stringIndexes.put(text, index);
+		}
+		return index;
+	}
+
+	/**
+	 * 
+	 */
+	public void exportFooter()
+	{
+		write("</sst>\n");
+		stringIndexes.clear();
+	}
+
+}
@@ -144,6 +144,18 @@ public class XlsxZip extends FileBufferedZip
 		return coreEntry;
 	}
 	
+	/**
+	 * 
+	 */
+	public ExportZipEntry addSharedStrings()
+	{
+		ExportZipEntry sharedStringsEntry = createEntry("xl/sharedStrings.xml");
+
+		exportZipEntries.add(sharedStringsEntry);
+
+		return sharedStringsEntry;
+	}
+	
 	/**
 	 * 
 	 */
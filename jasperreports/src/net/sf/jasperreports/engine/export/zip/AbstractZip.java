@@ -27,9 +27,16 @@ import java.io.IOException;
 import java.io.OutputStream;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.zip.Deflater;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipOutputStream;
 
+import net.sf.jasperreports.annotations.properties.Property;
+import net.sf.jasperreports.annotations.properties.PropertyScope;
+import net.sf.jasperreports.engine.JRPropertiesHolder;
+import net.sf.jasperreports.engine.JRPropertiesUtil;
+import net.sf.jasperreports.properties.PropertyConstants;
+
 
 /**
  * @author Teodor Danciu (teodord@users.sourceforge.net)
@@ -37,10 +44,47 @@ import java.util.zip.ZipOutputStream;
 public abstract class AbstractZip
 {
 
+	/**
+	 * Property that specifies the compression level used for the entries of zip based export formats (DOCX, XLSX, PPTX, ODT, ODS).
+	 * <p/>
+	 * The value is an integer between 0 (no compression) and 9 (best compression). 
+	 * The default value -1 means that the default compression level of the platform is used.
+	 */
+	@Property(
+			category = PropertyConstants.CATEGORY_EXPORT,
+			defaultValue = "-1",
+			scopes = {PropertyScope.CONTEXT, PropertyScope.REPORT},
+			sinceVersion = PropertyConstants.VERSION_6_4_3,
+			valueType = Integer.class
+			)
+	public static final String PROPERTY_COMPRESSION_LEVEL = JRPropertiesUtil.PROPERTY_PREFIX + "export.zip.compression.level";
+
+	/**
+	 * Property that specifies whether entries of zip based export formats should be written to the output 
+	 * as soon as they are complete, instead of being kept in buffers until the end of the export.
+	 * <p/>
+	 * When streaming, parts such as XLSX sheets, PPTX slides and images are written and their buffers 
+	 * released as the export progresses, and the parts that are completed at the end of the export 
+	 * (workbook, styles, relationships, content types) are written last.
+	 * <p/>
+	 * This property is by default not set (<code>false</code>).
+	 */
+	@Property(
+			category = PropertyConstants.CATEGORY_EXPORT,
+			defaultValue = PropertyConstants.BOOLEAN_FALSE,
+			scopes = {PropertyScope.CONTEXT, PropertyScope.REPORT},
+			sinceVersion = PropertyConstants.VERSION_6_4_3,
+			valueType = Boolean.class
+			)
+	public static final String PROPERTY_STREAMING = JRPropertiesUtil.PROPERTY_PREFIX + "export.zip.streaming";
+
 	/**
 	 * 
 	 */
 	protected List<ExportZipEntry> exportZipEntries = new ArrayList<ExportZipEntry>();
+	
+	private int compressionLevel = Deflater.DEFAULT_COMPRESSION;
+	private ZipOutputStream streamingOutput;
 
 	/**
 	 *
@@ -56,19 +100,98 @@ public abstract class AbstractZip
 	}
 	
 	/**
-	 *
+	 * Applies the zip settings of a report and starts streaming the entries to the output if configured.
+	 * 
+	 * @see #PROPERTY_COMPRESSION_LEVEL
+	 * @see #PROPERTY_STREAMING
 	 */
-	public void zipEntries(OutputStream os) throws IOException
+	public void configure(JRPropertiesUtil propertiesUtil, JRPropertiesHolder propertiesHolder, OutputStream os)
+	{
+		setCompressionLevel(propertiesUtil.getIntegerProperty(propertiesHolder, PROPERTY_COMPRESSION_LEVEL, 
+				Deflater.DEFAULT_COMPRESSION));
+		
+		if (propertiesUtil.getBooleanProperty(propertiesHolder, PROPERTY_STREAMING, false))
+		{
+			startStreaming(os);
+		}
+	}
+	
+	/**
+	 * Sets the compression level of the zip entries.
+	 * 
+	 * @param compressionLevel the compression level, between 0 and 9, or -1 for the default level
+	 */
+	public void setCompressionLevel(int compressionLevel)
+	{
+		this.compressionLevel = compressionLevel;
+	}
+	
+	/**
+	 * Starts writing the zip to an output stream, so that completed entries can be written
+	 * by {@link #writeEntry(ExportZipEntry)} before the end of the export.
+	 */
+	public void startStreaming(OutputStream os)
+	{
+		if (streamingOutput == null)
+		{
+			streamingOutput = createZipOutputStream(os);
+		}
+	}
+	
+	/**
+	 * Determines whether the zip entries are streamed to the output.
+	 */
+	public boolean isStreaming()
+	{
+		return streamingOutput != null;
+	}
+	
+	/**
+	 * Writes an entry whose content is complete to the output if the zip is streamed, 
+	 * and releases the entry's buffer.
+	 * If the zip is not streamed, the entry is written by {@link #zipEntries(OutputStream)}.
+	 */
+	public void writeEntry(ExportZipEntry entry) throws IOException
+	{
+		if (streamingOutput != null)
+		{
+			// searching from the end as the entry has most likely been recently added
+			int index = exportZipEntries.lastIndexOf(entry);
+			if (index >= 0)
+			{
+				exportZipEntries.remove(index);
+				putEntry(streamingOutput, entry);
+				entry.dispose();
+			}
+		}
+	}
+	
+	protected ZipOutputStream createZipOutputStream(OutputStream os)
 	{
 		ZipOutputStream zipos = new ZipOutputStream(os);
 		zipos.setMethod(ZipOutputStream.DEFLATED);
+		zipos.setLevel(compressionLevel);
+		return zipos;
+	}
+	
+	protected void putEntry(ZipOutputStream zipos, ExportZipEntry exportZipEntry) throws IOException
+	{
+		ZipEntry zipEntry = new ZipEntry(exportZipEntry.getName());
+		zipos.putNextEntry(zipEntry);
+		exportZipEntry.writeData(zipos);
+	}
+	
+	/**
+	 *
+	 */
+	public void zipEntries(OutputStream os) throws IOException
+	{
+		ZipOutputStream zipos = streamingOutput == null ? createZipOutputStream(os) : streamingOutput;
 		
 		for (int i = 0; i < exportZipEntries.size(); i++) 
 		{
 			ExportZipEntry exportZipEntry = exportZipEntries.get(i);
-			ZipEntry zipEntry = new ZipEntry(exportZipEntry.getName());
-			zipos.putNextEntry(zipEntry);
-			exportZipEntry.writeData(zipos);
+			putEntry(zipos, exportZipEntry);
 		}
 		
 		zipos.flush();
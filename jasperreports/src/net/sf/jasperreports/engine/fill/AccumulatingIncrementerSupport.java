@@ -0,0 +1,149 @@
+/*
+ * JasperReports - Free Java Reporting Library.
+ * Copyright (C) 2001 - 2016 TIBCO Software Inc. All rights reserved.
+ * http://www.jaspersoft.com
+ *
+ * Unless you have purchased a commercial license agreement from Jaspersoft,
+ * the following license terms apply:
+ *
+ * This program is part of JasperReports.
+ *
+ * JasperReports is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JasperReports is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with JasperReports. If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.sf.jasperreports.engine.fill;
+
+import net.sf.jasperreports.engine.JRException;
+import net.sf.jasperreports.engine.JRExpression;
+
+
+/**
+ * In place accumulation logic shared by the built-in numeric incrementers.
+ * 
+ * @see JRAccumulatingIncrementer
+ */
+final class AccumulatingIncrementerSupport
+{
+
+	private AccumulatingIncrementerSupport()
+	{
+	}
+
+	/**
+	 * Count calculation, equivalent to the <code>COUNT</code> incrementers.
+	 */
+	static void count(JRFillVariable variable, NumericAccumulator result, Object expressionValue)
+	{
+		NumericAccumulator incremented = variable.getIncrementedAccumulator();
+		if (incremented.isNull() || variable.isInitialized())
+		{
+			result.setZero();
+		}
+		else
+		{
+			result.copy(incremented);
+		}
+
+		if (expressionValue != null)
+		{
+			result.addOne();
+		}
+	}
+
+	/**
+	 * Sum calculation, equivalent to the <code>SUM</code> incrementers.
+	 */
+	static void sum(JRFillVariable variable, NumericAccumulator result, Number expressionValue)
+	{
+		NumericAccumulator incremented = variable.getIncrementedAccumulator();
+		if (expressionValue == null)
+		{
+			if (variable.isInitialized())
+			{
+				result.setNull();
+			}
+			else
+			{
+				result.copy(incremented);
+			}
+			return;
+		}
+
+		if (incremented.isNull() || variable.isInitialized())
+		{
+			result.setZero();
+		}
+		else
+		{
+			result.copy(incremented);
+		}
+		result.add(expressionValue);
+	}
+
+	/**
+	 * Handles the case of <code>null</code> values for average calculations.
+	 * 
+	 * @return whether the value was <code>null</code> and the result has been set
+	 */
+	static boolean averageOfNull(JRFillVariable variable, NumericAccumulator result, Object expressionValue)
+	{
+		if (expressionValue == null)
+		{
+			if (variable.isInitialized())
+			{
+				result.setNull();
+			}
+			else
+			{
+				result.copy(variable.getAccumulator(JRExpression.EVALUATION_DEFAULT));
+			}
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Returns the accumulator of a helper variable.
+	 * 
+	 * @return the helper accumulator, or <code>null</code> if the helper variable does not use accumulators 
+	 * or if the helper value is <code>null</code>
+	 */
+	static NumericAccumulator helperAccumulator(JRFillVariable variable, byte helperType, byte evaluation)
+	{
+		JRCalculable helper = variable.getHelperVariable(helperType);
+		if (helper instanceof JRFillVariable && ((JRFillVariable) helper).isAccumulating())
+		{
+			NumericAccumulator accumulator = ((JRFillVariable) helper).getAccumulator(evaluation);
+			return accumulator.isNull() ? null : accumulator;
+		}
+		return null;
+	}
+
+	/**
+	 * Calls the regular increment method of the incrementer and sets the result in the accumulator.
+	 */
+	static void increment(
+		JRIncrementer incrementer,
+		JRFillVariable variable, 
+		NumericAccumulator result, 
+		Object expressionValue, 
+		byte evaluation
+		) throws JRException
+	{
+		AbstractValueProvider valueProvider = evaluation == JRExpression.EVALUATION_ESTIMATED 
+				? AbstractValueProvider.getEstimatedValueProvider()
+				: AbstractValueProvider.getCurrentValueProvider();
+		result.setValue(incrementer.increment(variable, expressionValue, valueProvider));
+	}
+
+}
@@ -116,6 +116,8 @@ public abstract class BaseReportFiller implements ReportFiller
 
 	protected FillListener fillListener;
 	
+	protected EvaluationProfiler evaluationProfiler;
+	
 	protected int usedPageWidth = 0;
 
 	public BaseReportFiller(JasperReportsContext jasperReportsContext, JasperReport jasperReport, 
@@ -250,6 +252,30 @@ public abstract class BaseReportFiller implements ReportFiller
 	public void addFillListener(FillListener fillListener)
 	{
 		this.fillListener = CompositeFillListener.addListener(this.fillListener, fillListener);
+		
+		if (fillListener instanceof EvaluationProfiler)
+		{
+			this.evaluationProfiler = (EvaluationProfiler) fillListener;
+		}
+	}
+	
+	/**
+	 * Returns the profiler that records expression evaluations performed by this filler.
+	 * 
+	 * <p>
+	 * Subreport fillers use the profiler of the master filler.
+	 * </p>
+	 * 
+	 * @return the profiler registered as fill listener, or <code>null</code> if profiling is not enabled
+	 * @see EvaluationProfiler
+	 */
+	public EvaluationProfiler getEvaluationProfiler()
+	{
+		if (evaluationProfiler == null && parent != null)
+		{
+			return parent.getFiller().getEvaluationProfiler();
+		}
+		return evaluationProfiler;
 	}
 
 	public JasperReportsContext getJasperReportsContext()
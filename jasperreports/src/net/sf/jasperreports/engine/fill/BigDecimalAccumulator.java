@@ -0,0 +1,222 @@
+/*
+ * JasperReports - Free Java Reporting Library.
+ * Copyright (C) 2001 - 2016 TIBCO Software Inc. All rights reserved.
+ * http://www.jaspersoft.com
+ *
+ * Unless you have purchased a commercial license agreement from Jaspersoft,
+ * the following license terms apply:
+ *
+ * This program is part of JasperReports.
+ *
+ * JasperReports is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JasperReports is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with JasperReports. If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.sf.jasperreports.engine.fill;
+
+import java.math.BigDecimal;
+
+
+/**
+ * Accumulator for <code>java.math.BigDecimal</code> values.
+ * <p>
+ * As long as the value fits, it is kept as a scaled <code>long</code> and additions
+ * are performed with primitive arithmetic.
+ * When a value does not fit, the accumulator switches to <code>java.math.BigDecimal</code>
+ * arithmetic for the rest of its lifetime.
+ * The results are identical to the ones obtained by adding the values as 
+ * <code>java.math.BigDecimal</code> objects, including the scale of the result.
+ * </p>
+ */
+public final class BigDecimalAccumulator extends NumericAccumulator
+{
+
+	private static final int MAX_LONG_PRECISION = 18;
+
+	private static final long[] POWERS_OF_TEN = new long[MAX_LONG_PRECISION + 1];
+	static
+	{
+		POWERS_OF_TEN[0] = 1;
+		for (int i = 1; i < POWERS_OF_TEN.length; i++)
+		{
+			POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+		}
+	}
+
+	private long unscaled;
+	private int scale;
+	private BigDecimal decimal;
+
+	@Override
+	public NumericAccumulator createEmpty()
+	{
+		return new BigDecimalAccumulator();
+	}
+
+	@Override
+	public long longValue()
+	{
+		return ((BigDecimal) getValue()).longValue();
+	}
+
+	@Override
+	public double doubleValue()
+	{
+		return ((BigDecimal) getValue()).doubleValue();
+	}
+
+	@Override
+	protected void load(Number number)
+	{
+		BigDecimal value = JRBigDecimalIncrementerFactory.toBigDecimal(number);
+		if (fitsLong(value))
+		{
+			unscaled = unscaledLong(value);
+			scale = value.scale();
+			decimal = null;
+		}
+		else
+		{
+			decimal = value;
+		}
+	}
+
+	@Override
+	protected void loadZero()
+	{
+		unscaled = 0;
+		scale = 0;
+		decimal = null;
+	}
+
+	@Override
+	protected void addNumber(Number number)
+	{
+		if (decimal == null)
+		{
+			if (
+				number instanceof Long || number instanceof Integer
+				|| number instanceof Short || number instanceof Byte
+				)
+			{
+				if (addScaled(number.longValue(), 0))
+				{
+					return;
+				}
+			}
+			else
+			{
+				BigDecimal value = JRBigDecimalIncrementerFactory.toBigDecimal(number);
+				if (fitsLong(value) && addScaled(unscaledLong(value), value.scale()))
+				{
+					return;
+				}
+			}
+
+			decimal = BigDecimal.valueOf(unscaled, scale);
+		}
+
+		decimal = decimal.add(JRBigDecimalIncrementerFactory.toBigDecimal(number));
+	}
+
+	@Override
+	protected void addUnit()
+	{
+		if (decimal == null)
+		{
+			if (addScaled(1, 0))
+			{
+				return;
+			}
+			decimal = BigDecimal.valueOf(unscaled, scale);
+		}
+
+		decimal = decimal.add(BigDecimal.ONE);
+	}
+
+	private boolean addScaled(long valueUnscaled, int valueScale)
+	{
+		try
+		{
+			long sum;
+			int sumScale;
+			if (valueScale > scale)
+			{
+				sum = addExact(multiplyExact(unscaled, POWERS_OF_TEN[valueScale - scale]), valueUnscaled);
+				sumScale = valueScale;
+			}
+			else
+			{
+				sum = addExact(unscaled, multiplyExact(valueUnscaled, POWERS_OF_TEN[scale - valueScale]));
+				sumScale = scale;
+			}
+
+			unscaled = sum;
+			scale = sumScale;
+			return true;
+		}
+		catch (ArithmeticException e)
+		{
+			// overflow, switching to BigDecimal
+			return false;
+		}
+	}
+
+	private static boolean fitsLong(BigDecimal value)
+	{
+		return value.scale() >= 0 && value.scale() <= MAX_LONG_PRECISION 
+				&& value.precision() <= MAX_LONG_PRECISION;
+	}
+
+	private static long unscaledLong(BigDecimal value)
+	{
+		return value.scale() == 0 ? value.longValue() : value.unscaledValue().longValue();
+	}
+
+	private static long multiplyExact(long x, long y)
+	{
+		long r = x * y;
+		long ax = Math.abs(x);
+		long ay = Math.abs(y);
+		if (((ax | ay) >>> 31 != 0) && ((y != 0 && r / y != x) || (x == Long.MIN_VALUE && y == -1)))
+		{
+			throw new ArithmeticException("long overflow");
+		}
+		return r;
+	}
+
+	private static long addExact(long x, long y)
+	{
+		long r = x + y;
+		if (((x ^ r) & (y ^ r)) < 0)
+		{
+			throw new ArithmeticException("long overflow");
+		}
+		return r;
+	}
+
+	@Override
+	protected void copyState(NumericAccumulator accumulator)
+	{
+		BigDecimalAccumulator decimalAccumulator = (BigDecimalAccumulator) accumulator;
+		unscaled = decimalAccumulator.unscaled;
+		scale = decimalAccumulator.scale;
+		decimal = decimalAccumulator.decimal;
+	}
+
+	@Override
+	protected Object createValue()
+	{
+		return decimal == null ? BigDecimal.valueOf(unscaled, scale) : decimal;
+	}
+
+}
@@ -31,9 +31,12 @@ import java.text.AttributedString;
 import java.text.BreakIterator;
 import java.text.CharacterIterator;
 import java.util.Iterator;
+import java.util.Locale;
 import java.util.Map;
 
 import net.sf.jasperreports.engine.JRCommonText;
+import net.sf.jasperreports.engine.JRPropertiesUtil;
+import net.sf.jasperreports.engine.util.BreakIteratorFactory;
 import net.sf.jasperreports.engine.util.JRStyledText;
 import net.sf.jasperreports.engine.util.MaxFontSizeFinder;
 
@@ -52,6 +55,13 @@ public class ComplexTextLineWrapper implements TextLineWrapper
 	private AttributedCharacterIterator paragraph;
 	private LineBreakMeasurer lineMeasurer;
 	
+	// break iterators can be reused for all paragraphs measured by the wrapper
+	private BreakIteratorFactory breakIteratorFactory;
+	private boolean reuseBreakIterators;
+	private Locale locale;
+	private BreakIterator lineBreakIterator;
+	private BreakIterator characterBreakIterator;
+	
 	public ComplexTextLineWrapper()
 	{
 	}
@@ -63,6 +73,9 @@ public class ComplexTextLineWrapper implements TextLineWrapper
 		
 		this.allParagraphs = parent.allParagraphs;
 		this.globalAttributes = parent.globalAttributes;
+		this.breakIteratorFactory = parent.breakIteratorFactory;
+		this.reuseBreakIterators = parent.reuseBreakIterators;
+		this.locale = parent.locale;
 	}
 
 	@Override
@@ -72,12 +85,25 @@ public class ComplexTextLineWrapper implements TextLineWrapper
 		
 		boolean isStyledText = !JRCommonText.MARKUP_NONE.equals(context.getElement().getMarkup());
 		maxFontSizeFinder = MaxFontSizeFinder.getInstance(isStyledText);
+		breakIteratorFactory = BreakIteratorFactory.getInstance(context.getJasperReportsContext());
+		reuseBreakIterators = JRPropertiesUtil.getInstance(context.getJasperReportsContext()).getBooleanProperty(
+				context.getPropertiesHolder(), TextMeasurer.PROPERTY_REUSE_LINE_MEASURERS, false);
 	}
 
 	@Override
 	public boolean start(JRStyledText styledText)
 	{
 		globalAttributes = styledText.getGlobalAttributes();
+		
+		Locale textLocale = styledText.getLocale();
+		if (textLocale == null ? locale != null : !textLocale.equals(locale))
+		{
+			// the iterators depend on the locale
+			locale = textLocale;
+			lineBreakIterator = null;
+			characterBreakIterator = null;
+		}
+		
 		allParagraphs = styledText.getAwtAttributedString(context.getJasperReportsContext(),
 				context.isIgnoreMissingFont()).getIterator();
 		return true;
@@ -103,11 +129,33 @@ public class ComplexTextLineWrapper implements TextLineWrapper
 	protected void startParagraph(AttributedCharacterIterator paragraph, boolean truncateAtChar)
 	{
 		this.paragraph = paragraph;
-		BreakIterator breakIt = truncateAtChar ? BreakIterator.getCharacterInstance() 
-				: BreakIterator.getLineInstance();
+		BreakIterator breakIt = getBreakIterator(truncateAtChar);
 		lineMeasurer = new LineBreakMeasurer(paragraph, breakIt, context.getFontRenderContext());
 	}
 
+	protected BreakIterator getBreakIterator(boolean truncateAtChar)
+	{
+		if (!reuseBreakIterators)
+		{
+			return breakIteratorFactory.getInstance(locale, truncateAtChar);
+		}
+		
+		if (truncateAtChar)
+		{
+			if (characterBreakIterator == null)
+			{
+				characterBreakIterator = breakIteratorFactory.getCharacterInstance(locale);
+			}
+			return characterBreakIterator;
+		}
+		
+		if (lineBreakIterator == null)
+		{
+			lineBreakIterator = breakIteratorFactory.getLineInstance(locale);
+		}
+		return lineBreakIterator;
+	}
+
 	@Override
 	public int paragraphPosition()
 	{
@@ -0,0 +1,126 @@
+/*
+ * JasperReports - Free Java Reporting Library.
+ * Copyright (C) 2001 - 2016 TIBCO Software Inc. All rights reserved.
+ * http://www.jaspersoft.com
+ *
+ * Unless you have purchased a commercial license agreement from Jaspersoft,
+ * the following license terms apply:
+ *
+ * This program is part of JasperReports.
+ *
+ * JasperReports is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JasperReports is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with JasperReports. If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.sf.jasperreports.engine.fill;
+
+
+/**
+ * Accumulator for <code>java.lang.Double</code> values.
+ * <p>
+ * Additions use Kahan compensated summation, so that sums over a large number of values
+ * do not accumulate rounding errors.
+ * </p>
+ */
+public final class DoubleAccumulator extends NumericAccumulator
+{
+
+	private double sum;
+	private double compensation;
+
+	@Override
+	public NumericAccumulator createEmpty()
+	{
+		return new DoubleAccumulator();
+	}
+
+	/**
+	 * Sets the accumulator value.
+	 *
+	 * @param value the value
+	 */
+	public void setDouble(double value)
+	{
+		sum = value;
+		compensation = 0;
+		modified();
+	}
+
+	@Override
+	public long longValue()
+	{
+		return (long) sum;
+	}
+
+	@Override
+	public double doubleValue()
+	{
+		return sum;
+	}
+
+	@Override
+	protected void load(Number number)
+	{
+		sum = number.doubleValue();
+		compensation = 0;
+	}
+
+	@Override
+	protected void loadZero()
+	{
+		sum = 0;
+		compensation = 0;
+	}
+
+	@Override
+	protected void addNumber(Number number)
+	{
+		addDouble(number.doubleValue());
+	}
+
+	@Override
+	protected void addUnit()
+	{
+		addDouble(1d);
+	}
+
+	private void addDouble(double number)
+	{
+		double y = number - compensation;
+		double t = sum + y;
+		if (Double.isNaN(t) || Double.isInfinite(t))
+		{
+			// no compensation for non finite sums, the result stays NaN/Infinity as with plain addition
+			compensation = 0;
+		}
+		else
+		{
+			compensation = (t - sum) - y;
+		}
+		sum = t;
+	}
+
+	@Override
+	protected void copyState(NumericAccumulator accumulator)
+	{
+		DoubleAccumulator doubleAccumulator = (DoubleAccumulator) accumulator;
+		sum = doubleAccumulator.sum;
+		compensation = doubleAccumulator.compensation;
+	}
+
+	@Override
+	protected Object createValue()
+	{
+		return Double.valueOf(sum);
+	}
+
+}
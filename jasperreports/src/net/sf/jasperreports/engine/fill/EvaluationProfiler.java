@@ -0,0 +1,436 @@
+/*
+ * JasperReports - Free Java Reporting Library.
+ * Copyright (C) 2001 - 2016 TIBCO Software Inc. All rights reserved.
+ * http://www.jaspersoft.com
+ *
+ * Unless you have purchased a commercial license agreement from Jaspersoft,
+ * the following license terms apply:
+ *
+ * This program is part of JasperReports.
+ *
+ * JasperReports is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JasperReports is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with JasperReports. If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.sf.jasperreports.engine.fill;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import net.sf.jasperreports.engine.JRExpression;
+import net.sf.jasperreports.engine.JasperPrint;
+import net.sf.jasperreports.engine.util.JRStringUtil;
+
+/**
+ * Fill listener that records expression evaluation statistics.
+ * <p>
+ * When an instance of this class is registered as fill listener via 
+ * {@link FillHandle#addFillListener(FillListener)} or {@link ReportFiller#addFillListener(FillListener)},
+ * the report filler measures each expression evaluation performed by the report datasets
+ * and by the datasets of subreports.
+ * For each expression, the profiler records the number of evaluations, the cumulative and maximum 
+ * evaluation times and the number of evaluations that resulted in exceptions, 
+ * together with the dataset, the band and the element that performed the evaluation.
+ * </p>
+ * <p>
+ * The statistics can be exported as JSON via {@link #writeJson(Writer)} or as folded stacks
+ * via {@link #writeFoldedStacks(Writer)}, a format that can be rendered by flame graph tools.
+ * </p>
+ * <p>
+ * Profiling adds overhead to each expression evaluation and should only be enabled while
+ * investigating report performance.
+ * </p>
+ */
+public class EvaluationProfiler implements FillListener
+{
+	
+	private static final String NO_BAND = "-";
+	private static final String NO_ELEMENT = "-";
+
+	private final ThreadLocal<ProfilingContext> currentContext = new ThreadLocal<ProfilingContext>();
+	
+	private final Map<String, ExpressionProfile> profiles = new LinkedHashMap<String, ExpressionProfile>();
+	
+	@Override
+	public void pageGenerated(JasperPrint jasperPrint, int pageIndex)
+	{
+		//NOP
+	}
+
+	@Override
+	public void pageUpdated(JasperPrint jasperPrint, int pageIndex)
+	{
+		//NOP
+	}
+	
+	/**
+	 * Sets the band and element to which subsequent evaluations on the current thread are attributed.
+	 * 
+	 * @param band the band name
+	 * @param element the element name
+	 * @return the previous context, to be passed to {@link #restoreContext(ProfilingContext)}
+	 */
+	public ProfilingContext enterContext(String band, String element)
+	{
+		ProfilingContext previous = currentContext.get();
+		currentContext.set(new ProfilingContext(band, element));
+		return previous;
+	}
+	
+	/**
+	 * Restores the context that was current before calling {@link #enterContext(String, String)}.
+	 * 
+	 * @param previous the previous context
+	 */
+	public void restoreContext(ProfilingContext previous)
+	{
+		if (previous == null)
+		{
+			currentContext.remove();
+		}
+		else
+		{
+			currentContext.set(previous);
+		}
+	}
+	
+	/**
+	 * Records an expression evaluation.
+	 * 
+	 * @param dataset the name of the dataset, qualified with the report name
+	 * @param expression the evaluated expression
+	 * @param nanos the evaluation duration in nanoseconds
+	 * @param failed whether the evaluation resulted in an exception
+	 */
+	public void expressionEvaluated(String dataset, JRExpression expression, long nanos, boolean failed)
+	{
+		ProfilingContext context = currentContext.get();
+		String band = context == null ? NO_BAND : context.band;
+		String element = context == null ? NO_ELEMENT : context.element;
+		String key = dataset + '\u0000' + expression.getId() + '\u0000' + band + '\u0000' + element;
+		
+		synchronized (profiles)
+		{
+			ExpressionProfile profile = profiles.get(key);
+			if (profile == null)
+			{
+				profile = new ExpressionProfile(dataset, expression.getId(), expression.getText(), band, element);
+				profiles.put(key, profile);
+			}
+			
+			++profile.count;
+			profile.totalNanos += nanos;
+			if (nanos > profile.maxNanos)
+			{
+				profile.maxNanos = nanos;
+			}
+			if (failed)
+			{
+				++profile.exceptionCount;
+			}
+		}
+	}
+	
+	/**
+	 * Returns a snapshot of the recorded expression statistics, sorted by cumulative evaluation time.
+	 */
+	public List<ExpressionProfile> getExpressionProfiles()
+	{
+		List<ExpressionProfile> list = new ArrayList<ExpressionProfile>();
+		synchronized (profiles)
+		{
+			for (ExpressionProfile profile : profiles.values())
+			{
+				list.add(profile.copy());
+			}
+		}
+		
+		Collections.sort(list, new Comparator<ExpressionProfile>()
+		{
+			@Override
+			public int compare(ExpressionProfile o1, ExpressionProfile o2)
+			{
+				return o1.totalNanos > o2.totalNanos ? -1 : (o1.totalNanos < o2.totalNanos ? 1 : 0);
+			}
+		});
+		return list;
+	}
+	
+	/**
+	 * Discards the recorded statistics.
+	 */
+	public void reset()
+	{
+		synchronized (profiles)
+		{
+			profiles.clear();
+		}
+	}
+	
+	/**
+	 * Writes the recorded statistics as a JSON object.
+	 * <p>
+	 * The object contains the list of expression statistics and totals aggregated
+	 * by dataset, band and element.
+	 * </p>
+	 * 
+	 * @param writer the writer to write to
+	 * @throws IOException
+	 */
+	public void writeJson(Writer writer) throws IOException
+	{
+		List<ExpressionProfile> expressionProfiles = getExpressionProfiles();
+		
+		Map<String, long[]> datasetTotals = new LinkedHashMap<String, long[]>();
+		Map<String, long[]> bandTotals = new LinkedHashMap<String, long[]>();
+		Map<String, long[]> elementTotals = new LinkedHashMap<String, long[]>();
+		
+		writer.write("{\"expressions\": [");
+		boolean first = true;
+		for (ExpressionProfile profile : expressionProfiles)
+		{
+			if (!first)
+			{
+				writer.write(",");
+			}
+			first = false;
+			
+			writer.write("\n  {\"dataset\": ");
+			writeJsonString(writer, profile.dataset);
+			writer.write(", \"id\": ");
+			writer.write(Integer.toString(profile.expressionId));
+			writer.write(", \"text\": ");
+			writeJsonString(writer, profile.expressionText);
+			writer.write(", \"band\": ");
+			writeJsonString(writer, profile.band);
+			writer.write(", \"element\": ");
+			writeJsonString(writer, profile.element);
+			writer.write(", \"count\": ");
+			writer.write(Long.toString(profile.count));
+			writer.write(", \"totalNanos\": ");
+			writer.write(Long.toString(profile.totalNanos));
+			writer.write(", \"maxNanos\": ");
+			writer.write(Long.toString(profile.maxNanos));
+			writer.write(", \"exceptions\": ");
+			writer.write(Long.toString(profile.exceptionCount));
+			writer.write("}");
+			
+			addTotal(datasetTotals, profile.dataset, profile);
+			addTotal(bandTotals, profile.band, profile);
+			addTotal(elementTotals, profile.band + "/" + profile.element, profile);
+		}
+		writer.write("\n ]");
+		
+		writeJsonTotals(writer, "datasets", datasetTotals);
+		writeJsonTotals(writer, "bands", bandTotals);
+		writeJsonTotals(writer, "elements", elementTotals);
+		writer.write("\n}\n");
+		writer.flush();
+	}
+	
+	/**
+	 * Writes the cumulative evaluation times as folded stacks, one line per expression
+	 * having the form <code>dataset;band;element;expression nanos</code>.
+	 * <p>
+	 * The output can be rendered as a flame graph by tools such as <code>flamegraph.pl</code>.
+	 * </p>
+	 * 
+	 * @param writer the writer to write to
+	 * @throws IOException
+	 */
+	public void writeFoldedStacks(Writer writer) throws IOException
+	{
+		for (ExpressionProfile profile : getExpressionProfiles())
+		{
+			writer.write(stackFrame(profile.dataset));
+			writer.write(';');
+			writer.write(stackFrame(profile.band));
+			writer.write(';');
+			writer.write(stackFrame(profile.element));
+			writer.write(";expression ");
+			writer.write(Integer.toString(profile.expressionId));
+			writer.write(' ');
+			writer.write(Long.toString(profile.totalNanos));
+			writer.write('\n');
+		}
+		writer.flush();
+	}
+	
+	protected void addTotal(Map<String, long[]> totals, String key, ExpressionProfile profile)
+	{
+		long[] total = totals.get(key);
+		if (total == null)
+		{
+			total = new long[3];
+			totals.put(key, total);
+		}
+		total[0] += profile.count;
+		total[1] += profile.totalNanos;
+		total[2] += profile.exceptionCount;
+	}
+	
+	protected void writeJsonTotals(Writer writer, String name, Map<String, long[]> totals) throws IOException
+	{
+		writer.write(",\n \"");
+		writer.write(name);
+		writer.write("\": [");
+		boolean first = true;
+		for (Map.Entry<String, long[]> entry : totals.entrySet())
+		{
+			if (!first)
+			{
+				writer.write(",");
+			}
+			first = false;
+			
+			long[] total = entry.getValue();
+			writer.write("\n  {\"name\": ");
+			writeJsonString(writer, entry.getKey());
+			writer.write(", \"count\": ");
+			writer.write(Long.toString(total[0]));
+			writer.write(", \"totalNanos\": ");
+			writer.write(Long.toString(total[1]));
+			writer.write(", \"exceptions\": ");
+			writer.write(Long.toString(total[2]));
+			writer.write("}");
+		}
+		writer.write("\n ]");
+	}
+	
+	protected void writeJsonString(Writer writer, String value) throws IOException
+	{
+		if (value == null)
+		{
+			writer.write("null");
+		}
+		else
+		{
+			writer.write('"');
+			writer.write(JRStringUtil.escapeJSONString(value));
+			writer.write('"');
+		}
+	}
+	
+	protected String stackFrame(String name)
+	{
+		return name.replace(';', ':').replace('\n', ' ').replace('\r', ' ');
+	}
+	
+	
+	/**
+	 * The band and element that perform evaluations on a thread.
+	 */
+	public static class ProfilingContext
+	{
+		private final String band;
+		private final String element;
+		
+		protected ProfilingContext(String band, String element)
+		{
+			this.band = band == null ? NO_BAND : band;
+			this.element = element == null ? NO_ELEMENT : element;
+		}
+	}
+	
+	
+	/**
+	 * Evaluation statistics for an expression.
+	 */
+	public static class ExpressionProfile
+	{
+		private final String dataset;
+		private final int expressionId;
+		private final String expressionText;
+		private final String band;
+		private final String element;
+		
+		private long count;
+		private long totalNanos;
+		private long maxNanos;
+		private long exceptionCount;
+		
+		protected ExpressionProfile(String dataset, int expressionId, String expressionText, 
+				String band, String element)
+		{
+			this.dataset = dataset;
+			this.expressionId = expressionId;
+			this.expressionText = expressionText;
+			this.band = band;
+			this.element = element;
+		}
+		
+		protected ExpressionProfile copy()
+		{
+			ExpressionProfile copy = new ExpressionProfile(dataset, expressionId, expressionText, band, element);
+			copy.count = count;
+			copy.totalNanos = totalNanos;
+			copy.maxNanos = maxNanos;
+			copy.exceptionCount = exceptionCount;
+			return copy;
+		}
+
+		/**
+		 * Returns the dataset name, qualified with the report name.
+		 */
+		public String getDataset()
+		{
+			return dataset;
+		}
+
+		public int getExpressionId()
+		{
+			return expressionId;
+		}
+
+		public String getExpressionText()
+		{
+			return expressionText;
+		}
+
+		public String getBand()
+		{
+			return band;
+		}
+
+		public String getElement()
+		{
+			return element;
+		}
+
+		public long getCount()
+		{
+			return count;
+		}
+
+		public long getTotalNanos()
+		{
+			return totalNanos;
+		}
+
+		public long getMaxNanos()
+		{
+			return maxNanos;
+		}
+
+		public long getExceptionCount()
+		{
+			return exceptionCount;
+		}
+	}
+	
+}
@@ -0,0 +1,175 @@
+/*
+ * JasperReports - Free Java Reporting Library.
+ * Copyright (C) 2001 - 2016 TIBCO Software Inc. All rights reserved.
+ * http://www.jaspersoft.com
+ *
+ * Unless you have purchased a commercial license agreement from Jaspersoft,
+ * the following license terms apply:
+ *
+ * This program is part of JasperReports.
+ *
+ * JasperReports is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JasperReports is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with JasperReports. If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.sf.jasperreports.engine.fill;
+
+import java.awt.Font;
+import java.awt.font.FontRenderContext;
+import java.awt.font.TextAttribute;
+import java.awt.geom.Rectangle2D;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import net.sf.jasperreports.engine.util.Pair;
+
+/**
+ * Table of glyph advances for a font, used for fast measurement of simple texts.
+ * <p>
+ * For fonts without layout attributes and texts that do not contain complex script characters,
+ * the width of a text is the sum of the individual character advances.
+ * The table stores the advances of characters that precede the first complex layout character (U+0300)
+ * so that such texts can be measured with array lookups instead of
+ * {@link Font#getStringBounds(String, int, int, FontRenderContext)} calls.
+ * The advances are summed in the same manner as the AWT simple text measurement does, 
+ * therefore the results are identical to the ones obtained from AWT.
+ * </p>
+ * <p>
+ * Advances are computed lazily, when a character is first measured.
+ * Tables are shared process wide, a limited number of least recently used tables being kept.
+ * </p>
+ * 
+ * @see SimpleTextLineWrapper#PROPERTY_ADVANCE_TABLES
+ */
+public class GlyphAdvanceTable
+{
+
+	/**
+	 * The number of characters covered by the table.
+	 */
+	public static final int TABLE_SIZE = 0x0300;// the start of complex layout chars in sun.font.FontUtilities
+	
+	private static final int TABLES_CACHE_SIZE = 256;
+	
+	private static final Map<Pair<Font, FontRenderContext>, GlyphAdvanceTable> tables = 
+			new LinkedHashMap<Pair<Font, FontRenderContext>, GlyphAdvanceTable>(64, 0.75f, true)
+			{
+				private static final long serialVersionUID = 1L;
+
+				@Override
+				protected boolean removeEldestEntry(Entry<Pair<Font, FontRenderContext>, GlyphAdvanceTable> eldest)
+				{
+					return size() > TABLES_CACHE_SIZE;
+				}
+			};
+
+	/**
+	 * Returns the advance table for a font.
+	 * 
+	 * @param font the font
+	 * @param fontRenderContext the font render context used for measuring
+	 * @return the advance table, or <code>null</code> if the font has attributes 
+	 * that require complex text layout
+	 */
+	public static GlyphAdvanceTable getTable(Font font, FontRenderContext fontRenderContext)
+	{
+		if (!isSimpleFont(font))
+		{
+			return null;
+		}
+		
+		Pair<Font, FontRenderContext> key = new Pair<Font, FontRenderContext>(font, fontRenderContext);
+		synchronized (tables)
+		{
+			GlyphAdvanceTable table = tables.get(key);
+			if (table == null)
+			{
+				table = new GlyphAdvanceTable(font, fontRenderContext);
+				tables.put(key, table);
+			}
+			return table;
+		}
+	}
+	
+	protected static boolean isSimpleFont(Font font)
+	{
+		if (font.hasLayoutAttributes() || font.isTransformed())
+		{
+			return false;
+		}
+		
+		Map<TextAttribute, ?> attributes = font.getAttributes();
+		Object superscript = attributes.get(TextAttribute.SUPERSCRIPT);
+		return (superscript == null || ((Number) superscript).intValue() == 0)
+				&& attributes.get(TextAttribute.TRANSFORM) == null;
+	}
+	
+	private final Font font;
+	private final FontRenderContext fontRenderContext;
+	private final float[] advances;
+	private final float boundsY;
+	private final float boundsHeight;
+	
+	protected GlyphAdvanceTable(Font font, FontRenderContext fontRenderContext)
+	{
+		this.font = font;
+		this.fontRenderContext = fontRenderContext;
+		
+		this.advances = new float[TABLE_SIZE];
+		Arrays.fill(advances, Float.NaN);
+		
+		// the vertical bounds do not depend on the text for simple layouts
+		Rectangle2D bounds = font.getStringBounds(new char[]{' '}, 0, 1, fontRenderContext);
+		this.boundsY = (float) bounds.getY();
+		this.boundsHeight = (float) bounds.getHeight();
+	}
+	
+	/**
+	 * Measures a text fragment using the advance table.
+	 * 
+	 * @param text the text
+	 * @param start the start index of the fragment, inclusive
+	 * @param end the end index of the fragment, exclusive
+	 * @return the bounds of the text fragment, or <code>null</code> if the fragment
+	 * contains characters not covered by the table
+	 */
+	public Rectangle2D getStringBounds(String text, int start, int end)
+	{
+		float width = 0;
+		for (int i = start; i < end; ++i)
+		{
+			char c = text.charAt(i);
+			if (c >= TABLE_SIZE)
+			{
+				return null;
+			}
+			
+			float advance = advances[c];
+			if (advance != advance)//NaN
+			{
+				advance = measureAdvance(c);
+				advances[c] = advance;
+			}
+			width += advance;
+		}
+		return new Rectangle2D.Float(0f, boundsY, width, boundsHeight);
+	}
+
+	protected float measureAdvance(char c)
+	{
+		Rectangle2D bounds = font.getStringBounds(new char[]{c}, 0, 1, fontRenderContext);
+		return (float) bounds.getWidth();
+	}
+	
+}
@@ -0,0 +1,71 @@
+/*
+ * JasperReports - Free Java Reporting Library.
+ * Copyright (C) 2001 - 2016 TIBCO Software Inc. All rights reserved.
+ * http://www.jaspersoft.com
+ *
+ * Unless you have purchased a commercial license agreement from Jaspersoft,
+ * the following license terms apply:
+ *
+ * This program is part of JasperReports.
+ *
+ * JasperReports is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JasperReports is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with JasperReports. If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.sf.jasperreports.engine.fill;
+
+import net.sf.jasperreports.engine.JRException;
+
+
+/**
+ * Incrementer that is able to update variable values in place, using primitive
+ * {@link NumericAccumulator accumulators} instead of creating a new value object at each increment.
+ * <p>
+ * When the variables of a dataset use accumulating incrementers, the fill engine keeps
+ * the current, old, estimated and incremented values of the variables in accumulators and only creates 
+ * value objects when the values are read, e.g. by expressions.
+ * The results of the in place accumulation need to be the same as the results of
+ * {@link JRIncrementer#increment(JRFillVariable, Object, AbstractValueProvider) increment}.
+ * </p>
+ *
+ * @see JRFillDataset#PROPERTY_VARIABLE_ACCUMULATORS
+ */
+public interface JRAccumulatingIncrementer extends JRIncrementer
+{
+
+	/**
+	 * Creates an empty accumulator for the values of a variable.
+	 * 
+	 * @param variable the variable
+	 * @return an accumulator for the variable values, or <code>null</code> if
+	 * the variable cannot be accumulated in place by this incrementer
+	 */
+	NumericAccumulator createAccumulator(JRFillVariable variable);
+
+	/**
+	 * Increments a variable value in place.
+	 * 
+	 * @param variable the variable
+	 * @param result the accumulator that receives the incremented value
+	 * @param expressionValue the value of the variable expression
+	 * @param evaluation the evaluation type, {@link net.sf.jasperreports.engine.JRExpression#EVALUATION_DEFAULT} or 
+	 * {@link net.sf.jasperreports.engine.JRExpression#EVALUATION_ESTIMATED}, used to read helper variable values
+	 * @throws JRException
+	 */
+	void accumulate(
+		JRFillVariable variable, 
+		NumericAccumulator result, 
+		Object expressionValue, 
+		byte evaluation
+		) throws JRException;
+
+}
@@ -164,7 +164,7 @@ public final class JRBigDecimalIncrementerFactory extends JRAbstractExtendedIncr
 /**
  *
  */
-final class JRBigDecimalCountIncrementer extends JRAbstractExtendedIncrementer
+final class JRBigDecimalCountIncrementer extends JRAbstractExtendedIncrementer implements JRAccumulatingIncrementer
 {
 	/**
 	 *
@@ -229,6 +229,18 @@ final class JRBigDecimalCountIncrementer extends JRAbstractExtendedIncrementer
 	}
 
 	
+	@Override
+	public NumericAccumulator createAccumulator(JRFillVariable variable)
+	{
+		return new BigDecimalAccumulator();
+	}
+
+	@Override
+	public void accumulate(JRFillVariable variable, NumericAccumulator result, Object expressionValue, byte evaluation)
+	{
+		AccumulatingIncrementerSupport.count(variable, result, expressionValue);
+	}
+
 	@Override
 	public Object initialValue()
 	{
@@ -300,7 +312,7 @@ final class JRBigDecimalDistinctCountIncrementer extends JRAbstractExtendedIncre
 /**
  *
  */
-final class JRBigDecimalSumIncrementer extends JRAbstractExtendedIncrementer
+final class JRBigDecimalSumIncrementer extends JRAbstractExtendedIncrementer implements JRAccumulatingIncrementer
 {
 	/**
 	 *
@@ -351,6 +363,21 @@ final class JRBigDecimalSumIncrementer extends JRAbstractExtendedIncrementer
 	}
 
 	
+	@Override
+	public NumericAccumulator createAccumulator(JRFillVariable variable)
+	{
+		return new BigDecimalAccumulator();
+	}
+
+	@Override
+	public void accumulate(JRFillVariable variable, NumericAccumulator result, Object expressionValue, byte evaluation)
+	{
+		Number newValue = expressionValue == null || expressionValue instanceof Number 
+				? (Number) expressionValue
+				: JRBigDecimalIncrementerFactory.toBigDecimal(expressionValue);
+		AccumulatingIncrementerSupport.sum(variable, result, newValue);
+	}
+
 	@Override
 	public Object initialValue()
 	{
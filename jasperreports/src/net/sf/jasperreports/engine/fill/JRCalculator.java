@@ -32,6 +32,7 @@ import java.util.Map;
 
 import net.sf.jasperreports.engine.JRException;
 import net.sf.jasperreports.engine.JRExpression;
+import net.sf.jasperreports.engine.JRExpressionChunk;
 import net.sf.jasperreports.engine.JRPropertiesUtil;
 import net.sf.jasperreports.engine.JRVariable;
 import net.sf.jasperreports.engine.type.IncrementTypeEnum;
@@ -80,6 +81,14 @@ public class JRCalculator implements JRFillExpressionEvaluator
 	private JRFillVariable pageNumber;
 	private JRFillVariable columnNumber;
 	
+	/**
+	 * The fields directly referenced by variable expressions, indexed as the variables.
+	 */
+	private JRFillField[] variableExpressionFields;
+	
+	private EvaluationProfiler evaluationProfiler;
+	private String profilerDatasetName;
+	
 	/**
 	 * The expression evaluator
 	 */
@@ -136,6 +145,66 @@ public class JRCalculator implements JRFillExpressionEvaluator
 					true
 					);
 		evaluator.init(parsm, fldsm,varsm, whenResourceMissingType, ignoreNPE);
+		
+		initVariableExpressionFields();
+	}
+
+
+	/**
+	 * Collects the fields that are directly referenced by variable expressions, 
+	 * so that their values can be used without going through the expression evaluator.
+	 * 
+	 * @see JRFillDataset#PROPERTY_VARIABLE_FIELD_REFERENCES
+	 */
+	protected void initVariableExpressionFields()
+	{
+		variableExpressionFields = null;
+		
+		// decorated evaluators might provide their own values for the field expressions
+		if (variables == null || variables.length == 0
+				|| !(evaluator instanceof JREvaluator)
+				|| !JRPropertiesUtil.getInstance(getFillDataset().getJasperReportsContext()).getBooleanProperty(
+						getFillDataset(), JRFillDataset.PROPERTY_VARIABLE_FIELD_REFERENCES, true))
+		{
+			return;
+		}
+		
+		JRFillField[] expressionFields = new JRFillField[variables.length];
+		boolean found = false;
+		for (int i = 0; i < variables.length; i++)
+		{
+			JRFillField field = getReferencedField(variables[i].getExpression());
+			if (field != null)
+			{
+				expressionFields[i] = field;
+				found = true;
+			}
+		}
+		
+		if (found)
+		{
+			variableExpressionFields = expressionFields;
+		}
+	}
+
+
+	/**
+	 * Returns the field referenced by an expression that consists of a single field chunk.
+	 */
+	private JRFillField getReferencedField(JRExpression expression)
+	{
+		if (expression == null)
+		{
+			return null;
+		}
+		
+		JRExpressionChunk[] chunks = expression.getChunks();
+		if (chunks == null || chunks.length != 1 || chunks[0].getType() != JRExpressionChunk.TYPE_FIELD)
+		{
+			return null;
+		}
+		
+		return fldsm.get(chunks[0].getText());
 	}
 
 
@@ -167,14 +236,23 @@ public class JRCalculator implements JRFillExpressionEvaluator
 			for(int i = 0; i < variables.length; i++)
 			{
 				JRFillVariable variable = variables[i];
-				Object expressionValue = evaluate(variable.getExpression());
-				Object newValue = variable.getIncrementer().increment(variable, expressionValue, AbstractValueProvider.getCurrentValueProvider());
-				variable.setValue(newValue);
+				Object expressionValue = evaluateVariableExpression(i, variable.getExpression(), JRExpression.EVALUATION_DEFAULT);
+				if (variable.isAccumulating())
+				{
+					((JRAccumulatingIncrementer) variable.getIncrementer()).accumulate(
+							variable, variable.getAccumulator(JRExpression.EVALUATION_DEFAULT), 
+							expressionValue, JRExpression.EVALUATION_DEFAULT);
+				}
+				else
+				{
+					Object newValue = variable.getIncrementer().increment(variable, expressionValue, AbstractValueProvider.getCurrentValueProvider());
+					variable.setValue(newValue);
+				}
 				variable.setInitialized(false);
 
 				if (variable.getIncrementTypeValue() == IncrementTypeEnum.NONE)
 				{
-					variable.setIncrementedValue(variable.getValue());
+					variable.setIncrementedValueToValue();
 				}
 			}
 		}
@@ -195,6 +273,34 @@ public class JRCalculator implements JRFillExpressionEvaluator
 	}
 
 
+	/**
+	 * Evaluates the expression of a variable, using the value of the field directly
+	 * when the expression is a single field reference.
+	 */
+	private Object evaluateVariableExpression(int variableIndex, JRExpression expression, byte evaluationType) throws JRExpressionEvalException
+	{
+		JRFillField field = variableExpressionFields == null ? null : variableExpressionFields[variableIndex];
+		if (field == null)
+		{
+			return evaluationType == JRExpression.EVALUATION_ESTIMATED 
+					? evaluateEstimated(expression) 
+					: evaluate(expression);
+		}
+		
+		// field values do not have distinct estimated values
+		if (evaluationProfiler == null)
+		{
+			return field.getValue();
+		}
+		
+		long start = System.nanoTime();
+		Object value = field.getValue();
+		evaluationProfiler.expressionEvaluated(profilerDatasetName, expression, 
+				System.nanoTime() - start, false);
+		return value;
+	}
+
+
 	/**
 	 *
 	 */
@@ -205,9 +311,18 @@ public class JRCalculator implements JRFillExpressionEvaluator
 			for(int i = 0; i < variables.length; i++)
 			{
 				JRFillVariable variable = variables[i];
-				Object expressionValue = evaluateEstimated(variable.getExpression());
-				Object newValue = variable.getIncrementer().increment(variable, expressionValue,  AbstractValueProvider.getEstimatedValueProvider());
-				variable.setEstimatedValue(newValue);
+				Object expressionValue = evaluateVariableExpression(i, variable.getExpression(), JRExpression.EVALUATION_ESTIMATED);
+				if (variable.isAccumulating())
+				{
+					((JRAccumulatingIncrementer) variable.getIncrementer()).accumulate(
+							variable, variable.getAccumulator(JRExpression.EVALUATION_ESTIMATED), 
+							expressionValue, JRExpression.EVALUATION_ESTIMATED);
+				}
+				else
+				{
+					Object newValue = variable.getIncrementer().increment(variable, expressionValue,  AbstractValueProvider.getEstimatedValueProvider());
+					variable.setEstimatedValue(newValue);
+				}
 				//variable.setInitialized(false);
 			}
 		}
@@ -261,7 +376,7 @@ public class JRCalculator implements JRFillExpressionEvaluator
 						JRFillGroup group = (JRFillGroup)variable.getIncrementGroup();
 						if (group.hasChanged())
 						{
-							variable.setIncrementedValue(variable.getValue());
+							variable.setIncrementedValueToValue();
 						}
 					}
 				}
@@ -371,7 +486,7 @@ public class JRCalculator implements JRFillExpressionEvaluator
 
 			if (toIncrement)
 			{
-				variable.setIncrementedValue(variable.getValue());
+				variable.setIncrementedValueToValue();
 //				variable.setValue(
 //					evaluate(variable.getInitialValueExpression())
 //					);
@@ -380,7 +495,7 @@ public class JRCalculator implements JRFillExpressionEvaluator
 		}
 		else
 		{
-			variable.setIncrementedValue(variable.getValue());
+			variable.setIncrementedValueToValue();
 //			variable.setValue(
 //				evaluate(variable.getExpression())
 //				);
@@ -499,7 +614,7 @@ public class JRCalculator implements JRFillExpressionEvaluator
 			variable.setValue(
 				evaluate(variable.getExpression())
 				);
-			variable.setIncrementedValue(variable.getValue());
+			variable.setIncrementedValueToValue();
 		}
 	}
 
@@ -595,6 +710,10 @@ public class JRCalculator implements JRFillExpressionEvaluator
 	 */
 	public Object evaluateOld(JRExpression expression) throws JRExpressionEvalException
 	{
+		if (evaluationProfiler != null && expression != null)
+		{
+			return profiledEvaluate(expression, JRExpression.EVALUATION_OLD);
+		}
 		return evaluator.evaluateOld(expression);
 	}
 
@@ -604,6 +723,10 @@ public class JRCalculator implements JRFillExpressionEvaluator
 	 */
 	public Object evaluateEstimated(JRExpression expression) throws JRExpressionEvalException
 	{
+		if (evaluationProfiler != null && expression != null)
+		{
+			return profiledEvaluate(expression, JRExpression.EVALUATION_ESTIMATED);
+		}
 		return evaluator.evaluateEstimated(expression);
 	}
 
@@ -613,10 +736,64 @@ public class JRCalculator implements JRFillExpressionEvaluator
 	 */
 	public Object evaluate(JRExpression expression) throws JRExpressionEvalException
 	{
+		if (evaluationProfiler != null && expression != null)
+		{
+			return profiledEvaluate(expression, JRExpression.EVALUATION_DEFAULT);
+		}
 		return evaluator.evaluate(expression);
 	}
 
 
+	/**
+	 * Sets the profiler that records the expression evaluations performed by this calculator.
+	 * 
+	 * @param evaluationProfiler the profiler, <code>null</code> to disable profiling
+	 * @param datasetName the name under which the evaluations are recorded
+	 */
+	public void setEvaluationProfiler(EvaluationProfiler evaluationProfiler, String datasetName)
+	{
+		this.evaluationProfiler = evaluationProfiler;
+		this.profilerDatasetName = datasetName;
+	}
+
+
+	private Object profiledEvaluate(JRExpression expression, byte evaluationType) throws JRExpressionEvalException
+	{
+		long start = System.nanoTime();
+		boolean failed = true;
+		try
+		{
+			Object value;
+			switch (evaluationType)
+			{
+				case JRExpression.EVALUATION_OLD :
+				{
+					value = evaluator.evaluateOld(expression);
+					break;
+				}
+				case JRExpression.EVALUATION_ESTIMATED :
+				{
+					value = evaluator.evaluateEstimated(expression);
+					break;
+				}
+				case JRExpression.EVALUATION_DEFAULT :
+				default :
+				{
+					value = evaluator.evaluate(expression);
+					break;
+				}
+			}
+			failed = false;
+			return value;
+		}
+		finally
+		{
+			evaluationProfiler.expressionEvaluated(profilerDatasetName, expression, 
+					System.nanoTime() - start, failed);
+		}
+	}
+
+
 	@Override
 	public JRFillDataset getFillDataset()
 	{
@@ -23,6 +23,7 @@
  */
 package net.sf.jasperreports.engine.fill;
 
+import net.sf.jasperreports.engine.JRException;
 import net.sf.jasperreports.engine.type.CalculationEnum;
 
 
@@ -125,7 +126,7 @@ public final class JRDoubleIncrementerFactory extends JRAbstractExtendedIncremen
 /**
  *
  */
-final class JRDoubleCountIncrementer extends JRAbstractExtendedIncrementer
+final class JRDoubleCountIncrementer extends JRAbstractExtendedIncrementer implements JRAccumulatingIncrementer
 {
 	/**
 	 *
@@ -190,6 +191,18 @@ final class JRDoubleCountIncrementer extends JRAbstractExtendedIncrementer
 	}
 
 	
+	@Override
+	public NumericAccumulator createAccumulator(JRFillVariable variable)
+	{
+		return new DoubleAccumulator();
+	}
+
+	@Override
+	public void accumulate(JRFillVariable variable, NumericAccumulator result, Object expressionValue, byte evaluation)
+	{
+		AccumulatingIncrementerSupport.count(variable, result, expressionValue);
+	}
+
 	@Override
 	public Object initialValue()
 	{
@@ -261,7 +274,7 @@ final class JRDoubleDistinctCountIncrementer extends JRAbstractExtendedIncrement
 /**
  *
  */
-final class JRDoubleSumIncrementer extends JRAbstractExtendedIncrementer
+final class JRDoubleSumIncrementer extends JRAbstractExtendedIncrementer implements JRAccumulatingIncrementer
 {
 	/**
 	 *
@@ -312,6 +325,18 @@ final class JRDoubleSumIncrementer extends JRAbstractExtendedIncrementer
 	}
 
 	
+	@Override
+	public NumericAccumulator createAccumulator(JRFillVariable variable)
+	{
+		return new DoubleAccumulator();
+	}
+
+	@Override
+	public void accumulate(JRFillVariable variable, NumericAccumulator result, Object expressionValue, byte evaluation)
+	{
+		AccumulatingIncrementerSupport.sum(variable, result, (Number) expressionValue);
+	}
+
 	@Override
 	public Object initialValue()
 	{
@@ -323,7 +348,7 @@ final class JRDoubleSumIncrementer extends JRAbstractExtendedIncrementer
 /**
  *
  */
-final class JRDoubleAverageIncrementer extends JRAbstractExtendedIncrementer
+final class JRDoubleAverageIncrementer extends JRAbstractExtendedIncrementer implements JRAccumulatingIncrementer
 {
 	/**
 	 *
@@ -366,6 +391,37 @@ final class JRDoubleAverageIncrementer extends JRAbstractExtendedIncrementer
 	}
 
 	
+	@Override
+	public NumericAccumulator createAccumulator(JRFillVariable variable)
+	{
+		return new DoubleAccumulator();
+	}
+
+	@Override
+	public void accumulate(
+		JRFillVariable variable, 
+		NumericAccumulator result, 
+		Object expressionValue, 
+		byte evaluation
+		) throws JRException
+	{
+		if (AccumulatingIncrementerSupport.averageOfNull(variable, result, expressionValue))
+		{
+			return;
+		}
+		
+		NumericAccumulator countValue = AccumulatingIncrementerSupport.helperAccumulator(variable, JRCalculable.HELPER_COUNT, evaluation);
+		NumericAccumulator sumValue = AccumulatingIncrementerSupport.helperAccumulator(variable, JRCalculable.HELPER_SUM, evaluation);
+		if (countValue == null || sumValue == null)
+		{
+			AccumulatingIncrementerSupport.increment(this, variable, result, expressionValue, evaluation);
+		}
+		else
+		{
+			((DoubleAccumulator) result).setDouble(sumValue.doubleValue() / countValue.doubleValue());
+		}
+	}
+
 	@Override
 	public Object initialValue()
 	{
@@ -430,7 +486,7 @@ final class JRDoubleStandardDeviationIncrementer extends JRAbstractExtendedIncre
 /**
  *
  */
-final class JRDoubleVarianceIncrementer extends JRAbstractExtendedIncrementer
+final class JRDoubleVarianceIncrementer extends JRAbstractExtendedIncrementer implements JRAccumulatingIncrementer
 {
 	/**
 	 *
@@ -530,6 +586,60 @@ final class JRDoubleVarianceIncrementer extends JRAbstractExtendedIncrementer
 	}
 
 	
+	@Override
+	public NumericAccumulator createAccumulator(JRFillVariable variable)
+	{
+		return new DoubleAccumulator();
+	}
+
+	@Override
+	public void accumulate(
+		JRFillVariable variable, 
+		NumericAccumulator result, 
+		Object expressionValue, 
+		byte evaluation
+		) throws JRException
+	{
+		NumericAccumulator value = variable.getIncrementedAccumulator();
+		Number newValue = (Number)expressionValue;
+		
+		if (newValue == null)
+		{
+			if (variable.isInitialized())
+			{
+				result.setNull();
+			}
+			else
+			{
+				result.copy(value);
+			}
+		}
+		else if (value.isNull() || variable.isInitialized())
+		{
+			result.setZero();
+		}
+		else
+		{
+			NumericAccumulator countValue = AccumulatingIncrementerSupport.helperAccumulator(variable, JRCalculable.HELPER_COUNT, evaluation);
+			NumericAccumulator sumValue = AccumulatingIncrementerSupport.helperAccumulator(variable, JRCalculable.HELPER_SUM, evaluation);
+			if (countValue == null || sumValue == null)
+			{
+				AccumulatingIncrementerSupport.increment(this, variable, result, expressionValue, evaluation);
+			}
+			else
+			{
+				double count = countValue.doubleValue();
+				double average = sumValue.doubleValue() / count;
+				((DoubleAccumulator) result).setDouble(
+					(count - 1) * value.doubleValue() / count +
+					( average - newValue.doubleValue() ) *
+					( average - newValue.doubleValue() ) /
+					(count - 1)
+					);
+			}
+		}
+	}
+
 	@Override
 	public Object initialValue()
 	{
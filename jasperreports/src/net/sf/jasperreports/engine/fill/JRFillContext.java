@@ -91,6 +91,7 @@ public class JRFillContext
 	private List<Pair<FillDatasetPosition, Object>> recordedData;
 
 	private JRVirtualizationContext virtualizationContext;
+	private TextInterner textInterner;
 	
 	private FormatFactory masterFormatFactory;
 	private Locale masterLocale;
@@ -356,6 +357,30 @@ public class JRFillContext
 	}
 	
 	
+	/**
+	 * Returns the pool of text values shared by the print elements generated by the fill.
+	 * 
+	 * <p>
+	 * When virtualization is used, the pool of the virtualization context is returned
+	 * so that values read back by the virtualizer are also shared.
+	 * </p>
+	 * 
+	 * @return the text values pool
+	 */
+	public TextInterner getTextInterner()
+	{
+		if (virtualizationContext != null)
+		{
+			return virtualizationContext.getTextInterner();
+		}
+		
+		if (textInterner == null)
+		{
+			textInterner = TextInterner.create(jasperReportsContext);
+		}
+		return textInterner;
+	}
+	
 	/**
 	 * Returns the virtualization context.
 	 * 
@@ -40,6 +40,8 @@ import java.util.UUID;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
+import net.sf.jasperreports.annotations.properties.Property;
+import net.sf.jasperreports.annotations.properties.PropertyScope;
 import net.sf.jasperreports.data.cache.CachedDataset;
 import net.sf.jasperreports.data.cache.DataCacheHandler;
 import net.sf.jasperreports.data.cache.DataRecorder;
@@ -90,6 +92,7 @@ import net.sf.jasperreports.engine.util.JRDataUtils;
 import net.sf.jasperreports.engine.util.JRQueryExecuterUtils;
 import net.sf.jasperreports.engine.util.JRResourcesUtil;
 import net.sf.jasperreports.engine.util.MD5Digest;
+import net.sf.jasperreports.properties.PropertyConstants;
 
 /**
  * @author Lucian Chirita (lucianc@users.sourceforge.net)
@@ -105,6 +108,54 @@ public class JRFillDataset implements JRDataset, DatasetFillContext
 	public static final String EXCEPTION_MESSAGE_KEY_NO_SUCH_SNAPSHOT_PARAMETER = "fill.dataset.no.such.snapshot.parameter";
 	public static final String EXCEPTION_MESSAGE_KEY_NO_SUCH_VARIABLE = "fill.dataset.no.such.variable";
 	
+	/**
+	 * Property that determines whether numeric variables that use built-in incrementers are calculated in place,
+	 * using primitive accumulators instead of creating new value objects at each increment.
+	 * <p>
+	 * Variable value objects are only created when the variable values are read, which significantly reduces 
+	 * the number of short-lived objects created while filling datasets with many records. 
+	 * Sums of <code>java.lang.Double</code> values are computed using compensated summation when this is enabled,
+	 * which can produce slightly different totals than the regular calculation.
+	 * </p>
+	 * <p>
+	 * The property can be set globally, at report or at dataset level.
+	 * The default value is <code>false</code>.
+	 * </p>
+	 * 
+	 * @see JRAccumulatingIncrementer
+	 */
+	@Property(
+			category = PropertyConstants.CATEGORY_FILL,
+			defaultValue = PropertyConstants.BOOLEAN_FALSE,
+			scopes = {PropertyScope.CONTEXT, PropertyScope.DATASET},
+			sinceVersion = PropertyConstants.VERSION_6_4_3,
+			valueType = Boolean.class
+			)
+	public static final String PROPERTY_VARIABLE_ACCUMULATORS = JRPropertiesUtil.PROPERTY_PREFIX + "variable.accumulators";
+	
+	/**
+	 * Property that determines whether variables whose expressions consist of a single field reference
+	 * (such as <code>$F{Amount}</code>) are incremented directly with the field values, 
+	 * without calling the report expression evaluator.
+	 * <p>
+	 * This applies to datasets that use compiled report expressions, and together with
+	 * {@link #PROPERTY_VARIABLE_ACCUMULATORS variable accumulators} reduces the per record cost
+	 * of aggregating field values.
+	 * </p>
+	 * <p>
+	 * The property can be set globally, at report or at dataset level.
+	 * The default value is <code>true</code>.
+	 * </p>
+	 */
+	@Property(
+			category = PropertyConstants.CATEGORY_FILL,
+			defaultValue = PropertyConstants.BOOLEAN_TRUE,
+			scopes = {PropertyScope.CONTEXT, PropertyScope.DATASET},
+			sinceVersion = PropertyConstants.VERSION_6_4_3,
+			valueType = Boolean.class
+			)
+	public static final String PROPERTY_VARIABLE_FIELD_REFERENCES = JRPropertiesUtil.PROPERTY_PREFIX + "variable.field.references";
+	
 	/**
 	 * The filler that created this object.
 	 */
@@ -133,6 +184,8 @@ public class JRFillDataset implements JRDataset, DatasetFillContext
 	protected JRQuery query;
 	
 	private boolean useDatasourceParamValue;
+	
+	private boolean variableAccumulatorsInitialized;
 	private boolean useConnectionParamValue;
 	
 	/**
@@ -1330,6 +1383,19 @@ public class JRFillDataset implements JRDataset, DatasetFillContext
 	 */
 	public void start()
 	{
+		initVariableAccumulators();
+		
+		if (filler != null)
+		{
+			EvaluationProfiler evaluationProfiler = filler.getEvaluationProfiler();
+			if (evaluationProfiler != null)
+			{
+				String reportName = filler.getJasperReport().getName();
+				calculator.setEvaluationProfiler(evaluationProfiler, 
+						isMain ? reportName : reportName + "/" + getName());
+			}
+		}
+		
 		// resetting the variables is required for cases such as sort fields which
 		// iterate and calculate variables.
 		resetVariables();
@@ -1343,6 +1409,33 @@ public class JRFillDataset implements JRDataset, DatasetFillContext
 	}
 
 	
+	protected void initVariableAccumulators()
+	{
+		if (!variableAccumulatorsInitialized)
+		{
+			variableAccumulatorsInitialized = true;
+
+			if (variables != null 
+					&& propertiesUtil.getBooleanProperty(this, PROPERTY_VARIABLE_ACCUMULATORS, false))
+			{
+				int count = 0;
+				for (JRFillVariable variable : variables)
+				{
+					if (variable.initAccumulators())
+					{
+						++count;
+					}
+				}
+
+				if (log.isDebugEnabled())
+				{
+					log.debug("using accumulators for " + count + " variables of dataset " + getName());
+				}
+			}
+		}
+	}
+
+	
 	protected void resetVariables()
 	{
 		if (variables != null)
@@ -1495,8 +1588,7 @@ public class JRFillDataset implements JRDataset, DatasetFillContext
 			for (int i = 0; i < variables.length; i++)
 			{
 				JRFillVariable variable = variables[i];
-				variable.setPreviousOldValue(variable.getOldValue());
-				variable.setOldValue(variable.getValue());
+				variable.shiftOldValues();
 			}
 		}
 	}
@@ -1519,8 +1611,7 @@ public class JRFillDataset implements JRDataset, DatasetFillContext
 			for (int i = 0; i < variables.length; i++)
 			{
 				JRFillVariable variable = variables[i];
-				variable.setValue(variable.getOldValue());
-				variable.setOldValue(variable.getPreviousOldValue());
+				variable.revertOldValues();
 			}
 		}
 	}
@@ -1161,7 +1161,39 @@ public abstract class JRFillElement implements JRElement, JRFillCloneable, JRSty
 	 */
 	public final Object evaluateExpression(JRExpression expression, byte evaluation) throws JRException
 	{
-		return expressionEvaluator.evaluate(expression, evaluation);
+		EvaluationProfiler profiler = filler == null ? null : filler.getEvaluationProfiler();
+		if (profiler == null)
+		{
+			return expressionEvaluator.evaluate(expression, evaluation);
+		}
+		
+		EvaluationProfiler.ProfilingContext previousContext = profiler.enterContext(getProfilingBandName(), getProfilingElementName());
+		try
+		{
+			return expressionEvaluator.evaluate(expression, evaluation);
+		}
+		finally
+		{
+			profiler.restoreContext(previousContext);
+		}
+	}
+	
+	protected String getProfilingBandName()
+	{
+		JROrigin origin = band == null ? null : band.getOrigin();
+		if (origin == null)
+		{
+			return null;
+		}
+		
+		String bandName = origin.getBandTypeValue() == null ? null : origin.getBandTypeValue().getName();
+		return origin.getGroupName() == null ? bandName : bandName + "[" + origin.getGroupName() + "]";
+	}
+	
+	protected String getProfilingElementName()
+	{
+		String key = getKey();
+		return key == null ? getClass().getSimpleName() : key;
 	}
 
 
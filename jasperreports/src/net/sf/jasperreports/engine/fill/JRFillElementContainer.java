@@ -88,6 +88,8 @@ public abstract class JRFillElementContainer extends JRFillElementGroup implemen
 	protected boolean hasPrintWhenOverflowElement;
 	
 	private final boolean legacyElementStretchEnabled;
+	
+	private final TextPremeasurer textPremeasurer;
 
 	
 	protected JRFillElementContainer(JRBaseFiller filler, JRElementGroup container, JRFillObjectFactory factory)
@@ -102,6 +104,8 @@ public abstract class JRFillElementContainer extends JRFillElementGroup implemen
 		@SuppressWarnings("deprecation")
 		boolean depFlag = filler.getFillContext().isLegacyElementStretchEnabled();
 		legacyElementStretchEnabled = depFlag; 
+		
+		textPremeasurer = TextPremeasurer.create(filler);
 	}
 	
 	protected JRFillElementContainer(JRFillElementContainer container, JRFillCloneFactory factory)
@@ -116,6 +120,8 @@ public abstract class JRFillElementContainer extends JRFillElementGroup implemen
 		@SuppressWarnings("deprecation")
 		boolean depFlag = filler.getFillContext().isLegacyElementStretchEnabled();
 		legacyElementStretchEnabled = depFlag; 
+		
+		textPremeasurer = container.textPremeasurer;
 	}
 
 
@@ -448,6 +454,11 @@ public abstract class JRFillElementContainer extends JRFillElementGroup implemen
 
 		if (ySortedElements != null && ySortedElements.length > 0)
 		{
+			if (textPremeasurer != null && !isOverflow)
+			{
+				textPremeasurer.premeasure(ySortedElements, availableHeight);
+			}
+			
 			for(int i = 0; i < ySortedElements.length; i++)
 			{
 				JRFillElement element = ySortedElements[i];
@@ -536,6 +547,11 @@ public abstract class JRFillElementContainer extends JRFillElementGroup implemen
 
 		if (ySortedElements != null && ySortedElements.length > 0)
 		{
+			if (textPremeasurer != null && !isOverflow)
+			{
+				textPremeasurer.premeasure(ySortedElements, availableHeight);
+			}
+			
 			for (JRFillElement element : ySortedElements)
 			{
 				currentOverflowWithElements = 
@@ -28,19 +28,24 @@ import java.awt.font.TextAttribute;
 import java.text.AttributedCharacterIterator.Attribute;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.Callable;
 
 import net.sf.jasperreports.annotations.properties.Property;
 import net.sf.jasperreports.annotations.properties.PropertyScope;
 import net.sf.jasperreports.engine.JRCommonText;
+import net.sf.jasperreports.engine.JRConstants;
 import net.sf.jasperreports.engine.JRException;
 import net.sf.jasperreports.engine.JRFont;
 import net.sf.jasperreports.engine.JRLineBox;
 import net.sf.jasperreports.engine.JRParagraph;
 import net.sf.jasperreports.engine.JRPrintText;
+import net.sf.jasperreports.engine.JRPropertiesHolder;
+import net.sf.jasperreports.engine.JRPropertiesMap;
 import net.sf.jasperreports.engine.JRPropertiesUtil;
 import net.sf.jasperreports.engine.JRRuntimeException;
 import net.sf.jasperreports.engine.JRStyle;
 import net.sf.jasperreports.engine.JRTextElement;
+import net.sf.jasperreports.engine.base.JRBasePrintText;
 import net.sf.jasperreports.engine.fonts.FontUtil;
 import net.sf.jasperreports.engine.type.HorizontalTextAlignEnum;
 import net.sf.jasperreports.engine.type.LineSpacingEnum;
@@ -101,6 +106,9 @@ public abstract class JRFillTextElement extends JRFillElement implements JRTextE
 	private String rawText;
 	private JRStyledText styledText;
 	private JRStyledText processedStyledText;
+	private volatile PremeasuredText premeasuredText;
+	private PremeasureText premeasureElement;
+	private TextMeasurer premeasureMeasurer;
 	private Map<JRStyle,Map<Attribute,Object>> styledTextAttributesMap = new HashMap<JRStyle,Map<Attribute,Object>>();
 	
 	protected final JRLineBox initLineBox;
@@ -668,6 +676,9 @@ public abstract class JRFillTextElement extends JRFillElement implements JRTextE
 	{
 		ensureTextMeasurer();
 		
+		PremeasuredText premeasured = premeasuredText;
+		premeasuredText = null;
+		
 		JRStyledText tmpStyledText = getStyledText();
 
 		if (tmpStyledText == null)
@@ -682,12 +693,21 @@ public abstract class JRFillTextElement extends JRFillElement implements JRTextE
 
 		boolean canOverflow = canOverflow();
 		JRStyledText processedText = getProcessedStyledText();
-		JRMeasuredText measuredText = textMeasurer.measure(
-			processedText,
-			getTextEnd(),
-			availableStretchHeight,
-			canOverflow
-			);
+		JRMeasuredText measuredText;
+		if (premeasured != null && premeasured.matches(processedText, getTextEnd(), availableStretchHeight, canOverflow,
+				getDynamicProperties()))
+		{
+			measuredText = premeasured.measuredText;
+		}
+		else
+		{
+			measuredText = textMeasurer.measure(
+				processedText,
+				getTextEnd(),
+				availableStretchHeight,
+				canOverflow
+				);
+		}
 		
 		isLeftToRight = measuredText.isLeftToRight();
 		setTextWidth(measuredText.getTextWidth());
@@ -738,6 +758,99 @@ public abstract class JRFillTextElement extends JRFillElement implements JRTextE
 	
 	protected abstract boolean canOverflow();
 
+	/**
+	 * Determines whether the element text can be measured before the element is prepared.
+	 * 
+	 * @return whether the text can be measured in advance
+	 * @see TextPremeasurer
+	 */
+	protected boolean isPremeasurable()
+	{
+		return true;
+	}
+
+	/**
+	 * Returns the available stretch height that the element would use to measure its text
+	 * if not pushed by other elements.
+	 * 
+	 * @param availableHeight the height available to the element container
+	 * @return the available stretch height used to measure the text in advance
+	 */
+	protected int getPremeasureStretchHeight(int availableHeight)
+	{
+		return 0;
+	}
+
+	/**
+	 * Creates a task that measures the element text in advance, before the element is prepared.
+	 * 
+	 * <p>
+	 * The measurement result is used when the element is prepared if the measurement parameters
+	 * are the same as the ones assumed by the task.
+	 * </p>
+	 * 
+	 * @param availableHeight the height available to the element container
+	 * @return the measurement task, or <code>null</code> if the text is not to be measured in advance
+	 * @see TextPremeasurer
+	 */
+	protected Callable<Void> createPremeasureTask(int availableHeight)
+	{
+		premeasuredText = null;
+		
+		if (!(isPrintWhenExpressionNull() || isPrintWhenTrue()) || !isPremeasurable())
+		{
+			return null;
+		}
+		
+		final JRStyledText processedText = getProcessedStyledText();
+		if (processedText == null || processedText.length() == 0)
+		{
+			return null;
+		}
+		
+		ensureTextMeasurer();
+		if (!TextMeasurer.class.equals(textMeasurer.getClass()))
+		{
+			// other measurers might rely on the fill element
+			return null;
+		}
+		
+		// the task only uses copies of the text and of the element attributes, taken on the fill thread.
+		// the element copy and its measurer are reused for each evaluation as the premeasurer waits 
+		// for all tasks to complete before the elements are prepared
+		if (premeasureElement == null)
+		{
+			premeasureElement = new PremeasureText(this);
+			premeasureMeasurer = new TextMeasurer(filler.getJasperReportsContext(), premeasureElement);
+		}
+		else
+		{
+			premeasureElement.update();
+		}
+		
+		final JRStyledText measuredText = processedText.cloneText();
+		final TextMeasurer measurer = premeasureMeasurer;
+		final int availableStretchHeight = getPremeasureStretchHeight(availableHeight);
+		final boolean canOverflow = canOverflow();
+		final JRPropertiesMap dynamicProperties = premeasureElement.getDynamicProperties();
+		return new Callable<Void>()
+		{
+			@Override
+			public Void call()
+			{
+				JRMeasuredText measured = measurer.measure(measuredText, 0, availableStretchHeight, canOverflow);
+				premeasuredText = new PremeasuredText(processedText, availableStretchHeight, canOverflow, 
+						dynamicProperties, measured);
+				return null;
+			}
+		};
+	}
+
+	protected void resetPremeasuredText()
+	{
+		premeasuredText = null;
+	}
+
 
 	@Override
 	public String getFontName()
@@ -1145,7 +1258,8 @@ public abstract class JRFillTextElement extends JRFillElement implements JRTextE
 	
 	protected void setPrintText(JRPrintText printText, String text)
 	{
-		printText.setText(text);
+		// sharing identical values among print elements
+		printText.setText(filler.getFillContext().getTextInterner().intern(text));
 	}
 
 	protected String getTextTruncateSuffix()
@@ -1169,4 +1283,124 @@ public abstract class JRFillTextElement extends JRFillElement implements JRTextE
 			this.paragraph = paragraph;
 		}
 	}
+
+	/**
+	 * Copy of the text element attributes that are used to measure the text on a measuring thread.
+	 * 
+	 * <p>
+	 * The copy includes a snapshot of the element dynamic properties, so that the measurer
+	 * uses the same evaluated measurement properties as the fill element.
+	 * </p>
+	 */
+	protected static class PremeasureText extends JRBasePrintText implements DynamicPropertiesHolder
+	{
+		private static final long serialVersionUID = JRConstants.SERIAL_VERSION_UID;
+		
+		private final JRFillTextElement textElement;
+		private final JRPropertiesHolder parentProperties;
+		private JRPropertiesMap dynamicProperties;
+		
+		public PremeasureText(JRFillTextElement textElement)
+		{
+			super(textElement.getDefaultStyleProvider());
+			
+			this.textElement = textElement;
+			parentProperties = textElement.getParentProperties();
+			update();
+		}
+		
+		/**
+		 * Copies the current attributes of the fill element, called on the fill thread.
+		 */
+		public void update()
+		{
+			setStyle(textElement.getStyle());
+			setWidth(textElement.getWidth());
+			setHeight(textElement.getHeight());
+			copyBox(textElement.getLineBox());
+			copyParagraph(textElement.getParagraph());
+			setRotation(textElement.getRotationValue());
+			setMarkup(textElement.getMarkup());
+			setFontSize(textElement.getFontsize());
+			
+			if (textElement.hasProperties())
+			{
+				JRPropertiesMap properties = textElement.getPropertiesMap();
+				for (String name : properties.getPropertyNames())
+				{
+					getPropertiesMap().setProperty(name, properties.getProperty(name));
+				}
+			}
+			
+			JRPropertiesMap elementDynamicProperties = textElement.getDynamicProperties();
+			dynamicProperties = elementDynamicProperties == null ? null : elementDynamicProperties.cloneProperties();
+		}
+
+		@Override
+		public JRPropertiesHolder getParentProperties()
+		{
+			return parentProperties;
+		}
+
+		@Override
+		public boolean hasDynamicProperties()
+		{
+			return dynamicProperties != null && dynamicProperties.hasProperties();
+		}
+
+		@Override
+		public boolean hasDynamicProperty(String name)
+		{
+			// the property expressions of the fill element do not change during the fill
+			return textElement.hasDynamicProperty(name);
+		}
+
+		@Override
+		public JRPropertiesMap getDynamicProperties()
+		{
+			return dynamicProperties;
+		}
+	}
+
+	protected static class PremeasuredText
+	{
+		private final JRStyledText styledText;
+		private final int availableStretchHeight;
+		private final boolean canOverflow;
+		private final String ignoreMissingFont;
+		private final String saveLineBreaks;
+		private final JRMeasuredText measuredText;
+		
+		public PremeasuredText(JRStyledText styledText, int availableStretchHeight, boolean canOverflow,
+				JRPropertiesMap dynamicProperties, JRMeasuredText measuredText)
+		{
+			this.styledText = styledText;
+			this.availableStretchHeight = availableStretchHeight;
+			this.canOverflow = canOverflow;
+			this.ignoreMissingFont = getProperty(dynamicProperties, JRStyledText.PROPERTY_AWT_IGNORE_MISSING_FONT);
+			this.saveLineBreaks = getProperty(dynamicProperties, JRTextElement.PROPERTY_SAVE_LINE_BREAKS);
+			this.measuredText = measuredText;
+		}
+		
+		protected boolean matches(JRStyledText text, int textStart, int stretchHeight, boolean overflow,
+				JRPropertiesMap dynamicProperties)
+		{
+			// the static properties are the same for the element and its copy, 
+			// comparing the evaluated measurement properties
+			return styledText == text && textStart == 0
+					&& availableStretchHeight == stretchHeight && canOverflow == overflow
+					&& equals(ignoreMissingFont, getProperty(dynamicProperties, JRStyledText.PROPERTY_AWT_IGNORE_MISSING_FONT))
+					&& equals(saveLineBreaks, getProperty(dynamicProperties, JRTextElement.PROPERTY_SAVE_LINE_BREAKS));
+		}
+		
+		private static String getProperty(JRPropertiesMap properties, String name)
+		{
+			return properties == null ? null : properties.getProperty(name);
+		}
+		
+		private static boolean equals(String value1, String value2)
+		{
+			return value1 == null ? value2 == null : value1.equals(value2);
+		}
+	}
 }
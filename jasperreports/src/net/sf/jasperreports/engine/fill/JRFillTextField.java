@@ -904,7 +904,7 @@ public class JRFillTextField extends JRFillTextElement implements JRTextField
 		//FIXME rotation and run direction?
 
 		//FIXME do we need to do this when the value is String?
-		text.setValue(getValue());
+		text.setValue(filler.getFillContext().getTextInterner().internValue(getValue()));
 		
 		setPrintText(text);
 
@@ -1086,5 +1086,19 @@ public class JRFillTextField extends JRFillTextElement implements JRTextField
 				&& isEvaluateNow()
 				&& filler.isBandOverFlowAllowed();
 	}
+
+	@Override
+	protected boolean isPremeasurable()
+	{
+		return isEvaluateNow();
+	}
+
+	@Override
+	protected int getPremeasureStretchHeight(int availableHeight)
+	{
+		// same as in prepare(), assuming that the element is not pushed by other elements
+		return isStretchWithOverflow() && getRotationValue().equals(RotationEnum.NONE)
+				? availableHeight - getRelativeY() - getHeight() : 0;
+	}
 	
 }
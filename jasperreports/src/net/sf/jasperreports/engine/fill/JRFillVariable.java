@@ -60,6 +60,17 @@ public class JRFillVariable implements JRVariable, JRCalculable
 	private boolean isInitialized;
 	private Object savedValue;
 	
+	/**
+	 * Primitive value storage, used instead of the value fields above 
+	 * when the incrementer of the variable supports in place accumulation.
+	 */
+	private NumericAccumulator previousOldAccumulator;
+	private NumericAccumulator oldAccumulator;
+	private NumericAccumulator estimatedAccumulator;
+	private NumericAccumulator incrementedAccumulator;
+	private NumericAccumulator valueAccumulator;
+	private NumericAccumulator savedAccumulator;
+	
 	private JRFillVariable[] helperVariables;
 
 	/**
@@ -100,6 +111,101 @@ public class JRFillVariable implements JRVariable, JRCalculable
 		value = null;
 		isInitialized = false;
 		savedValue = null;
+		
+		if (valueAccumulator != null)
+		{
+			previousOldAccumulator.setNull();
+			oldAccumulator.setNull();
+			estimatedAccumulator.setNull();
+			incrementedAccumulator.setNull();
+			valueAccumulator.setNull();
+			savedAccumulator.setNull();
+		}
+	}
+
+	/**
+	 * Switches the variable to primitive value storage if its incrementer
+	 * supports in place accumulation.
+	 * 
+	 * @return whether the variable values are kept in accumulators
+	 * @see JRAccumulatingIncrementer
+	 */
+	protected boolean initAccumulators()
+	{
+		if (valueAccumulator == null)
+		{
+			JRIncrementer varIncrementer = getIncrementer();
+			if (varIncrementer instanceof JRAccumulatingIncrementer)
+			{
+				NumericAccumulator accumulator = ((JRAccumulatingIncrementer) varIncrementer).createAccumulator(this);
+				if (accumulator != null)
+				{
+					previousOldAccumulator = accumulator.createEmpty();
+					oldAccumulator = accumulator.createEmpty();
+					estimatedAccumulator = accumulator.createEmpty();
+					incrementedAccumulator = accumulator.createEmpty();
+					savedAccumulator = accumulator.createEmpty();
+
+					accumulator.setValue(value);
+					previousOldAccumulator.setValue(previousOldValue);
+					oldAccumulator.setValue(oldValue);
+					estimatedAccumulator.setValue(estimatedValue);
+					incrementedAccumulator.setValue(incrementedValue);
+					savedAccumulator.setValue(savedValue);
+					valueAccumulator = accumulator;
+					
+					previousOldValue = null;
+					oldValue = null;
+					estimatedValue = null;
+					incrementedValue = null;
+					value = null;
+					savedValue = null;
+				}
+			}
+		}
+		return valueAccumulator != null;
+	}
+
+	/**
+	 * Determines whether the variable values are kept in accumulators.
+	 */
+	public boolean isAccumulating()
+	{
+		return valueAccumulator != null;
+	}
+
+	/**
+	 * Returns the accumulator for a value of the variable.
+	 * 
+	 * @param evaluation the evaluation type
+	 * @return the accumulator, or <code>null</code> if the variable does not use accumulators
+	 */
+	public NumericAccumulator getAccumulator(byte evaluation)
+	{
+		NumericAccumulator accumulator;
+		switch (evaluation)
+		{
+			case JRExpression.EVALUATION_OLD:
+				accumulator = oldAccumulator;
+				break;
+			case JRExpression.EVALUATION_ESTIMATED:
+				accumulator = estimatedAccumulator;
+				break;
+			default:
+				accumulator = valueAccumulator;
+				break;
+		}
+		return accumulator;
+	}
+
+	/**
+	 * Returns the accumulator for the incremented value of the variable.
+	 * 
+	 * @return the accumulator, or <code>null</code> if the variable does not use accumulators
+	 */
+	public NumericAccumulator getIncrementedAccumulator()
+	{
+		return incrementedAccumulator;
 	}
 
 
@@ -186,7 +292,7 @@ public class JRFillVariable implements JRVariable, JRCalculable
 	 */
 	public Object getOldValue()
 	{
-		return oldValue;
+		return oldAccumulator == null ? oldValue : oldAccumulator.getValue();
 	}
 		
 	/**
@@ -194,7 +300,14 @@ public class JRFillVariable implements JRVariable, JRCalculable
 	 */
 	public void setOldValue(Object oldValue)
 	{
-		this.oldValue = oldValue;
+		if (oldAccumulator == null)
+		{
+			this.oldValue = oldValue;
+		}
+		else
+		{
+			oldAccumulator.setValue(oldValue);
+		}
 	}
 
 	/**
@@ -202,7 +315,7 @@ public class JRFillVariable implements JRVariable, JRCalculable
 	 */
 	public Object getEstimatedValue()
 	{
-		return estimatedValue;
+		return estimatedAccumulator == null ? estimatedValue : estimatedAccumulator.getValue();
 	}
 		
 	/**
@@ -210,13 +323,20 @@ public class JRFillVariable implements JRVariable, JRCalculable
 	 */
 	public void setEstimatedValue(Object estimatedValue)
 	{
-		this.estimatedValue = estimatedValue;
+		if (estimatedAccumulator == null)
+		{
+			this.estimatedValue = estimatedValue;
+		}
+		else
+		{
+			estimatedAccumulator.setValue(estimatedValue);
+		}
 	}
 
 	@Override
 	public Object getIncrementedValue()
 	{
-		return incrementedValue;
+		return incrementedAccumulator == null ? incrementedValue : incrementedAccumulator.getValue();
 	}
 		
 	/**
@@ -224,13 +344,20 @@ public class JRFillVariable implements JRVariable, JRCalculable
 	 */
 	public void setIncrementedValue(Object incrementedValue)
 	{
-		this.incrementedValue = incrementedValue;
+		if (incrementedAccumulator == null)
+		{
+			this.incrementedValue = incrementedValue;
+		}
+		else
+		{
+			incrementedAccumulator.setValue(incrementedValue);
+		}
 	}
 
 	@Override
 	public Object getValue()
 	{
-		return value;
+		return valueAccumulator == null ? value : valueAccumulator.getValue();
 	}
 		
 	/**
@@ -238,7 +365,63 @@ public class JRFillVariable implements JRVariable, JRCalculable
 	 */
 	public void setValue(Object value)
 	{
-		this.value = value;
+		if (valueAccumulator == null)
+		{
+			this.value = value;
+		}
+		else
+		{
+			valueAccumulator.setValue(value);
+		}
+	}
+
+	/**
+	 * Sets the incremented value to the current value of the variable.
+	 */
+	public void setIncrementedValueToValue()
+	{
+		if (valueAccumulator == null)
+		{
+			incrementedValue = value;
+		}
+		else
+		{
+			incrementedAccumulator.copy(valueAccumulator);
+		}
+	}
+
+	/**
+	 * Moves the current value to the old value, and the old value to the previous old value.
+	 */
+	protected void shiftOldValues()
+	{
+		if (valueAccumulator == null)
+		{
+			previousOldValue = oldValue;
+			oldValue = value;
+		}
+		else
+		{
+			previousOldAccumulator.copy(oldAccumulator);
+			oldAccumulator.copy(valueAccumulator);
+		}
+	}
+
+	/**
+	 * Reverts the effect of {@link #shiftOldValues()}.
+	 */
+	protected void revertOldValues()
+	{
+		if (valueAccumulator == null)
+		{
+			value = oldValue;
+			oldValue = previousOldValue;
+		}
+		else
+		{
+			valueAccumulator.copy(oldAccumulator);
+			oldAccumulator.copy(previousOldAccumulator);
+		}
 	}
 
 	@Override
@@ -310,6 +493,11 @@ public class JRFillVariable implements JRVariable, JRCalculable
 	
 	public Object getValue(byte evaluation)
 	{
+		if (valueAccumulator != null)
+		{
+			return getAccumulator(evaluation).getValue();
+		}
+		
 		Object returnValue;
 		switch (evaluation)
 		{
@@ -328,6 +516,14 @@ public class JRFillVariable implements JRVariable, JRCalculable
 	
 	public void overwriteValue(Object newValue, byte evaluation)
 	{
+		if (valueAccumulator != null)
+		{
+			NumericAccumulator accumulator = getAccumulator(evaluation);
+			savedAccumulator.copy(accumulator);
+			accumulator.setValue(newValue);
+			return;
+		}
+		
 		switch (evaluation)
 		{
 			case JRExpression.EVALUATION_OLD:
@@ -347,6 +543,13 @@ public class JRFillVariable implements JRVariable, JRCalculable
 	
 	public void restoreValue(byte evaluation)
 	{
+		if (valueAccumulator != null)
+		{
+			getAccumulator(evaluation).copy(savedAccumulator);
+			savedAccumulator.setNull();
+			return;
+		}
+		
 		switch (evaluation)
 		{
 			case JRExpression.EVALUATION_OLD:
@@ -366,14 +569,21 @@ public class JRFillVariable implements JRVariable, JRCalculable
 	
 	public Object getPreviousOldValue()
 	{
-		return previousOldValue;
+		return previousOldAccumulator == null ? previousOldValue : previousOldAccumulator.getValue();
 	}
 
 
 	
 	public void setPreviousOldValue(Object previousOldValue)
 	{
-		this.previousOldValue = previousOldValue;
+		if (previousOldAccumulator == null)
+		{
+			this.previousOldValue = previousOldValue;
+		}
+		else
+		{
+			previousOldAccumulator.setValue(previousOldValue);
+		}
 	}
 
 	@Override
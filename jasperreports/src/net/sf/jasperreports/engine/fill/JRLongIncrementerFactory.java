@@ -23,6 +23,7 @@
  */
 package net.sf.jasperreports.engine.fill;
 
+import net.sf.jasperreports.engine.JRException;
 import net.sf.jasperreports.engine.type.CalculationEnum;
 
 
@@ -125,7 +126,7 @@ public final class JRLongIncrementerFactory extends JRAbstractExtendedIncremente
 /**
  *
  */
-final class JRLongCountIncrementer extends JRAbstractExtendedIncrementer
+final class JRLongCountIncrementer extends JRAbstractExtendedIncrementer implements JRAccumulatingIncrementer
 {
 	/**
 	 *
@@ -190,6 +191,18 @@ final class JRLongCountIncrementer extends JRAbstractExtendedIncrementer
 	}
 
 	
+	@Override
+	public NumericAccumulator createAccumulator(JRFillVariable variable)
+	{
+		return new LongAccumulator();
+	}
+
+	@Override
+	public void accumulate(JRFillVariable variable, NumericAccumulator result, Object expressionValue, byte evaluation)
+	{
+		AccumulatingIncrementerSupport.count(variable, result, expressionValue);
+	}
+
 	@Override
 	public Object initialValue()
 	{
@@ -261,7 +274,7 @@ final class JRLongDistinctCountIncrementer extends JRAbstractExtendedIncrementer
 /**
  *
  */
-final class JRLongSumIncrementer extends JRAbstractExtendedIncrementer
+final class JRLongSumIncrementer extends JRAbstractExtendedIncrementer implements JRAccumulatingIncrementer
 {
 	/**
 	 *
@@ -312,6 +325,18 @@ final class JRLongSumIncrementer extends JRAbstractExtendedIncrementer
 	}
 
 	
+	@Override
+	public NumericAccumulator createAccumulator(JRFillVariable variable)
+	{
+		return new LongAccumulator();
+	}
+
+	@Override
+	public void accumulate(JRFillVariable variable, NumericAccumulator result, Object expressionValue, byte evaluation)
+	{
+		AccumulatingIncrementerSupport.sum(variable, result, (Number) expressionValue);
+	}
+
 	@Override
 	public Object initialValue()
 	{
@@ -323,7 +348,7 @@ final class JRLongSumIncrementer extends JRAbstractExtendedIncrementer
 /**
  *
  */
-final class JRLongAverageIncrementer extends JRAbstractExtendedIncrementer
+final class JRLongAverageIncrementer extends JRAbstractExtendedIncrementer implements JRAccumulatingIncrementer
 {
 	/**
 	 *
@@ -366,6 +391,37 @@ final class JRLongAverageIncrementer extends JRAbstractExtendedIncrementer
 	}
 
 	
+	@Override
+	public NumericAccumulator createAccumulator(JRFillVariable variable)
+	{
+		return new LongAccumulator();
+	}
+
+	@Override
+	public void accumulate(
+		JRFillVariable variable, 
+		NumericAccumulator result, 
+		Object expressionValue, 
+		byte evaluation
+		) throws JRException
+	{
+		if (AccumulatingIncrementerSupport.averageOfNull(variable, result, expressionValue))
+		{
+			return;
+		}
+		
+		NumericAccumulator countValue = AccumulatingIncrementerSupport.helperAccumulator(variable, JRCalculable.HELPER_COUNT, evaluation);
+		NumericAccumulator sumValue = AccumulatingIncrementerSupport.helperAccumulator(variable, JRCalculable.HELPER_SUM, evaluation);
+		if (countValue == null || sumValue == null)
+		{
+			AccumulatingIncrementerSupport.increment(this, variable, result, expressionValue, evaluation);
+		}
+		else
+		{
+			((LongAccumulator) result).setLong(sumValue.longValue() / countValue.longValue());
+		}
+	}
+
 	@Override
 	public Object initialValue()
 	{
@@ -90,6 +90,8 @@ public class JRVirtualizationContext implements Serializable, VirtualizationList
 	
 	private transient ReentrantLock lock;
 	
+	private transient volatile TextInterner textInterner;
+	
 	/**
 	 * Constructs a context.
 	 */
@@ -121,6 +123,35 @@ public class JRVirtualizationContext implements Serializable, VirtualizationList
 		this.lock = parentContext.lock;
 	}
 	
+	/**
+	 * Returns the pool of text values shared by the print elements of the report.
+	 * 
+	 * @return the text values pool
+	 * @see TextInterner
+	 */
+	public TextInterner getTextInterner()
+	{
+		if (parentContext != null)
+		{
+			return parentContext.getTextInterner();
+		}
+		
+		TextInterner interner = textInterner;
+		if (interner == null)
+		{
+			synchronized (this)
+			{
+				interner = textInterner;
+				if (interner == null)
+				{
+					interner = TextInterner.create(jasperReportsContext);
+					textInterner = interner;
+				}
+			}
+		}
+		return interner;
+	}
+	
 	private void initLock()
 	{
 		lock = new ReentrantLock(true);
@@ -0,0 +1,130 @@
+/*
+ * JasperReports - Free Java Reporting Library.
+ * Copyright (C) 2001 - 2016 TIBCO Software Inc. All rights reserved.
+ * http://www.jaspersoft.com
+ *
+ * Unless you have purchased a commercial license agreement from Jaspersoft,
+ * the following license terms apply:
+ *
+ * This program is part of JasperReports.
+ *
+ * JasperReports is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JasperReports is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with JasperReports. If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.sf.jasperreports.engine.fill;
+
+
+/**
+ * Accumulator for <code>java.lang.Long</code> and <code>java.lang.Integer</code> values.
+ * <p>
+ * For <code>java.lang.Integer</code> values the arithmetic is performed on <code>int</code>s,
+ * producing the same results as the boxed incrementers.
+ * </p>
+ */
+public final class LongAccumulator extends NumericAccumulator
+{
+
+	private final boolean integer;
+	private long value;
+
+	/**
+	 * Creates an accumulator for <code>java.lang.Long</code> values.
+	 */
+	public LongAccumulator()
+	{
+		this(false);
+	}
+
+	/**
+	 * Creates an accumulator.
+	 *
+	 * @param integer whether the accumulator holds <code>java.lang.Integer</code> values
+	 */
+	public LongAccumulator(boolean integer)
+	{
+		this.integer = integer;
+	}
+
+	@Override
+	public NumericAccumulator createEmpty()
+	{
+		return new LongAccumulator(integer);
+	}
+
+	/**
+	 * Sets the accumulator value.
+	 *
+	 * @param value the value
+	 */
+	public void setLong(long value)
+	{
+		this.value = integer ? (int) value : value;
+		modified();
+	}
+
+	@Override
+	public long longValue()
+	{
+		return value;
+	}
+
+	@Override
+	public double doubleValue()
+	{
+		return value;
+	}
+
+	@Override
+	protected void load(Number number)
+	{
+		value = integer ? number.intValue() : number.longValue();
+	}
+
+	@Override
+	protected void loadZero()
+	{
+		value = 0;
+	}
+
+	@Override
+	protected void addNumber(Number number)
+	{
+		if (integer)
+		{
+			value = (int) value + number.intValue();
+		}
+		else
+		{
+			value += number.longValue();
+		}
+	}
+
+	@Override
+	protected void addUnit()
+	{
+		value = integer ? (int) (value + 1) : value + 1;
+	}
+
+	@Override
+	protected void copyState(NumericAccumulator accumulator)
+	{
+		value = ((LongAccumulator) accumulator).value;
+	}
+
+	@Override
+	protected Object createValue()
+	{
+		return integer ? (Object) Integer.valueOf((int) value) : (Object) Long.valueOf(value);
+	}
+
+}
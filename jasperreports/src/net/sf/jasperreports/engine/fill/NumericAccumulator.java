@@ -0,0 +1,212 @@
+/*
+ * JasperReports - Free Java Reporting Library.
+ * Copyright (C) 2001 - 2016 TIBCO Software Inc. All rights reserved.
+ * http://www.jaspersoft.com
+ *
+ * Unless you have purchased a commercial license agreement from Jaspersoft,
+ * the following license terms apply:
+ *
+ * This program is part of JasperReports.
+ *
+ * JasperReports is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JasperReports is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with JasperReports. If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.sf.jasperreports.engine.fill;
+
+
+/**
+ * Mutable numeric holder used as primitive storage for variable values.
+ * <p>
+ * Accumulators are updated in place by {@link JRAccumulatingIncrementer accumulating incrementers}
+ * and the boxed value object is only created when the value is actually read via {@link #getValue()}.
+ * Once created, the boxed value is kept until the accumulator is modified again.
+ * </p>
+ *
+ * @see JRAccumulatingIncrementer
+ */
+public abstract class NumericAccumulator
+{
+
+	private boolean isNull = true;
+
+	private Object value;
+	private boolean valueCreated = true;
+
+	/**
+	 * Creates an accumulator of the same type, having a <code>null</code> value.
+	 *
+	 * @return a new accumulator
+	 */
+	public abstract NumericAccumulator createEmpty();
+
+	/**
+	 * Determines whether the accumulator holds a <code>null</code> value.
+	 */
+	public boolean isNull()
+	{
+		return isNull;
+	}
+
+	/**
+	 * Sets the accumulator to a <code>null</code> value.
+	 */
+	public void setNull()
+	{
+		isNull = true;
+		value = null;
+		valueCreated = true;
+	}
+
+	/**
+	 * Sets the accumulator value.
+	 *
+	 * <p>
+	 * The value object is kept and returned by {@link #getValue()} until the accumulator is modified.
+	 * </p>
+	 *
+	 * @param value the value, expected to be either <code>null</code> or a <code>java.lang.Number</code>
+	 */
+	public void setValue(Object value)
+	{
+		if (value == null)
+		{
+			setNull();
+		}
+		else
+		{
+			load((Number) value);
+			isNull = false;
+			this.value = value;
+			valueCreated = true;
+		}
+	}
+
+	/**
+	 * Sets the accumulator value to zero.
+	 */
+	public void setZero()
+	{
+		loadZero();
+		modified();
+	}
+
+	/**
+	 * Adds a number to the accumulator value.
+	 *
+	 * <p>
+	 * If the accumulator holds a <code>null</code> value, the result is the added number.
+	 * </p>
+	 *
+	 * @param number the number to add, not <code>null</code>
+	 */
+	public void add(Number number)
+	{
+		if (isNull)
+		{
+			loadZero();
+		}
+		addNumber(number);
+		modified();
+	}
+
+	/**
+	 * Increments the accumulator value by one.
+	 *
+	 * <p>
+	 * If the accumulator holds a <code>null</code> value, the result is one.
+	 * </p>
+	 */
+	public void addOne()
+	{
+		if (isNull)
+		{
+			loadZero();
+		}
+		addUnit();
+		modified();
+	}
+
+	/**
+	 * Copies the value of another accumulator of the same type.
+	 *
+	 * @param accumulator the accumulator to copy the value from
+	 */
+	public void copy(NumericAccumulator accumulator)
+	{
+		if (accumulator == this)
+		{
+			return;
+		}
+
+		if (accumulator.isNull)
+		{
+			setNull();
+		}
+		else
+		{
+			copyState(accumulator);
+			isNull = false;
+			value = accumulator.value;
+			valueCreated = accumulator.valueCreated;
+		}
+	}
+
+	/**
+	 * Returns the accumulator value as an object of the variable value class.
+	 *
+	 * @return the value, or <code>null</code> if the accumulator holds a <code>null</code> value
+	 */
+	public Object getValue()
+	{
+		if (!valueCreated)
+		{
+			value = createValue();
+			valueCreated = true;
+		}
+		return value;
+	}
+
+	/**
+	 * Returns the accumulator value as a <code>long</code>.
+	 *
+	 * The result is undefined if the accumulator holds a <code>null</code> value.
+	 */
+	public abstract long longValue();
+
+	/**
+	 * Returns the accumulator value as a <code>double</code>.
+	 *
+	 * The result is undefined if the accumulator holds a <code>null</code> value.
+	 */
+	public abstract double doubleValue();
+
+	protected final void modified()
+	{
+		isNull = false;
+		value = null;
+		valueCreated = false;
+	}
+
+	protected abstract void load(Number number);
+
+	protected abstract void loadZero();
+
+	protected abstract void addNumber(Number number);
+
+	protected abstract void addUnit();
+
+	protected abstract void copyState(NumericAccumulator accumulator);
+
+	protected abstract Object createValue();
+
+}
@@ -33,6 +33,8 @@ import java.text.AttributedCharacterIterator.Attribute;
 import java.text.AttributedString;
 import java.text.Bidi;
 import java.text.BreakIterator;
+import java.util.BitSet;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
@@ -51,6 +53,7 @@ import net.sf.jasperreports.annotations.properties.PropertyScope;
 import net.sf.jasperreports.engine.JRPropertiesUtil;
 import net.sf.jasperreports.engine.fonts.AwtFontAttribute;
 import net.sf.jasperreports.engine.fonts.FontUtil;
+import net.sf.jasperreports.engine.util.BreakIteratorFactory;
 import net.sf.jasperreports.engine.util.JRStyledText;
 import net.sf.jasperreports.engine.util.JRStyledText.Run;
 import net.sf.jasperreports.properties.PropertyConstants;
@@ -80,6 +83,27 @@ public class SimpleTextLineWrapper implements TextLineWrapper
 	public static final String PROPERTY_ELEMENT_CACHE_SIZE = 
 			JRPropertiesUtil.PROPERTY_PREFIX + "measure.simple.text.element.cache.size";
 
+	/**
+	 * Property that determines whether glyph advance tables are used to measure simple texts.
+	 * 
+	 * <p>
+	 * When enabled, texts that use fonts without layout attributes and that do not contain
+	 * complex script characters are measured by summing character advances stored in
+	 * per font tables, which produces the same results as the AWT measurement at a lower cost.
+	 * </p>
+	 * 
+	 * @see GlyphAdvanceTable
+	 */
+	@Property(
+			category = PropertyConstants.CATEGORY_FILL,
+			defaultValue = PropertyConstants.BOOLEAN_TRUE,
+			scopes = {PropertyScope.CONTEXT},
+			sinceVersion = PropertyConstants.VERSION_6_4_3,
+			valueType = Boolean.class
+			)
+	public static final String PROPERTY_ADVANCE_TABLES = 
+			JRPropertiesUtil.PROPERTY_PREFIX + "measure.simple.text.advance.tables";
+
 	public static final String MEASURE_EXACT_ALWAYS = "always";
 	public static final String MEASURE_EXACT_MULTILINE = "multiline";
 
@@ -120,6 +144,22 @@ public class SimpleTextLineWrapper implements TextLineWrapper
 		simpleLayoutBlocks.add(Character.UnicodeBlock.GREEK_EXTENDED);
 	}
 	
+	private static final BitSet complexLayoutChars;
+	static
+	{
+		// precomputing the chars that belong to blocks that are not in the simple layout list
+		complexLayoutChars = new BitSet(COMPEX_LAYOUT_END_CHAR - COMPEX_LAYOUT_START_CHAR + 1);
+		for (int ch = COMPEX_LAYOUT_START_CHAR; ch <= COMPEX_LAYOUT_END_CHAR; ch++)
+		{
+			UnicodeBlock chBlock = Character.UnicodeBlock.of(ch);
+			// being conservative with unassigned blocks
+			if (chBlock == null || !simpleLayoutBlocks.contains(chBlock))
+			{
+				complexLayoutChars.set(ch - COMPEX_LAYOUT_START_CHAR);
+			}
+		}
+	}
+	
 	// storing per instance to avoid too many calls (and to allow runtime level changes)
 	private final boolean logTrace = log.isTraceEnabled();
 	
@@ -127,6 +167,8 @@ public class SimpleTextLineWrapper implements TextLineWrapper
 	private boolean measureSimpleTexts;
 	private boolean measureExact;
 	private boolean measureExactMultiline;
+	private boolean useAdvanceTables;
+	private boolean reuseLineMeasurers;
 	private Map<FontKey, ElementFontInfo> fontInfos;
 	
 	private String wholeText;
@@ -140,6 +182,16 @@ public class SimpleTextLineWrapper implements TextLineWrapper
 	private int paragraphOffset;
 	private int paragraphPosition;
 	private BreakIterator paragraphBreakIterator;
+	private LineBreakMeasurer paragraphBreakMeasurer;
+	
+	// break iterators are reused for all paragraphs and texts measured by the wrapper
+	// when PROPERTY_REUSE_LINE_MEASURERS is set
+	private BreakIteratorFactory breakIteratorFactory;
+	private Locale breakIteratorsLocale;
+	private BreakIterator lineBreakIterator;
+	private BreakIterator characterBreakIterator;
+	private BreakIterator measurerLineBreakIterator;
+	private BreakIterator measurerCharacterBreakIterator;
 
 	public SimpleTextLineWrapper()
 	{
@@ -151,7 +203,10 @@ public class SimpleTextLineWrapper implements TextLineWrapper
 		this.measureSimpleTexts = parent.measureSimpleTexts;
 		this.measureExact = parent.measureExact;
 		this.measureExactMultiline = parent.measureExactMultiline;
+		this.useAdvanceTables = parent.useAdvanceTables;
+		this.reuseLineMeasurers = parent.reuseLineMeasurers;
 		this.fontInfos = parent.fontInfos;
+		this.breakIteratorFactory = parent.breakIteratorFactory;
 		
 		this.wholeText = parent.wholeText;
 		this.fontKey = parent.fontKey;
@@ -166,6 +221,7 @@ public class SimpleTextLineWrapper implements TextLineWrapper
 		JRPropertiesUtil properties = JRPropertiesUtil.getInstance(context.getJasperReportsContext());
 		measureSimpleTexts = properties.getBooleanProperty(context.getPropertiesHolder(), 
 				TextMeasurer.PROPERTY_MEASURE_SIMPLE_TEXTS, true);
+		breakIteratorFactory = BreakIteratorFactory.getInstance(context.getJasperReportsContext());
 		if (measureSimpleTexts)
 		{
 			String exactProp = properties.getProperty(context.getPropertiesHolder(), PROPERTY_MEASURE_EXACT);
@@ -181,6 +237,11 @@ public class SimpleTextLineWrapper implements TextLineWrapper
 				}
 			}
 
+			useAdvanceTables = properties.getBooleanProperty(context.getPropertiesHolder(), 
+					PROPERTY_ADVANCE_TABLES, true);
+			reuseLineMeasurers = properties.getBooleanProperty(context.getPropertiesHolder(), 
+					TextMeasurer.PROPERTY_REUSE_LINE_MEASURERS, false);
+
 			fontInfos = new HashMap<FontKey, ElementFontInfo>();
 		}
 	}
@@ -363,6 +424,10 @@ public class SimpleTextLineWrapper implements TextLineWrapper
 			}
 
 			generalFontInfo = new FontInfo(font, complexLayout, leading);
+			if (useAdvanceTables && !complexLayout)
+			{
+				generalFontInfo.advanceTable = GlyphAdvanceTable.getTable(font, context.getFontRenderContext());
+			}
 			
 			if (generalFontInfos != null)
 			{
@@ -442,9 +507,74 @@ public class SimpleTextLineWrapper implements TextLineWrapper
 		paragraphOffset = start;
 		paragraphPosition = 0;
 		
-		paragraphBreakIterator = truncateAtChar ? BreakIterator.getCharacterInstance()
-				: BreakIterator.getLineInstance();
+		paragraphBreakIterator = getParagraphBreakIterator(truncateAtChar);
 		paragraphBreakIterator.setText(paragraphText);
+		
+		// created on the first exact measurement
+		paragraphBreakMeasurer = null;
+	}
+
+	protected void checkBreakIteratorsLocale()
+	{
+		Locale locale = fontKey.locale;
+		if (locale == null ? breakIteratorsLocale != null : !locale.equals(breakIteratorsLocale))
+		{
+			// the iterators depend on the locale, discarding the existing ones
+			breakIteratorsLocale = locale;
+			lineBreakIterator = null;
+			characterBreakIterator = null;
+			measurerLineBreakIterator = null;
+			measurerCharacterBreakIterator = null;
+		}
+	}
+
+	protected BreakIterator getParagraphBreakIterator(boolean truncateAtChar)
+	{
+		checkBreakIteratorsLocale();
+		if (!reuseLineMeasurers)
+		{
+			return breakIteratorFactory.getInstance(breakIteratorsLocale, truncateAtChar);
+		}
+		
+		if (truncateAtChar)
+		{
+			if (characterBreakIterator == null)
+			{
+				characterBreakIterator = breakIteratorFactory.getCharacterInstance(breakIteratorsLocale);
+			}
+			return characterBreakIterator;
+		}
+		
+		if (lineBreakIterator == null)
+		{
+			lineBreakIterator = breakIteratorFactory.getLineInstance(breakIteratorsLocale);
+		}
+		return lineBreakIterator;
+	}
+
+	protected BreakIterator getMeasurerBreakIterator(boolean truncateAtChar)
+	{
+		// the break measurer needs a separate iterator as it sets its own text
+		checkBreakIteratorsLocale();
+		if (!reuseLineMeasurers)
+		{
+			return breakIteratorFactory.getInstance(breakIteratorsLocale, truncateAtChar);
+		}
+		
+		if (truncateAtChar)
+		{
+			if (measurerCharacterBreakIterator == null)
+			{
+				measurerCharacterBreakIterator = breakIteratorFactory.getCharacterInstance(breakIteratorsLocale);
+			}
+			return measurerCharacterBreakIterator;
+		}
+		
+		if (measurerLineBreakIterator == null)
+		{
+			measurerLineBreakIterator = breakIteratorFactory.getLineInstance(breakIteratorsLocale);
+		}
+		return measurerLineBreakIterator;
 	}
 
 	protected boolean isLeftToRight(char[] chars)
@@ -476,31 +606,13 @@ public class SimpleTextLineWrapper implements TextLineWrapper
 
 	protected boolean hasComplexLayout(char[] chars)
 	{
-		UnicodeBlock prevBlock = null;
 		for (int i = 0; i < chars.length; i++)
 		{
 			char ch = chars[i];
-			if (ch >= COMPEX_LAYOUT_START_CHAR && ch <= COMPEX_LAYOUT_END_CHAR)
+			if (ch >= COMPEX_LAYOUT_START_CHAR && ch <= COMPEX_LAYOUT_END_CHAR
+					&& complexLayoutChars.get(ch - COMPEX_LAYOUT_START_CHAR))
 			{
-				//FIXME use icu4j or CharPredicateCache
-				UnicodeBlock chBlock = Character.UnicodeBlock.of(ch);
-				if (chBlock == null)
-				{
-					// being conservative
-					return true;
-				}
-				
-				// if the same block as the previous block, avoid going to the hash set
-				// this could offer some speed improvement
-				if (prevBlock != chBlock)
-				{
-					prevBlock = chBlock;
-					
-					if (!simpleLayoutBlocks.contains(chBlock))
-					{
-						return true;
-					}
-				}
+				return true;
 			}
 		}
 		return false;
@@ -564,21 +676,30 @@ public class SimpleTextLineWrapper implements TextLineWrapper
 	
 	protected int measureExactLineBreakIndex(float width, int endLimit, boolean requireWord)
 	{
-		//FIXME would it be faster to create and cache a LineBreakMeasurer for the whole paragraph?
-		Map<Attribute, Object> attributes = new HashMap<Attribute, Object>();
-		// we only need the font as it includes the size and style
-		attributes.put(TextAttribute.FONT, fontInfo.fontInfo.font);
-		
-		String textLine = paragraphText.substring(paragraphPosition, endLimit);
-		AttributedString attributedLine = new AttributedString(textLine, attributes);
-
-		// we need a fresh iterator for the line
-		BreakIterator breakIterator = paragraphTruncateAtChar ? BreakIterator.getCharacterInstance()
-				: BreakIterator.getLineInstance();
-		LineBreakMeasurer breakMeasurer = new LineBreakMeasurer(attributedLine.getIterator(), 
-				breakIterator, context.getFontRenderContext());
-		int breakIndex = breakMeasurer.nextOffset(width, endLimit - paragraphPosition, requireWord) 
-				+ paragraphPosition;
+		int breakIndex;
+		if (reuseLineMeasurers && endLimit == paragraphText.length())
+		{
+			// the measurer is created once for the paragraph and reused for all its lines
+			LineBreakMeasurer breakMeasurer = getParagraphBreakMeasurer();
+			breakMeasurer.setPosition(paragraphPosition);
+			breakIndex = breakMeasurer.nextOffset(width, endLimit, requireWord);
+		}
+		else
+		{
+			// measuring the line separately, when it ends before the paragraph end (e.g. at a tab stop) 
+			// this also makes the line end act as a break
+			String textLine = paragraphText.substring(paragraphPosition, endLimit);
+			AttributedString attributedLine = new AttributedString(textLine, fontInfo.fontInfo.measureAttributes);
+
+			LineBreakMeasurer breakMeasurer = new LineBreakMeasurer(attributedLine.getIterator(), 
+					getMeasurerBreakIterator(paragraphTruncateAtChar), context.getFontRenderContext());
+			breakIndex = breakMeasurer.nextOffset(width, endLimit - paragraphPosition, requireWord) 
+					+ paragraphPosition;
+			
+			// the paragraph measurer shares the break iterator, it needs to be recreated
+			paragraphBreakMeasurer = null;
+		}
+		
 		if (logTrace)
 		{
 			log.trace("exact line break index measured at " + (paragraphOffset + breakIndex));
@@ -587,6 +708,17 @@ public class SimpleTextLineWrapper implements TextLineWrapper
 		return breakIndex;
 	}
 
+	protected LineBreakMeasurer getParagraphBreakMeasurer()
+	{
+		if (paragraphBreakMeasurer == null)
+		{
+			AttributedString attributedParagraph = new AttributedString(paragraphText, fontInfo.fontInfo.measureAttributes);
+			paragraphBreakMeasurer = new LineBreakMeasurer(attributedParagraph.getIterator(), 
+					getMeasurerBreakIterator(paragraphTruncateAtChar), context.getFontRenderContext());
+		}
+		return paragraphBreakMeasurer;
+	}
+
 	protected TextLine measureLine(float width, boolean requireWord, int endLimit)
 	{
 		// try to guess how much of the text would fit based on the average char width
@@ -742,8 +874,17 @@ public class SimpleTextLineWrapper implements TextLineWrapper
 		}
 
 		// note that trailing white space will not be included in the advance
-		Rectangle2D bounds = fontInfo.fontInfo.font.getStringBounds(paragraphText, paragraphPosition, endIndex, 
-				context.getFontRenderContext());
+		Rectangle2D bounds = null;
+		GlyphAdvanceTable advanceTable = fontInfo.fontInfo.advanceTable;
+		if (advanceTable != null)
+		{
+			bounds = advanceTable.getStringBounds(paragraphText, paragraphPosition, endIndex);
+		}
+		if (bounds == null)
+		{
+			bounds = fontInfo.fontInfo.font.getStringBounds(paragraphText, paragraphPosition, endIndex, 
+					context.getFontRenderContext());
+		}
 		
 		// adding the measurement to the font info statistics
 		fontInfo.recordMeasurement(bounds.getWidth() / (endIndex - paragraphPosition));
@@ -874,10 +1015,14 @@ public class SimpleTextLineWrapper implements TextLineWrapper
 		final boolean complexLayout;
 		final float leading;
 		final FontStatistics fontStatistics;
+		// we only need the font as it includes the size and style
+		final Map<Attribute, Object> measureAttributes;
+		GlyphAdvanceTable advanceTable;
 		
 		public FontInfo(Font font, boolean complexLayout, float leading)
 		{
 			this.font = font;
+			this.measureAttributes = Collections.<Attribute, Object>singletonMap(TextAttribute.FONT, font);
 			this.complexLayout = complexLayout;
 			this.leading = leading;
 			this.fontStatistics = new FontStatistics();
@@ -0,0 +1,141 @@
+/*
+ * JasperReports - Free Java Reporting Library.
+ * Copyright (C) 2001 - 2016 TIBCO Software Inc. All rights reserved.
+ * http://www.jaspersoft.com
+ *
+ * Unless you have purchased a commercial license agreement from Jaspersoft,
+ * the following license terms apply:
+ *
+ * This program is part of JasperReports.
+ *
+ * JasperReports is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JasperReports is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with JasperReports. If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.sf.jasperreports.engine.fill;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import net.sf.jasperreports.annotations.properties.Property;
+import net.sf.jasperreports.annotations.properties.PropertyScope;
+import net.sf.jasperreports.engine.JRPropertiesUtil;
+import net.sf.jasperreports.engine.JasperReportsContext;
+import net.sf.jasperreports.properties.PropertyConstants;
+
+/**
+ * Pool of print text values used to share identical strings between print elements.
+ * <p>
+ * Reports often contain many text elements that display the same values, such as
+ * status codes, country names or repeated headers.
+ * Text values are interned when set on print elements during fill, and when print pages are
+ * read back by the virtualizer, so that identical values are held by a single string instance.
+ * </p>
+ * <p>
+ * Only texts that are not longer than {@link #PROPERTY_MAX_LENGTH} are interned.
+ * The pool keeps a limited number of values, least recently used values being discarded.
+ * </p>
+ * 
+ * @see JRFillContext#getTextInterner()
+ * @see JRVirtualizationContext#getTextInterner()
+ */
+public class TextInterner
+{
+
+	/**
+	 * Property that specifies the maximum length of print text values that are interned.
+	 * 
+	 * <p>
+	 * Setting the property to 0 disables interning.
+	 * </p>
+	 */
+	@Property(
+			category = PropertyConstants.CATEGORY_FILL,
+			defaultValue = "100",
+			scopes = {PropertyScope.CONTEXT},
+			sinceVersion = PropertyConstants.VERSION_6_4_3,
+			valueType = Integer.class
+			)
+	public static final String PROPERTY_MAX_LENGTH = JRPropertiesUtil.PROPERTY_PREFIX + "print.text.intern.max.length";
+	
+	private static final int DEFAULT_MAX_LENGTH = 100;
+	private static final int POOL_SIZE = 10000;
+	
+	/**
+	 * Creates a text interner using the settings of a context.
+	 * 
+	 * @param jasperReportsContext the context, can be <code>null</code> in which case default settings are used
+	 * @return a text interner
+	 */
+	public static TextInterner create(JasperReportsContext jasperReportsContext)
+	{
+		int maxLength = jasperReportsContext == null ? DEFAULT_MAX_LENGTH 
+				: JRPropertiesUtil.getInstance(jasperReportsContext).getIntegerProperty(
+						PROPERTY_MAX_LENGTH, DEFAULT_MAX_LENGTH);
+		return new TextInterner(maxLength);
+	}
+	
+	private final int maxLength;
+	private final Map<String, String> values;
+	
+	public TextInterner(int maxLength)
+	{
+		this.maxLength = maxLength;
+		this.values = maxLength <= 0 ? null : new LinkedHashMap<String, String>(64, 0.75f, true)
+		{
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, String> eldest)
+			{
+				return size() > POOL_SIZE;
+			}
+		};
+	}
+	
+	/**
+	 * Returns the pooled instance equal to a text.
+	 * 
+	 * @param text the text
+	 * @return the pooled instance, or the text itself if it is not pooled
+	 */
+	public String intern(String text)
+	{
+		if (values == null || text == null || text.length() > maxLength)
+		{
+			return text;
+		}
+		
+		synchronized (values)
+		{
+			String pooled = values.get(text);
+			if (pooled == null)
+			{
+				values.put(text, text);
+				pooled = text;
+			}
+			return pooled;
+		}
+	}
+	
+	/**
+	 * Interns a value if it is a string.
+	 * 
+	 * @param value the value
+	 * @return the pooled string equal to the value, or the value itself
+	 */
+	public Object internValue(Object value)
+	{
+		return value instanceof String ? intern((String) value) : value;
+	}
+	
+}
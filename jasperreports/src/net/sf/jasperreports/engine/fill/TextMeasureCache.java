@@ -0,0 +1,331 @@
+/*
+ * JasperReports - Free Java Reporting Library.
+ * Copyright (C) 2001 - 2016 TIBCO Software Inc. All rights reserved.
+ * http://www.jaspersoft.com
+ *
+ * Unless you have purchased a commercial license agreement from Jaspersoft,
+ * the following license terms apply:
+ *
+ * This program is part of JasperReports.
+ *
+ * JasperReports is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JasperReports is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with JasperReports. If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.sf.jasperreports.engine.fill;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.collections.map.ReferenceMap;
+
+import net.sf.jasperreports.annotations.properties.Property;
+import net.sf.jasperreports.annotations.properties.PropertyScope;
+import net.sf.jasperreports.engine.JRPropertiesUtil;
+import net.sf.jasperreports.engine.JasperReportsContext;
+import net.sf.jasperreports.properties.PropertyConstants;
+
+/**
+ * Process wide cache of text measurement results.
+ * <p>
+ * Texts that are measured repeatedly with the same font attributes, element size and paragraph settings,
+ * such as labels and values in dashboards or in reports that are filled many times, are only
+ * measured once; subsequent measurements reuse the results stored in the cache, across fills.
+ * </p>
+ * <p>
+ * The cache is bounded by {@link #PROPERTY_SIZE}, least recently used results being discarded.
+ * A cache instance exists for each {@link JasperReportsContext} as font resolution depends on the context.
+ * </p>
+ * 
+ * @see TextMeasurer
+ */
+public class TextMeasureCache
+{
+
+	/**
+	 * Property that specifies the maximum number of measurement results kept by the process wide 
+	 * text measure cache.
+	 * 
+	 * <p>
+	 * Setting the property to 0 disables the cache.
+	 * </p>
+	 */
+	@Property(
+			category = PropertyConstants.CATEGORY_FILL,
+			defaultValue = "5000",
+			scopes = {PropertyScope.CONTEXT},
+			sinceVersion = PropertyConstants.VERSION_6_4_3,
+			valueType = Integer.class
+			)
+	public static final String PROPERTY_SIZE = JRPropertiesUtil.PROPERTY_PREFIX + "text.measure.cache.size";
+
+	/**
+	 * Property that specifies the maximum length of texts whose measurement results are cached.
+	 */
+	@Property(
+			category = PropertyConstants.CATEGORY_FILL,
+			defaultValue = "1000",
+			scopes = {PropertyScope.CONTEXT},
+			sinceVersion = PropertyConstants.VERSION_6_4_3,
+			valueType = Integer.class
+			)
+	public static final String PROPERTY_MAX_TEXT_LENGTH = JRPropertiesUtil.PROPERTY_PREFIX + "text.measure.cache.max.text.length";
+	
+	protected static final int STRIPE_COUNT = 16;
+	
+	private static final Object NO_CACHE = new Object();
+	
+	private static final Map<JasperReportsContext, Object> caches = new ReferenceMap(ReferenceMap.WEAK, ReferenceMap.HARD);
+	
+	/**
+	 * Returns the text measure cache used for a context.
+	 * 
+	 * @param jasperReportsContext the context
+	 * @return the cache, or <code>null</code> if text measure caching is disabled
+	 */
+	public static TextMeasureCache getInstance(JasperReportsContext jasperReportsContext)
+	{
+		Object cache;
+		synchronized (caches)
+		{
+			cache = caches.get(jasperReportsContext);
+			if (cache == null)
+			{
+				JRPropertiesUtil properties = JRPropertiesUtil.getInstance(jasperReportsContext);
+				int size = properties.getIntegerProperty(PROPERTY_SIZE, 5000);//hardcoded default
+				int maxTextLength = properties.getIntegerProperty(PROPERTY_MAX_TEXT_LENGTH, 1000);//hardcoded default
+				cache = size > 0 && maxTextLength > 0 
+						? new TextMeasureCache(size, maxTextLength) 
+						: NO_CACHE;
+				caches.put(jasperReportsContext, cache);
+			}
+		}
+		return cache == NO_CACHE ? null : (TextMeasureCache) cache;
+	}
+	
+	private final int maxTextLength;
+	private final Stripe[] stripes;
+	
+	private final AtomicLong hits = new AtomicLong();
+	private final AtomicLong misses = new AtomicLong();
+	private final AtomicLong evictions = new AtomicLong();
+	
+	protected TextMeasureCache(int size, int maxTextLength)
+	{
+		this.maxTextLength = maxTextLength;
+		
+		int stripeCount = Math.min(STRIPE_COUNT, size);
+		int stripeSize = (size + stripeCount - 1) / stripeCount;
+		this.stripes = new Stripe[stripeCount];
+		for (int i = 0; i < stripeCount; i++)
+		{
+			stripes[i] = new Stripe(stripeSize);
+		}
+	}
+	
+	/**
+	 * Determines whether the measurement results of a text can be cached.
+	 * 
+	 * @param text the text
+	 * @return whether the text is short enough to be cached
+	 */
+	public boolean isCacheable(String text)
+	{
+		return text.length() <= maxTextLength;
+	}
+	
+	/**
+	 * Returns a cached measurement result.
+	 * 
+	 * @param key the measurement key
+	 * @return the cached result, or <code>null</code> if the cache does not contain a result for the key
+	 */
+	TextMeasurer.TextMeasuredState get(MeasureKey key)
+	{
+		TextMeasurer.TextMeasuredState state = stripe(key).get(key);
+		if (state == null)
+		{
+			misses.incrementAndGet();
+		}
+		else
+		{
+			hits.incrementAndGet();
+		}
+		return state;
+	}
+	
+	/**
+	 * Stores a measurement result in the cache.
+	 * 
+	 * @param key the measurement key
+	 * @param state the measurement result, which is not to be modified after being cached
+	 */
+	void put(MeasureKey key, TextMeasurer.TextMeasuredState state)
+	{
+		stripe(key).put(key, state);
+	}
+	
+	protected Stripe stripe(MeasureKey key)
+	{
+		int hash = key.hashCode();
+		hash ^= hash >>> 16;
+		return stripes[(hash & 0x7fffffff) % stripes.length];
+	}
+
+	/**
+	 * Returns the number of measurements that were found in the cache.
+	 */
+	public long getHitCount()
+	{
+		return hits.get();
+	}
+
+	/**
+	 * Returns the number of measurements that were not found in the cache.
+	 */
+	public long getMissCount()
+	{
+		return misses.get();
+	}
+
+	/**
+	 * Returns the number of results that were discarded from the cache due to the size limit.
+	 */
+	public long getEvictionCount()
+	{
+		return evictions.get();
+	}
+	
+	/**
+	 * Returns the ratio of measurements that were found in the cache.
+	 */
+	public double getHitRatio()
+	{
+		long hitCount = hits.get();
+		long total = hitCount + misses.get();
+		return total == 0 ? 0d : ((double) hitCount) / total;
+	}
+	
+	/**
+	 * Returns the number of results currently held by the cache.
+	 */
+	public int size()
+	{
+		int size = 0;
+		for (Stripe stripe : stripes)
+		{
+			size += stripe.size();
+		}
+		return size;
+	}
+	
+	/**
+	 * Discards all cached results.
+	 */
+	public void clear()
+	{
+		for (Stripe stripe : stripes)
+		{
+			stripe.clear();
+		}
+	}
+	
+	
+	/**
+	 * LRU map segment, locked independently of the other segments.
+	 */
+	protected class Stripe
+	{
+		private final LinkedHashMap<MeasureKey, TextMeasurer.TextMeasuredState> map;
+		
+		protected Stripe(final int maxSize)
+		{
+			map = new LinkedHashMap<MeasureKey, TextMeasurer.TextMeasuredState>(16, 0.75f, true)
+			{
+				private static final long serialVersionUID = 1L;
+
+				@Override
+				protected boolean removeEldestEntry(Map.Entry<MeasureKey, TextMeasurer.TextMeasuredState> eldest)
+				{
+					boolean remove = size() > maxSize;
+					if (remove)
+					{
+						evictions.incrementAndGet();
+					}
+					return remove;
+				}
+			};
+		}
+		
+		protected synchronized TextMeasurer.TextMeasuredState get(MeasureKey key)
+		{
+			return map.get(key);
+		}
+		
+		protected synchronized void put(MeasureKey key, TextMeasurer.TextMeasuredState state)
+		{
+			map.put(key, state);
+		}
+		
+		protected synchronized int size()
+		{
+			return map.size();
+		}
+		
+		protected synchronized void clear()
+		{
+			map.clear();
+		}
+	}
+	
+	
+	/**
+	 * Key that contains all the inputs of a text measurement.
+	 */
+	public static class MeasureKey
+	{
+		private final Object[] values;
+		private final int hash;
+		
+		public MeasureKey(Object... values)
+		{
+			this.values = values;
+			this.hash = Arrays.deepHashCode(values);
+		}
+
+		@Override
+		public int hashCode()
+		{
+			return hash;
+		}
+
+		@Override
+		public boolean equals(Object obj)
+		{
+			if (obj == this)
+			{
+				return true;
+			}
+			
+			if (!(obj instanceof MeasureKey))
+			{
+				return false;
+			}
+			
+			MeasureKey key = (MeasureKey) obj;
+			return hash == key.hash && Arrays.deepEquals(values, key.values);
+		}
+	}
+
+}
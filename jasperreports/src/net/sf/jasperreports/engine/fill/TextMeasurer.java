@@ -24,9 +24,12 @@
 package net.sf.jasperreports.engine.fill;
 
 import java.awt.font.FontRenderContext;
+import java.text.AttributedCharacterIterator.Attribute;
 import java.text.BreakIterator;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.StringTokenizer;
 
 import org.apache.commons.logging.Log;
@@ -45,9 +48,11 @@ import net.sf.jasperreports.engine.JasperReportsContext;
 import net.sf.jasperreports.engine.TabStop;
 import net.sf.jasperreports.engine.export.AbstractTextRenderer;
 import net.sf.jasperreports.engine.export.AwtTextRenderer;
+import net.sf.jasperreports.engine.util.BreakIteratorFactory;
 import net.sf.jasperreports.engine.util.DelegatePropertiesHolder;
 import net.sf.jasperreports.engine.util.JRStringUtil;
 import net.sf.jasperreports.engine.util.JRStyledText;
+import net.sf.jasperreports.engine.util.JRStyledText.Run;
 import net.sf.jasperreports.engine.util.ParagraphUtil;
 import net.sf.jasperreports.properties.PropertyConstants;
 
@@ -197,6 +202,27 @@ public class TextMeasurer implements JRTextMeasurer
 			)
 	public static final String PROPERTY_MEASURE_SIMPLE_TEXTS = JRPropertiesUtil.PROPERTY_PREFIX + "measure.simple.text";
 
+	/**
+	 * Property that determines whether the line wrappers reuse line break measurers and break iterators
+	 * for the lines and paragraphs that they measure.
+	 * 
+	 * <p>
+	 * When enabled, exact measurements of simple texts use a single line break measurer for the whole
+	 * paragraph instead of creating one for the remaining text of each line.
+	 * This is faster for long paragraphs, but the break positions can differ from the ones measured 
+	 * when the property is not set: forced breaks inside words wider than the line can occur at 
+	 * other positions, and complex scripts are shaped in the context of the whole paragraph.
+	 * </p>
+	 */
+	@Property(
+			category = PropertyConstants.CATEGORY_FILL,
+			defaultValue = PropertyConstants.BOOLEAN_FALSE,
+			scopes = {PropertyScope.CONTEXT, PropertyScope.REPORT, PropertyScope.TEXT_ELEMENT},
+			sinceVersion = PropertyConstants.VERSION_6_4_3,
+			valueType = Boolean.class
+			)
+	public static final String PROPERTY_REUSE_LINE_MEASURERS = JRPropertiesUtil.PROPERTY_PREFIX + "measure.text.reuse.line.measurers";
+
 	protected JasperReportsContext jasperReportsContext;
 	protected JRCommonText textElement;
 	private JRPropertiesHolder propertiesHolder;
@@ -216,6 +242,7 @@ public class TextMeasurer implements JRTextMeasurer
 	private float formatWidth;
 	protected int maxHeight;
 	private boolean canOverflow;
+	private Locale locale;
 	
 	private boolean hasDynamicIgnoreMissingFontProp;
 	private boolean defaultIgnoreMissingFont;
@@ -227,6 +254,9 @@ public class TextMeasurer implements JRTextMeasurer
 	protected TextMeasuredState measuredState;
 	protected TextMeasuredState prevMeasuredState;
 	
+	private TextMeasureCache measureCache;
+	private Object[] measureCacheElementSettings;
+	
 	protected static class TextMeasuredState implements JRMeasuredText, Cloneable
 	{
 		private final boolean saveLineBreakOffsets;
@@ -430,6 +460,31 @@ public class TextMeasurer implements JRTextMeasurer
 		
 		complextLineWrapper = new ComplexTextLineWrapper();
 		complextLineWrapper.init(measureContext);
+		
+		initMeasureCache(propertiesUtil);
+	}
+	
+	protected void initMeasureCache(JRPropertiesUtil propertiesUtil)
+	{
+		// element property values that affect measuring
+		measureCacheElementSettings = new Object[]{
+				propertiesUtil.getProperty(propertiesHolder, PROPERTY_MEASURE_SIMPLE_TEXTS),
+				propertiesUtil.getProperty(propertiesHolder, SimpleTextLineWrapper.PROPERTY_MEASURE_EXACT),
+				propertiesUtil.getProperty(propertiesHolder, PROPERTY_REUSE_LINE_MEASURERS),
+				isToTruncateAtChar(),
+				getTruncateSuffix(),
+				propertiesUtil.getProperty(BreakIteratorFactory.PROPERTY_ICU_BREAK_ITERATORS)
+		};
+		
+		if (!getClass().equals(TextMeasurer.class))
+		{
+			// subclasses might measure differently
+			measureCache = null;
+		}
+		else
+		{
+			measureCache = TextMeasureCache.getInstance(jasperReportsContext);
+		}
 	}
 
 	/**
@@ -497,6 +552,7 @@ public class TextMeasurer implements JRTextMeasurer
 		maxHeight = height + availableStretchHeight - topPadding - bottomPadding;
 		maxHeight = maxHeight < 0 ? 0 : maxHeight;
 		this.canOverflow = canOverflow;
+		this.locale = styledText.getLocale();
 		
 		// refresh properties if required
 		ignoreMissingFont = defaultIgnoreMissingFont;
@@ -537,6 +593,17 @@ public class TextMeasurer implements JRTextMeasurer
 	{
 		/*   */
 		initialize(styledText, remainingTextStart, availableStretchHeight, canOverflow);
+		
+		TextMeasureCache.MeasureKey cacheKey = createMeasureCacheKey(styledText, remainingTextStart);
+		if (cacheKey != null)
+		{
+			TextMeasuredState cachedState = measureCache.get(cacheKey);
+			if (cachedState != null)
+			{
+				measuredState = cachedState.cloneState();
+				return measuredState;
+			}
+		}
 
 		TextLineWrapper lineWrapper = simpleLineWrapper;
 		// check if the simple wrapper would handle the text
@@ -580,9 +647,67 @@ public class TextMeasurer implements JRTextMeasurer
 			renderParagraph(lineWrapper, lastParagraphStart, lastParagraphText);
 		}
 		
+		if (cacheKey != null)
+		{
+			measureCache.put(cacheKey, measuredState.cloneState());
+		}
+		
 		return measuredState;
 	}
 	
+	/**
+	 * Creates the key under which the result of the current measurement is cached.
+	 * 
+	 * @return the key, or <code>null</code> if the measurement result is not to be cached
+	 */
+	protected TextMeasureCache.MeasureKey createMeasureCacheKey(JRStyledText styledText, int remainingTextStart)
+	{
+		if (measureCache == null || remainingTextStart != 0
+				|| !measureCache.isCacheable(styledText.getText()))
+		{
+			return null;
+		}
+		
+		List<Run> runs = styledText.getRuns();
+		Object[] runValues = new Object[runs.size() * 3];
+		for (int i = 0; i < runs.size(); i++)
+		{
+			Run run = runs.get(i);
+			// copying the attributes as the key outlives the styled text
+			runValues[3 * i] = new HashMap<Attribute, Object>(run.attributes);
+			runValues[3 * i + 1] = run.startIndex;
+			runValues[3 * i + 2] = run.endIndex;
+		}
+		
+		TabStop[] tabStops = jrParagraph.getTabStops();
+		Object[] tabStopValues = null;
+		if (tabStops != null)
+		{
+			tabStopValues = new Object[tabStops.length * 2];
+			for (int i = 0; i < tabStops.length; i++)
+			{
+				tabStopValues[2 * i] = tabStops[i].getPosition();
+				tabStopValues[2 * i + 1] = tabStops[i].getAlignment();
+			}
+		}
+		
+		return new TextMeasureCache.MeasureKey(
+				styledText.getText(),
+				// the locale is used for font resolution and line breaking
+				styledText.getLocale(),
+				runValues,
+				styledText.getGlobalAttributes() == null ? null : new HashMap<Attribute, Object>(styledText.getGlobalAttributes()),
+				width, height, topPadding, leftPadding, bottomPadding, rightPadding,
+				maxHeight, canOverflow,
+				jrParagraph.getLineSpacing(), jrParagraph.getLineSpacingSize(),
+				jrParagraph.getFirstLineIndent(), jrParagraph.getLeftIndent(), jrParagraph.getRightIndent(),
+				jrParagraph.getSpacingBefore(), jrParagraph.getSpacingAfter(),
+				jrParagraph.getTabStopWidth(), tabStopValues,
+				ignoreMissingFont, measuredState.saveLineBreakOffsets,
+				measureCacheElementSettings
+				);
+	}
+	
 	protected boolean hasParagraphIndents()
 	{
 		Integer firstLineIndent = jrParagraph.getFirstLineIndent();
@@ -697,6 +822,10 @@ public class TextMeasurer implements JRTextMeasurer
 		String lineText = lineWrapper.getLineText(lineStart, measuredState.textOffset);
 		int linePosition = lineText.length();
 		
+		boolean truncateAtChar = isToTruncateAtChar();
+		BreakIterator breakIterator = BreakIteratorFactory.getInstance(jasperReportsContext).getInstance(
+				locale, truncateAtChar);
+		
 		//iterate to the beginning of the line
 		boolean done = false;
 		do
@@ -704,14 +833,9 @@ public class TextMeasurer implements JRTextMeasurer
 			measuredState = prevMeasuredState.cloneState();
 
 			String text = lineText.substring(0, linePosition) + truncateSuffx;
-			boolean truncateAtChar = isToTruncateAtChar();
 			TextLineWrapper lastLineWrapper = lineWrapper.lastLineWrapper(text, 
 					measuredState.textOffset, linePosition, truncateAtChar);
 			
-			BreakIterator breakIterator = 
-				truncateAtChar 
-				? BreakIterator.getCharacterInstance() 
-				: BreakIterator.getLineInstance();
 			breakIterator.setText(text);
 
 			if (renderNextLine(lastLineWrapper, null, new int[]{0}, new TabStop[]{null}, new boolean[]{false}))
@@ -0,0 +1,247 @@
+/*
+ * JasperReports - Free Java Reporting Library.
+ * Copyright (C) 2001 - 2016 TIBCO Software Inc. All rights reserved.
+ * http://www.jaspersoft.com
+ *
+ * Unless you have purchased a commercial license agreement from Jaspersoft,
+ * the following license terms apply:
+ *
+ * This program is part of JasperReports.
+ *
+ * JasperReports is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JasperReports is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with JasperReports. If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.sf.jasperreports.engine.fill;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import net.sf.jasperreports.annotations.properties.Property;
+import net.sf.jasperreports.annotations.properties.PropertyScope;
+import net.sf.jasperreports.engine.JRPropertiesUtil;
+import net.sf.jasperreports.engine.JRRuntimeException;
+import net.sf.jasperreports.properties.PropertyConstants;
+
+/**
+ * Measures the text elements of a container concurrently before the elements are prepared.
+ * <p>
+ * Once the element values are evaluated, measuring different text elements is independent,
+ * so the text elements of a band, frame or table cell are measured on a fork-join pool 
+ * using the vertical space that they would have if not pushed by other elements.
+ * The measuring threads work on copies of the texts and of the element attributes, made on the fill thread.
+ * The results are then used by the elements during the sequential prepare phase if the actual
+ * measurement parameters match the ones that were assumed, otherwise the elements are measured again.
+ * </p>
+ * <p>
+ * The pool belongs to the fill context, it is shared by the master report and subreport fills
+ * and it is shut down when the master fill ends.
+ * </p>
+ * 
+ * @see JRFillTextElement#createPremeasureTask(int)
+ */
+public class TextPremeasurer
+{
+	private static final Log log = LogFactory.getLog(TextPremeasurer.class);
+
+	/**
+	 * Property that enables concurrent measurement of the text elements in a band or container.
+	 */
+	@Property(
+			category = PropertyConstants.CATEGORY_FILL,
+			defaultValue = PropertyConstants.BOOLEAN_FALSE,
+			scopes = {PropertyScope.CONTEXT, PropertyScope.REPORT},
+			sinceVersion = PropertyConstants.VERSION_6_4_3,
+			valueType = Boolean.class
+			)
+	public static final String PROPERTY_PARALLEL = JRPropertiesUtil.PROPERTY_PREFIX + "text.measure.parallel";
+
+	/**
+	 * Property that specifies the minimum number of text elements that a container needs to have
+	 * in order for the elements to be measured concurrently.
+	 */
+	@Property(
+			category = PropertyConstants.CATEGORY_FILL,
+			defaultValue = "4",
+			scopes = {PropertyScope.CONTEXT, PropertyScope.REPORT},
+			sinceVersion = PropertyConstants.VERSION_6_4_3,
+			valueType = Integer.class
+			)
+	public static final String PROPERTY_PARALLEL_MIN_ELEMENTS = JRPropertiesUtil.PROPERTY_PREFIX + "text.measure.parallel.min.elements";
+
+	/**
+	 * Property that specifies the parallelism of the pool used to measure texts.
+	 * 
+	 * <p>
+	 * The property is read when the pool of a report fill is created.
+	 * By default the number of available processors is used.
+	 * </p>
+	 */
+	@Property(
+			category = PropertyConstants.CATEGORY_FILL,
+			scopes = {PropertyScope.CONTEXT},
+			sinceVersion = PropertyConstants.VERSION_6_4_3,
+			valueType = Integer.class
+			)
+	public static final String PROPERTY_PARALLELISM = JRPropertiesUtil.PROPERTY_PREFIX + "text.measure.parallelism";
+
+	private static final String FILL_CACHE_KEY_POOL = TextPremeasurer.class.getName() + "#pool";
+	
+	protected static ForkJoinPool getPool(JRFillContext fillContext)
+	{
+		MeasurePoolDisposable pool = (MeasurePoolDisposable) fillContext.getFillCache(FILL_CACHE_KEY_POOL);
+		if (pool == null)
+		{
+			JRPropertiesUtil propertiesUtil = fillContext.getMasterFiller().getPropertiesUtil();
+			int parallelism = propertiesUtil.getIntegerProperty(PROPERTY_PARALLELISM, 0);
+			if (parallelism <= 0)
+			{
+				parallelism = Runtime.getRuntime().availableProcessors();
+			}
+			
+			if (log.isDebugEnabled())
+			{
+				log.debug("creating text measure pool with parallelism " + parallelism
+						+ " for " + fillContext.getMasterFiller().getJasperReport().getName());
+			}
+			
+			pool = new MeasurePoolDisposable(new ForkJoinPool(parallelism));
+			fillContext.setFillCache(FILL_CACHE_KEY_POOL, pool);
+		}
+		return pool.getPool();
+	}
+	
+	/**
+	 * Creates a text premeasurer if concurrent text measurement is enabled for a filler.
+	 * 
+	 * @param filler the filler
+	 * @return a premeasurer, or <code>null</code> if concurrent measurement is not enabled
+	 */
+	public static TextPremeasurer create(JRBaseFiller filler)
+	{
+		JRPropertiesUtil propertiesUtil = filler.getPropertiesUtil();
+		boolean parallel = propertiesUtil.getBooleanProperty(filler.getMainDataset(), PROPERTY_PARALLEL, false);
+		if (!parallel)
+		{
+			return null;
+		}
+		
+		int minElements = propertiesUtil.getIntegerProperty(filler.getMainDataset(), PROPERTY_PARALLEL_MIN_ELEMENTS, 4);
+		return new TextPremeasurer(filler.getFillContext(), minElements);
+	}
+	
+	private final JRFillContext fillContext;
+	private final int minElements;
+	
+	protected TextPremeasurer(JRFillContext fillContext, int minElements)
+	{
+		this.fillContext = fillContext;
+		this.minElements = Math.max(minElements, 2);
+	}
+	
+	/**
+	 * Measures the text elements of a container.
+	 * 
+	 * @param elements the container elements
+	 * @param availableHeight the height available to the container elements
+	 */
+	public void premeasure(JRFillElement[] elements, int availableHeight)
+	{
+		if (elements == null || elements.length < minElements)
+		{
+			return;
+		}
+		
+		List<Callable<Void>> tasks = new ArrayList<Callable<Void>>(elements.length);
+		for (JRFillElement element : elements)
+		{
+			if (element instanceof JRFillTextElement)
+			{
+				Callable<Void> task = ((JRFillTextElement) element).createPremeasureTask(availableHeight);
+				if (task != null)
+				{
+					tasks.add(task);
+				}
+			}
+		}
+		
+		if (tasks.size() < minElements)
+		{
+			// not worth it, the elements will measure themselves
+			for (JRFillElement element : elements)
+			{
+				if (element instanceof JRFillTextElement)
+				{
+					((JRFillTextElement) element).resetPremeasuredText();
+				}
+			}
+			return;
+		}
+		
+		// the pool is created on first use
+		List<Future<Void>> results = getPool(fillContext).invokeAll(tasks);
+		for (Future<Void> result : results)
+		{
+			try
+			{
+				result.get();
+			}
+			catch (InterruptedException e)
+			{
+				Thread.currentThread().interrupt();
+				throw new JRRuntimeException(e);
+			}
+			catch (ExecutionException e)
+			{
+				// the element will be measured again during prepare
+				if (log.isDebugEnabled())
+				{
+					log.debug("text premeasurement failed", e.getCause());
+				}
+			}
+		}
+	}
+	
+	protected static class MeasurePoolDisposable implements JRFillContext.FillCacheDisposable
+	{
+		private final ForkJoinPool pool;
+		
+		public MeasurePoolDisposable(ForkJoinPool pool)
+		{
+			this.pool = pool;
+		}
+		
+		public ForkJoinPool getPool()
+		{
+			return pool;
+		}
+
+		@Override
+		public void dispose()
+		{
+			if (log.isDebugEnabled())
+			{
+				log.debug("shutting down text measure pool " + pool);
+			}
+			
+			pool.shutdown();
+		}
+	}
+
+}
@@ -28,9 +28,13 @@ import java.util.List;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
+import net.sf.jasperreports.annotations.properties.Property;
+import net.sf.jasperreports.annotations.properties.PropertyScope;
 import net.sf.jasperreports.engine.DefaultJasperReportsContext;
+import net.sf.jasperreports.engine.JRPropertiesUtil;
 import net.sf.jasperreports.engine.JRRuntimeException;
 import net.sf.jasperreports.extensions.ExtensionsRegistry;
+import net.sf.jasperreports.properties.PropertyConstants;
 
 /**
  * @author Teodor Danciu (teodord@users.sourceforge.net)
@@ -40,6 +44,44 @@ public class FontExtensionsRegistry implements ExtensionsRegistry
 	
 	private static final Log log = LogFactory.getLog(FontExtensionsRegistry.class);
 
+	/**
+	 * Property that determines whether the font files of font extensions are loaded only when
+	 * the fonts are first used, instead of being loaded when the font extensions are read.
+	 * 
+	 * <p>
+	 * When lazy loading is used, font families that contain invalid font files are no longer
+	 * discarded at startup; the errors are logged when the fonts are first used and the faces
+	 * are treated as missing.
+	 * Font names are then matched against the face names declared by the <code>name</code> attribute
+	 * of the face elements in the font extension files, as the fonts are not loaded to find out their names.
+	 * </p>
+	 */
+	@Property(
+			category = PropertyConstants.CATEGORY_EXTENSIONS,
+			defaultValue = PropertyConstants.BOOLEAN_FALSE,
+			scopes = {PropertyScope.CONTEXT},
+			sinceVersion = PropertyConstants.VERSION_6_4_3,
+			valueType = Boolean.class
+			)
+	public static final String PROPERTY_LAZY_LOAD_FONTS = JRPropertiesUtil.PROPERTY_PREFIX + "font.extensions.lazy.load";
+
+	/**
+	 * Property that specifies the maximum number of fonts loaded from font files that are shared 
+	 * by the font faces of different contexts, for each context class loader.
+	 * 
+	 * <p>
+	 * Setting the property to 0 disables font sharing, each font face loading its own font.
+	 * </p>
+	 */
+	@Property(
+			category = PropertyConstants.CATEGORY_EXTENSIONS,
+			defaultValue = "100",
+			scopes = {PropertyScope.CONTEXT},
+			sinceVersion = PropertyConstants.VERSION_6_4_3,
+			valueType = Integer.class
+			)
+	public static final String PROPERTY_FONT_FILE_CACHE_SIZE = JRPropertiesUtil.PROPERTY_PREFIX + "font.extensions.file.cache.size";
+
 	private final List<String> fontFamiliesLocations;
 	private List<FontFamily> fontFamilies;
 	private List<FontSet> fontSets;
@@ -80,6 +122,9 @@ public class FontExtensionsRegistry implements ExtensionsRegistry
 			SimpleFontExtensionHelper fontExtensionHelper = SimpleFontExtensionHelper.getInstance();
 			DefaultJasperReportsContext context = DefaultJasperReportsContext.getInstance();
 			
+			boolean lazyLoad = JRPropertiesUtil.getInstance(context).getBooleanProperty(PROPERTY_LAZY_LOAD_FONTS);
+			long start = log.isDebugEnabled() ? System.currentTimeMillis() : 0;
+			
 			FontExtensionsCollector extensionsCollector = new FontExtensionsCollector();
 			for (String location : fontFamiliesLocations)
 			{
@@ -90,7 +135,7 @@ public class FontExtensionsRegistry implements ExtensionsRegistry
 				
 				try
 				{
-					fontExtensionHelper.loadFontExtensions(context, location, extensionsCollector);
+					fontExtensionHelper.loadFontExtensions(context, location, extensionsCollector, !lazyLoad);
 				}
 				catch (JRRuntimeException e)//only catching JRRuntimeException for now
 				{
@@ -101,6 +146,13 @@ public class FontExtensionsRegistry implements ExtensionsRegistry
 			
 			fontFamilies = extensionsCollector.getFontFamilies();
 			fontSets = extensionsCollector.getFontSets();
+			
+			if (log.isDebugEnabled())
+			{
+				log.debug("Loaded " + fontFamilies.size() + " font families and " + fontSets.size() 
+						+ " font sets in " + (System.currentTimeMillis() - start) + " ms"
+						+ (lazyLoad ? ", font files to be loaded on first use" : ""));
+			}
 		}
 	}
 
@@ -0,0 +1,157 @@
+/*
+ * JasperReports - Free Java Reporting Library.
+ * Copyright (C) 2001 - 2016 TIBCO Software Inc. All rights reserved.
+ * http://www.jaspersoft.com
+ *
+ * Unless you have purchased a commercial license agreement from Jaspersoft,
+ * the following license terms apply:
+ *
+ * This program is part of JasperReports.
+ *
+ * JasperReports is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JasperReports is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with JasperReports. If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.sf.jasperreports.engine.fonts;
+
+import java.awt.Font;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.collections.map.ReferenceMap;
+
+import net.sf.jasperreports.engine.DefaultJasperReportsContext;
+import net.sf.jasperreports.engine.JRPropertiesUtil;
+import net.sf.jasperreports.engine.JasperReportsContext;
+import net.sf.jasperreports.repo.RepositoryService;
+
+/**
+ * Process wide cache of fonts loaded from font files by {@link SimpleFontFace}.
+ * <p>
+ * Fonts are shared by all font faces that load the same font file location through 
+ * the same repository services and the same context class loader, regardless of the 
+ * {@link JasperReportsContext} used by the font faces.
+ * Font files are only shared for contexts that use the repository services of the default context,
+ * as the same location could resolve to different files for other contexts.
+ * </p>
+ * <p>
+ * A bounded cache exists for each context class loader, as classpath locations are resolved 
+ * by the class loader.  The size of the caches is given by {@link FontExtensionsRegistry#PROPERTY_FONT_FILE_CACHE_SIZE}.
+ * </p>
+ */
+final class FontFileCache
+{
+	
+	private static final Object CONTEXT_KEY_NULL = new Object();
+	
+	private static final Map<Object, Map<String, Font>> caches = new ReferenceMap(ReferenceMap.WEAK, ReferenceMap.HARD);
+	
+	private FontFileCache()
+	{
+	}
+
+	public static boolean isShared(JasperReportsContext jasperReportsContext)
+	{
+		if (jasperReportsContext == null)
+		{
+			return false;
+		}
+		
+		if (getCacheSize(jasperReportsContext) <= 0)
+		{
+			return false;
+		}
+		
+		DefaultJasperReportsContext defaultContext = DefaultJasperReportsContext.getInstance();
+		if (jasperReportsContext == defaultContext)
+		{
+			return true;
+		}
+		
+		List<RepositoryService> services = jasperReportsContext.getExtensions(RepositoryService.class);
+		List<RepositoryService> defaultServices = defaultContext.getExtensions(RepositoryService.class);
+		return services == null ? defaultServices == null : services.equals(defaultServices);
+	}
+	
+	public static Font getFont(JasperReportsContext jasperReportsContext, String location)
+	{
+		synchronized (caches)
+		{
+			return getContextCache(jasperReportsContext).get(location);
+		}
+	}
+	
+	public static Font putFont(JasperReportsContext jasperReportsContext, String location, Font font)
+	{
+		synchronized (caches)
+		{
+			Map<String, Font> cache = getContextCache(jasperReportsContext);
+			Font existingFont = cache.get(location);
+			if (existingFont != null)
+			{
+				return existingFont;
+			}
+			
+			cache.put(location, font);
+			return font;
+		}
+	}
+	
+	private static Map<String, Font> getContextCache(JasperReportsContext jasperReportsContext)
+	{
+		Object contextKey = getContextKey();
+		Map<String, Font> cache = caches.get(contextKey);
+		if (cache == null)
+		{
+			cache = new FontCache(getCacheSize(jasperReportsContext));
+			caches.put(contextKey, cache);
+		}
+		return cache;
+	}
+	
+	private static Object getContextKey()
+	{
+		Object key = Thread.currentThread().getContextClassLoader();
+		if (key == null)
+		{
+			key = CONTEXT_KEY_NULL;
+		}
+		return key;
+	}
+	
+	private static int getCacheSize(JasperReportsContext jasperReportsContext)
+	{
+		return JRPropertiesUtil.getInstance(jasperReportsContext).getIntegerProperty(
+				FontExtensionsRegistry.PROPERTY_FONT_FILE_CACHE_SIZE, 100);//hardcoded default
+	}
+	
+	private static class FontCache extends LinkedHashMap<String, Font>
+	{
+		private static final long serialVersionUID = 1L;
+		
+		private final int maxSize;
+		
+		public FontCache(int maxSize)
+		{
+			super(16, 0.75f, true);
+			this.maxSize = maxSize;
+		}
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, Font> eldest)
+		{
+			return size() > maxSize;
+		}
+	}
+	
+}
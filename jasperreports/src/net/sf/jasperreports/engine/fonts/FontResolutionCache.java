@@ -0,0 +1,284 @@
+/*
+ * JasperReports - Free Java Reporting Library.
+ * Copyright (C) 2001 - 2016 TIBCO Software Inc. All rights reserved.
+ * http://www.jaspersoft.com
+ *
+ * Unless you have purchased a commercial license agreement from Jaspersoft,
+ * the following license terms apply:
+ *
+ * This program is part of JasperReports.
+ *
+ * JasperReports is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JasperReports is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with JasperReports. If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.sf.jasperreports.engine.fonts;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.collections.map.ReferenceMap;
+
+import net.sf.jasperreports.engine.JasperReportsContext;
+import net.sf.jasperreports.extensions.ExtensionsEnvironment;
+
+/**
+ * Cache of font resolution results used by {@link FontUtil}.
+ * <p>
+ * Font family, font face and font set lookups, and AWT fonts derived from font faces are cached
+ * for each {@link JasperReportsContext}, in maps that discard the least recently used entries
+ * once they reach a maximum size.
+ * </p>
+ * <p>
+ * The font family and font set extensions of the context are not retrieved on each lookup.
+ * They are retrieved again when the extensions cache key (i.e. the context class loader) changes,
+ * and otherwise at most once every second; when a different set of
+ * extensions is found, all cached results, including the AWT fonts, are discarded so that no
+ * references to previous font family and font face objects are kept.
+ * Extensions programmatically set on a context are therefore picked up by font lookups with a
+ * delay of at most one second.
+ * </p>
+ */
+final class FontResolutionCache
+{
+	
+	protected static final Object NULL_VALUE = new Object();
+	
+	protected static final int MAX_SIZE = 10000;
+	
+	protected static final long DEFAULT_CHECK_INTERVAL = 1000000000L;//one second in nanoseconds
+	
+	private static final Map<JasperReportsContext, FontResolutionCache> caches = 
+			new ReferenceMap(ReferenceMap.WEAK, ReferenceMap.HARD);
+	
+	public static FontResolutionCache getInstance(JasperReportsContext jasperReportsContext)
+	{
+		synchronized (caches)
+		{
+			FontResolutionCache cache = caches.get(jasperReportsContext);
+			if (cache == null)
+			{
+				cache = new FontResolutionCache(DEFAULT_CHECK_INTERVAL, MAX_SIZE);
+				caches.put(jasperReportsContext, cache);
+			}
+			return cache;
+		}
+	}
+	
+	private final long checkInterval;
+	private final int maxSize;
+	private volatile State state;
+	
+	FontResolutionCache(long checkInterval, int maxSize)
+	{
+		this.checkInterval = checkInterval;
+		this.maxSize = maxSize;
+	}
+	
+	/**
+	 * Returns the cached extensions and lookup results, checking whether the extensions
+	 * of the context have changed if needed.
+	 * 
+	 * <p>
+	 * The context is not kept by the cache, as the cache instances are weakly keyed by context. 
+	 * </p>
+	 * 
+	 * @param jasperReportsContext the context for which the cache was created
+	 * @return the current state of the cache
+	 */
+	public State getState(JasperReportsContext jasperReportsContext)
+	{
+		Object extensionsKey = ExtensionsEnvironment.getExtensionsCacheKey();
+		long now = System.nanoTime();
+		
+		State current = state;
+		if (current != null && current.extensionsKey == extensionsKey
+				&& now - current.checkTime < checkInterval)
+		{
+			return current;
+		}
+		
+		List<FontFamily> families = jasperReportsContext.getExtensions(FontFamily.class);
+		List<FontSet> fontSets = jasperReportsContext.getExtensions(FontSet.class);
+		if (current != null && current.extensionsKey == extensionsKey
+				&& current.matches(families, fontSets))
+		{
+			current.checkTime = now;
+			return current;
+		}
+		
+		current = new State(extensionsKey, families, fontSets, now, maxSize);
+		state = current;
+		return current;
+	}
+	
+	/**
+	 * Font extensions of a context along with the results of the lookups performed on them.
+	 */
+	protected static final class State
+	{
+		private final Object extensionsKey;
+		private final List<FontFamily> families;
+		private final List<FontSet> fontSets;
+		private volatile long checkTime;
+		private final LruCache lookups;
+		private final LruCache awtFonts;
+		
+		protected State(Object extensionsKey, List<FontFamily> families, List<FontSet> fontSets, 
+				long checkTime, int maxSize)
+		{
+			this.extensionsKey = extensionsKey;
+			this.families = families == null ? Collections.<FontFamily>emptyList() : families;
+			this.fontSets = fontSets == null ? Collections.<FontSet>emptyList() : fontSets;
+			this.checkTime = checkTime;
+			this.lookups = new LruCache(maxSize);
+			this.awtFonts = new LruCache(maxSize);
+		}
+		
+		public List<FontFamily> getFamilies()
+		{
+			return families;
+		}
+		
+		public List<FontSet> getFontSets()
+		{
+			return fontSets;
+		}
+		
+		/**
+		 * Returns the cache of font family, font face and font set lookups.
+		 */
+		public LruCache getLookups()
+		{
+			return lookups;
+		}
+		
+		/**
+		 * Returns the cache of AWT fonts.
+		 */
+		public LruCache getAwtFonts()
+		{
+			return awtFonts;
+		}
+		
+		protected boolean matches(List<FontFamily> currentFamilies, List<FontSet> currentFontSets)
+		{
+			return sameElements(families, currentFamilies) && sameElements(fontSets, currentFontSets);
+		}
+		
+		private static boolean sameElements(List<?> extensions, List<?> currentExtensions)
+		{
+			if (currentExtensions == null)
+			{
+				return extensions.isEmpty();
+			}
+			
+			int size = extensions.size();
+			if (currentExtensions.size() != size)
+			{
+				return false;
+			}
+			
+			// comparing by identity as extension objects are expected to be kept by the registries
+			for (int i = 0; i < size; ++i)
+			{
+				if (extensions.get(i) != currentExtensions.get(i))
+				{
+					return false;
+				}
+			}
+			return true;
+		}
+	}
+	
+	/**
+	 * Synchronized map of lookup results that discards the least recently used entry
+	 * when exceeding the maximum size.
+	 * 
+	 * <p>
+	 * <code>null</code> results are stored as {@link FontResolutionCache#NULL_VALUE}.
+	 * </p>
+	 */
+	protected static final class LruCache
+	{
+		private final Map<Key, Object> values;
+		
+		protected LruCache(final int maxSize)
+		{
+			this.values = new LinkedHashMap<Key, Object>(16, 0.75f, true)
+			{
+				private static final long serialVersionUID = 1L;
+
+				@Override
+				protected boolean removeEldestEntry(Map.Entry<Key, Object> eldest)
+				{
+					return size() > maxSize;
+				}
+			};
+		}
+		
+		public synchronized Object get(Key key)
+		{
+			return values.get(key);
+		}
+		
+		public synchronized void put(Key key, Object value)
+		{
+			values.put(key, value == null ? NULL_VALUE : value);
+		}
+		
+		public synchronized int size()
+		{
+			return values.size();
+		}
+	}
+	
+	/**
+	 * Lookup key consisting of a list of values, compared by equality.
+	 */
+	protected static final class Key
+	{
+		private final Object[] values;
+		private final int hash;
+		
+		public Key(Object... values)
+		{
+			this.values = values;
+			this.hash = Arrays.hashCode(values);
+		}
+
+		@Override
+		public int hashCode()
+		{
+			return hash;
+		}
+
+		@Override
+		public boolean equals(Object obj)
+		{
+			if (obj == this)
+			{
+				return true;
+			}
+			if (!(obj instanceof Key))
+			{
+				return false;
+			}
+			Key key = (Key) obj;
+			return hash == key.hash && Arrays.equals(values, key.values);
+		}
+	}
+	
+}
@@ -44,6 +44,9 @@ import org.apache.commons.logging.LogFactory;
 import net.sf.jasperreports.engine.JRFont;
 import net.sf.jasperreports.engine.JRRuntimeException;
 import net.sf.jasperreports.engine.JasperReportsContext;
+import net.sf.jasperreports.engine.fonts.FontResolutionCache.Key;
+import net.sf.jasperreports.engine.fonts.FontResolutionCache.LruCache;
+import net.sf.jasperreports.engine.fonts.FontResolutionCache.State;
 import net.sf.jasperreports.engine.util.JRFontNotFoundException;
 import net.sf.jasperreports.engine.util.JRGraphEnvInitializer;
 import net.sf.jasperreports.engine.util.JRTextAttribute;
@@ -58,7 +61,13 @@ public final class FontUtil
 	public static final String EXCEPTION_MESSAGE_KEY_NULL_FONT = "engine.fonts.null.font";
 	public static final String EXCEPTION_MESSAGE_KEY_FONT_SET_FAMILY_NOT_FOUND = "util.font.set.family.not.found";
 
+	private static final String CACHE_KEY_FONT_INFO = "fontInfo";
+	private static final String CACHE_KEY_FONT_INFO_IGNORE_CASE = "fontInfoIgnoreCase";
+	private static final String CACHE_KEY_FONT_SET_INFO = "fontSetInfo";
+	private static final String CACHE_KEY_EXPORT_FONT_FAMILY = "exportFontFamily";
+
 	private JasperReportsContext jasperReportsContext;
+	private FontResolutionCache resolutionCache;
 
 
 	/**
@@ -79,6 +88,22 @@ public final class FontUtil
 	}
 	
 	
+	protected FontResolutionCache getResolutionCache()
+	{
+		if (resolutionCache == null)
+		{
+			resolutionCache = FontResolutionCache.getInstance(jasperReportsContext);
+		}
+		return resolutionCache;
+	}
+	
+	
+	protected State getResolutionState()
+	{
+		return getResolutionCache().getState(jasperReportsContext);
+	}
+	
+	
 	/**
 	 *.
 	 */ //FIXMECONTEXT this should no longer be a thread local
@@ -183,11 +208,26 @@ public final class FontUtil
 	 * @return a font info object
 	 */
 	public FontInfo getFontInfo(String name, Locale locale)
+	{
+		State resolutionState = getResolutionState();
+		List<FontFamily> families = resolutionState.getFamilies();
+		LruCache cache = resolutionState.getLookups();
+		Key key = new Key(CACHE_KEY_FONT_INFO, name, locale);
+		Object cached = cache.get(key);
+		if (cached != null)
+		{
+			return cached == FontResolutionCache.NULL_VALUE ? null : (FontInfo) cached;
+		}
+		
+		FontInfo fontInfo = findFontInfo(families, name, locale);
+		cache.put(key, fontInfo);
+		return fontInfo;
+	}
+
+	protected FontInfo findFontInfo(List<FontFamily> families, String name, Locale locale)
 	{
 		FontInfo awtFamilyMatchFontInfo = null;
 
-		//FIXMEFONT do some cache
-		List<FontFamily> families = jasperReportsContext.getExtensions(FontFamily.class);
 		for (Iterator<FontFamily> itf = families.iterator(); itf.hasNext();)
 		{
 			FontFamily family = itf.next();
@@ -201,13 +241,13 @@ public final class FontUtil
 				FontFace face = family.getNormalFace();
 				if (face != null)
 				{
-					if (name.equals(face.getName()))
+					if (name.equals(getFaceName(face)))
 					{
 						return new FontInfo(family, face, Font.PLAIN);
 					}
 					else if (
 						awtFamilyMatchFontInfo == null
-						&& name.equals(face.getFont().getFamily())
+						&& name.equals(getFaceFamily(face))
 						)
 					{
 						awtFamilyMatchFontInfo = new FontInfo(family, face, Font.PLAIN);
@@ -217,13 +257,13 @@ public final class FontUtil
 				face = family.getBoldFace();
 				if (face != null)
 				{
-					if (name.equals(face.getName()))
+					if (name.equals(getFaceName(face)))
 					{
 						return new FontInfo(family, face, Font.BOLD);
 					}
 					else if (
 						awtFamilyMatchFontInfo == null
-						&& name.equals(face.getFont().getFamily())
+						&& name.equals(getFaceFamily(face))
 						)
 					{
 						awtFamilyMatchFontInfo = new FontInfo(family, face, Font.BOLD);
@@ -233,13 +273,13 @@ public final class FontUtil
 				face = family.getItalicFace();
 				if (face != null)
 				{
-					if (name.equals(face.getName()))
+					if (name.equals(getFaceName(face)))
 					{
 						return new FontInfo(family, face, Font.ITALIC);
 					}
 					else if (
 						awtFamilyMatchFontInfo == null
-						&& name.equals(face.getFont().getFamily())
+						&& name.equals(getFaceFamily(face))
 						)
 					{
 						awtFamilyMatchFontInfo = new FontInfo(family, face, Font.ITALIC);
@@ -249,13 +289,13 @@ public final class FontUtil
 				face = family.getBoldItalicFace();
 				if (face != null)
 				{
-					if (name.equals(face.getName()))
+					if (name.equals(getFaceName(face)))
 					{
 						return new FontInfo(family, face, Font.BOLD | Font.ITALIC);
 					}
 					else if (
 						awtFamilyMatchFontInfo == null
-						&& name.equals(face.getFont().getFamily())
+						&& name.equals(getFaceFamily(face))
 						)
 					{
 						awtFamilyMatchFontInfo = new FontInfo(family, face, Font.BOLD | Font.ITALIC);
@@ -268,12 +308,57 @@ public final class FontUtil
 	}
 
 
+	/**
+	 * Returns the name that a font face is matched against when looking up fonts by name.
+	 * 
+	 * @see SimpleFontFace#getMatchName()
+	 */
+	protected String getFaceName(FontFace face)
+	{
+		if (face instanceof SimpleFontFace)
+		{
+			return ((SimpleFontFace) face).getMatchName();
+		}
+		return face.getName();
+	}
+
+	/**
+	 * Returns the AWT family name that a font face is matched against when looking up fonts by name.
+	 * 
+	 * @see SimpleFontFace#getMatchFamily()
+	 */
+	protected String getFaceFamily(FontFace face)
+	{
+		if (face instanceof SimpleFontFace)
+		{
+			return ((SimpleFontFace) face).getMatchFamily();
+		}
+		Font awtFont = face.getFont();
+		return awtFont == null ? null : awtFont.getFamily();
+	}
+
+
 	public FontInfo getFontInfoIgnoreCase(String name, Locale locale)
+	{
+		State resolutionState = getResolutionState();
+		List<FontFamily> families = resolutionState.getFamilies();
+		LruCache cache = resolutionState.getLookups();
+		Key key = new Key(CACHE_KEY_FONT_INFO_IGNORE_CASE, name, locale);
+		Object cached = cache.get(key);
+		if (cached != null)
+		{
+			return cached == FontResolutionCache.NULL_VALUE ? null : (FontInfo) cached;
+		}
+		
+		FontInfo fontInfo = findFontInfoIgnoreCase(families, name, locale);
+		cache.put(key, fontInfo);
+		return fontInfo;
+	}
+
+	protected FontInfo findFontInfoIgnoreCase(List<FontFamily> families, String name, Locale locale)
 	{
 		FontInfo awtFamilyMatchFontInfo = null;
 
-		//FIXMEFONT do some cache
-		List<FontFamily> families = jasperReportsContext.getExtensions(FontFamily.class);
 		for (Iterator<FontFamily> itf = families.iterator(); itf.hasNext();)
 		{
 			FontFamily family = itf.next();
@@ -287,13 +372,13 @@ public final class FontUtil
 				FontFace face = family.getNormalFace();
 				if (face != null)
 				{
-					if (name.equalsIgnoreCase(face.getName()))
+					if (name.equalsIgnoreCase(getFaceName(face)))
 					{
 						return new FontInfo(family, face, Font.PLAIN);
 					}
 					else if (
 						awtFamilyMatchFontInfo == null
-						&& name.equalsIgnoreCase(face.getFont().getFamily())
+						&& name.equalsIgnoreCase(getFaceFamily(face))
 						)
 					{
 						awtFamilyMatchFontInfo = new FontInfo(family, face, Font.PLAIN);
@@ -303,13 +388,13 @@ public final class FontUtil
 				face = family.getBoldFace();
 				if (face != null)
 				{
-					if (name.equalsIgnoreCase(face.getName()))
+					if (name.equalsIgnoreCase(getFaceName(face)))
 					{
 						return new FontInfo(family, face, Font.BOLD);
 					}
 					else if (
 						awtFamilyMatchFontInfo == null
-						&& name.equalsIgnoreCase(face.getFont().getFamily())
+						&& name.equalsIgnoreCase(getFaceFamily(face))
 						)
 					{
 						awtFamilyMatchFontInfo = new FontInfo(family, face, Font.BOLD);
@@ -319,13 +404,13 @@ public final class FontUtil
 				face = family.getItalicFace();
 				if (face != null)
 				{
-					if (name.equalsIgnoreCase(face.getName()))
+					if (name.equalsIgnoreCase(getFaceName(face)))
 					{
 						return new FontInfo(family, face, Font.ITALIC);
 					}
 					else if (
 						awtFamilyMatchFontInfo == null
-						&& name.equalsIgnoreCase(face.getFont().getFamily())
+						&& name.equalsIgnoreCase(getFaceFamily(face))
 						)
 					{
 						awtFamilyMatchFontInfo = new FontInfo(family, face, Font.ITALIC);
@@ -335,13 +420,13 @@ public final class FontUtil
 				face = family.getBoldItalicFace();
 				if (face != null)
 				{
-					if (name.equalsIgnoreCase(face.getName()))
+					if (name.equalsIgnoreCase(getFaceName(face)))
 					{
 						return new FontInfo(family, face, Font.BOLD | Font.ITALIC);
 					}
 					else if (
 						awtFamilyMatchFontInfo == null
-						&& name.equalsIgnoreCase(face.getFont().getFamily())
+						&& name.equalsIgnoreCase(getFaceFamily(face))
 						)
 					{
 						awtFamilyMatchFontInfo = new FontInfo(family, face, Font.BOLD | Font.ITALIC);
@@ -355,8 +440,25 @@ public final class FontUtil
 	
 	public FontSetInfo getFontSetInfo(String name, Locale locale, boolean ignoreMissingFonts)
 	{
-		//FIXMEFONT do some cache
-		List<FontFamily> allFontFamilies = jasperReportsContext.getExtensions(FontFamily.class);
+		State resolutionState = getResolutionState();
+		List<FontFamily> allFontFamilies = resolutionState.getFamilies();
+		List<FontSet> allSets = resolutionState.getFontSets();
+		LruCache cache = resolutionState.getLookups();
+		Key key = new Key(CACHE_KEY_FONT_SET_INFO, name, locale, ignoreMissingFonts);
+		Object cached = cache.get(key);
+		if (cached != null)
+		{
+			return cached == FontResolutionCache.NULL_VALUE ? null : (FontSetInfo) cached;
+		}
+		
+		FontSetInfo fontSetInfo = findFontSetInfo(allFontFamilies, allSets, name, locale, ignoreMissingFonts);
+		cache.put(key, fontSetInfo);
+		return fontSetInfo;
+	}
+	
+	protected FontSetInfo findFontSetInfo(List<FontFamily> allFontFamilies, List<FontSet> allSets, 
+			String name, Locale locale, boolean ignoreMissingFonts)
+	{
 		HashMap<String, FontFamily> fontFamilies = new HashMap<String, FontFamily>(allFontFamilies.size() * 4 / 3, .75f);
 		for (FontFamily family : allFontFamilies)
 		{
@@ -368,7 +470,6 @@ public final class FontUtil
 		}
 		
 		Map<String, FontSetFamilyInfo> setFamilyInfos = new LinkedHashMap<String, FontSetFamilyInfo>();
-		List<FontSet> allSets = jasperReportsContext.getExtensions(FontSet.class);
 		FontSet foundFontSet = null;
 		FontSetFamilyInfo primaryFamily = null;
 		for (FontSet fontSet : allSets)
@@ -427,7 +528,21 @@ public final class FontUtil
 	
 	public String getExportFontFamily(String name, Locale locale, String exporterKey)
 	{
-		//FIXMEFONT do some cache
+		LruCache cache = getResolutionState().getLookups();
+		Key key = new Key(CACHE_KEY_EXPORT_FONT_FAMILY, name, locale, exporterKey);
+		Object cached = cache.get(key);
+		if (cached != null)
+		{
+			return cached == FontResolutionCache.NULL_VALUE ? null : (String) cached;
+		}
+		
+		String exportFontFamily = findExportFontFamily(name, locale, exporterKey);
+		cache.put(key, exportFontFamily);
+		return exportFontFamily;
+	}
+	
+	protected String findExportFontFamily(String name, Locale locale, String exporterKey)
+	{
 		FontInfo fontInfo = getFontInfo(name, locale);
 		if (fontInfo != null)
 		{
@@ -532,6 +647,22 @@ public final class FontUtil
 
 
 	protected Font getAwtFont(FontInfo fontInfo, int style, float size, boolean ignoreMissingFont)
+	{
+		// the font objects are immutable and can be shared
+		LruCache cache = getResolutionState().getAwtFonts();
+		Key key = new Key(fontInfo.getFontFamily(), fontInfo.getFontFace(), fontInfo.getStyle(), 
+				style, size, ignoreMissingFont);
+		Font awtFont = (Font) cache.get(key);
+		if (awtFont == null)
+		{
+			awtFont = createAwtFont(fontInfo, style, size, ignoreMissingFont);
+			cache.put(key, awtFont);
+		}
+		return awtFont;
+	}
+
+
+	protected Font createAwtFont(FontInfo fontInfo, int style, float size, boolean ignoreMissingFont)
 	{
 		@SuppressWarnings("unused")
 		int faceStyle = Font.PLAIN;
@@ -178,13 +178,19 @@ public final class SimpleFontExtensionHelper implements ErrorHandler
 	
 	public void loadFontExtensions(JasperReportsContext jasperReportsContext, String file,
 			FontExtensionsReceiver receiver)
+	{
+		loadFontExtensions(jasperReportsContext, file, receiver, true);
+	}
+	
+	public void loadFontExtensions(JasperReportsContext jasperReportsContext, String file,
+			FontExtensionsReceiver receiver, boolean loadFonts)
 	{
 		InputStream is = null; 
 		
 		try
 		{
 			is = RepositoryUtil.getInstance(jasperReportsContext).getInputStreamFromLocation(file);
-			loadFontExtensions(jasperReportsContext, is, receiver, true);
+			loadFontExtensions(jasperReportsContext, is, receiver, loadFonts);
 		}
 		catch (JRException e)
 		{
@@ -368,6 +374,12 @@ public final class SimpleFontExtensionHelper implements ErrorHandler
 	{
 		SimpleFontFace fontFace = new SimpleFontFace(jasperReportsContext);
 		
+		NamedNodeMap nodeAttrs = fontFaceNode.getAttributes();
+		if (nodeAttrs.getNamedItem(ATTRIBUTE_name) != null)
+		{
+			fontFace.setName(nodeAttrs.getNamedItem(ATTRIBUTE_name).getNodeValue());
+		}
+		
 		NodeList nodeList = fontFaceNode.getChildNodes();
 
 		if (
@@ -647,6 +659,7 @@ public final class SimpleFontExtensionHelper implements ErrorHandler
 	{
 		if (fontFace != null)
 		{
+			String faceName = fontFace instanceof SimpleFontFace ? ((SimpleFontFace) fontFace).getDeclaredName() : null;
 			if (
 				fontFace.getPdf() == null
 				&& fontFace.getEot() == null
@@ -656,12 +669,13 @@ public final class SimpleFontExtensionHelper implements ErrorHandler
 			{
 				if (fontFace.getTtf() != null)
 				{
-					writer.writeCDATAElement(faceTypeName, fontFace.getTtf());
+					writer.writeCDATAElement(faceTypeName, fontFace.getTtf(), ATTRIBUTE_name, faceName);
 				}
 			}
 			else
 			{
 				writer.startElement(faceTypeName);
+				writer.addAttribute(ATTRIBUTE_name, faceName);
 				if (fontFace.getTtf() != null)
 				{
 					writer.writeCDATAElement("ttf", fontFace.getTtf());
@@ -55,8 +55,11 @@ public class SimpleFontFace implements FontFace, JRCloneable
 	 * 
 	 */
 	private JasperReportsContext jasperReportsContext;
+	private String name;
 	private String ttf;
-	private Font font;
+	private volatile Font font;
+	private boolean lazy;
+	private volatile boolean loadFailed;
 	private String pdf;
 	private String eot;
 	private String svg;
@@ -127,11 +130,78 @@ public class SimpleFontFace implements FontFace, JRCloneable
 	}
 
 	
+	/**
+	 * Returns the face name declared in the font extension, if any, or the name of the face font otherwise.
+	 */
 	@Override
 	public String getName()
 	{
+		if (name != null)
+		{
+			return name;
+		}
+		
 		//(String)font.getAttributes().get(TextAttribute.FAMILY);
-		return font == null ? null : font.getName();
+		Font awtFont = getFont();
+		return awtFont == null ? null : awtFont.getName();
+	}
+	
+	/**
+	 * Returns the face name declared in the font extension.
+	 */
+	public String getDeclaredName()
+	{
+		return name;
+	}
+	
+	/**
+	 * Sets the face name, which is used to match font names without loading the face font.
+	 */
+	public void setName(String name)
+	{
+		this.name = name;
+	}
+	
+	/**
+	 * Returns the name that font names are matched against.
+	 * 
+	 * <p>
+	 * For faces whose font is loaded on first use, this is the face name declared in the font extension,
+	 * and the font is not loaded.
+	 * Faces whose font could not be loaded are not matched.
+	 * </p>
+	 * 
+	 * @return the face name, or <code>null</code> if the face is not to be matched by name
+	 */
+	public String getMatchName()
+	{
+		if (loadFailed)
+		{
+			return null;
+		}
+		
+		return lazy ? name : getName();
+	}
+	
+	/**
+	 * Returns the AWT family name that font names are matched against.
+	 * 
+	 * <p>
+	 * Faces whose font is loaded on first use are not matched by AWT family name,
+	 * as that would require loading the font.
+	 * </p>
+	 * 
+	 * @return the AWT family name of the face font, or <code>null</code> if the face is not to be matched by family name
+	 */
+	public String getMatchFamily()
+	{
+		if (lazy || loadFailed)
+		{
+			return null;
+		}
+		
+		Font awtFont = getFont();
+		return awtFont == null ? null : awtFont.getFamily();
 	}
 	
 	/**
@@ -161,6 +231,8 @@ public class SimpleFontFace implements FontFace, JRCloneable
 	{
 		this.ttf = ttf;
 		this.font = null;
+		this.lazy = !load;
+		this.loadFailed = false;
 		
 		if (load)
 		{
@@ -177,12 +249,29 @@ public class SimpleFontFace implements FontFace, JRCloneable
 				log.debug("Loading font " + ttf);
 			}
 			
+			long start = log.isDebugEnabled() ? System.currentTimeMillis() : 0;
+			
 			String upperCaseTtf = ttf.trim().toUpperCase();
 			if (
 				upperCaseTtf.endsWith(".TTF")
 				|| upperCaseTtf.endsWith(".OTF")
 				)
 			{
+				// font files are shared by the font faces that resolve the location in the same way
+				boolean shared = FontFileCache.isShared(jasperReportsContext);
+				if (shared)
+				{
+					font = FontFileCache.getFont(jasperReportsContext, ttf);
+					if (font != null)
+					{
+						if (log.isDebugEnabled())
+						{
+							log.debug("Font " + ttf + " found in the shared font cache");
+						}
+						return;
+					}
+				}
+				
 				InputStream is = null;
 				try
 				{
@@ -215,6 +304,11 @@ public class SimpleFontFace implements FontFace, JRCloneable
 					{
 					}
 				}
+				
+				if (shared)
+				{
+					font = FontFileCache.putFont(jasperReportsContext, ttf, font);
+				}
 			}
 			else
 			{
@@ -222,12 +316,43 @@ public class SimpleFontFace implements FontFace, JRCloneable
 				
 				font = new Font(ttf, Font.PLAIN, JRPropertiesUtil.getInstance(jasperReportsContext).getIntegerProperty(JRFont.DEFAULT_FONT_SIZE));
 			}
+			
+			if (log.isDebugEnabled())
+			{
+				log.debug("Loaded font " + ttf + " in " + (System.currentTimeMillis() - start) + " ms");
+			}
 		}
 	}
 	
+	/**
+	 * Returns the AWT font of the face, loading it from the font file if not already loaded.
+	 * 
+	 * <p>
+	 * If the font face is lazily loaded and the font file cannot be loaded, the error is logged 
+	 * and the method returns <code>null</code>.
+	 * </p>
+	 */
 	@Override
 	public Font getFont()
 	{
+		if (font == null && ttf != null && !loadFailed)
+		{
+			synchronized (this)
+			{
+				if (font == null && !loadFailed)
+				{
+					try
+					{
+						loadFont();
+					}
+					catch (InvalidFontException e)
+					{
+						log.error("Error loading font " + ttf, e);
+						loadFailed = true;
+					}
+				}
+			}
+		}
 		return font;
 	}
 	
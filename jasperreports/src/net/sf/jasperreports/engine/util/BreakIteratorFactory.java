@@ -0,0 +1,275 @@
+/*
+ * JasperReports - Free Java Reporting Library.
+ * Copyright (C) 2001 - 2016 TIBCO Software Inc. All rights reserved.
+ * http://www.jaspersoft.com
+ *
+ * Unless you have purchased a commercial license agreement from Jaspersoft,
+ * the following license terms apply:
+ *
+ * This program is part of JasperReports.
+ *
+ * JasperReports is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JasperReports is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with JasperReports. If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.sf.jasperreports.engine.util;
+
+import java.text.BreakIterator;
+import java.text.CharacterIterator;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.ibm.icu.util.ULocale;
+
+import net.sf.jasperreports.annotations.properties.Property;
+import net.sf.jasperreports.annotations.properties.PropertyScope;
+import net.sf.jasperreports.engine.JRPropertiesUtil;
+import net.sf.jasperreports.engine.JasperReportsContext;
+import net.sf.jasperreports.properties.PropertyConstants;
+
+/**
+ * Provides line and character break iterators used for text measurement.
+ * <p>
+ * Break iterators are created by cloning prototypes that are kept for each locale,
+ * which avoids loading break rules for each created iterator.
+ * Depending on {@link #PROPERTY_ICU_BREAK_ITERATORS}, the iterators are either JDK iterators
+ * or ICU4J iterators adapted to the <code>java.text.BreakIterator</code> API, the latter providing
+ * better line breaking for scripts such as Thai or CJK.
+ * </p>
+ */
+public abstract class BreakIteratorFactory
+{
+
+	/**
+	 * Property that determines whether ICU4J break iterators are used for text measurement
+	 * instead of the JDK break iterators.
+	 */
+	@Property(
+			category = PropertyConstants.CATEGORY_FILL,
+			defaultValue = PropertyConstants.BOOLEAN_FALSE,
+			scopes = {PropertyScope.CONTEXT},
+			sinceVersion = PropertyConstants.VERSION_6_4_3,
+			valueType = Boolean.class
+			)
+	public static final String PROPERTY_ICU_BREAK_ITERATORS = 
+			JRPropertiesUtil.PROPERTY_PREFIX + "text.icu.break.iterators";
+	
+	private static final int TYPE_LINE = 0;
+	private static final int TYPE_CHARACTER = 1;
+	
+	private static final BreakIteratorFactory JDK_FACTORY = new JdkBreakIteratorFactory();
+	private static final BreakIteratorFactory ICU_FACTORY = new IcuBreakIteratorFactory();
+	
+	/**
+	 * Returns the break iterator factory configured for a context.
+	 * 
+	 * @param jasperReportsContext the context
+	 * @return the break iterator factory
+	 */
+	public static BreakIteratorFactory getInstance(JasperReportsContext jasperReportsContext)
+	{
+		boolean useIcu = JRPropertiesUtil.getInstance(jasperReportsContext).getBooleanProperty(
+				PROPERTY_ICU_BREAK_ITERATORS);
+		return useIcu ? ICU_FACTORY : JDK_FACTORY;
+	}
+	
+	private final ConcurrentMap<Pair<Locale, Integer>, Object> prototypes = 
+			new ConcurrentHashMap<Pair<Locale, Integer>, Object>();
+	
+	protected BreakIteratorFactory()
+	{
+	}
+
+	/**
+	 * Returns a new line break iterator.
+	 * 
+	 * @param locale the text locale, <code>null</code> for the default locale
+	 * @return a line break iterator
+	 */
+	public BreakIterator getLineInstance(Locale locale)
+	{
+		return getInstance(locale, TYPE_LINE);
+	}
+
+	/**
+	 * Returns a new character break iterator.
+	 * 
+	 * @param locale the text locale, <code>null</code> for the default locale
+	 * @return a character break iterator
+	 */
+	public BreakIterator getCharacterInstance(Locale locale)
+	{
+		return getInstance(locale, TYPE_CHARACTER);
+	}
+
+	/**
+	 * Returns a new character or line break iterator.
+	 * 
+	 * @param locale the text locale, <code>null</code> for the default locale
+	 * @param character whether a character break iterator is to be returned
+	 * @return a break iterator
+	 */
+	public BreakIterator getInstance(Locale locale, boolean character)
+	{
+		return getInstance(locale, character ? TYPE_CHARACTER : TYPE_LINE);
+	}
+	
+	protected BreakIterator getInstance(Locale locale, int type)
+	{
+		Locale iteratorLocale = locale == null ? Locale.getDefault() : locale;
+		Pair<Locale, Integer> key = new Pair<Locale, Integer>(iteratorLocale, type);
+		Object prototype = prototypes.get(key);
+		if (prototype == null)
+		{
+			prototype = createPrototype(iteratorLocale, type == TYPE_CHARACTER);
+			Object existing = prototypes.putIfAbsent(key, prototype);
+			if (existing != null)
+			{
+				prototype = existing;
+			}
+		}
+		return createInstance(prototype);
+	}
+	
+	protected abstract Object createPrototype(Locale locale, boolean character);
+	
+	protected abstract BreakIterator createInstance(Object prototype);
+
+	protected static class JdkBreakIteratorFactory extends BreakIteratorFactory
+	{
+		@Override
+		protected Object createPrototype(Locale locale, boolean character)
+		{
+			return character ? BreakIterator.getCharacterInstance(locale) : BreakIterator.getLineInstance(locale);
+		}
+
+		@Override
+		protected BreakIterator createInstance(Object prototype)
+		{
+			return (BreakIterator) ((BreakIterator) prototype).clone();
+		}
+	}
+
+	protected static class IcuBreakIteratorFactory extends BreakIteratorFactory
+	{
+		@Override
+		protected Object createPrototype(Locale locale, boolean character)
+		{
+			ULocale icuLocale = ULocale.forLocale(locale);
+			return character ? com.ibm.icu.text.BreakIterator.getCharacterInstance(icuLocale) 
+					: com.ibm.icu.text.BreakIterator.getLineInstance(icuLocale);
+		}
+
+		@Override
+		protected BreakIterator createInstance(Object prototype)
+		{
+			com.ibm.icu.text.BreakIterator icuIterator = 
+					(com.ibm.icu.text.BreakIterator) ((com.ibm.icu.text.BreakIterator) prototype).clone();
+			return new IcuBreakIterator(icuIterator);
+		}
+	}
+	
+	/**
+	 * Adapts an ICU4J break iterator to the <code>java.text.BreakIterator</code> API.
+	 */
+	protected static class IcuBreakIterator extends BreakIterator
+	{
+		private com.ibm.icu.text.BreakIterator iterator;
+		
+		public IcuBreakIterator(com.ibm.icu.text.BreakIterator iterator)
+		{
+			this.iterator = iterator;
+		}
+
+		@Override
+		public int first()
+		{
+			return iterator.first();
+		}
+
+		@Override
+		public int last()
+		{
+			return iterator.last();
+		}
+
+		@Override
+		public int next(int n)
+		{
+			return iterator.next(n);
+		}
+
+		@Override
+		public int next()
+		{
+			return iterator.next();
+		}
+
+		@Override
+		public int previous()
+		{
+			return iterator.previous();
+		}
+
+		@Override
+		public int following(int offset)
+		{
+			return iterator.following(offset);
+		}
+
+		@Override
+		public int preceding(int offset)
+		{
+			return iterator.preceding(offset);
+		}
+
+		@Override
+		public boolean isBoundary(int offset)
+		{
+			return iterator.isBoundary(offset);
+		}
+
+		@Override
+		public int current()
+		{
+			return iterator.current();
+		}
+
+		@Override
+		public CharacterIterator getText()
+		{
+			return iterator.getText();
+		}
+
+		@Override
+		public void setText(String newText)
+		{
+			iterator.setText(newText);
+		}
+
+		@Override
+		public void setText(CharacterIterator newText)
+		{
+			iterator.setText(newText);
+		}
+
+		@Override
+		public Object clone()
+		{
+			IcuBreakIterator clone = (IcuBreakIterator) super.clone();
+			clone.iterator = (com.ibm.icu.text.BreakIterator) iterator.clone();
+			return clone;
+		}
+	}
+	
+}
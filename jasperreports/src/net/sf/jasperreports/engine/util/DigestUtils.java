@@ -48,11 +48,24 @@ public final class DigestUtils
 	}
 	
 	public MD5Digest md5(String text)
+	{
+		try
+		{
+			return md5(text.getBytes("UTF-8"));
+		}
+		catch (UnsupportedEncodingException e)
+		{
+			// should not happen
+			throw new JRRuntimeException(e);
+		}
+	}
+	
+	public MD5Digest md5(byte[] data)
 	{
 		try
 		{
 			MessageDigest digest = MessageDigest.getInstance("MD5");
-			byte[] digestBytes = digest.digest(text.getBytes("UTF-8"));
+			byte[] digestBytes = digest.digest(data);
 			long low = (long) (digestBytes[0] &0xFF) << 56
 					| (long) (digestBytes[1] &0xFF) << 48
 					| (long) (digestBytes[2] &0xFF) << 40
@@ -79,11 +92,6 @@ public final class DigestUtils
 					(Object[])null,
 					e);
 		}
-		catch (UnsupportedEncodingException e)
-		{
-			// should not happen
-			throw new JRRuntimeException(e);
-		}
 	}
 	
 }
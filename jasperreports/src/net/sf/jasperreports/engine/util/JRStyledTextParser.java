@@ -32,10 +32,13 @@ import java.lang.ref.SoftReference;
 import java.text.AttributedCharacterIterator;
 import java.text.AttributedCharacterIterator.Attribute;
 import java.text.AttributedString;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
@@ -144,6 +147,8 @@ public class JRStyledTextParser implements ErrorHandler
 	private static final String LESS_SLASH = "</";
 	private static final String GREATER = ">";
 	
+	private static final int INTERNED_ATTRIBUTES_MAX_SIZE = 256;
+	
 	/**
 	 * Thread local soft cache of instances.
 	 */
@@ -201,6 +206,21 @@ public class JRStyledTextParser implements ErrorHandler
 	 *
 	 */
 	private JRBasePrintHyperlink hyperlink;
+	
+	/**
+	 * Attribute maps shared by the runs of the texts parsed by this instance.
+	 */
+	private final Map<Map<Attribute,Object>, Map<Attribute,Object>> internedAttributes = 
+		new LinkedHashMap<Map<Attribute,Object>, Map<Attribute,Object>>(16, 0.75f, true)
+		{
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Map<Attribute,Object>, Map<Attribute,Object>> eldest)
+			{
+				return size() > INTERNED_ATTRIBUTES_MAX_SIZE;
+			}
+		};
 
 
 	/**
@@ -230,6 +250,24 @@ public class JRStyledTextParser implements ErrorHandler
 	{
 		JRStyledText styledText = new JRStyledText(locale);
 		
+		if (!parseMarkup(styledText, text))
+		{
+			// the text uses XML constructs not handled by the markup parser, using the DOM parser
+			styledText = parseDocument(text, locale);
+		}
+		
+		styledText.setGlobalAttributes(attributes);
+		
+		return styledText;
+	}
+
+	/**
+	 * Parses the text using the DOM parser.
+	 */
+	JRStyledText parseDocument(String text, Locale locale) throws SAXException
+	{
+		JRStyledText styledText = new JRStyledText(locale);
+		
 		Document document = null;
 
 		try
@@ -245,8 +283,6 @@ public class JRStyledTextParser implements ErrorHandler
 		
 		parseStyle(styledText, document.getDocumentElement());
 		
-		styledText.setGlobalAttributes(attributes);
-		
 		return styledText;
 	}
 
@@ -470,128 +506,541 @@ public class JRStyledTextParser implements ErrorHandler
 	}
 
 	/**
-	 *
+	 * Parses styled text markup in a single pass, creating the text runs as tags are closed.
+	 * <p>
+	 * The method handles well formed markup that uses the <code>style</code>, <code>b</code>, <code>i</code>,
+	 * <code>u</code>, <code>sup</code>, <code>sub</code>, <code>font</code>, <code>br</code> and <code>a</code> tags,
+	 * the predefined XML entities and character references.
+	 * For any other construct, including malformed markup, the method returns <code>false</code> 
+	 * and the text is to be parsed using the DOM parser, which also takes care of reporting errors.
+	 * </p>
+	 * 
+	 * @return whether the text has been parsed
 	 */
-	private void parseStyle(JRStyledText styledText, Node parentNode) throws SAXException
+	private boolean parseMarkup(JRStyledText styledText, String text)
 	{
-		NodeList nodeList = parentNode.getChildNodes();
-		for(int i = 0; i < nodeList.getLength(); i++)
+		int length = text.length();
+		List<MarkupTag> openTags = null;
+		boolean inHyperlink = false;
+		StringBuilder chars = new StringBuilder(length);
+		
+		int index = 0;
+		while (index < length)
 		{
-			Node node = nodeList.item(i);
-			if (node.getNodeType() == Node.TEXT_NODE)
+			char c = text.charAt(index);
+			if (c == '<')
 			{
-				styledText.append(node.getNodeValue());
-			}
-			else if (
-				node.getNodeType() == Node.ELEMENT_NODE
-				&& NODE_style.equals(node.getNodeName())
-				)
-			{
-				NamedNodeMap nodeAttrs = node.getAttributes();
-
-				Map<Attribute,Object> styleAttrs = new HashMap<Attribute,Object>();
-
-				if (nodeAttrs.getNamedItem(ATTRIBUTE_fontName) != null)
+				if (chars.length() > 0)
 				{
-					styleAttrs.put(
-						TextAttribute.FAMILY,
-						nodeAttrs.getNamedItem(ATTRIBUTE_fontName).getNodeValue()
-						);
+					styledText.append(chars.toString());
+					chars.setLength(0);
 				}
-
-				if (nodeAttrs.getNamedItem(ATTRIBUTE_isBold) != null)
+				
+				if (index + 1 < length && text.charAt(index + 1) == '/')
 				{
-					styleAttrs.put(
-						TextAttribute.WEIGHT,
-						Boolean.valueOf(nodeAttrs.getNamedItem(ATTRIBUTE_isBold).getNodeValue()).booleanValue()
-						? TextAttribute.WEIGHT_BOLD : TextAttribute.WEIGHT_REGULAR
-						);
+					int nameEnd = readName(text, index + 2);
+					int tagEnd = skipWhitespace(text, nameEnd);
+					if (nameEnd == index + 2 || tagEnd >= length || text.charAt(tagEnd) != '>'
+							|| openTags == null || openTags.isEmpty())
+					{
+						return false;
+					}
+					
+					MarkupTag tag = openTags.remove(openTags.size() - 1);
+					if (!text.regionMatches(index + 2, tag.name, 0, tag.name.length()) 
+							|| tag.name.length() != nameEnd - index - 2)
+					{
+						return false;
+					}
+					
+					closeTag(styledText, tag);
+					if (tag.type == MarkupTag.TYPE_HYPERLINK)
+					{
+						inHyperlink = false;
+					}
+					index = tagEnd + 1;
 				}
-
-				if (nodeAttrs.getNamedItem(ATTRIBUTE_isItalic) != null)
+				else
 				{
-					styleAttrs.put(
-						TextAttribute.POSTURE,
-						Boolean.valueOf(nodeAttrs.getNamedItem(ATTRIBUTE_isItalic).getNodeValue()).booleanValue()
-						? TextAttribute.POSTURE_OBLIQUE : TextAttribute.POSTURE_REGULAR
-						);
+					int nameEnd = readName(text, index + 1);
+					if (nameEnd == index + 1)
+					{
+						// comments, CDATA sections, processing instructions
+						return false;
+					}
+					String name = text.substring(index + 1, nameEnd);
+					
+					Map<String,String> tagAttrs = null;
+					boolean emptyTag = false;
+					int position = nameEnd;
+					while (true)
+					{
+						int attrStart = skipWhitespace(text, position);
+						if (attrStart >= length)
+						{
+							return false;
+						}
+						
+						char attrChar = text.charAt(attrStart);
+						if (attrChar == '>')
+						{
+							position = attrStart + 1;
+							break;
+						}
+						if (attrChar == '/')
+						{
+							if (attrStart + 1 >= length || text.charAt(attrStart + 1) != '>')
+							{
+								return false;
+							}
+							emptyTag = true;
+							position = attrStart + 2;
+							break;
+						}
+						if (attrStart == position)
+						{
+							// no whitespace before the attribute
+							return false;
+						}
+						
+						int attrNameEnd = readName(text, attrStart);
+						int valueStart = skipWhitespace(text, attrNameEnd);
+						if (attrNameEnd == attrStart || valueStart >= length || text.charAt(valueStart) != '=')
+						{
+							return false;
+						}
+						valueStart = skipWhitespace(text, valueStart + 1);
+						if (valueStart >= length)
+						{
+							return false;
+						}
+						char quote = text.charAt(valueStart);
+						int valueEnd = quote == '"' || quote == '\'' ? text.indexOf(quote, valueStart + 1) : -1;
+						if (valueEnd < 0)
+						{
+							return false;
+						}
+						
+						String value = decodeMarkup(text, valueStart + 1, valueEnd, true);
+						if (value == null)
+						{
+							return false;
+						}
+						if (tagAttrs == null)
+						{
+							tagAttrs = new HashMap<String,String>();
+						}
+						if (tagAttrs.put(text.substring(attrStart, attrNameEnd), value) != null)
+						{
+							// duplicate attribute
+							return false;
+						}
+						position = valueEnd + 1;
+					}
+					
+					if (tagAttrs == null)
+					{
+						tagAttrs = Collections.emptyMap();
+					}
+					
+					MarkupTag tag = openTag(styledText, name, tagAttrs);
+					if (tag == null)
+					{
+						return false;
+					}
+					
+					if (tag.type == MarkupTag.TYPE_HYPERLINK)
+					{
+						if (inHyperlink)
+						{
+							return false;
+						}
+						inHyperlink = true;
+					}
+					
+					if (emptyTag)
+					{
+						closeTag(styledText, tag);
+						if (tag.type == MarkupTag.TYPE_HYPERLINK)
+						{
+							inHyperlink = false;
+						}
+					}
+					else
+					{
+						if (openTags == null)
+						{
+							openTags = new ArrayList<MarkupTag>();
+						}
+						openTags.add(tag);
+					}
+					index = position;
 				}
-
-				if (nodeAttrs.getNamedItem(ATTRIBUTE_isUnderline) != null)
+			}
+			else
+			{
+				int textEnd = text.indexOf('<', index);
+				if (textEnd < 0)
 				{
-					styleAttrs.put(
-						TextAttribute.UNDERLINE,
-						Boolean.valueOf(nodeAttrs.getNamedItem(ATTRIBUTE_isUnderline).getNodeValue()).booleanValue()
-						? TextAttribute.UNDERLINE_ON : null
-						);
+					textEnd = length;
 				}
-
-				if (nodeAttrs.getNamedItem(ATTRIBUTE_isStrikeThrough) != null)
+				
+				String decoded = decodeMarkup(text, index, textEnd, false);
+				if (decoded == null)
 				{
-					styleAttrs.put(
-						TextAttribute.STRIKETHROUGH,
-						Boolean.valueOf(nodeAttrs.getNamedItem(ATTRIBUTE_isStrikeThrough).getNodeValue()).booleanValue()
-						? TextAttribute.STRIKETHROUGH_ON : null
-						);
+					return false;
 				}
-
-				if (nodeAttrs.getNamedItem(ATTRIBUTE_size) != null)
+				chars.append(decoded);
+				index = textEnd;
+			}
+		}
+		
+		if (openTags != null && !openTags.isEmpty())
+		{
+			return false;
+		}
+		
+		if (chars.length() > 0)
+		{
+			styledText.append(chars.toString());
+		}
+		return true;
+	}
+	
+	private MarkupTag openTag(JRStyledText styledText, String name, Map<String,String> tagAttrs)
+	{
+		Map<Attribute,Object> styleAttrs;
+		byte type = MarkupTag.TYPE_RUN;
+		if (NODE_style.equals(name))
+		{
+			styleAttrs = createStyleAttributes(tagAttrs);
+		}
+		else if (NODE_bold.equalsIgnoreCase(name))
+		{
+			styleAttrs = Collections.<Attribute,Object>singletonMap(TextAttribute.WEIGHT, TextAttribute.WEIGHT_BOLD);
+		}
+		else if (NODE_italic.equalsIgnoreCase(name))
+		{
+			styleAttrs = Collections.<Attribute,Object>singletonMap(TextAttribute.POSTURE, TextAttribute.POSTURE_OBLIQUE);
+		}
+		else if (NODE_underline.equalsIgnoreCase(name))
+		{
+			styleAttrs = Collections.<Attribute,Object>singletonMap(TextAttribute.UNDERLINE, TextAttribute.UNDERLINE_ON);
+		}
+		else if (NODE_sup.equalsIgnoreCase(name))
+		{
+			styleAttrs = Collections.<Attribute,Object>singletonMap(TextAttribute.SUPERSCRIPT, TextAttribute.SUPERSCRIPT_SUPER);
+		}
+		else if (NODE_sub.equalsIgnoreCase(name))
+		{
+			styleAttrs = Collections.<Attribute,Object>singletonMap(TextAttribute.SUPERSCRIPT, TextAttribute.SUPERSCRIPT_SUB);
+		}
+		else if (NODE_font.equalsIgnoreCase(name))
+		{
+			styleAttrs = createFontAttributes(tagAttrs);
+		}
+		else if (NODE_br.equalsIgnoreCase(name))
+		{
+			styledText.append("\n");
+			resizeRuns(styledText.getRuns(), styledText.length(), 1);
+			
+			styleAttrs = Collections.emptyMap();
+			type = MarkupTag.TYPE_BREAK;
+		}
+		else if (NODE_a.equalsIgnoreCase(name))
+		{
+			styleAttrs = new HashMap<Attribute,Object>();
+			styleAttrs.put(JRTextAttribute.HYPERLINK, createHyperlink(tagAttrs));
+			type = MarkupTag.TYPE_HYPERLINK;
+		}
+		else
+		{
+			// li and param tags, which depend on sibling nodes, and invalid tags
+			return null;
+		}
+		
+		if (type != MarkupTag.TYPE_HYPERLINK)
+		{
+			styleAttrs = internAttributes(styleAttrs);
+		}
+		return new MarkupTag(name, type, styleAttrs, styledText.length());
+	}
+	
+	private void closeTag(JRStyledText styledText, MarkupTag tag)
+	{
+		styledText.addRun(new JRStyledText.Run(tag.attributes, tag.startIndex, styledText.length()));
+		
+		if (tag.type == MarkupTag.TYPE_BREAK && tag.startIndex < styledText.length())
+		{
+			styledText.append("\n");
+			resizeRuns(styledText.getRuns(), tag.startIndex, 1);
+		}
+	}
+	
+	private Map<Attribute,Object> internAttributes(Map<Attribute,Object> attributes)
+	{
+		Map<Attribute,Object> interned = internedAttributes.get(attributes);
+		if (interned == null)
+		{
+			interned = new HashMap<Attribute,Object>(attributes);
+			internedAttributes.put(interned, interned);
+		}
+		return interned;
+	}
+	
+	private static int readName(String text, int start)
+	{
+		int index = start;
+		while (index < text.length())
+		{
+			char c = text.charAt(index);
+			if (!(Character.isLetterOrDigit(c) || c == '_' || c == '-' || c == '.' || c == ':'))
+			{
+				break;
+			}
+			++index;
+		}
+		
+		if (index > start && !(Character.isLetter(text.charAt(start)) || text.charAt(start) == '_'))
+		{
+			// not a valid XML name start
+			return start;
+		}
+		return index;
+	}
+	
+	private static int skipWhitespace(String text, int start)
+	{
+		int index = start;
+		while (index < text.length())
+		{
+			char c = text.charAt(index);
+			if (c != ' ' && c != '\t' && c != '\n' && c != '\r')
+			{
+				break;
+			}
+			++index;
+		}
+		return index;
+	}
+	
+	/**
+	 * Decodes character data or an attribute value, applying the XML line end 
+	 * and attribute value normalization.
+	 * 
+	 * @return the decoded text, or <code>null</code> if the text contains constructs that are not handled
+	 */
+	private static String decodeMarkup(String text, int start, int end, boolean attributeValue)
+	{
+		StringBuilder sb = null;
+		int index = start;
+		while (index < end)
+		{
+			char c = text.charAt(index);
+			char replacement = 0;
+			int length = 1;
+			String entity = null;
+			if (c == '&')
+			{
+				int entityEnd = text.indexOf(';', index);
+				if (entityEnd < 0 || entityEnd >= end)
 				{
-					styleAttrs.put(
-						TextAttribute.SIZE,
-						new Float(nodeAttrs.getNamedItem(ATTRIBUTE_size).getNodeValue())
-						);
+					return null;
 				}
-
-				if (nodeAttrs.getNamedItem(ATTRIBUTE_pdfFontName) != null)
+				entity = decodeEntity(text.substring(index + 1, entityEnd));
+				if (entity == null)
 				{
-					styleAttrs.put(
-						JRTextAttribute.PDF_FONT_NAME,
-						nodeAttrs.getNamedItem(ATTRIBUTE_pdfFontName).getNodeValue()
-						);
+					return null;
 				}
-
-				if (nodeAttrs.getNamedItem(ATTRIBUTE_pdfEncoding) != null)
+				length = entityEnd + 1 - index;
+			}
+			else if (c == '\r')
+			{
+				replacement = attributeValue ? ' ' : '\n';
+				if (index + 1 < end && text.charAt(index + 1) == '\n')
 				{
-					styleAttrs.put(
-						JRTextAttribute.PDF_ENCODING,
-						nodeAttrs.getNamedItem(ATTRIBUTE_pdfEncoding).getNodeValue()
-						);
+					length = 2;
 				}
-
-				if (nodeAttrs.getNamedItem(ATTRIBUTE_isPdfEmbedded) != null)
+			}
+			else if (attributeValue && (c == '\n' || c == '\t'))
+			{
+				replacement = ' ';
+			}
+			else if (attributeValue && c == '<')
+			{
+				return null;
+			}
+			else if (Character.isHighSurrogate(c) 
+					&& index + 1 < end && Character.isLowSurrogate(text.charAt(index + 1)))
+			{
+				if (sb != null)
 				{
-					styleAttrs.put(
-						JRTextAttribute.IS_PDF_EMBEDDED,
-						Boolean.valueOf(nodeAttrs.getNamedItem(ATTRIBUTE_isPdfEmbedded).getNodeValue())
-						);
+					sb.append(c);
+					sb.append(text.charAt(index + 1));
 				}
-
-				if (nodeAttrs.getNamedItem(ATTRIBUTE_forecolor) != null)
+				index += 2;
+				continue;
+			}
+			else if ((c < 0x20 && c != '\t' && c != '\n') || c >= 0xFFFE || Character.isSurrogate(c)
+					|| (c == '>' && !attributeValue && index >= start + 2 
+						&& text.charAt(index - 1) == ']' && text.charAt(index - 2) == ']'))
+			{
+				// invalid XML characters and ]]>
+				return null;
+			}
+			
+			if (entity != null || replacement != 0)
+			{
+				if (sb == null)
 				{
-					Color color = 
-						JRColorUtil.getColor(
-							nodeAttrs.getNamedItem(ATTRIBUTE_forecolor).getNodeValue(),
-							Color.black
-							);
-					styleAttrs.put(
-						TextAttribute.FOREGROUND,
-						color
-						);
+					sb = new StringBuilder(end - start);
+					sb.append(text, start, index);
 				}
-
-				if (nodeAttrs.getNamedItem(ATTRIBUTE_backcolor) != null)
+				if (entity != null)
 				{
-					Color color = 
-						JRColorUtil.getColor(
-							nodeAttrs.getNamedItem(ATTRIBUTE_backcolor).getNodeValue(),
-							Color.black
-							);
-					styleAttrs.put(
-						TextAttribute.BACKGROUND,
-						color
-						);
+					sb.append(entity);
 				}
+				else
+				{
+					sb.append(replacement);
+				}
+			}
+			else if (sb != null)
+			{
+				sb.append(c);
+			}
+			index += length;
+		}
+		
+		return sb == null ? text.substring(start, end) : sb.toString();
+	}
+	
+	private static String decodeEntity(String entity)
+	{
+		if ("lt".equals(entity))
+		{
+			return "<";
+		}
+		if ("gt".equals(entity))
+		{
+			return ">";
+		}
+		if ("amp".equals(entity))
+		{
+			return "&";
+		}
+		if ("quot".equals(entity))
+		{
+			return "\"";
+		}
+		if ("apos".equals(entity))
+		{
+			return "'";
+		}
+		
+		if (entity.length() > 1 && entity.charAt(0) == '#')
+		{
+			int codePoint = decodeCharReference(entity);
+			boolean valid = codePoint == 0x9 || codePoint == 0xA || codePoint == 0xD
+					|| (codePoint >= 0x20 && codePoint <= 0xD7FF)
+					|| (codePoint >= 0xE000 && codePoint <= 0xFFFD)
+					|| (codePoint >= 0x10000 && codePoint <= 0x10FFFF);
+			return valid ? new String(Character.toChars(codePoint)) : null;
+		}
+		
+		// other entities are not defined
+		return null;
+	}
+	
+	/**
+	 * Decodes the code point of a character reference, allowing only ASCII (hex) digits 
+	 * as in the XML <code>CharRef</code> production.
+	 * 
+	 * @return the code point, or -1 if the reference is not valid
+	 */
+	private static int decodeCharReference(String entity)
+	{
+		boolean hex = entity.charAt(1) == 'x';
+		int start = hex ? 2 : 1;
+		if (start >= entity.length())
+		{
+			return -1;
+		}
+		
+		int codePoint = 0;
+		for (int index = start; index < entity.length(); ++index)
+		{
+			char c = entity.charAt(index);
+			int digit;
+			if (c >= '0' && c <= '9')
+			{
+				digit = c - '0';
+			}
+			else if (hex && c >= 'a' && c <= 'f')
+			{
+				digit = c - 'a' + 10;
+			}
+			else if (hex && c >= 'A' && c <= 'F')
+			{
+				digit = c - 'A' + 10;
+			}
+			else
+			{
+				return -1;
+			}
+			
+			codePoint = codePoint * (hex ? 16 : 10) + digit;
+			if (codePoint > Character.MAX_CODE_POINT)
+			{
+				return -1;
+			}
+		}
+		return codePoint;
+	}
+	
+	
+	/**
+	 * Tag opened by the markup parser.
+	 */
+	private static class MarkupTag
+	{
+		static final byte TYPE_RUN = 0;
+		static final byte TYPE_BREAK = 1;
+		static final byte TYPE_HYPERLINK = 2;
+		
+		final String name;
+		final byte type;
+		final Map<Attribute,Object> attributes;
+		final int startIndex;
+		
+		MarkupTag(String name, byte type, Map<Attribute,Object> attributes, int startIndex)
+		{
+			this.name = name;
+			this.type = type;
+			this.attributes = attributes;
+			this.startIndex = startIndex;
+		}
+	}
+
+	/**
+	 *
+	 */
+	private void parseStyle(JRStyledText styledText, Node parentNode) throws SAXException
+	{
+		NodeList nodeList = parentNode.getChildNodes();
+		for(int i = 0; i < nodeList.getLength(); i++)
+		{
+			Node node = nodeList.item(i);
+			if (node.getNodeType() == Node.TEXT_NODE)
+			{
+				styledText.append(node.getNodeValue());
+			}
+			else if (
+				node.getNodeType() == Node.ELEMENT_NODE
+				&& NODE_style.equals(node.getNodeName())
+				)
+			{
+				Map<Attribute,Object> styleAttrs = createStyleAttributes(getTagAttributes(node));
 
 				int startIndex = styledText.length();
 
@@ -656,46 +1105,7 @@ public class JRStyledTextParser implements ErrorHandler
 			}
 			else if (node.getNodeType() == Node.ELEMENT_NODE && NODE_font.equalsIgnoreCase(node.getNodeName()))
 			{
-				NamedNodeMap nodeAttrs = node.getAttributes();
-
-				Map<Attribute,Object> styleAttrs = new HashMap<Attribute,Object>();
-
-				if (nodeAttrs.getNamedItem(ATTRIBUTE_size) != null)
-				{
-					styleAttrs.put(
-						TextAttribute.SIZE,
-						new Float(nodeAttrs.getNamedItem(ATTRIBUTE_size).getNodeValue())
-						);
-				}
-
-				if (nodeAttrs.getNamedItem(ATTRIBUTE_color) != null)
-				{
-					Color color = 
-						JRColorUtil.getColor(
-							nodeAttrs.getNamedItem(ATTRIBUTE_color).getNodeValue(),
-							Color.black
-							);
-					styleAttrs.put(
-						TextAttribute.FOREGROUND,
-						color
-						);
-				}
-
-				if (nodeAttrs.getNamedItem(ATTRIBUTE_fontFace) != null) 
-				{
-					String fontFaces = nodeAttrs.getNamedItem(ATTRIBUTE_fontFace).getNodeValue();
-
-					StringTokenizer t = new StringTokenizer(fontFaces, ",");
-					while (t.hasMoreTokens()) 
-					{
-						String face = t.nextToken().trim();
-						if (AVAILABLE_FONT_FACE_NAMES.contains(face)) 
-						{
-							styleAttrs.put(TextAttribute.FAMILY, face);
-							break;
-						}
-					}
-				}
+				Map<Attribute,Object> styleAttrs = createFontAttributes(getTagAttributes(node));
 				
 				int startIndex = styledText.length();
 
@@ -751,28 +1161,10 @@ public class JRStyledTextParser implements ErrorHandler
 			{
 				if (hyperlink == null)
 				{
-					NamedNodeMap nodeAttrs = node.getAttributes();
-
 					Map<Attribute,Object> styleAttrs = new HashMap<Attribute,Object>();
 
-					hyperlink = new JRBasePrintHyperlink();
-					hyperlink.setHyperlinkType(HyperlinkTypeEnum.REFERENCE);
+					hyperlink = createHyperlink(getTagAttributes(node));
 					styleAttrs.put(JRTextAttribute.HYPERLINK, hyperlink);
-					
-					if (nodeAttrs.getNamedItem(ATTRIBUTE_href) != null)
-					{
-						hyperlink.setHyperlinkReference( nodeAttrs.getNamedItem(ATTRIBUTE_href).getNodeValue());
-					}
-
-					if (nodeAttrs.getNamedItem(ATTRIBUTE_type) != null)
-					{
-						hyperlink.setLinkType(nodeAttrs.getNamedItem(ATTRIBUTE_type).getNodeValue());
-					}
-
-					if (nodeAttrs.getNamedItem(ATTRIBUTE_target) != null)
-					{
-						hyperlink.setLinkTarget(nodeAttrs.getNamedItem(ATTRIBUTE_target).getNodeValue());
-					}
 
 					int startIndex = styledText.length();
 
@@ -827,6 +1219,206 @@ public class JRStyledTextParser implements ErrorHandler
 		}
 	}
 
+	/**
+	 *
+	 */
+	private Map<String,String> getTagAttributes(Node node)
+	{
+		NamedNodeMap nodeAttrs = node.getAttributes();
+		Map<String,String> tagAttrs = new HashMap<String,String>();
+		for (int i = 0; i < nodeAttrs.getLength(); i++)
+		{
+			Node attr = nodeAttrs.item(i);
+			tagAttrs.put(attr.getNodeName(), attr.getNodeValue());
+		}
+		return tagAttrs;
+	}
+
+	/**
+	 * Creates the text attributes of a <code>style</code> tag.
+	 */
+	private Map<Attribute,Object> createStyleAttributes(Map<String,String> tagAttrs)
+	{
+		Map<Attribute,Object> styleAttrs = new HashMap<Attribute,Object>();
+
+		if (tagAttrs.containsKey(ATTRIBUTE_fontName))
+		{
+			styleAttrs.put(
+				TextAttribute.FAMILY,
+				tagAttrs.get(ATTRIBUTE_fontName)
+				);
+		}
+
+		if (tagAttrs.containsKey(ATTRIBUTE_isBold))
+		{
+			styleAttrs.put(
+				TextAttribute.WEIGHT,
+				Boolean.valueOf(tagAttrs.get(ATTRIBUTE_isBold)).booleanValue()
+				? TextAttribute.WEIGHT_BOLD : TextAttribute.WEIGHT_REGULAR
+				);
+		}
+
+		if (tagAttrs.containsKey(ATTRIBUTE_isItalic))
+		{
+			styleAttrs.put(
+				TextAttribute.POSTURE,
+				Boolean.valueOf(tagAttrs.get(ATTRIBUTE_isItalic)).booleanValue()
+				? TextAttribute.POSTURE_OBLIQUE : TextAttribute.POSTURE_REGULAR
+				);
+		}
+
+		if (tagAttrs.containsKey(ATTRIBUTE_isUnderline))
+		{
+			styleAttrs.put(
+				TextAttribute.UNDERLINE,
+				Boolean.valueOf(tagAttrs.get(ATTRIBUTE_isUnderline)).booleanValue()
+				? TextAttribute.UNDERLINE_ON : null
+				);
+		}
+
+		if (tagAttrs.containsKey(ATTRIBUTE_isStrikeThrough))
+		{
+			styleAttrs.put(
+				TextAttribute.STRIKETHROUGH,
+				Boolean.valueOf(tagAttrs.get(ATTRIBUTE_isStrikeThrough)).booleanValue()
+				? TextAttribute.STRIKETHROUGH_ON : null
+				);
+		}
+
+		if (tagAttrs.containsKey(ATTRIBUTE_size))
+		{
+			styleAttrs.put(
+				TextAttribute.SIZE,
+				new Float(tagAttrs.get(ATTRIBUTE_size))
+				);
+		}
+
+		if (tagAttrs.containsKey(ATTRIBUTE_pdfFontName))
+		{
+			styleAttrs.put(
+				JRTextAttribute.PDF_FONT_NAME,
+				tagAttrs.get(ATTRIBUTE_pdfFontName)
+				);
+		}
+
+		if (tagAttrs.containsKey(ATTRIBUTE_pdfEncoding))
+		{
+			styleAttrs.put(
+				JRTextAttribute.PDF_ENCODING,
+				tagAttrs.get(ATTRIBUTE_pdfEncoding)
+				);
+		}
+
+		if (tagAttrs.containsKey(ATTRIBUTE_isPdfEmbedded))
+		{
+			styleAttrs.put(
+				JRTextAttribute.IS_PDF_EMBEDDED,
+				Boolean.valueOf(tagAttrs.get(ATTRIBUTE_isPdfEmbedded))
+				);
+		}
+
+		if (tagAttrs.containsKey(ATTRIBUTE_forecolor))
+		{
+			Color color = 
+				JRColorUtil.getColor(
+					tagAttrs.get(ATTRIBUTE_forecolor),
+					Color.black
+					);
+			styleAttrs.put(
+				TextAttribute.FOREGROUND,
+				color
+				);
+		}
+
+		if (tagAttrs.containsKey(ATTRIBUTE_backcolor))
+		{
+			Color color = 
+				JRColorUtil.getColor(
+					tagAttrs.get(ATTRIBUTE_backcolor),
+					Color.black
+					);
+			styleAttrs.put(
+				TextAttribute.BACKGROUND,
+				color
+				);
+		}
+
+		return styleAttrs;
+	}
+
+	/**
+	 * Creates the text attributes of a <code>font</code> tag.
+	 */
+	private Map<Attribute,Object> createFontAttributes(Map<String,String> tagAttrs)
+	{
+		Map<Attribute,Object> styleAttrs = new HashMap<Attribute,Object>();
+
+		if (tagAttrs.containsKey(ATTRIBUTE_size))
+		{
+			styleAttrs.put(
+				TextAttribute.SIZE,
+				new Float(tagAttrs.get(ATTRIBUTE_size))
+				);
+		}
+
+		if (tagAttrs.containsKey(ATTRIBUTE_color))
+		{
+			Color color = 
+				JRColorUtil.getColor(
+					tagAttrs.get(ATTRIBUTE_color),
+					Color.black
+					);
+			styleAttrs.put(
+				TextAttribute.FOREGROUND,
+				color
+				);
+		}
+
+		if (tagAttrs.containsKey(ATTRIBUTE_fontFace)) 
+		{
+			String fontFaces = tagAttrs.get(ATTRIBUTE_fontFace);
+
+			StringTokenizer t = new StringTokenizer(fontFaces, ",");
+			while (t.hasMoreTokens()) 
+			{
+				String face = t.nextToken().trim();
+				if (AVAILABLE_FONT_FACE_NAMES.contains(face)) 
+				{
+					styleAttrs.put(TextAttribute.FAMILY, face);
+					break;
+				}
+			}
+		}
+
+		return styleAttrs;
+	}
+
+	/**
+	 * Creates the hyperlink of an <code>a</code> tag.
+	 */
+	private JRBasePrintHyperlink createHyperlink(Map<String,String> tagAttrs)
+	{
+		JRBasePrintHyperlink tagHyperlink = new JRBasePrintHyperlink();
+		tagHyperlink.setHyperlinkType(HyperlinkTypeEnum.REFERENCE);
+		
+		if (tagAttrs.containsKey(ATTRIBUTE_href))
+		{
+			tagHyperlink.setHyperlinkReference(tagAttrs.get(ATTRIBUTE_href));
+		}
+
+		if (tagAttrs.containsKey(ATTRIBUTE_type))
+		{
+			tagHyperlink.setLinkType(tagAttrs.get(ATTRIBUTE_type));
+		}
+
+		if (tagAttrs.containsKey(ATTRIBUTE_target))
+		{
+			tagHyperlink.setLinkTarget(tagAttrs.get(ATTRIBUTE_target));
+		}
+		
+		return tagHyperlink;
+	}
+
 	/**
 	 *
 	 */
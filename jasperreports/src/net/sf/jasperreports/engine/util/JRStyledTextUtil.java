@@ -30,6 +30,7 @@ import java.text.AttributedCharacterIterator.Attribute;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.ListIterator;
@@ -66,6 +67,23 @@ public class JRStyledTextUtil
 	private final Map<Pair<String, Locale>, FamilyFonts> familyFonts = 
 			new ConcurrentHashMap<Pair<String, Locale>, FamilyFonts>();
 	
+	private static final int STYLED_TEXT_CACHE_SIZE = 1000;
+	
+	/**
+	 * Parsed markup texts, keyed by text, style attributes and locale.
+	 */
+	private final Map<StyledTextKey, JRStyledText> styledTextCache = 
+			new LinkedHashMap<StyledTextKey, JRStyledText>(64, 0.75f, true)
+			{
+				private static final long serialVersionUID = 1L;
+
+				@Override
+				protected boolean removeEldestEntry(Map.Entry<StyledTextKey, JRStyledText> eldest)
+				{
+					return size() > STYLED_TEXT_CACHE_SIZE;
+				}
+			};
+	
 	/**
 	 *
 	 */
@@ -142,12 +160,34 @@ public class JRStyledTextUtil
 	protected JRStyledText getStyledText(JRPrintText printText, String text,
 			JRStyledTextAttributeSelector attributeSelector, Locale locale)
 	{
-		return JRStyledTextParser.getInstance().getStyledText(
-			attributeSelector.getStyledTextAttributes(printText), 
-			text, 
-			!JRCommonText.MARKUP_NONE.equals(printText.getMarkup()),
-			locale
-			);
+		Map<Attribute,Object> attributes = attributeSelector.getStyledTextAttributes(printText);
+		if (JRCommonText.MARKUP_NONE.equals(printText.getMarkup()))
+		{
+			return JRStyledTextParser.getInstance().getStyledText(attributes, text, false, locale);
+		}
+		
+		//repeated markup texts are only parsed once, callers get their own copy
+		StyledTextKey key = new StyledTextKey(text, attributes, locale);
+		JRStyledText cachedText;
+		synchronized (styledTextCache)
+		{
+			cachedText = styledTextCache.get(key);
+		}
+		
+		if (cachedText == null)
+		{
+			cachedText = JRStyledTextParser.getInstance().getStyledText(attributes, text, true, locale);
+			if (cachedText == null)
+			{
+				return null;
+			}
+			
+			synchronized (styledTextCache)
+			{
+				styledTextCache.put(key, cachedText);
+			}
+		}
+		return cachedText.cloneText();
 	}
 	
 	public JRStyledText getProcessedStyledText(JRPrintText printText, JRStyledTextAttributeSelector attributeSelector,
@@ -600,4 +640,49 @@ public class JRStyledTextUtil
 					&& fontInfo.getFontFace().getFont().canDisplay(code);			
 		}
 	}
+	
+	protected static class StyledTextKey
+	{
+		private final String text;
+		private final Map<Attribute,Object> attributes;
+		private final Locale locale;
+		private final int hash;
+		
+		public StyledTextKey(String text, Map<Attribute,Object> attributes, Locale locale)
+		{
+			this.text = text;
+			this.attributes = attributes;
+			this.locale = locale;
+			
+			int hash = text.hashCode();
+			hash = 31 * hash + (attributes == null ? 0 : attributes.hashCode());
+			hash = 31 * hash + (locale == null ? 0 : locale.hashCode());
+			this.hash = hash;
+		}
+
+		@Override
+		public int hashCode()
+		{
+			return hash;
+		}
+
+		@Override
+		public boolean equals(Object obj)
+		{
+			if (obj == this)
+			{
+				return true;
+			}
+			
+			if (!(obj instanceof StyledTextKey))
+			{
+				return false;
+			}
+			
+			StyledTextKey key = (StyledTextKey) obj;
+			return hash == key.hash && text.equals(key.text)
+					&& ObjectUtils.equals(attributes, key.attributes)
+					&& ObjectUtils.equals(locale, key.locale);
+		}
+	}
 }
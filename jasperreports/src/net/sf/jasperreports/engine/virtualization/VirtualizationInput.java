@@ -140,6 +140,11 @@ public class VirtualizationInput extends ObjectInputStream
 		@SuppressWarnings("rawtypes")
 		ObjectSerializer typeSerializer = serializerRegistry.getSerializer(type);
 		Object readObject = typeSerializer.read(this);
+		if (type == SerializationConstants.OBJECT_TYPE_STRING && virtualizationContext != null)
+		{
+			// sharing string values among the pages read by the virtualizer
+			readObject = virtualizationContext.getTextInterner().intern((String) readObject);
+		}
 		
 		if (storeReference == null ? typeSerializer.defaultStoreReference() : storeReference)
 		{
@@ -114,6 +114,26 @@ public interface CsvExporterConfiguration extends ExporterConfiguration
 			valueType = Boolean.class
 			)
 	public static final String PROPERTY_FORCE_FIELD_ENCLOSURE = JRPropertiesUtil.PROPERTY_PREFIX + "export.csv.force.field.enclosure";
+	
+	/**
+	 * Property that specifies whether the CSV exporter should check if the content of a page is laid out 
+	 * as a table, with elements arranged in rows that do not overlap, and export such pages row by row 
+	 * without creating a grid layout.
+	 * <p/>
+	 * Pages whose content is not tabular are exported using the grid layout.
+	 * The text produced for tabular pages is the same as the one produced by the grid layout.
+	 * Default value is <code>false</code>.
+	 * 
+	 * @see JRCsvExporter
+	 */
+	@Property(
+			category = PropertyConstants.CATEGORY_EXPORT,
+			defaultValue = PropertyConstants.BOOLEAN_FALSE,
+			scopes = {PropertyScope.CONTEXT, PropertyScope.REPORT},
+			sinceVersion = PropertyConstants.VERSION_6_4_3,
+			valueType = Boolean.class
+			)
+	public static final String PROPERTY_TABULAR_LAYOUT = JRPropertiesUtil.PROPERTY_PREFIX + "export.csv.tabular.layout";
 
 	/**
 	 * Returns the string representing the character or sequence of characters to be used to delimit two fields on the same record.
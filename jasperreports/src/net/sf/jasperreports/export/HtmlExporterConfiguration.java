@@ -91,6 +91,47 @@ public interface HtmlExporterConfiguration extends ExporterConfiguration
 			sinceVersion = PropertyConstants.VERSION_5_5_2
 			)
 	public static final String PROPERTY_BETWEEN_PAGES_HTML = JRPropertiesUtil.PROPERTY_PREFIX + "export.html.between.pages";
+	
+	/**
+	 * Property that specifies the number of page table rows after which the HTML exporter flushes the output,
+	 * so that the content is sent to the client in chunks while the page is being exported.
+	 * <p>
+	 * When set to a positive value, the output is also flushed after the HTML header and after each page.
+	 * This reduces the time until the first bytes of large pages are received, for instance by the web viewer.
+	 * The default value is 0, meaning that the output is only flushed at the end of the export
+	 * as specified by {@link #PROPERTY_FLUSH_OUTPUT}.
+	 * </p>
+	 */
+	@Property(
+			category = PropertyConstants.CATEGORY_EXPORT,
+			defaultValue = "0",
+			scopes = {PropertyScope.CONTEXT, PropertyScope.REPORT},
+			sinceVersion = PropertyConstants.VERSION_6_4_3,
+			valueType = Integer.class
+			)
+	public static final String PROPERTY_FLUSH_ROW_COUNT = JRPropertiesUtil.PROPERTY_PREFIX + "export.html.flush.row.count";
+	
+	/**
+	 * Property that specifies whether the HTML exporter should produce compact markup by replacing
+	 * the inline styles of table cells and text runs with CSS classes.
+	 * <p>
+	 * Identical styles share a single class named after the digest of the style, and each class is 
+	 * written once per document in a style sheet placed after the page table that first uses it.
+	 * When {@link #PROPERTY_FLUSH_ROW_COUNT} is set, the rows flushed before the end of the page table
+	 * are therefore sent before the classes that they use.
+	 * Cells that have a custom class set via {@link net.sf.jasperreports.engine.export.HtmlExporter#PROPERTY_HTML_CLASS}
+	 * keep their inline styles.
+	 * </p>
+	 * The default value is <code>false</code>.
+	 */
+	@Property(
+			category = PropertyConstants.CATEGORY_EXPORT,
+			defaultValue = PropertyConstants.BOOLEAN_FALSE,
+			scopes = {PropertyScope.CONTEXT, PropertyScope.REPORT},
+			sinceVersion = PropertyConstants.VERSION_6_4_3,
+			valueType = Boolean.class
+			)
+	public static final String PROPERTY_COMPACT_MARKUP = JRPropertiesUtil.PROPERTY_PREFIX + "export.html.compact.markup";
 
 
 	/**
@@ -340,6 +340,58 @@ public interface PdfExporterConfiguration extends ExporterConfiguration
 			)
 	public static final String PROPERTY_JUSTIFIED_LETTER_SPACING = JRPropertiesUtil.PROPERTY_PREFIX + "export.pdf.justified.letter.spacing";
 	
+	/**
+	 * Property that specifies the number of pages whose texts are prepared concurrently, ahead of the page 
+	 * that is being written to the PDF document.
+	 * <p/>
+	 * Text truncation, markup parsing and font resolution are performed in parallel for the next pages, 
+	 * while the document itself is written sequentially.
+	 * The default value is 0, meaning that no pages are prepared in advance.
+	 * 
+	 * @see net.sf.jasperreports.engine.export.PdfPagePreprocessor
+	 */
+	@Property(
+			category = PropertyConstants.CATEGORY_EXPORT,
+			defaultValue = "0",
+			scopes = {PropertyScope.CONTEXT, PropertyScope.REPORT},
+			sinceVersion = PropertyConstants.VERSION_6_4_3,
+			valueType = Integer.class
+			)
+	public static final String PROPERTY_PARALLEL_PAGES = JRPropertiesUtil.PROPERTY_PREFIX + "export.pdf.parallel.pages";
+	
+	/**
+	 * Property that enables the streaming mode of the PDF exporter, meant for very large documents.
+	 * <p/>
+	 * In streaming mode the output is flushed after each page, the number of images kept by the exporter
+	 * for reuse is limited by {@link #PROPERTY_STREAMING_IMAGE_CACHE_SIZE}, and the internal state that would
+	 * otherwise grow with the number of exported pages is released after each page.
+	 * Images that are discarded from the cache are written again in the document if used afterwards.
+	 * <p/>
+	 * This property is by default not set (<code>false</code>).
+	 */
+	@Property(
+			category = PropertyConstants.CATEGORY_EXPORT,
+			defaultValue = PropertyConstants.BOOLEAN_FALSE,
+			scopes = {PropertyScope.CONTEXT, PropertyScope.REPORT},
+			sinceVersion = PropertyConstants.VERSION_6_4_3,
+			valueType = Boolean.class
+			)
+	public static final String PROPERTY_STREAMING = JRPropertiesUtil.PROPERTY_PREFIX + "export.pdf.streaming";
+	
+	/**
+	 * Property that specifies the maximum number of images kept by the PDF exporter for reuse in streaming mode.
+	 * 
+	 * @see #PROPERTY_STREAMING
+	 */
+	@Property(
+			category = PropertyConstants.CATEGORY_EXPORT,
+			defaultValue = "100",
+			scopes = {PropertyScope.CONTEXT, PropertyScope.REPORT},
+			sinceVersion = PropertyConstants.VERSION_6_4_3,
+			valueType = Integer.class
+			)
+	public static final String PROPERTY_STREAMING_IMAGE_CACHE_SIZE = JRPropertiesUtil.PROPERTY_PREFIX + "export.pdf.streaming.image.cache.size";
+	
 	/**
 	 * Returns a boolean value specifying  whether the PDF document should contain an outline section.
 	 * @see #PROPERTY_CREATE_BATCH_MODE_BOOKMARKS
@@ -145,6 +145,26 @@ public interface XlsExporterConfiguration extends ExporterConfiguration
 			sinceVersion = PropertyConstants.VERSION_6_3_1
 			)
 	public static final String PROPERTY_METADATA_APPLICATION = JRPropertiesUtil.PROPERTY_PREFIX + "export.xls.metadata.application";
+
+	/**
+	 * Property that specifies the number of sheets whose grid layouts are created concurrently, ahead of the 
+	 * sheet that is being written, when each page is exported on a separate sheet.
+	 * <p/>
+	 * The grid layouts of the next pages are calculated in parallel, while the sheets themselves are written
+	 * sequentially. The setting is not used when the exporter filter keeps state across pages.
+	 * The default value is 0, meaning that no grid layouts are created in advance.
+	 * 
+	 * @see XlsReportConfiguration#isOnePagePerSheet()
+	 * @see net.sf.jasperreports.engine.export.GridLayoutPreprocessor
+	 */
+	@Property(
+			category = PropertyConstants.CATEGORY_EXPORT,
+			defaultValue = "0",
+			scopes = {PropertyScope.CONTEXT, PropertyScope.REPORT},
+			sinceVersion = PropertyConstants.VERSION_6_4_3,
+			valueType = Integer.class
+			)
+	public static final String PROPERTY_PARALLEL_SHEETS = JRPropertiesUtil.PROPERTY_PREFIX + "export.xls.parallel.sheets";
 	
 	/**
 	 * Returns a boolean value specifying whether the standard color palette should be customized
@@ -54,6 +54,45 @@ public interface XlsxExporterConfiguration extends XlsExporterConfiguration
 			)
 	public static final String PROPERTY_MACRO_TEMPLATE = JRPropertiesUtil.PROPERTY_PREFIX + "export.xlsx.macro.template";
 
+	/**
+	 * Property that specifies whether plain texts should be written in the shared strings table of the workbook
+	 * instead of being written inline in each cell.
+	 * <p/>
+	 * Repeated texts are stored only once in the shared strings table, which makes large workbooks with repetitive
+	 * content considerably smaller and faster to open. Texts having style markup are still written inline.
+	 * <p/>
+	 * This property is by default not set (<code>false</code>).
+	 * 
+	 * @see #PROPERTY_SHARED_STRINGS_DICTIONARY_SIZE
+	 */
+	@Property(
+			category = PropertyConstants.CATEGORY_EXPORT,
+			defaultValue = PropertyConstants.BOOLEAN_FALSE,
+			scopes = {PropertyScope.CONTEXT, PropertyScope.REPORT},
+			sinceVersion = PropertyConstants.VERSION_6_4_3,
+			valueType = Boolean.class
+			)
+	public static final String PROPERTY_SHARED_STRINGS = JRPropertiesUtil.PROPERTY_PREFIX + "export.xlsx.shared.strings";
+
+	/**
+	 * Property that specifies the maximum number of distinct texts remembered by the exporter
+	 * in order to reuse their shared strings table entries.
+	 * <p/>
+	 * The shared strings table itself is written to the file buffered output as the export progresses.
+	 * When the limit is reached, the least recently used texts are forgotten and new entries are
+	 * created for them if they occur again, keeping the exporter memory bounded.
+	 * 
+	 * @see #PROPERTY_SHARED_STRINGS
+	 */
+	@Property(
+			category = PropertyConstants.CATEGORY_EXPORT,
+			defaultValue = "100000",
+			scopes = {PropertyScope.CONTEXT, PropertyScope.REPORT},
+			sinceVersion = PropertyConstants.VERSION_6_4_3,
+			valueType = Integer.class
+			)
+	public static final String PROPERTY_SHARED_STRINGS_DICTIONARY_SIZE = JRPropertiesUtil.PROPERTY_PREFIX + "export.xlsx.shared.strings.dictionary.size";
+
 	/**
 	 * Specifies the location of an existing workbook template containing a macro object. 
 	 * The macro object will be copied into the generated document if the template location is valid. 
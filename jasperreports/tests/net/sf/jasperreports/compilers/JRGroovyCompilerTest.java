@@ -0,0 +1,217 @@
+/*
+ * JasperReports - Free Java Reporting Library.
+ * Copyright (C) 2001 - 2016 TIBCO Software Inc. All rights reserved.
+ * http://www.jaspersoft.com
+ *
+ * Unless you have purchased a commercial license agreement from Jaspersoft,
+ * the following license terms apply:
+ *
+ * This program is part of JasperReports.
+ *
+ * JasperReports is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JasperReports is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with JasperReports. If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.sf.jasperreports.compilers;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.codehaus.groovy.control.ClassNodeResolver;
+import org.codehaus.groovy.control.CompilationFailedException;
+import org.codehaus.groovy.control.CompilationUnit;
+import org.codehaus.groovy.control.CompilerConfiguration;
+import org.testng.annotations.Test;
+
+import net.sf.jasperreports.engine.JREmptyDataSource;
+import net.sf.jasperreports.engine.JRException;
+import net.sf.jasperreports.engine.JRPrintText;
+import net.sf.jasperreports.engine.JRReport;
+import net.sf.jasperreports.engine.JasperFillManager;
+import net.sf.jasperreports.engine.JasperPrint;
+import net.sf.jasperreports.engine.JasperReport;
+import net.sf.jasperreports.engine.JasperReportsContext;
+import net.sf.jasperreports.engine.SimpleJasperReportsContext;
+import net.sf.jasperreports.engine.design.JRDesignBand;
+import net.sf.jasperreports.engine.design.JRDesignExpression;
+import net.sf.jasperreports.engine.design.JRDesignParameter;
+import net.sf.jasperreports.engine.design.JRDesignTextField;
+import net.sf.jasperreports.engine.design.JasperDesign;
+
+/**
+ * Checks the static compilation mode of the Groovy compiler and its fallback to dynamic code,
+ * and the shared cache of missing classes.
+ */
+public class JRGroovyCompilerTest
+{
+	
+	@Test
+	public void testStaticCompilation() throws JRException
+	{
+		SimpleJasperReportsContext jasperReportsContext = createContext(true);
+		RecordingGroovyCompiler compiler = new RecordingGroovyCompiler(jasperReportsContext);
+		JasperReport report = compiler.compileReport(createDesign(String.class));
+		
+		assert compiler.compiledSources.size() == 1 : compiler.compiledSources.size() + " compilations";
+		assert isStatic(compiler.compiledSources.get(0));
+		assert "ABC".equals(fill(jasperReportsContext, report));
+	}
+	
+	@Test
+	public void testDynamicFallback() throws JRException
+	{
+		SimpleJasperReportsContext jasperReportsContext = createContext(true);
+		RecordingGroovyCompiler compiler = new RecordingGroovyCompiler(jasperReportsContext);
+		// the method is not known for the declared class of the parameter
+		JasperReport report = compiler.compileReport(createDesign(Object.class));
+		
+		// all units, the unit in static mode, the unit in dynamic mode
+		assert compiler.compiledSources.size() == 3 : compiler.compiledSources.size() + " compilations";
+		assert isStatic(compiler.compiledSources.get(1));
+		assert !isStatic(compiler.compiledSources.get(2));
+		assert "ABC".equals(fill(jasperReportsContext, report));
+	}
+	
+	@Test
+	public void testDynamicCompilation() throws JRException
+	{
+		SimpleJasperReportsContext jasperReportsContext = createContext(false);
+		RecordingGroovyCompiler compiler = new RecordingGroovyCompiler(jasperReportsContext);
+		JasperReport report = compiler.compileReport(createDesign(Object.class));
+		
+		assert compiler.compiledSources.size() == 1 : compiler.compiledSources.size() + " compilations";
+		assert !isStatic(compiler.compiledSources.get(0));
+		assert "ABC".equals(fill(jasperReportsContext, report));
+	}
+	
+	@Test
+	public void testMissingClassCacheHit()
+	{
+		JRGroovyCompiler compiler = new JRGroovyCompiler(new SimpleJasperReportsContext());
+		CompilationUnit compilationUnit = new CompilationUnit(new CompilerConfiguration());
+		String missingClass = "net.sf.jasperreports.compilers.Missing" + System.nanoTime();
+		
+		ClassNodeResolver resolver = compiler.getSharedClassNodeResolver();
+		assert resolver.getFromClassCache(missingClass) == null;
+		assert resolver.resolveName(missingClass, compilationUnit) == null;
+		assert resolver.resolveName(String.class.getName(), compilationUnit) != null;
+		
+		// a later compilation finds the missing class in the shared cache
+		ClassNodeResolver laterResolver = compiler.getSharedClassNodeResolver();
+		assert laterResolver.getFromClassCache(missingClass) != null;
+		assert laterResolver.resolveName(missingClass, compilationUnit) == null;
+		// found classes are only cached for a compilation
+		assert laterResolver.getFromClassCache(String.class.getName()) == null;
+	}
+	
+	@Test
+	public void testMissingClassCacheExpiry()
+	{
+		JRGroovyCompiler.MissingClassCache missingClasses = new JRGroovyCompiler.MissingClassCache();
+		missingClasses.setMissing("a.B");
+		assert missingClasses.isMissing("a.B", 60000);
+		assert !missingClasses.isMissing("c.D", 60000);
+		
+		// the expired entry is removed
+		assert !missingClasses.isMissing("a.B", -1);
+		assert !missingClasses.isMissing("a.B", 60000);
+		
+		SimpleJasperReportsContext jasperReportsContext = new SimpleJasperReportsContext();
+		jasperReportsContext.setProperty(JRGroovyCompiler.PROPERTY_SHARED_CLASS_CACHE_EXPIRY, "-1");
+		JRGroovyCompiler compiler = new JRGroovyCompiler(jasperReportsContext);
+		CompilationUnit compilationUnit = new CompilationUnit(new CompilerConfiguration());
+		String missingClass = "net.sf.jasperreports.compilers.Missing" + System.nanoTime();
+		
+		assert compiler.getSharedClassNodeResolver().resolveName(missingClass, compilationUnit) == null;
+		assert compiler.getSharedClassNodeResolver().getFromClassCache(missingClass) == null;
+	}
+	
+	protected SimpleJasperReportsContext createContext(boolean compileStatic)
+	{
+		SimpleJasperReportsContext jasperReportsContext = new SimpleJasperReportsContext();
+		jasperReportsContext.setProperty(JRGroovyCompiler.PROPERTY_COMPILE_STATIC, String.valueOf(compileStatic));
+		return jasperReportsContext;
+	}
+	
+	protected JasperDesign createDesign(Class<?> parameterClass) throws JRException
+	{
+		JasperDesign design = new JasperDesign();
+		design.setName("GroovyCompilerTest");
+		design.setLanguage(JRReport.LANGUAGE_GROOVY);
+		design.setPageWidth(200);
+		design.setPageHeight(100);
+		design.setColumnWidth(200);
+		design.setLeftMargin(0);
+		design.setRightMargin(0);
+		design.setTopMargin(0);
+		design.setBottomMargin(0);
+		
+		JRDesignParameter parameter = new JRDesignParameter();
+		parameter.setName("value");
+		parameter.setValueClass(parameterClass);
+		design.addParameter(parameter);
+		
+		JRDesignTextField textField = new JRDesignTextField();
+		textField.setX(0);
+		textField.setY(0);
+		textField.setWidth(200);
+		textField.setHeight(20);
+		textField.setExpression(new JRDesignExpression("$P{value}.toUpperCase()"));
+		
+		JRDesignBand title = new JRDesignBand();
+		title.setHeight(20);
+		title.addElement(textField);
+		design.setTitle(title);
+		return design;
+	}
+	
+	protected String fill(JasperReportsContext jasperReportsContext, JasperReport report) throws JRException
+	{
+		Map<String, Object> parameters = new HashMap<String, Object>();
+		parameters.put("value", "abc");
+		JasperPrint print = JasperFillManager.getInstance(jasperReportsContext).fill(report, parameters, new JREmptyDataSource(1));
+		return ((JRPrintText) print.getPages().get(0).getElements().get(0)).getFullText();
+	}
+	
+	protected boolean isStatic(Map<String, String> sources)
+	{
+		return sources.values().iterator().next().contains("@groovy.transform.CompileStatic");
+	}
+	
+	/**
+	 * Compiler that records the sources it compiles.
+	 */
+	protected static class RecordingGroovyCompiler extends JRGroovyCompiler
+	{
+		final List<Map<String, String>> compiledSources = new ArrayList<Map<String, String>>();
+		
+		public RecordingGroovyCompiler(JasperReportsContext jasperReportsContext)
+		{
+			super(jasperReportsContext);
+		}
+
+		@Override
+		protected Map<String, byte[]> compileSources(Map<String, String> sources) throws JRException, CompilationFailedException
+		{
+			compiledSources.add(new HashMap<String, String>(sources));
+			return super.compileSources(sources);
+		}
+
+		@Override
+		protected String getCompilerClass()
+		{
+			return JRGroovyCompiler.class.getName();
+		}
+	}
+}
@@ -0,0 +1,151 @@
+/*
+ * JasperReports - Free Java Reporting Library.
+ * Copyright (C) 2001 - 2016 TIBCO Software Inc. All rights reserved.
+ * http://www.jaspersoft.com
+ *
+ * Unless you have purchased a commercial license agreement from Jaspersoft,
+ * the following license terms apply:
+ *
+ * This program is part of JasperReports.
+ *
+ * JasperReports is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JasperReports is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with JasperReports. If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.sf.jasperreports.compilers;
+
+import java.util.Collections;
+
+import org.mozilla.javascript.Script;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import net.sf.jasperreports.engine.SimpleJasperReportsContext;
+import net.sf.jasperreports.engine.fill.JRFillField;
+import net.sf.jasperreports.engine.fill.JRFillParameter;
+import net.sf.jasperreports.engine.fill.JRFillVariable;
+import net.sf.jasperreports.functions.FunctionsUtil;
+
+/**
+ * Checks that JavaScript evaluator scopes that share compiled scripts and the standard objects
+ * evaluate expressions as scopes that create their own standard objects do.
+ */
+public class JavaScriptEvaluatorScopeTest
+{
+	
+	@DataProvider
+	public Object[][] expressions()
+	{
+		return new Object[][]{
+				{"1 + 2"},
+				{"Math.max(3, 7)"},
+				{"'abc'.toUpperCase() + String(12)"},
+				{"[3, 1, 2].sort().join('-')"},
+				{"new Date(0).getTime()"},
+				{"parseInt('42', 10)"},
+				{"/b+/.test('abbc')"},
+		};
+	}
+	
+	@Test(dataProvider = "expressions")
+	public void testSharedScopeResults(String expression)
+	{
+		SimpleJasperReportsContext jasperReportsContext = new SimpleJasperReportsContext();
+		
+		JavaScriptEvaluatorScope sharedScope = createScope(jasperReportsContext, true);
+		JavaScriptEvaluatorScope ownScope = createScope(jasperReportsContext, false);
+		
+		Object sharedValue = sharedScope.evaluateExpression(expression);
+		Object ownValue = ownScope.evaluateExpression(expression);
+		assert sharedValue != null;
+		assert sharedValue.equals(ownValue) : expression + " evaluated to " + sharedValue + ", expected " + ownValue;
+	}
+	
+	@Test
+	public void testCompiledScriptsShared()
+	{
+		SimpleJasperReportsContext jasperReportsContext = new SimpleJasperReportsContext();
+		String expression = "'shared' + " + System.nanoTime();
+		
+		JavaScriptEvaluatorScope scope1 = createScope(jasperReportsContext, true);
+		JavaScriptEvaluatorScope scope2 = createScope(new SimpleJasperReportsContext(), false);
+		
+		Script script1 = scope1.getCompiledExpression(expression);
+		Script script2 = scope2.getCompiledExpression(expression);
+		assert script1 == script2;
+		
+		// a different optimization level does not reuse the script
+		jasperReportsContext.setProperty(JavaScriptEvaluator.PROPERTY_OPTIMIZATION_LEVEL, "-1");
+		JavaScriptEvaluatorScope interpretedScope = createScope(jasperReportsContext, true);
+		Script interpretedScript = interpretedScope.getCompiledExpression(expression);
+		assert interpretedScript != script1;
+		
+		assert scope1.evaluateExpression(script2).equals(interpretedScope.evaluateExpression(interpretedScript));
+	}
+	
+	@Test
+	public void testScopeVariablesNotShared()
+	{
+		SimpleJasperReportsContext jasperReportsContext = new SimpleJasperReportsContext();
+		
+		JavaScriptEvaluatorScope scope1 = createScope(jasperReportsContext, true);
+		JavaScriptEvaluatorScope scope2 = createScope(jasperReportsContext, true);
+		
+		scope1.setScopeVariable("reportVar", "value1");
+		scope1.evaluateExpression("assignedVar = 5");
+		assert "value1".equals(scope1.evaluateExpression("reportVar"));
+		assert "undefined".equals(scope2.evaluateExpression("typeof reportVar"));
+		assert "undefined".equals(scope2.evaluateExpression("typeof assignedVar"));
+	}
+	
+	@Test
+	public void testSealedStandardObjects()
+	{
+		SimpleJasperReportsContext jasperReportsContext = new SimpleJasperReportsContext();
+		
+		JavaScriptEvaluatorScope sharedScope = createScope(jasperReportsContext, true);
+		boolean modified;
+		try
+		{
+			sharedScope.evaluateExpression("Math.answer = 42");
+			modified = true;
+		}
+		catch (RuntimeException e)
+		{
+			modified = false;
+		}
+		assert !modified : "modified a shared standard object";
+		assert "undefined".equals(createScope(jasperReportsContext, true).evaluateExpression("typeof Math.answer"));
+		
+		// evaluators that do not share the scope can modify their own standard objects
+		JavaScriptEvaluatorScope ownScope = createScope(jasperReportsContext, false);
+		ownScope.evaluateExpression("Math.answer = 42");
+		assert ((Number) ownScope.evaluateExpression("Math.answer")).intValue() == 42;
+	}
+	
+	protected JavaScriptEvaluatorScope createScope(SimpleJasperReportsContext jasperReportsContext, boolean sharedScope)
+	{
+		SimpleJasperReportsContext scopeContext = jasperReportsContext;
+		if (!sharedScope)
+		{
+			scopeContext = new SimpleJasperReportsContext(jasperReportsContext);
+			scopeContext.setProperty(JavaScriptEvaluator.PROPERTY_SHARED_SCOPE, "false");
+		}
+		
+		JavaScriptEvaluatorScope scope = new JavaScriptEvaluatorScope(scopeContext, null, 
+				FunctionsUtil.getInstance(scopeContext));
+		scope.init(Collections.<String, JRFillParameter>emptyMap(), 
+				Collections.<String, JRFillField>emptyMap(), 
+				Collections.<String, JRFillVariable>emptyMap());
+		return scope;
+	}
+}
@@ -0,0 +1,162 @@
+/*
+ * JasperReports - Free Java Reporting Library.
+ * Copyright (C) 2001 - 2016 TIBCO Software Inc. All rights reserved.
+ * http://www.jaspersoft.com
+ *
+ * Unless you have purchased a commercial license agreement from Jaspersoft,
+ * the following license terms apply:
+ *
+ * This program is part of JasperReports.
+ *
+ * JasperReports is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JasperReports is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with JasperReports. If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.sf.jasperreports.engine.export;
+
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.testng.annotations.Test;
+
+import net.sf.jasperreports.engine.JRException;
+import net.sf.jasperreports.engine.JasperPrint;
+import net.sf.jasperreports.engine.SimpleJasperReportsContext;
+import net.sf.jasperreports.engine.base.JRBasePrintPage;
+import net.sf.jasperreports.engine.base.JRBasePrintText;
+import net.sf.jasperreports.export.SimpleCsvExporterConfiguration;
+import net.sf.jasperreports.export.SimpleCsvMetadataExporterConfiguration;
+import net.sf.jasperreports.export.SimpleCsvMetadataReportConfiguration;
+import net.sf.jasperreports.export.SimpleCsvReportConfiguration;
+import net.sf.jasperreports.export.SimpleExporterInput;
+import net.sf.jasperreports.export.SimpleWriterExporterOutput;
+
+/**
+ * Checks that the CSV exporters write the rows of each page before reporting the page as exported,
+ * and that the byte order mark precedes the rows.
+ */
+public class CsvPageOutputTest
+{
+	
+	private static final int PAGE_COUNT = 3;
+	private static final int ROW_COUNT = 5;
+
+	@Test
+	public void testCsvPages() throws JRException
+	{
+		StringWriter out = new StringWriter();
+		RecordingProgressMonitor progressMonitor = new RecordingProgressMonitor(out);
+		
+		SimpleCsvReportConfiguration reportConfiguration = new SimpleCsvReportConfiguration();
+		reportConfiguration.setProgressMonitor(progressMonitor);
+		SimpleCsvExporterConfiguration configuration = new SimpleCsvExporterConfiguration();
+		configuration.setWriteBOM(true);
+		
+		JRCsvExporter exporter = new JRCsvExporter(new SimpleJasperReportsContext());
+		exporter.setExporterInput(new SimpleExporterInput(createPrint()));
+		exporter.setConfiguration(reportConfiguration);
+		exporter.setConfiguration(configuration);
+		exporter.setExporterOutput(new SimpleWriterExporterOutput(out));
+		exporter.exportReport();
+		
+		String output = out.toString();
+		assert output.startsWith(JRAbstractCsvExporter.BOM_CHARACTER + "p0r0,") : output;
+		checkPages(output, progressMonitor.outputs);
+	}
+
+	@Test
+	public void testCsvMetadataPages() throws JRException
+	{
+		StringWriter out = new StringWriter();
+		RecordingProgressMonitor progressMonitor = new RecordingProgressMonitor(out);
+		
+		SimpleCsvMetadataReportConfiguration reportConfiguration = new SimpleCsvMetadataReportConfiguration();
+		reportConfiguration.setProgressMonitor(progressMonitor);
+		reportConfiguration.setWriteHeader(true);
+		SimpleCsvMetadataExporterConfiguration configuration = new SimpleCsvMetadataExporterConfiguration();
+		configuration.setWriteBOM(true);
+		
+		JRCsvMetadataExporter exporter = new JRCsvMetadataExporter(new SimpleJasperReportsContext());
+		exporter.setExporterInput(new SimpleExporterInput(createPrint()));
+		exporter.setConfiguration(reportConfiguration);
+		exporter.setConfiguration(configuration);
+		exporter.setExporterOutput(new SimpleWriterExporterOutput(out));
+		exporter.exportReport();
+		
+		String output = out.toString();
+		assert output.startsWith(JRAbstractCsvExporter.BOM_CHARACTER + "name,value\n") : output;
+		checkPages(output, progressMonitor.outputs);
+	}
+	
+	protected void checkPages(String output, List<String> pageOutputs)
+	{
+		assert pageOutputs.size() == PAGE_COUNT : pageOutputs.size() + " pages reported";
+		for (int p = 0; p < PAGE_COUNT; p++)
+		{
+			String pageOutput = pageOutputs.get(p);
+			assert output.startsWith(pageOutput);
+			assert pageOutput.contains("p" + p + "r" + (ROW_COUNT - 1) + ",") 
+					: "rows of page " + p + " not written when the page was reported: " + pageOutput;
+		}
+	}
+	
+	protected JasperPrint createPrint()
+	{
+		JasperPrint print = new JasperPrint();
+		print.setName("CsvPageOutputTest");
+		print.setPageWidth(200);
+		print.setPageHeight(20 * ROW_COUNT);
+		
+		for (int p = 0; p < PAGE_COUNT; p++)
+		{
+			JRBasePrintPage page = new JRBasePrintPage();
+			for (int row = 0; row < ROW_COUNT; row++)
+			{
+				page.addElement(createText(print, 0, row * 20, "name", "p" + p + "r" + row));
+				page.addElement(createText(print, 100, row * 20, "value", String.valueOf(p * ROW_COUNT + row)));
+			}
+			print.addPage(page);
+		}
+		return print;
+	}
+	
+	protected JRBasePrintText createText(JasperPrint print, int x, int y, String columnName, String text)
+	{
+		JRBasePrintText printText = new JRBasePrintText(print.getDefaultStyleProvider());
+		printText.setX(x);
+		printText.setY(y);
+		printText.setWidth(100);
+		printText.setHeight(20);
+		printText.setText(text);
+		printText.getPropertiesMap().setProperty(JRCsvMetadataExporter.PROPERTY_COLUMN_NAME, columnName);
+		return printText;
+	}
+	
+	protected static class RecordingProgressMonitor implements JRExportProgressMonitor
+	{
+		private final StringWriter out;
+		final List<String> outputs = new ArrayList<String>();
+		
+		public RecordingProgressMonitor(StringWriter out)
+		{
+			this.out = out;
+		}
+
+		@Override
+		public void afterPageExport()
+		{
+			outputs.add(out.toString());
+		}
+	}
+
+}
@@ -0,0 +1,157 @@
+/*
+ * JasperReports - Free Java Reporting Library.
+ * Copyright (C) 2001 - 2016 TIBCO Software Inc. All rights reserved.
+ * http://www.jaspersoft.com
+ *
+ * Unless you have purchased a commercial license agreement from Jaspersoft,
+ * the following license terms apply:
+ *
+ * This program is part of JasperReports.
+ *
+ * JasperReports is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JasperReports is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with JasperReports. If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.sf.jasperreports.engine.export;
+
+import java.io.StringWriter;
+
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import net.sf.jasperreports.engine.JRException;
+import net.sf.jasperreports.engine.JasperPrint;
+import net.sf.jasperreports.engine.SimpleJasperReportsContext;
+import net.sf.jasperreports.engine.base.JRBasePrintPage;
+import net.sf.jasperreports.engine.base.JRBasePrintText;
+import net.sf.jasperreports.export.SimpleCsvExporterConfiguration;
+import net.sf.jasperreports.export.SimpleExporterInput;
+import net.sf.jasperreports.export.SimpleWriterExporterOutput;
+
+/**
+ * Checks the quoting of field values by the CSV exporter.
+ */
+public class CsvQuotingTest
+{
+	
+	@DataProvider
+	public Object[][] fields()
+	{
+		return new Object[][]{
+				// text, field delimiter, record delimiter, enclosure, force enclosure, expected row
+				{"plain", ",", "\n", "\"", false, "plain,x\n"},
+				{"say \"hi\"", ",", "\n", "\"", false, "\"say \"\"hi\"\"\",x\n"},
+				{"\"", ",", "\n", "\"", false, "\"\"\"\",x\n"},
+				{"a\nb", ",", "\n", "\"", false, "\"a\nb\",x\n"},
+				{"a\nb", ",", "\r\n", "\"", false, "\"a\nb\",x\r\n"},
+				// single character delimiters
+				{"a,b", ",", "\n", "\"", false, "\"a,b\",x\n"},
+				{"a;b", ",", "\n", "\"", false, "a;b,x\n"},
+				{"a;b", ";", "\n", "\"", false, "\"a;b\";x\n"},
+				{"a|b", ",", "|", "\"", false, "\"a|b\",x|"},
+				// multiple character delimiters
+				{"a|b", "||", "\n", "\"", false, "a|b||x\n"},
+				{"a||b", "||", "\n", "\"", false, "\"a||b\"||x\n"},
+				{"a\rb", ",", "\r\n", "\"", false, "a\rb,x\r\n"},
+				{"a\r\nb", ",", "\r\n", "\"", false, "\"a\r\nb\",x\r\n"},
+				// an empty delimiter is found in any text
+				{"plain", "", "\n", "\"", false, "\"plain\"\"x\"\n"},
+				// forced enclosure
+				{"plain", ",", "\n", "\"", true, "\"plain\",\"x\"\n"},
+				{"say \"hi\"", ",", "\n", "\"", true, "\"say \"\"hi\"\"\",\"x\"\n"},
+				{"a,b", ",", "\n", "\"", true, "\"a,b\",\"x\"\n"},
+				// custom enclosure
+				{"it's \"it\"", ",", "\n", "'", false, "'it''s \"it\"',x\n"},
+				{"a,b", ",", "\n", " ", false, "\"a,b\",x\n"},
+		};
+	}
+	
+	@Test(dataProvider = "fields")
+	public void testQuoting(String text, String fieldDelimiter, String recordDelimiter, 
+			String enclosure, boolean forceEnclosure, String expected) throws JRException
+	{
+		JasperPrint print = createPrint(text);
+		JRCsvExporter exporter = createExporter(print, fieldDelimiter, recordDelimiter, enclosure, forceEnclosure);
+		
+		String output = export(exporter);
+		assert output.equals(expected) : "[" + output + "] expected [" + expected + "]";
+		
+		// exporting again with the same exporter
+		String secondOutput = export(exporter);
+		assert secondOutput.equals(expected) : "[" + secondOutput + "] expected [" + expected + "]";
+	}
+	
+	@Test(dataProvider = "fields")
+	public void testPrepareText(String text, String fieldDelimiter, String recordDelimiter, 
+			String enclosure, boolean forceEnclosure, String expected) throws JRException
+	{
+		JasperPrint print = createPrint(text);
+		JRCsvExporter exporter = createExporter(print, fieldDelimiter, recordDelimiter, enclosure, forceEnclosure);
+		// prepareText is used by the metadata exporter, it should quote as the row export does
+		export(exporter);
+		
+		String expectedField = expected.substring(0, 
+				expected.length() - recordDelimiter.length() - fieldDelimiter.length() - (forceEnclosure || fieldDelimiter.isEmpty() ? 3 : 1));
+		String field = exporter.prepareText(text);
+		assert field.equals(expectedField) : "[" + field + "] expected [" + expectedField + "]";
+		
+		assert exporter.prepareText(null) == null;
+	}
+	
+	protected JasperPrint createPrint(String text)
+	{
+		JasperPrint print = new JasperPrint();
+		print.setName("CsvQuotingTest");
+		print.setPageWidth(200);
+		print.setPageHeight(20);
+		
+		JRBasePrintPage page = new JRBasePrintPage();
+		page.addElement(createText(print, 0, text));
+		page.addElement(createText(print, 100, "x"));
+		print.addPage(page);
+		return print;
+	}
+	
+	protected JRBasePrintText createText(JasperPrint print, int x, String text)
+	{
+		JRBasePrintText printText = new JRBasePrintText(print.getDefaultStyleProvider());
+		printText.setX(x);
+		printText.setY(0);
+		printText.setWidth(100);
+		printText.setHeight(20);
+		printText.setText(text);
+		return printText;
+	}
+	
+	protected JRCsvExporter createExporter(JasperPrint print, String fieldDelimiter, String recordDelimiter, 
+			String enclosure, boolean forceEnclosure)
+	{
+		SimpleCsvExporterConfiguration configuration = new SimpleCsvExporterConfiguration();
+		configuration.setFieldDelimiter(fieldDelimiter);
+		configuration.setRecordDelimiter(recordDelimiter);
+		configuration.setFieldEnclosure(enclosure);
+		configuration.setForceFieldEnclosure(forceEnclosure);
+		
+		JRCsvExporter exporter = new JRCsvExporter(new SimpleJasperReportsContext());
+		exporter.setExporterInput(new SimpleExporterInput(print));
+		exporter.setConfiguration(configuration);
+		return exporter;
+	}
+	
+	protected String export(JRCsvExporter exporter) throws JRException
+	{
+		StringWriter out = new StringWriter();
+		exporter.setExporterOutput(new SimpleWriterExporterOutput(out));
+		exporter.exportReport();
+		return out.toString();
+	}
+}
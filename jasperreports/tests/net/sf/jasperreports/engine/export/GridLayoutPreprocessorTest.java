@@ -0,0 +1,158 @@
+/*
+ * JasperReports - Free Java Reporting Library.
+ * Copyright (C) 2001 - 2016 TIBCO Software Inc. All rights reserved.
+ * http://www.jaspersoft.com
+ *
+ * Unless you have purchased a commercial license agreement from Jaspersoft,
+ * the following license terms apply:
+ *
+ * This program is part of JasperReports.
+ *
+ * JasperReports is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JasperReports is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with JasperReports. If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.sf.jasperreports.engine.export;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import org.testng.annotations.Test;
+
+import net.sf.jasperreports.engine.JRException;
+import net.sf.jasperreports.engine.JasperPrint;
+import net.sf.jasperreports.engine.SimpleJasperReportsContext;
+import net.sf.jasperreports.engine.base.JRBasePrintFrame;
+import net.sf.jasperreports.engine.base.JRBasePrintPage;
+import net.sf.jasperreports.engine.base.JRBasePrintText;
+import net.sf.jasperreports.engine.export.ooxml.JRXlsxExporter;
+import net.sf.jasperreports.export.SimpleExporterInput;
+import net.sf.jasperreports.export.SimpleOutputStreamExporterOutput;
+import net.sf.jasperreports.export.SimpleXlsxReportConfiguration;
+import net.sf.jasperreports.export.XlsExporterConfiguration;
+
+/**
+ * Checks that sheets exported with grid layouts created by {@link GridLayoutPreprocessor}
+ * are the same as sheets exported with grid layouts created sequentially.
+ */
+public class GridLayoutPreprocessorTest
+{
+	
+	private static final int PAGE_COUNT = 9;
+	
+	@Test
+	public void testParallelSheets() throws JRException, IOException
+	{
+		JasperPrint print = createPrint();
+		
+		Map<String, byte[]> sequentialEntries = exportXlsx(print, null);
+		Map<String, byte[]> parallelEntries = exportXlsx(print, "3");
+		
+		assert sequentialEntries.containsKey("xl/worksheets/sheet" + PAGE_COUNT + ".xml");
+		assert parallelEntries.keySet().equals(sequentialEntries.keySet());
+		for (Map.Entry<String, byte[]> entry : sequentialEntries.entrySet())
+		{
+			assert Arrays.equals(parallelEntries.get(entry.getKey()), entry.getValue()) : entry.getKey();
+		}
+	}
+	
+	protected JasperPrint createPrint()
+	{
+		JasperPrint print = new JasperPrint();
+		print.setName("GridLayoutPreprocessorTest");
+		print.setPageWidth(500);
+		print.setPageHeight(400);
+		
+		for (int p = 0; p < PAGE_COUNT; p++)
+		{
+			JRBasePrintPage page = new JRBasePrintPage();
+			for (int row = 0; row < 5 + p; row++)
+			{
+				// column positions and sizes that differ from page to page
+				int x = (row * 7 + p * 13) % 60;
+				page.addElement(createText(print, x, row * 25, 120 + p * 10, 25, "p" + p + "r" + row));
+				page.addElement(createText(print, x + 150, row * 25, 80, 20 + row % 2 * 5, "value " + (p * row)));
+			}
+			
+			JRBasePrintFrame frame = new JRBasePrintFrame(print.getDefaultStyleProvider());
+			frame.setX(20 + p);
+			frame.setY(300);
+			frame.setWidth(300);
+			frame.setHeight(60);
+			frame.addElement(createText(print, 0, 0, 100, 30, "frame " + p));
+			frame.addElement(createText(print, 50 + p * 5, 30, 150, 30, "nested " + p));
+			page.addElement(frame);
+			
+			print.addPage(page);
+		}
+		return print;
+	}
+	
+	protected JRBasePrintText createText(JasperPrint print, int x, int y, int width, int height, String text)
+	{
+		JRBasePrintText printText = new JRBasePrintText(print.getDefaultStyleProvider());
+		printText.setX(x);
+		printText.setY(y);
+		printText.setWidth(width);
+		printText.setHeight(height);
+		printText.setText(text);
+		return printText;
+	}
+	
+	protected Map<String, byte[]> exportXlsx(JasperPrint print, String parallelSheets) throws JRException, IOException
+	{
+		SimpleJasperReportsContext jasperReportsContext = new SimpleJasperReportsContext();
+		if (parallelSheets != null)
+		{
+			jasperReportsContext.setProperty(XlsExporterConfiguration.PROPERTY_PARALLEL_SHEETS, parallelSheets);
+		}
+		
+		SimpleXlsxReportConfiguration configuration = new SimpleXlsxReportConfiguration();
+		configuration.setOnePagePerSheet(true);
+		
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		JRXlsxExporter exporter = new JRXlsxExporter(jasperReportsContext);
+		exporter.setExporterInput(new SimpleExporterInput(print));
+		exporter.setConfiguration(configuration);
+		exporter.setExporterOutput(new SimpleOutputStreamExporterOutput(out));
+		exporter.exportReport();
+		
+		Map<String, byte[]> entries = new TreeMap<String, byte[]>();
+		ZipInputStream zipInput = new ZipInputStream(new ByteArrayInputStream(out.toByteArray()));
+		try
+		{
+			ZipEntry entry;
+			while ((entry = zipInput.getNextEntry()) != null)
+			{
+				ByteArrayOutputStream entryData = new ByteArrayOutputStream();
+				byte[] buffer = new byte[4096];
+				int read;
+				while ((read = zipInput.read(buffer)) > 0)
+				{
+					entryData.write(buffer, 0, read);
+				}
+				entries.put(entry.getName(), entryData.toByteArray());
+			}
+		}
+		finally
+		{
+			zipInput.close();
+		}
+		return entries;
+	}
+}
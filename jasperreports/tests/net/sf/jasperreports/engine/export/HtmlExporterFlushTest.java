@@ -0,0 +1,180 @@
+/*
+ * JasperReports - Free Java Reporting Library.
+ * Copyright (C) 2001 - 2016 TIBCO Software Inc. All rights reserved.
+ * http://www.jaspersoft.com
+ *
+ * Unless you have purchased a commercial license agreement from Jaspersoft,
+ * the following license terms apply:
+ *
+ * This program is part of JasperReports.
+ *
+ * JasperReports is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JasperReports is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with JasperReports. If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.sf.jasperreports.engine.export;
+
+import java.io.StringWriter;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import net.sf.jasperreports.engine.JRException;
+import net.sf.jasperreports.engine.JasperPrint;
+import net.sf.jasperreports.engine.SimpleJasperReportsContext;
+import net.sf.jasperreports.engine.base.JRBasePrintPage;
+import net.sf.jasperreports.engine.base.JRBasePrintText;
+import net.sf.jasperreports.export.HtmlExporterConfiguration;
+import net.sf.jasperreports.export.SimpleExporterInput;
+import net.sf.jasperreports.export.SimpleHtmlExporterOutput;
+
+/**
+ * Checks that HTML exports that flush the output every few rows produce the same output 
+ * as exports that do not flush, and that the output is actually flushed in chunks.
+ * Flushing must only change when the content is sent, not the content itself.
+ */
+public class HtmlExporterFlushTest
+{
+	
+	@DataProvider
+	public Object[][] flushRowCounts()
+	{
+		return new Object[][]{
+				{1},
+				{3},
+				// more than the rows of a page
+				{50},
+		};
+	}
+	
+	@Test(dataProvider = "flushRowCounts")
+	public void testFlushRowCount(int flushRowCount) throws JRException
+	{
+		JasperPrint print = createPrint();
+		
+		FlushCountingWriter unflushedOut = new FlushCountingWriter();
+		export(print, null, false, unflushedOut);
+		
+		FlushCountingWriter flushedOut = new FlushCountingWriter();
+		export(print, flushRowCount, false, flushedOut);
+		
+		String unflushed = unflushedOut.toString();
+		String flushed = flushedOut.toString();
+		assert unflushed.length() > 0;
+		assert flushed.equals(unflushed) : flushed + "\nexpected\n" + unflushed;
+		
+		// the header, every flushRowCount rows and every page
+		int minFlushCount = 1 + (flushRowCount < 20 ? 3 * (20 / flushRowCount) : 3);
+		assert flushedOut.flushCount >= minFlushCount 
+				: "flushed " + flushedOut.flushCount + " times, expected at least " + minFlushCount;
+	}
+	
+	@Test(dataProvider = "flushRowCounts")
+	public void testCompactMarkupFlush(int flushRowCount) throws JRException
+	{
+		JasperPrint print = createPrint();
+		
+		FlushCountingWriter out = new FlushCountingWriter();
+		export(print, flushRowCount, true, out);
+		String html = out.toString();
+		
+		// the output is not buffered per page
+		assert out.flushCount >= 1 + (flushRowCount < 20 ? 3 * (20 / flushRowCount) : 3) : "flushed " + out.flushCount + " times";
+		
+		Set<String> usedClasses = new HashSet<String>();
+		Matcher usedMatcher = Pattern.compile("class=\"(" + HtmlStyleClassRegistry.STYLE_CLASS_PREFIX + "[0-9a-f]+)\"").matcher(html);
+		while (usedMatcher.find())
+		{
+			usedClasses.add(usedMatcher.group(1));
+		}
+		assert !usedClasses.isEmpty();
+		
+		Set<String> definedClasses = new HashSet<String>();
+		Matcher definedMatcher = Pattern.compile("^\\.(" + HtmlStyleClassRegistry.STYLE_CLASS_PREFIX + "[0-9a-f]+) \\{", Pattern.MULTILINE).matcher(html);
+		while (definedMatcher.find())
+		{
+			assert definedClasses.add(definedMatcher.group(1)) : "class " + definedMatcher.group(1) + " written more than once";
+		}
+		assert definedClasses.equals(usedClasses) : definedClasses + " written, " + usedClasses + " used";
+		
+		// style elements in the body are not written between table rows
+		for (int index = html.indexOf("<style type", html.indexOf("</head>")); index >= 0; 
+				index = html.indexOf("<style type", index + 1))
+		{
+			String preceding = html.substring(0, index).trim();
+			assert preceding.endsWith("</table>")
+					: "style element after " + preceding.substring(Math.max(0, preceding.length() - 40));
+		}
+	}
+	
+	protected JasperPrint createPrint()
+	{
+		JasperPrint print = new JasperPrint();
+		print.setName("HtmlExporterFlushTest");
+		print.setPageWidth(400);
+		print.setPageHeight(500);
+		
+		for (int p = 0; p < 3; p++)
+		{
+			JRBasePrintPage page = new JRBasePrintPage();
+			for (int row = 0; row < 20; row++)
+			{
+				page.addElement(createText(print, 0, row * 20, 100, 20, "p" + p + "r" + row));
+				page.addElement(createText(print, 100, row * 20, 200, 20, "<text> & more " + row));
+			}
+			print.addPage(page);
+		}
+		return print;
+	}
+	
+	protected JRBasePrintText createText(JasperPrint print, int x, int y, int width, int height, String text)
+	{
+		JRBasePrintText printText = new JRBasePrintText(print.getDefaultStyleProvider());
+		printText.setX(x);
+		printText.setY(y);
+		printText.setWidth(width);
+		printText.setHeight(height);
+		printText.setText(text);
+		return printText;
+	}
+	
+	protected void export(JasperPrint print, Integer flushRowCount, boolean compactMarkup, StringWriter out) throws JRException
+	{
+		SimpleJasperReportsContext jasperReportsContext = new SimpleJasperReportsContext();
+		jasperReportsContext.setProperty(HtmlExporterConfiguration.PROPERTY_COMPACT_MARKUP, String.valueOf(compactMarkup));
+		if (flushRowCount != null)
+		{
+			jasperReportsContext.setProperty(HtmlExporterConfiguration.PROPERTY_FLUSH_ROW_COUNT, flushRowCount.toString());
+		}
+		
+		HtmlExporter exporter = new HtmlExporter(jasperReportsContext);
+		exporter.setExporterInput(new SimpleExporterInput(print));
+		exporter.setExporterOutput(new SimpleHtmlExporterOutput(out));
+		exporter.exportReport();
+	}
+	
+	protected static class FlushCountingWriter extends StringWriter
+	{
+		int flushCount;
+		
+		@Override
+		public void flush()
+		{
+			++flushCount;
+			super.flush();
+		}
+	}
+}
@@ -0,0 +1,93 @@
+/*
+ * JasperReports - Free Java Reporting Library.
+ * Copyright (C) 2001 - 2016 TIBCO Software Inc. All rights reserved.
+ * http://www.jaspersoft.com
+ *
+ * Unless you have purchased a commercial license agreement from Jaspersoft,
+ * the following license terms apply:
+ *
+ * This program is part of JasperReports.
+ *
+ * JasperReports is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JasperReports is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with JasperReports. If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.sf.jasperreports.engine.export;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+import org.testng.annotations.Test;
+
+/**
+ * Checks that the CSS class names given by {@link HtmlStyleClassRegistry} only depend on the styles.
+ */
+public class HtmlStyleClassRegistryTest
+{
+	
+	private static final String[] STYLES = new String[]{
+		"width: 100px; height: 20px; ",
+		"width: 200px; height: 20px; ",
+		"color: #FF0000; font-size: 10px; ",
+		"text-align: left; ",
+	};
+
+	@Test
+	public void testRegistrationOrder()
+	{
+		HtmlStyleClassRegistry registry = new HtmlStyleClassRegistry();
+		String[] classNames = new String[STYLES.length];
+		for (int i = 0; i < STYLES.length; i++)
+		{
+			classNames[i] = registry.getStyleClass(STYLES[i]);
+			assert classNames[i] != null;
+			assert classNames[i].startsWith(HtmlStyleClassRegistry.STYLE_CLASS_PREFIX);
+			assert registry.getStyleClass(STYLES[i]) == classNames[i];
+		}
+		
+		HtmlStyleClassRegistry reverseRegistry = new HtmlStyleClassRegistry();
+		for (int i = STYLES.length - 1; i >= 0; i--)
+		{
+			String className = reverseRegistry.getStyleClass(STYLES[i]);
+			assert className.equals(classNames[i]) : className + " expected " + classNames[i];
+		}
+	}
+	
+	@Test
+	public void testCollision() throws IOException
+	{
+		HtmlStyleClassRegistry registry = new HtmlStyleClassRegistry()
+		{
+			@Override
+			protected String getClassName(String style)
+			{
+				return STYLE_CLASS_PREFIX + "0";
+			}
+		};
+		
+		assert (HtmlStyleClassRegistry.STYLE_CLASS_PREFIX + "0").equals(registry.getStyleClass(STYLES[0]));
+		// the colliding style does not get a numbered class, it is written inline
+		assert registry.getStyleClass(STYLES[1]) == null;
+		assert registry.getStyleClass(STYLES[1]) == null;
+		
+		StringWriter out = new StringWriter();
+		registry.writePendingStyles(out);
+		String styleSheet = out.toString();
+		assert styleSheet.contains(STYLES[0]);
+		assert !styleSheet.contains(STYLES[1]);
+		
+		out = new StringWriter();
+		registry.writePendingStyles(out);
+		assert out.toString().isEmpty();
+	}
+
+}
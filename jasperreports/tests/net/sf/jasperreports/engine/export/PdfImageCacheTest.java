@@ -0,0 +1,163 @@
+/*
+ * JasperReports - Free Java Reporting Library.
+ * Copyright (C) 2001 - 2016 TIBCO Software Inc. All rights reserved.
+ * http://www.jaspersoft.com
+ *
+ * Unless you have purchased a commercial license agreement from Jaspersoft,
+ * the following license terms apply:
+ *
+ * This program is part of JasperReports.
+ *
+ * JasperReports is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JasperReports is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with JasperReports. If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.sf.jasperreports.engine.export;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import javax.imageio.ImageIO;
+
+import org.testng.annotations.Test;
+
+import com.lowagie.text.BadElementException;
+import com.lowagie.text.Image;
+
+import net.sf.jasperreports.engine.JRException;
+import net.sf.jasperreports.engine.JasperPrint;
+import net.sf.jasperreports.engine.JasperReportsContext;
+import net.sf.jasperreports.engine.SimpleJasperReportsContext;
+import net.sf.jasperreports.engine.base.JRBasePrintImage;
+import net.sf.jasperreports.engine.base.JRBasePrintPage;
+import net.sf.jasperreports.engine.type.ScaleImageEnum;
+import net.sf.jasperreports.export.SimpleExporterInput;
+import net.sf.jasperreports.export.SimpleOutputStreamExporterOutput;
+import net.sf.jasperreports.renderers.SimpleDataRenderer;
+
+/**
+ * Checks that images cached by {@link PdfImageCache} can be used by several exports,
+ * regardless of the contexts that the exports use.
+ */
+public class PdfImageCacheTest
+{
+	
+	@Test
+	public void testImageCopies() throws BadElementException, IOException
+	{
+		byte[] data = createImage(Color.RED);
+		PdfImageCache cache = new PdfImageCache(10, 1 << 20);
+		
+		Image image = cache.getImage(data);
+		Image cachedImage = cache.getImage(data);
+		assert image != cachedImage;
+		assert cachedImage.getWidth() == image.getWidth();
+		assert cachedImage.getHeight() == image.getHeight();
+		
+		// changing the scaling of an image does not affect the image given to other callers
+		image.scaleAbsolute(100, 100);
+		Image otherImage = cache.getImage(data);
+		assert otherImage.getScaledWidth() == cachedImage.getScaledWidth();
+	}
+	
+	@Test
+	public void testCachedImageExports() throws JRException, IOException
+	{
+		byte[] data = createImage(Color.BLUE);
+		
+		String output = exportPdf(new SimpleJasperReportsContext(), createPrint(data));
+		
+		// the exports use different contexts, the second export uses the image cached by the first one
+		PdfImageCache cache = new PdfImageCache(10, 1 << 20);
+		String firstOutput = exportPdf(new SimpleJasperReportsContext(), createPrint(data), cache);
+		String secondOutput = exportPdf(new SimpleJasperReportsContext(), createPrint(data), cache);
+		
+		assert normalize(firstOutput).equals(normalize(output));
+		assert normalize(secondOutput).equals(normalize(output));
+	}
+	
+	@Test
+	public void testProcessWideInstance()
+	{
+		// the cache does not depend on the context of the export
+		assert PdfImageCache.getInstance() == PdfImageCache.getInstance();
+	}
+	
+	protected JasperPrint createPrint(byte[] data)
+	{
+		JasperPrint print = new JasperPrint();
+		print.setName("PdfImageCacheTest");
+		print.setPageWidth(595);
+		print.setPageHeight(842);
+		
+		for (int i = 0; i < 2; i++)
+		{
+			JRBasePrintPage page = new JRBasePrintPage();
+			JRBasePrintImage image = new JRBasePrintImage(print.getDefaultStyleProvider());
+			image.setX(20);
+			image.setY(20);
+			image.setWidth(40 * (i + 1));
+			image.setHeight(40 * (i + 1));
+			image.setScaleImage(ScaleImageEnum.RETAIN_SHAPE);
+			image.setRenderer(SimpleDataRenderer.getInstance(data));
+			page.addElement(image);
+			print.addPage(page);
+		}
+		return print;
+	}
+	
+	protected byte[] createImage(Color color) throws IOException
+	{
+		BufferedImage image = new BufferedImage(10, 10, BufferedImage.TYPE_INT_RGB);
+		Graphics2D graphics = image.createGraphics();
+		graphics.setColor(color);
+		graphics.fillRect(0, 0, 10, 10);
+		graphics.dispose();
+		
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		ImageIO.write(image, "png", out);
+		return out.toByteArray();
+	}
+	
+	protected String exportPdf(JasperReportsContext jasperReportsContext, JasperPrint print) throws JRException, IOException
+	{
+		return exportPdf(jasperReportsContext, print, null);
+	}
+	
+	protected String exportPdf(JasperReportsContext jasperReportsContext, JasperPrint print, 
+			final PdfImageCache imageCache) throws JRException, IOException
+	{
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		JRPdfExporter exporter = new JRPdfExporter(jasperReportsContext)
+		{
+			@Override
+			protected Image createImage(byte[] data) throws BadElementException, IOException
+			{
+				return imageCache == null ? Image.getInstance(data) : imageCache.getImage(data);
+			}
+		};
+		exporter.setExporterInput(new SimpleExporterInput(print));
+		exporter.setExporterOutput(new SimpleOutputStreamExporterOutput(out));
+		exporter.exportReport();
+		return new String(out.toByteArray(), "ISO-8859-1");
+	}
+	
+	protected String normalize(String pdf)
+	{
+		// removing the document dates and identifiers
+		return pdf.replaceAll("/(CreationDate|ModDate)\\s*\\([^)]*\\)", "/$1()")
+				.replaceAll("/ID\\s*\\[[^\\]]*\\]", "/ID[]");
+	}
+}
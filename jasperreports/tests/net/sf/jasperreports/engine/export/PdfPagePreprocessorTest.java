@@ -0,0 +1,166 @@
+/*
+ * JasperReports - Free Java Reporting Library.
+ * Copyright (C) 2001 - 2016 TIBCO Software Inc. All rights reserved.
+ * http://www.jaspersoft.com
+ *
+ * Unless you have purchased a commercial license agreement from Jaspersoft,
+ * the following license terms apply:
+ *
+ * This program is part of JasperReports.
+ *
+ * JasperReports is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JasperReports is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with JasperReports. If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.sf.jasperreports.engine.export;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.testng.annotations.Test;
+
+import net.sf.jasperreports.engine.JRCommonText;
+import net.sf.jasperreports.engine.JRException;
+import net.sf.jasperreports.engine.JRPrintElement;
+import net.sf.jasperreports.engine.JRPrintFrame;
+import net.sf.jasperreports.engine.JRPrintPage;
+import net.sf.jasperreports.engine.JRPrintText;
+import net.sf.jasperreports.engine.JRStyledTextAttributeSelector;
+import net.sf.jasperreports.engine.SimpleJasperReportsContext;
+import net.sf.jasperreports.engine.base.JRBasePrintFrame;
+import net.sf.jasperreports.engine.base.JRBasePrintPage;
+import net.sf.jasperreports.engine.base.JRBasePrintText;
+import net.sf.jasperreports.engine.util.JRStyledText;
+import net.sf.jasperreports.engine.util.JRStyledTextUtil;
+
+/**
+ * Checks that the texts prepared by {@link PdfPagePreprocessor} are the same as the ones 
+ * the PDF exporter prepares when exporting the pages sequentially.
+ */
+public class PdfPagePreprocessorTest
+{
+
+	private static final String[] TEXTS = new String[]{
+		"plain text",
+		"a <b>bold</b> and <i>italic</i> text",
+		"<style isBold=\"true\" forecolor=\"#ff0000\">red <u>underlined</u></style> tail",
+		"line<br/>next <sup>1</sup>",
+	};
+	
+	@Test
+	public void testPreprocessedTexts() throws JRException
+	{
+		SimpleJasperReportsContext jasperReportsContext = new SimpleJasperReportsContext();
+		JRStyledTextUtil styledTextUtil = JRStyledTextUtil.getInstance(jasperReportsContext);
+		JRStyledTextAttributeSelector attributeSelector = JRStyledTextAttributeSelector.getNoBackcolorSelector(jasperReportsContext);
+		
+		List<JRPrintPage> pages = createPages(7);
+		int endPageIndex = pages.size() - 1;
+		
+		PdfPagePreprocessor preprocessor = new PdfPagePreprocessor(styledTextUtil, attributeSelector, 2);
+		try
+		{
+			for (int pageIndex = 0; pageIndex <= endPageIndex; pageIndex++)
+			{
+				preprocessor.startPage(pages, pageIndex, endPageIndex);
+				
+				List<JRPrintText> texts = new ArrayList<JRPrintText>();
+				collectTexts(pages.get(pageIndex).getElements(), texts);
+				for (JRPrintText text : texts)
+				{
+					JRStyledText expected = styledTextUtil.getProcessedStyledText(text, attributeSelector, null);
+					if (pageIndex == 0)
+					{
+						// the first page is not preprocessed
+						assert !preprocessor.hasProcessedStyledText(text);
+					}
+					else
+					{
+						assert preprocessor.hasProcessedStyledText(text);
+						JRStyledText preprocessed = preprocessor.getProcessedStyledText(text);
+						assert describe(preprocessed).equals(describe(expected)) 
+								: describe(preprocessed) + ", expected " + describe(expected);
+						
+						// texts are only handed out once
+						assert !preprocessor.hasProcessedStyledText(text);
+					}
+				}
+			}
+		}
+		finally
+		{
+			preprocessor.dispose();
+		}
+	}
+	
+	protected List<JRPrintPage> createPages(int pageCount)
+	{
+		List<JRPrintPage> pages = new ArrayList<JRPrintPage>();
+		for (int i = 0; i < pageCount; i++)
+		{
+			JRBasePrintPage page = new JRBasePrintPage();
+			for (int j = 0; j < TEXTS.length; j++)
+			{
+				page.addElement(createText(TEXTS[j] + " " + i, j % 2 == 0));
+			}
+			
+			JRBasePrintFrame frame = new JRBasePrintFrame(null);
+			frame.addElement(createText(TEXTS[i % TEXTS.length], true));
+			page.addElement(frame);
+			
+			pages.add(page);
+		}
+		return pages;
+	}
+	
+	protected JRPrintText createText(String text, boolean styled)
+	{
+		JRBasePrintText printText = new JRBasePrintText(null);
+		printText.setWidth(100);
+		printText.setHeight(20);
+		printText.setMarkup(styled ? JRCommonText.MARKUP_STYLED_TEXT : JRCommonText.MARKUP_NONE);
+		printText.setText(text);
+		return printText;
+	}
+	
+	protected void collectTexts(List<JRPrintElement> elements, List<JRPrintText> texts)
+	{
+		for (JRPrintElement element : elements)
+		{
+			if (element instanceof JRPrintText)
+			{
+				texts.add((JRPrintText) element);
+			}
+			else if (element instanceof JRPrintFrame)
+			{
+				collectTexts(((JRPrintFrame) element).getElements(), texts);
+			}
+		}
+	}
+	
+	protected String describe(JRStyledText styledText)
+	{
+		if (styledText == null)
+		{
+			return "null";
+		}
+		
+		StringBuilder sb = new StringBuilder();
+		sb.append(styledText.getText()).append(' ').append(styledText.getGlobalAttributes());
+		for (JRStyledText.Run run : styledText.getRuns())
+		{
+			sb.append(" [").append(run.startIndex).append(',').append(run.endIndex)
+					.append(' ').append(run.attributes).append(']');
+		}
+		return sb.toString();
+	}
+}
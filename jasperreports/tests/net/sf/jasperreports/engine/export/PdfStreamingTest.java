@@ -0,0 +1,166 @@
+/*
+ * JasperReports - Free Java Reporting Library.
+ * Copyright (C) 2001 - 2016 TIBCO Software Inc. All rights reserved.
+ * http://www.jaspersoft.com
+ *
+ * Unless you have purchased a commercial license agreement from Jaspersoft,
+ * the following license terms apply:
+ *
+ * This program is part of JasperReports.
+ *
+ * JasperReports is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JasperReports is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with JasperReports. If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.sf.jasperreports.engine.export;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Map;
+
+import javax.imageio.ImageIO;
+
+import org.testng.annotations.Test;
+
+import com.lowagie.text.pdf.PdfReader;
+
+import net.sf.jasperreports.engine.JRException;
+import net.sf.jasperreports.engine.JasperPrint;
+import net.sf.jasperreports.engine.SimpleJasperReportsContext;
+import net.sf.jasperreports.engine.base.JRBasePrintImage;
+import net.sf.jasperreports.engine.base.JRBasePrintPage;
+import net.sf.jasperreports.engine.base.JRBasePrintText;
+import net.sf.jasperreports.engine.type.ScaleImageEnum;
+import net.sf.jasperreports.export.PdfExporterConfiguration;
+import net.sf.jasperreports.export.SimpleExporterInput;
+import net.sf.jasperreports.export.SimpleOutputStreamExporterOutput;
+import net.sf.jasperreports.renderers.SimpleDataRenderer;
+
+/**
+ * Checks that the PDF streaming mode produces the same documents as the default mode.
+ */
+public class PdfStreamingTest
+{
+	
+	private static final int PAGE_COUNT = 12;
+	
+	@Test
+	public void testStreamingOutput() throws JRException, IOException
+	{
+		byte[][] images = createImages(3);
+		
+		String output = exportPdf(createPrint(images, null, null));
+		String streamingOutput = exportPdf(createPrint(images, "true", null));
+		
+		assert normalize(streamingOutput).equals(normalize(output));
+	}
+	
+	@Test
+	public void testStreamingImageCache() throws JRException, IOException
+	{
+		byte[][] images = createImages(3);
+		
+		// images are discarded from the cache and written again
+		String streamingOutput = exportPdf(createPrint(images, "true", "1"));
+		
+		PdfReader reader = new PdfReader(streamingOutput.getBytes("ISO-8859-1"));
+		try
+		{
+			assert reader.getNumberOfPages() == PAGE_COUNT;
+		}
+		finally
+		{
+			reader.close();
+		}
+	}
+	
+	protected JasperPrint createPrint(byte[][] images, String streaming, String imageCacheSize)
+	{
+		JasperPrint print = new JasperPrint();
+		print.setName("PdfStreamingTest");
+		print.setPageWidth(595);
+		print.setPageHeight(842);
+		if (streaming != null)
+		{
+			print.setProperty(PdfExporterConfiguration.PROPERTY_STREAMING, streaming);
+		}
+		if (imageCacheSize != null)
+		{
+			print.setProperty(PdfExporterConfiguration.PROPERTY_STREAMING_IMAGE_CACHE_SIZE, imageCacheSize);
+		}
+		
+		for (int i = 0; i < PAGE_COUNT; i++)
+		{
+			JRBasePrintPage page = new JRBasePrintPage();
+			
+			JRBasePrintText text = new JRBasePrintText(print.getDefaultStyleProvider());
+			text.setX(20);
+			text.setY(20);
+			text.setWidth(300);
+			text.setHeight(20);
+			text.setText("Page " + (i + 1));
+			page.addElement(text);
+			
+			JRBasePrintImage image = new JRBasePrintImage(print.getDefaultStyleProvider());
+			image.setX(20);
+			image.setY(60);
+			image.setWidth(40);
+			image.setHeight(40);
+			image.setScaleImage(ScaleImageEnum.RETAIN_SHAPE);
+			image.setUsingCache(true);
+			image.setRenderer(SimpleDataRenderer.getInstance(images[i % images.length]));
+			page.addElement(image);
+			
+			print.addPage(page);
+		}
+		return print;
+	}
+	
+	protected byte[][] createImages(int count) throws IOException
+	{
+		Color[] colors = new Color[]{Color.RED, Color.GREEN, Color.BLUE};
+		byte[][] images = new byte[count][];
+		for (int i = 0; i < count; i++)
+		{
+			BufferedImage image = new BufferedImage(10, 10, BufferedImage.TYPE_INT_RGB);
+			Graphics2D graphics = image.createGraphics();
+			graphics.setColor(colors[i % colors.length]);
+			graphics.fillRect(0, 0, 10, 10);
+			graphics.dispose();
+			
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			ImageIO.write(image, "png", out);
+			images[i] = out.toByteArray();
+		}
+		return images;
+	}
+	
+	protected String exportPdf(JasperPrint print) throws JRException, IOException
+	{
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		JRPdfExporter exporter = new JRPdfExporter(new SimpleJasperReportsContext());
+		exporter.setExporterInput(new SimpleExporterInput(print));
+		exporter.setExporterOutput(new SimpleOutputStreamExporterOutput(out));
+		exporter.exportReport();
+		return new String(out.toByteArray(), "ISO-8859-1");
+	}
+	
+	protected String normalize(String pdf)
+	{
+		// removing the document dates and identifiers
+		return pdf.replaceAll("/(CreationDate|ModDate)\\s*\\([^)]*\\)", "/$1()")
+				.replaceAll("/ID\\s*\\[[^\\]]*\\]", "/ID[]");
+	}
+}
@@ -0,0 +1,128 @@
+/*
+ * JasperReports - Free Java Reporting Library.
+ * Copyright (C) 2001 - 2016 TIBCO Software Inc. All rights reserved.
+ * http://www.jaspersoft.com
+ *
+ * Unless you have purchased a commercial license agreement from Jaspersoft,
+ * the following license terms apply:
+ *
+ * This program is part of JasperReports.
+ *
+ * JasperReports is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JasperReports is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with JasperReports. If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.sf.jasperreports.engine.export;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import net.sf.jasperreports.engine.JRStyledTextAttributeSelector;
+import net.sf.jasperreports.engine.JRTextElement;
+import net.sf.jasperreports.engine.SimpleJasperReportsContext;
+import net.sf.jasperreports.engine.base.JRBasePrintText;
+import net.sf.jasperreports.engine.fill.JRMeasuredText;
+import net.sf.jasperreports.engine.fill.TextMeasurer;
+import net.sf.jasperreports.engine.util.JRStyledText;
+
+public class SavedLineBreaksTest
+{
+	
+	private static final String TEXT = "The quick brown fox jumps over the lazy dog.\n"
+			+ "Pack my box with five dozen liquor jugs, then pack it again.\n\n"
+			+ "Sphinx of black quartz, judge my vow; how vexingly quick daft zebras jump.";
+	
+	@Test(dataProvider = "widths")
+	public void savedLineBreaks(int fillWidth, int exportWidth)
+	{
+		SimpleJasperReportsContext jasperReportsContext = new SimpleJasperReportsContext();
+		JRBasePrintText text = createText(jasperReportsContext, fillWidth);
+		text.setWidth(exportWidth);
+		assert text.getLineBreakOffsets() != null;
+		
+		List<String> savedLines = render(jasperReportsContext, text);
+		
+		// wrapping the text again
+		text.getPropertiesMap().setProperty(AbstractTextRenderer.PROPERTY_USE_SAVED_LINE_BREAKS, "false");
+		List<String> wrappedLines = render(jasperReportsContext, text);
+		
+		assert savedLines.size() > 3;
+		assert savedLines.equals(wrappedLines) : "lines " + savedLines + ", wrapped " + wrappedLines;
+	}
+	
+	@DataProvider
+	public Object[][] widths()
+	{
+		return new Object[][]{
+				// rendered as measured
+				{100, 100},
+				{60, 60},
+				// the saved lines no longer fit, the text is wrapped again
+				{200, 100},
+		};
+	}
+	
+	protected JRBasePrintText createText(SimpleJasperReportsContext jasperReportsContext, int width)
+	{
+		JRBasePrintText text = new JRBasePrintText(null);
+		text.setWidth(width);
+		text.setHeight(1000);
+		text.setText(TEXT);
+		text.getPropertiesMap().setProperty(JRTextElement.PROPERTY_SAVE_LINE_BREAKS, "true");
+		
+		TextMeasurer measurer = new TextMeasurer(jasperReportsContext, text);
+		JRMeasuredText measuredText = measurer.measure(styledText(jasperReportsContext, text), 0, 0, false);
+		assert measuredText.getTextOffset() == TEXT.length();
+		
+		text.setLineBreakOffsets(measuredText.getLineBreakOffsets());
+		text.setTextHeight(measuredText.getTextHeight());
+		text.setLineSpacingFactor(measuredText.getLineSpacingFactor());
+		text.setLeadingOffset(measuredText.getLeadingOffset());
+		return text;
+	}
+	
+	protected JRStyledText styledText(SimpleJasperReportsContext jasperReportsContext, JRBasePrintText text)
+	{
+		return new JRStyledText(Locale.US, TEXT, 
+				JRStyledTextAttributeSelector.getAllSelector(jasperReportsContext).getStyledTextAttributes(text));
+	}
+	
+	protected List<String> render(SimpleJasperReportsContext jasperReportsContext, JRBasePrintText text)
+	{
+		LineRecorder renderer = new LineRecorder(jasperReportsContext);
+		renderer.initialize(text, styledText(jasperReportsContext, text), 0, 0);
+		renderer.render();
+		return renderer.lines;
+	}
+	
+	protected static class LineRecorder extends AbstractTextRenderer
+	{
+		private final List<String> lines = new ArrayList<String>();
+		
+		public LineRecorder(SimpleJasperReportsContext jasperReportsContext)
+		{
+			super(jasperReportsContext, false, false);
+		}
+
+		@Override
+		public void draw()
+		{
+			TabSegment segment = segments.get(segmentIndex);
+			lines.add(drawPosX + "," + drawPosY + ":" + segment.layout.getCharacterCount() 
+					+ "/" + segment.layout.getAdvance());
+		}
+	}
+}
@@ -0,0 +1,156 @@
+/*
+ * JasperReports - Free Java Reporting Library.
+ * Copyright (C) 2001 - 2016 TIBCO Software Inc. All rights reserved.
+ * http://www.jaspersoft.com
+ *
+ * Unless you have purchased a commercial license agreement from Jaspersoft,
+ * the following license terms apply:
+ *
+ * This program is part of JasperReports.
+ *
+ * JasperReports is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JasperReports is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with JasperReports. If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.sf.jasperreports.engine.export;
+
+import java.io.StringWriter;
+
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import net.sf.jasperreports.engine.JRException;
+import net.sf.jasperreports.engine.JasperPrint;
+import net.sf.jasperreports.engine.SimpleJasperReportsContext;
+import net.sf.jasperreports.engine.base.JRBasePrintFrame;
+import net.sf.jasperreports.engine.base.JRBasePrintPage;
+import net.sf.jasperreports.engine.base.JRBasePrintText;
+import net.sf.jasperreports.export.CsvExporterConfiguration;
+import net.sf.jasperreports.export.SimpleExporterInput;
+import net.sf.jasperreports.export.SimpleWriterExporterOutput;
+
+/**
+ * Checks that CSV exports that use the {@link TabularLayout} produce the same output 
+ * as exports that use the grid layout.
+ */
+public class TabularLayoutTest
+{
+	
+	@DataProvider
+	public Object[][] pages()
+	{
+		return new Object[][]{
+				{new int[][]{{0, 100}, {100, 100}, {200, 100}}, false, false},
+				// gaps between columns and a column that is not used by all rows
+				{new int[][]{{10, 80}, {150, 50}, {300, 120}}, true, false},
+				// rows in frames
+				{new int[][]{{0, 100}, {100, 100}, {200, 100}}, false, true},
+				{new int[][]{{20, 60}, {100, 150}, {250, 100}}, true, true},
+		};
+	}
+	
+	@Test(dataProvider = "pages")
+	public void testTabularPages(int[][] columns, boolean sparse, boolean frames) throws JRException
+	{
+		JasperPrint print = createPrint(columns, sparse, frames);
+		
+		String gridOutput = exportCsv(print, false);
+		String tabularOutput = exportCsv(print, true);
+		
+		assert gridOutput.length() > 0;
+		assert tabularOutput.equals(gridOutput) : tabularOutput + "\nexpected\n" + gridOutput;
+	}
+	
+	@Test
+	public void testNotTabularPage() throws JRException
+	{
+		JasperPrint print = createPrint(new int[][]{{0, 100}, {100, 100}}, false, false);
+		JRBasePrintPage page = (JRBasePrintPage) print.getPages().get(0);
+		// an element that spans two rows
+		page.addElement(createText(print, 250, 0, 100, 50, "tall"));
+		
+		assert TabularLayout.create(new JRCsvExporterNature(new SimpleJasperReportsContext(), null), 
+				page.getElements()) == null;
+		assert exportCsv(print, true).equals(exportCsv(print, false));
+	}
+	
+	protected JasperPrint createPrint(int[][] columns, boolean sparse, boolean frames)
+	{
+		JasperPrint print = new JasperPrint();
+		print.setName("TabularLayoutTest");
+		print.setPageWidth(500);
+		print.setPageHeight(500);
+		
+		for (int p = 0; p < 2; p++)
+		{
+			JRBasePrintPage page = new JRBasePrintPage();
+			for (int row = 0; row < 10; row++)
+			{
+				int y = row * 20;
+				JRBasePrintFrame frame = null;
+				if (frames)
+				{
+					frame = new JRBasePrintFrame(print.getDefaultStyleProvider());
+					frame.setX(0);
+					frame.setY(y);
+					frame.setWidth(print.getPageWidth());
+					frame.setHeight(20);
+					page.addElement(frame);
+				}
+				
+				for (int column = 0; column < columns.length; column++)
+				{
+					if (sparse && row % 3 == 1 && column == 1)
+					{
+						continue;
+					}
+					
+					String text = column == 0 && row == 0 ? "id, \"quoted\"" : ("r" + p + row + "c" + column);
+					if (frame == null)
+					{
+						page.addElement(createText(print, columns[column][0], y, columns[column][1], 20, text));
+					}
+					else
+					{
+						frame.addElement(createText(print, columns[column][0], 0, columns[column][1], 20, text));
+					}
+				}
+			}
+			print.addPage(page);
+		}
+		return print;
+	}
+	
+	protected JRBasePrintText createText(JasperPrint print, int x, int y, int width, int height, String text)
+	{
+		JRBasePrintText printText = new JRBasePrintText(print.getDefaultStyleProvider());
+		printText.setX(x);
+		printText.setY(y);
+		printText.setWidth(width);
+		printText.setHeight(height);
+		printText.setText(text);
+		return printText;
+	}
+	
+	protected String exportCsv(JasperPrint print, boolean tabular) throws JRException
+	{
+		SimpleJasperReportsContext jasperReportsContext = new SimpleJasperReportsContext();
+		jasperReportsContext.setProperty(CsvExporterConfiguration.PROPERTY_TABULAR_LAYOUT, String.valueOf(tabular));
+		
+		StringWriter out = new StringWriter();
+		JRCsvExporter exporter = new JRCsvExporter(jasperReportsContext);
+		exporter.setExporterInput(new SimpleExporterInput(print));
+		exporter.setExporterOutput(new SimpleWriterExporterOutput(out));
+		exporter.exportReport();
+		return out.toString();
+	}
+}
@@ -0,0 +1,241 @@
+/*
+ * JasperReports - Free Java Reporting Library.
+ * Copyright (C) 2001 - 2016 TIBCO Software Inc. All rights reserved.
+ * http://www.jaspersoft.com
+ *
+ * Unless you have purchased a commercial license agreement from Jaspersoft,
+ * the following license terms apply:
+ *
+ * This program is part of JasperReports.
+ *
+ * JasperReports is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JasperReports is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with JasperReports. If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.sf.jasperreports.engine.export.ooxml;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+import org.xml.sax.SAXException;
+
+import net.sf.jasperreports.engine.JRCommonText;
+import net.sf.jasperreports.engine.JRException;
+import net.sf.jasperreports.engine.JasperPrint;
+import net.sf.jasperreports.engine.SimpleJasperReportsContext;
+import net.sf.jasperreports.engine.base.JRBasePrintPage;
+import net.sf.jasperreports.engine.base.JRBasePrintText;
+import net.sf.jasperreports.export.SimpleExporterInput;
+import net.sf.jasperreports.export.SimpleOutputStreamExporterOutput;
+import net.sf.jasperreports.export.XlsxExporterConfiguration;
+
+/**
+ * Checks that XLSX exports that use the shared strings table have the same cell texts
+ * as exports that use inline strings.
+ */
+public class XlsxSharedStringsTest
+{
+	
+	private static final String[] TEXTS = new String[]{
+		"alpha", 
+		"beta", 
+		"alpha", 
+		"a & b < c > \"d\"", 
+		"line\nbreak", 
+		" spaced ", 
+		"\u00e9t\u00e9 \u4e2d\u6587",
+		"beta",
+	};
+	
+	@DataProvider
+	public Object[][] dictionarySizes()
+	{
+		return new Object[][]{
+				{null},
+				// forgotten texts get new table entries
+				{"2"},
+		};
+	}
+	
+	@Test(dataProvider = "dictionarySizes")
+	public void testSharedStrings(String dictionarySize) throws Exception
+	{
+		Map<String, String> inlineCells = cellTexts(export(createPrint(false, null)));
+		Map<String, String> sharedCells = cellTexts(export(createPrint(true, dictionarySize)));
+		
+		assert inlineCells.size() == TEXTS.length * 2 : inlineCells;
+		assert sharedCells.equals(inlineCells) : sharedCells + ", expected " + inlineCells;
+	}
+	
+	@Test
+	public void testStringIndexes()
+	{
+		StringWriter writer = new StringWriter();
+		XlsxSharedStringsHelper helper = new XlsxSharedStringsHelper(new SimpleJasperReportsContext(), writer, 2);
+		
+		assert helper.getStringIndex("a", null) == 0;
+		assert helper.getStringIndex("b", null) == 1;
+		assert helper.getStringIndex("a", null) == 0;
+		assert helper.getStringIndex("c", null) == 2;
+		// "b" was the least recently used text
+		assert helper.getStringIndex("b", null) == 3;
+		assert helper.getStringIndex("c", null) == 2;
+		
+		String entries = writer.toString();
+		assert entries.split("<si>", -1).length == 5 : entries;
+		assert entries.endsWith("<si><t xml:space=\"preserve\">b</t></si>\n");
+	}
+	
+	protected JasperPrint createPrint(boolean sharedStrings, String dictionarySize)
+	{
+		JasperPrint print = new JasperPrint();
+		print.setName("XlsxSharedStringsTest");
+		print.setPageWidth(400);
+		print.setPageHeight(40 * TEXTS.length);
+		if (sharedStrings)
+		{
+			print.setProperty(XlsxExporterConfiguration.PROPERTY_SHARED_STRINGS, "true");
+		}
+		if (dictionarySize != null)
+		{
+			print.setProperty(XlsxExporterConfiguration.PROPERTY_SHARED_STRINGS_DICTIONARY_SIZE, dictionarySize);
+		}
+		
+		JRBasePrintPage page = new JRBasePrintPage();
+		for (int i = 0; i < TEXTS.length; i++)
+		{
+			page.addElement(createText(print, 0, i * 40, TEXTS[i], null));
+			// styled texts are not shared
+			page.addElement(createText(print, 200, i * 40, "<b>" + i + "</b> " + TEXTS[i].replace("&", "&amp;").replace("<", "&lt;"), 
+					JRCommonText.MARKUP_STYLED_TEXT));
+		}
+		print.addPage(page);
+		return print;
+	}
+	
+	protected JRBasePrintText createText(JasperPrint print, int x, int y, String text, String markup)
+	{
+		JRBasePrintText printText = new JRBasePrintText(print.getDefaultStyleProvider());
+		printText.setX(x);
+		printText.setY(y);
+		printText.setWidth(200);
+		printText.setHeight(40);
+		printText.setMarkup(markup);
+		printText.setText(text);
+		return printText;
+	}
+	
+	protected Map<String, byte[]> export(JasperPrint print) throws JRException, IOException
+	{
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		JRXlsxExporter exporter = new JRXlsxExporter(new SimpleJasperReportsContext());
+		exporter.setExporterInput(new SimpleExporterInput(print));
+		exporter.setExporterOutput(new SimpleOutputStreamExporterOutput(out));
+		exporter.exportReport();
+		
+		Map<String, byte[]> entries = new HashMap<String, byte[]>();
+		ZipInputStream zipInput = new ZipInputStream(new ByteArrayInputStream(out.toByteArray()));
+		try
+		{
+			ZipEntry entry;
+			while ((entry = zipInput.getNextEntry()) != null)
+			{
+				ByteArrayOutputStream entryData = new ByteArrayOutputStream();
+				byte[] buffer = new byte[4096];
+				int read;
+				while ((read = zipInput.read(buffer)) > 0)
+				{
+					entryData.write(buffer, 0, read);
+				}
+				entries.put(entry.getName(), entryData.toByteArray());
+			}
+		}
+		finally
+		{
+			zipInput.close();
+		}
+		return entries;
+	}
+	
+	protected Map<String, String> cellTexts(Map<String, byte[]> entries) 
+			throws ParserConfigurationException, SAXException, IOException
+	{
+		List<String> sharedStrings = new ArrayList<String>();
+		byte[] sharedStringsData = entries.get("xl/sharedStrings.xml");
+		if (sharedStringsData != null)
+		{
+			NodeList items = parse(sharedStringsData).getElementsByTagName("si");
+			for (int i = 0; i < items.getLength(); i++)
+			{
+				sharedStrings.add(text((Element) items.item(i)));
+			}
+		}
+		
+		Map<String, String> cellTexts = new LinkedHashMap<String, String>();
+		NodeList cells = parse(entries.get("xl/worksheets/sheet1.xml")).getElementsByTagName("c");
+		for (int i = 0; i < cells.getLength(); i++)
+		{
+			Element cell = (Element) cells.item(i);
+			String type = cell.getAttribute("t");
+			String text;
+			if ("s".equals(type))
+			{
+				String index = cell.getElementsByTagName("v").item(0).getTextContent();
+				text = sharedStrings.get(Integer.parseInt(index));
+			}
+			else if ("inlineStr".equals(type))
+			{
+				text = text(cell);
+			}
+			else
+			{
+				continue;
+			}
+			cellTexts.put(cell.getAttribute("r"), text);
+		}
+		return cellTexts;
+	}
+	
+	protected Document parse(byte[] data) throws ParserConfigurationException, SAXException, IOException
+	{
+		DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+		return factory.newDocumentBuilder().parse(new ByteArrayInputStream(data));
+	}
+	
+	protected String text(Element element)
+	{
+		StringBuilder text = new StringBuilder();
+		NodeList texts = element.getElementsByTagName("t");
+		for (int i = 0; i < texts.getLength(); i++)
+		{
+			text.append(texts.item(i).getTextContent());
+		}
+		return text.toString();
+	}
+}
@@ -0,0 +1,195 @@
+/*
+ * JasperReports - Free Java Reporting Library.
+ * Copyright (C) 2001 - 2016 TIBCO Software Inc. All rights reserved.
+ * http://www.jaspersoft.com
+ *
+ * Unless you have purchased a commercial license agreement from Jaspersoft,
+ * the following license terms apply:
+ *
+ * This program is part of JasperReports.
+ *
+ * JasperReports is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JasperReports is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with JasperReports. If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.sf.jasperreports.engine.export.zip;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import javax.imageio.ImageIO;
+
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import net.sf.jasperreports.engine.JRException;
+import net.sf.jasperreports.engine.JasperPrint;
+import net.sf.jasperreports.engine.SimpleJasperReportsContext;
+import net.sf.jasperreports.engine.base.JRBasePrintImage;
+import net.sf.jasperreports.engine.base.JRBasePrintPage;
+import net.sf.jasperreports.engine.base.JRBasePrintText;
+import net.sf.jasperreports.engine.export.ooxml.JRDocxExporter;
+import net.sf.jasperreports.engine.export.ooxml.JRPptxExporter;
+import net.sf.jasperreports.engine.export.ooxml.JRXlsxExporter;
+import net.sf.jasperreports.engine.type.ScaleImageEnum;
+import net.sf.jasperreports.export.Exporter;
+import net.sf.jasperreports.export.ExporterInput;
+import net.sf.jasperreports.export.OutputStreamExporterOutput;
+import net.sf.jasperreports.export.SimpleExporterInput;
+import net.sf.jasperreports.export.SimpleOutputStreamExporterOutput;
+import net.sf.jasperreports.export.SimpleXlsxReportConfiguration;
+import net.sf.jasperreports.renderers.SimpleDataRenderer;
+
+/**
+ * Checks that zip based exports that stream completed parts to the output have the same 
+ * entries as exports that write the zip at the end.
+ */
+public class ZipStreamingTest
+{
+	
+	@DataProvider
+	public Object[][] exporters()
+	{
+		return new Object[][]{
+				{"xlsx"},
+				{"pptx"},
+				{"docx"},
+		};
+	}
+	
+	@Test(dataProvider = "exporters")
+	public void testStreamedEntries(String format) throws JRException, IOException
+	{
+		JasperPrint print = createPrint();
+		
+		Map<String, byte[]> bufferedEntries = export(format, print, false);
+		Map<String, byte[]> streamedEntries = export(format, print, true);
+		
+		assert bufferedEntries.size() > 0;
+		assert streamedEntries.keySet().equals(bufferedEntries.keySet()) 
+				: streamedEntries.keySet() + ", expected " + bufferedEntries.keySet();
+		for (Map.Entry<String, byte[]> entry : bufferedEntries.entrySet())
+		{
+			assert Arrays.equals(streamedEntries.get(entry.getKey()), entry.getValue()) : entry.getKey();
+		}
+	}
+	
+	protected JasperPrint createPrint() throws IOException
+	{
+		JasperPrint print = new JasperPrint();
+		print.setName("ZipStreamingTest");
+		print.setPageWidth(500);
+		print.setPageHeight(300);
+		
+		byte[][] images = new byte[][]{createImage(Color.RED), createImage(Color.BLUE)};
+		for (int p = 0; p < 4; p++)
+		{
+			JRBasePrintPage page = new JRBasePrintPage();
+			for (int row = 0; row < 5; row++)
+			{
+				JRBasePrintText text = new JRBasePrintText(print.getDefaultStyleProvider());
+				text.setX(0);
+				text.setY(row * 30);
+				text.setWidth(200);
+				text.setHeight(30);
+				text.setText("page " + p + " row " + row);
+				page.addElement(text);
+			}
+			
+			JRBasePrintImage image = new JRBasePrintImage(print.getDefaultStyleProvider());
+			image.setX(250);
+			image.setY(0);
+			image.setWidth(50);
+			image.setHeight(50);
+			image.setScaleImage(ScaleImageEnum.RETAIN_SHAPE);
+			image.setUsingCache(true);
+			image.setRenderer(SimpleDataRenderer.getInstance(images[p % images.length]));
+			page.addElement(image);
+			
+			print.addPage(page);
+		}
+		return print;
+	}
+	
+	protected byte[] createImage(Color color) throws IOException
+	{
+		BufferedImage image = new BufferedImage(10, 10, BufferedImage.TYPE_INT_RGB);
+		Graphics2D graphics = image.createGraphics();
+		graphics.setColor(color);
+		graphics.fillRect(0, 0, 10, 10);
+		graphics.dispose();
+		
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		ImageIO.write(image, "png", out);
+		return out.toByteArray();
+	}
+	
+	protected Map<String, byte[]> export(String format, JasperPrint print, boolean streaming) throws JRException, IOException
+	{
+		SimpleJasperReportsContext jasperReportsContext = new SimpleJasperReportsContext();
+		jasperReportsContext.setProperty(AbstractZip.PROPERTY_STREAMING, String.valueOf(streaming));
+		
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		Exporter<ExporterInput, ?, ?, OutputStreamExporterOutput> exporter;
+		if ("xlsx".equals(format))
+		{
+			JRXlsxExporter xlsxExporter = new JRXlsxExporter(jasperReportsContext);
+			SimpleXlsxReportConfiguration configuration = new SimpleXlsxReportConfiguration();
+			configuration.setOnePagePerSheet(true);
+			xlsxExporter.setConfiguration(configuration);
+			exporter = xlsxExporter;
+		}
+		else if ("pptx".equals(format))
+		{
+			exporter = new JRPptxExporter(jasperReportsContext);
+		}
+		else
+		{
+			exporter = new JRDocxExporter(jasperReportsContext);
+		}
+		exporter.setExporterInput(new SimpleExporterInput(print));
+		exporter.setExporterOutput(new SimpleOutputStreamExporterOutput(out));
+		exporter.exportReport();
+		
+		Map<String, byte[]> entries = new TreeMap<String, byte[]>();
+		ZipInputStream zipInput = new ZipInputStream(new ByteArrayInputStream(out.toByteArray()));
+		try
+		{
+			ZipEntry entry;
+			while ((entry = zipInput.getNextEntry()) != null)
+			{
+				ByteArrayOutputStream entryData = new ByteArrayOutputStream();
+				byte[] buffer = new byte[4096];
+				int read;
+				while ((read = zipInput.read(buffer)) > 0)
+				{
+					entryData.write(buffer, 0, read);
+				}
+				entries.put(entry.getName(), entryData.toByteArray());
+			}
+		}
+		finally
+		{
+			zipInput.close();
+		}
+		return entries;
+	}
+}
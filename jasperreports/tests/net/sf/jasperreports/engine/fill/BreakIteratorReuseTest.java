@@ -0,0 +1,188 @@
+/*
+ * JasperReports - Free Java Reporting Library.
+ * Copyright (C) 2001 - 2016 TIBCO Software Inc. All rights reserved.
+ * http://www.jaspersoft.com
+ *
+ * Unless you have purchased a commercial license agreement from Jaspersoft,
+ * the following license terms apply:
+ *
+ * This program is part of JasperReports.
+ *
+ * JasperReports is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JasperReports is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with JasperReports. If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.sf.jasperreports.engine.fill;
+
+import java.awt.Font;
+import java.text.BreakIterator;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import net.sf.jasperreports.engine.JRStyledTextAttributeSelector;
+import net.sf.jasperreports.engine.SimpleJasperReportsContext;
+import net.sf.jasperreports.engine.base.JRBasePrintText;
+import net.sf.jasperreports.engine.util.BreakIteratorFactory;
+import net.sf.jasperreports.engine.util.JRStyledText;
+
+/**
+ * Checks that the break iterators created by {@link BreakIteratorFactory} find the same boundaries 
+ * as the JDK iterators, and that {@link SimpleTextLineWrapper} breaks lines at the same positions 
+ * whether or not it reuses break iterators across texts.
+ */
+public class BreakIteratorReuseTest
+{
+
+	private static final Locale THAI = new Locale("th", "TH");
+	
+	private static final Object[][] TEXTS = new Object[][]{
+		{Locale.US, "The quick brown fox jumps over the lazy dog, again and again."},
+		{Locale.FRENCH, "L'\u00e9t\u00e9 dernier, nous sommes all\u00e9s \u00e0 la mer : c'\u00e9tait \u00ab magnifique \u00bb !"},
+		{Locale.US, "Hyphenated-words and/or slashes, numbers 1,234.56 and e-mail@example.com addresses."},
+		{Locale.JAPANESE, "\u65e5\u672c\u8a9e\u306e\u30c6\u30ad\u30b9\u30c8\u3092\u6298\u308a\u8fd4\u3057\u307e\u3059\u3002\u3053\u308c\u306f\u30c6\u30b9\u30c8\u3067\u3059\u3002"},
+		{null, "Text without a locale, measured with the default locale iterators."},
+		{Locale.US, "Averyveryverylongwordthatdoesnotfitonthelineandhastobebroken inside."},
+	};
+	
+	@DataProvider
+	public Object[][] iteratorTexts()
+	{
+		List<Object[]> texts = new ArrayList<Object[]>();
+		for (Object[] text : TEXTS)
+		{
+			texts.add(new Object[]{text[0], text[1], false});
+			texts.add(new Object[]{text[0], text[1], true});
+		}
+		texts.add(new Object[]{THAI, "\u0e20\u0e32\u0e29\u0e32\u0e44\u0e17\u0e22\u0e40\u0e1b\u0e47\u0e19\u0e20\u0e32\u0e29\u0e32\u0e17\u0e35\u0e48\u0e2a\u0e27\u0e22", false});
+		return texts.toArray(new Object[texts.size()][]);
+	}
+	
+	@Test(dataProvider = "iteratorTexts")
+	public void testFactoryBoundaries(Locale locale, String text, boolean character)
+	{
+		Locale iteratorLocale = locale == null ? Locale.getDefault() : locale;
+		BreakIterator jdkIterator = character ? BreakIterator.getCharacterInstance(iteratorLocale) 
+				: BreakIterator.getLineInstance(iteratorLocale);
+		
+		SimpleJasperReportsContext jasperReportsContext = new SimpleJasperReportsContext();
+		BreakIteratorFactory factory = BreakIteratorFactory.getInstance(jasperReportsContext);
+		BreakIterator factoryIterator = factory.getInstance(locale, character);
+		List<Integer> expected = boundaries(jdkIterator, text);
+		assert boundaries(factoryIterator, text).equals(expected);
+		
+		// iterators created from the same prototype do not share state
+		BreakIterator otherIterator = factory.getInstance(locale, character);
+		assert otherIterator != factoryIterator;
+		otherIterator.setText("other");
+		assert boundaries(factoryIterator, text).equals(expected);
+	}
+	
+	@DataProvider
+	public Object[][] widths()
+	{
+		return new Object[][]{{30, false}, {70, false}, {150, false}, {40, true}};
+	}
+	
+	@Test(dataProvider = "widths")
+	public void testWrapping(int width, boolean truncateAtChar)
+	{
+		List<List<Float>> lines = wrap(width, truncateAtChar, false);
+		List<List<Float>> reuseLines = wrap(width, truncateAtChar, true);
+		assert reuseLines.equals(lines) : "lines " + reuseLines + " expected " + lines;
+		
+		// wrapping the texts in reverse order, the iterators change locale in a different sequence
+		List<List<Float>> reverseLines = new ArrayList<List<Float>>();
+		JRBasePrintText textElement = textElement(width);
+		SimpleTextLineWrapper lineWrapper = lineWrapper(textElement, true);
+		for (int i = TEXTS.length - 1; i >= 0; i--)
+		{
+			reverseLines.add(0, wrap(lineWrapper, textElement, (Locale) TEXTS[i][0], (String) TEXTS[i][1], truncateAtChar));
+		}
+		assert reverseLines.equals(lines) : "lines " + reverseLines + " expected " + lines;
+	}
+	
+	protected List<Integer> boundaries(BreakIterator iterator, String text)
+	{
+		iterator.setText(text);
+		List<Integer> positions = new ArrayList<Integer>();
+		for (int position = iterator.first(); position != BreakIterator.DONE; position = iterator.next())
+		{
+			positions.add(position);
+		}
+		return positions;
+	}
+	
+	/**
+	 * Wraps all texts with a single line wrapper.
+	 */
+	protected List<List<Float>> wrap(int width, boolean truncateAtChar, boolean reuseBreakIterators)
+	{
+		JRBasePrintText textElement = textElement(width);
+		SimpleTextLineWrapper lineWrapper = lineWrapper(textElement, reuseBreakIterators);
+		List<List<Float>> lines = new ArrayList<List<Float>>();
+		for (Object[] text : TEXTS)
+		{
+			lines.add(wrap(lineWrapper, textElement, (Locale) text[0], (String) text[1], truncateAtChar));
+		}
+		return lines;
+	}
+	
+	protected JRBasePrintText textElement(int width)
+	{
+		JRBasePrintText textElement = new JRBasePrintText(null);
+		textElement.setFontName(Font.SANS_SERIF);
+		textElement.setFontSize(9);
+		textElement.setWidth(width);
+		textElement.setHeight(1000);
+		return textElement;
+	}
+	
+	protected SimpleTextLineWrapper lineWrapper(JRBasePrintText textElement, boolean reuseBreakIterators)
+	{
+		SimpleJasperReportsContext jasperReportsContext = new SimpleJasperReportsContext();
+		jasperReportsContext.setProperty(TextMeasurer.PROPERTY_REUSE_LINE_MEASURERS, String.valueOf(reuseBreakIterators));
+		
+		SimpleTextLineWrapper lineWrapper = new SimpleTextLineWrapper();
+		lineWrapper.init(new SimpleTextLineWrapperTest.MeasureContext(jasperReportsContext, textElement));
+		return lineWrapper;
+	}
+	
+	/**
+	 * Returns the end position and the advance of each line, or an empty list when the text
+	 * is not handled by the simple line wrapper.
+	 */
+	protected List<Float> wrap(SimpleTextLineWrapper lineWrapper, JRBasePrintText textElement, 
+			Locale locale, String text, boolean truncateAtChar)
+	{
+		List<Float> lines = new ArrayList<Float>();
+		JRStyledText styledText = new JRStyledText(locale, text, 
+				JRStyledTextAttributeSelector.getAllSelector(new SimpleJasperReportsContext()).getStyledTextAttributes(textElement));
+		if (!lineWrapper.start(styledText))
+		{
+			return lines;
+		}
+		
+		lineWrapper.startParagraph(0, text.length(), truncateAtChar);
+		while (lineWrapper.paragraphPosition() < lineWrapper.paragraphEnd())
+		{
+			TextLine line = lineWrapper.nextLine(textElement.getWidth(), text.length(), false);
+			assert line != null;
+			lines.add((float) lineWrapper.paragraphPosition());
+			lines.add(line.getAdvance());
+		}
+		return lines;
+	}
+}
@@ -0,0 +1,261 @@
+/*
+ * JasperReports - Free Java Reporting Library.
+ * Copyright (C) 2001 - 2016 TIBCO Software Inc. All rights reserved.
+ * http://www.jaspersoft.com
+ *
+ * Unless you have purchased a commercial license agreement from Jaspersoft,
+ * the following license terms apply:
+ *
+ * This program is part of JasperReports.
+ *
+ * JasperReports is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JasperReports is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with JasperReports. If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.sf.jasperreports.engine.fill;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.testng.annotations.Test;
+
+import net.sf.jasperreports.engine.JRException;
+import net.sf.jasperreports.engine.JRPrintElement;
+import net.sf.jasperreports.engine.JRPrintText;
+import net.sf.jasperreports.engine.JasperCompileManager;
+import net.sf.jasperreports.engine.JasperPrint;
+import net.sf.jasperreports.engine.JasperReport;
+import net.sf.jasperreports.engine.SimpleJasperReportsContext;
+import net.sf.jasperreports.engine.data.JRMapCollectionDataSource;
+import net.sf.jasperreports.engine.design.JRDesignBand;
+import net.sf.jasperreports.engine.design.JRDesignExpression;
+import net.sf.jasperreports.engine.design.JRDesignField;
+import net.sf.jasperreports.engine.design.JRDesignSection;
+import net.sf.jasperreports.engine.design.JRDesignTextField;
+import net.sf.jasperreports.engine.design.JRDesignVariable;
+import net.sf.jasperreports.engine.design.JasperDesign;
+import net.sf.jasperreports.engine.type.BandTypeEnum;
+import net.sf.jasperreports.engine.type.CalculationEnum;
+
+/**
+ * Checks the statistics recorded by the {@link EvaluationProfiler}.
+ */
+public class EvaluationProfilerTest
+{
+	
+	private static final int RECORD_COUNT = 25;
+	
+	@Test
+	public void testExpressionStatistics() throws IOException
+	{
+		JRDesignExpression expression1 = createExpression(1, "$F{a}");
+		JRDesignExpression expression2 = createExpression(2, "$V{b};\n");
+		
+		EvaluationProfiler profiler = new EvaluationProfiler();
+		profiler.expressionEvaluated("Report", expression1, 100, false);
+		
+		EvaluationProfiler.ProfilingContext previous = profiler.enterContext("detail", "field1");
+		assert previous == null;
+		profiler.expressionEvaluated("Report", expression1, 300, false);
+		profiler.expressionEvaluated("Report", expression1, 200, true);
+		
+		EvaluationProfiler.ProfilingContext nested = profiler.enterContext("summary", null);
+		profiler.expressionEvaluated("Report/sub", expression2, 1000, false);
+		profiler.restoreContext(nested);
+		profiler.expressionEvaluated("Report", expression1, 50, false);
+		profiler.restoreContext(previous);
+		profiler.expressionEvaluated("Report", expression1, 10, false);
+		
+		List<EvaluationProfiler.ExpressionProfile> profiles = profiler.getExpressionProfiles();
+		assert profiles.size() == 3 : profiles.size();
+		
+		// sorted by cumulative time
+		EvaluationProfiler.ExpressionProfile subProfile = profiles.get(0);
+		assert subProfile.getDataset().equals("Report/sub");
+		assert subProfile.getExpressionId() == 2;
+		assert subProfile.getBand().equals("summary");
+		assert subProfile.getElement().equals("-");
+		assert subProfile.getCount() == 1;
+		assert subProfile.getTotalNanos() == 1000;
+		
+		EvaluationProfiler.ExpressionProfile fieldProfile = profiles.get(1);
+		assert fieldProfile.getBand().equals("detail");
+		assert fieldProfile.getElement().equals("field1");
+		assert fieldProfile.getExpressionText().equals("$F{a}");
+		assert fieldProfile.getCount() == 3;
+		assert fieldProfile.getTotalNanos() == 550;
+		assert fieldProfile.getMaxNanos() == 300;
+		assert fieldProfile.getExceptionCount() == 1;
+		
+		EvaluationProfiler.ExpressionProfile noContextProfile = profiles.get(2);
+		assert noContextProfile.getBand().equals("-");
+		assert noContextProfile.getCount() == 2;
+		assert noContextProfile.getTotalNanos() == 110;
+		assert noContextProfile.getMaxNanos() == 100;
+		
+		StringWriter json = new StringWriter();
+		profiler.writeJson(json);
+		assert json.toString().contains("\"text\": \"$V{b};\\n\"") : json;
+		assert json.toString().contains("{\"name\": \"Report\", \"count\": 5, \"totalNanos\": 660, \"exceptions\": 1}") : json;
+		
+		StringWriter stacks = new StringWriter();
+		profiler.writeFoldedStacks(stacks);
+		assert stacks.toString().equals(
+				"Report/sub;summary;-;expression 2 1000\n"
+				+ "Report;detail;field1;expression 1 550\n"
+				+ "Report;-;-;expression 1 110\n") : stacks;
+		
+		profiler.reset();
+		assert profiler.getExpressionProfiles().isEmpty();
+	}
+	
+	@Test
+	public void testFillProfile() throws JRException
+	{
+		JasperReport report = compileReport();
+		EvaluationProfiler profiler = new EvaluationProfiler();
+		fill(report, profiler);
+		
+		EvaluationProfiler.ExpressionProfile fieldProfile = null;
+		EvaluationProfiler.ExpressionProfile variableProfile = null;
+		for (EvaluationProfiler.ExpressionProfile profile : profiler.getExpressionProfiles())
+		{
+			assert profile.getDataset().equals("EvaluationProfilerTest") : profile.getDataset();
+			assert profile.getExceptionCount() == 0;
+			assert profile.getMaxNanos() <= profile.getTotalNanos();
+			
+			if (profile.getExpressionText().equals("$F{amount} + 1"))
+			{
+				fieldProfile = profile;
+			}
+			else if (profile.getExpressionText().equals("$F{amount} * 2"))
+			{
+				variableProfile = profile;
+			}
+		}
+		
+		assert fieldProfile != null;
+		assert fieldProfile.getCount() == RECORD_COUNT : fieldProfile.getCount();
+		assert fieldProfile.getBand().equals(BandTypeEnum.DETAIL.getName());
+		assert fieldProfile.getElement().equals("amountField");
+		
+		assert variableProfile != null;
+		assert variableProfile.getCount() >= RECORD_COUNT : variableProfile.getCount();
+	}
+	
+	@Test
+	public void testDisabled() throws JRException
+	{
+		JasperReport report = compileReport();
+		EvaluationProfiler profiler = new EvaluationProfiler();
+		
+		// a profiler that is not registered as fill listener does not record anything
+		List<String> texts = printedTexts(fill(report, null));
+		assert profiler.getExpressionProfiles().isEmpty();
+		
+		// the profiled fill produces the same output
+		List<String> profiledTexts = printedTexts(fill(report, profiler));
+		assert !profiler.getExpressionProfiles().isEmpty();
+		assert profiledTexts.equals(texts) : profiledTexts + " expected " + texts;
+	}
+	
+	protected JRDesignExpression createExpression(int id, String text)
+	{
+		JRDesignExpression expression = new JRDesignExpression(text);
+		expression.setId(id);
+		return expression;
+	}
+	
+	protected JasperReport compileReport() throws JRException
+	{
+		JasperDesign design = new JasperDesign();
+		design.setName("EvaluationProfilerTest");
+		design.setPageWidth(400);
+		design.setPageHeight(1000);
+		design.setColumnWidth(400);
+		design.setLeftMargin(0);
+		design.setRightMargin(0);
+		design.setTopMargin(0);
+		design.setBottomMargin(0);
+		
+		JRDesignField field = new JRDesignField();
+		field.setName("amount");
+		field.setValueClass(Integer.class);
+		design.addField(field);
+		
+		JRDesignVariable variable = new JRDesignVariable();
+		variable.setName("doubleSum");
+		variable.setValueClass(Integer.class);
+		variable.setCalculation(CalculationEnum.SUM);
+		variable.setExpression(new JRDesignExpression("$F{amount} * 2"));
+		design.addVariable(variable);
+		
+		JRDesignBand detail = new JRDesignBand();
+		detail.setHeight(20);
+		detail.addElement(createTextField("amountField", "$F{amount} + 1"));
+		((JRDesignSection) design.getDetailSection()).addBand(detail);
+		
+		JRDesignBand summary = new JRDesignBand();
+		summary.setHeight(20);
+		summary.addElement(createTextField("sumField", "$V{doubleSum}"));
+		design.setSummary(summary);
+		
+		return JasperCompileManager.compileReport(design);
+	}
+	
+	protected JRDesignTextField createTextField(String key, String expression)
+	{
+		JRDesignTextField textField = new JRDesignTextField();
+		textField.setKey(key);
+		textField.setX(0);
+		textField.setY(0);
+		textField.setWidth(400);
+		textField.setHeight(20);
+		textField.setExpression(new JRDesignExpression(expression));
+		return textField;
+	}
+	
+	protected JasperPrint fill(JasperReport report, EvaluationProfiler profiler) throws JRException
+	{
+		List<Map<String, ?>> records = new ArrayList<Map<String, ?>>();
+		for (int i = 0; i < RECORD_COUNT; i++)
+		{
+			Map<String, Object> record = new HashMap<String, Object>();
+			record.put("amount", i);
+			records.add(record);
+		}
+		
+		ReportFiller filler = JRFiller.createReportFiller(new SimpleJasperReportsContext(), report);
+		if (profiler != null)
+		{
+			filler.addFillListener(profiler);
+		}
+		return filler.fill(new HashMap<String, Object>(), new JRMapCollectionDataSource(records));
+	}
+	
+	protected List<String> printedTexts(JasperPrint print)
+	{
+		List<String> texts = new ArrayList<String>();
+		for (JRPrintElement element : print.getPages().get(0).getElements())
+		{
+			if (element instanceof JRPrintText)
+			{
+				texts.add(((JRPrintText) element).getFullText());
+			}
+		}
+		return texts;
+	}
+}
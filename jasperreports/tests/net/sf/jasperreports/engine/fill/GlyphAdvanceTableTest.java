@@ -0,0 +1,213 @@
+/*
+ * JasperReports - Free Java Reporting Library.
+ * Copyright (C) 2001 - 2016 TIBCO Software Inc. All rights reserved.
+ * http://www.jaspersoft.com
+ *
+ * Unless you have purchased a commercial license agreement from Jaspersoft,
+ * the following license terms apply:
+ *
+ * This program is part of JasperReports.
+ *
+ * JasperReports is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JasperReports is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with JasperReports. If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.sf.jasperreports.engine.fill;
+
+import java.awt.Font;
+import java.awt.RenderingHints;
+import java.awt.font.FontRenderContext;
+import java.awt.geom.Rectangle2D;
+import java.text.BreakIterator;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import net.sf.jasperreports.engine.JRStyledTextAttributeSelector;
+import net.sf.jasperreports.engine.SimpleJasperReportsContext;
+import net.sf.jasperreports.engine.base.JRBasePrintText;
+import net.sf.jasperreports.engine.export.AwtTextRenderer;
+import net.sf.jasperreports.engine.util.JRStyledText;
+
+/**
+ * Checks that texts measured with {@link GlyphAdvanceTable} get the same widths as the ones measured
+ * by AWT, and that {@link SimpleTextLineWrapper} breaks lines at the same positions with and without
+ * advance tables.
+ */
+public class GlyphAdvanceTableTest
+{
+	
+	private static final String[] TEXTS = new String[]{
+			"The quick brown fox jumps over the lazy dog. Pack my box with five dozen liquor jugs.",
+			"Growth of 12.5% per year, 33.3% in total, 1,234,567.89 units, (-0.25%) after taxes.",
+			"\u00c7a co\u00fbte 12,50\u00a0\u20ac \u00e0 l'h\u00f4tel Ma\u00f1ana, Gr\u00f6\u00dfe \u00bd \u00d7 3 \u00b1 \u00bc, \u00abd\u00e9j\u00e0 vu\u00bb \u2014 \u00c0\u00c9\u00ce\u00d5\u00dc \u00ff",
+			"Supercalifragilisticexpialidocious antidisestablishmentarianism pneumonoultramicroscopic",
+	};
+	
+	@DataProvider
+	public Object[][] fonts()
+	{
+		List<Object[]> fonts = new ArrayList<Object[]>();
+		for (String name : new String[]{Font.SANS_SERIF, Font.SERIF, Font.MONOSPACED})
+		{
+			for (int style : new int[]{Font.PLAIN, Font.BOLD, Font.ITALIC})
+			{
+				for (float size : new float[]{7f, 10f, 12.5f})
+				{
+					fonts.add(new Object[]{new Font(name, style, 1).deriveFont(size)});
+				}
+			}
+		}
+		return fonts.toArray(new Object[fonts.size()][]);
+	}
+	
+	@Test(dataProvider = "fonts")
+	public void testLineBreakFragments(Font font)
+	{
+		FontRenderContext[] renderContexts = new FontRenderContext[]{
+				AwtTextRenderer.LINE_BREAK_FONT_RENDER_CONTEXT,
+				new FontRenderContext(null, RenderingHints.VALUE_TEXT_ANTIALIAS_OFF, RenderingHints.VALUE_FRACTIONALMETRICS_OFF),
+		};
+		
+		for (FontRenderContext renderContext : renderContexts)
+		{
+			GlyphAdvanceTable table = GlyphAdvanceTable.getTable(font, renderContext);
+			assert table != null;
+			
+			for (String text : TEXTS)
+			{
+				List<Integer> breaks = lineBreakPositions(text);
+				for (int i = 0; i < breaks.size(); i++)
+				{
+					for (int j = i + 1; j < breaks.size(); j++)
+					{
+						int start = breaks.get(i);
+						int end = breaks.get(j);
+						
+						Rectangle2D tableBounds = table.getStringBounds(text, start, end);
+						if (tableBounds == null)
+						{
+							// measured by AWT
+							assert !isCovered(text, start, end) : "[" + text.substring(start, end) + "] not measured";
+							continue;
+						}
+						
+						Rectangle2D awtBounds = font.getStringBounds(text, start, end, renderContext);
+						assert tableBounds.getWidth() == awtBounds.getWidth() 
+								: "width " + tableBounds.getWidth() + " expected " + awtBounds.getWidth() 
+								+ " for [" + text.substring(start, end) + "] in " + font;
+						assert tableBounds.getY() == awtBounds.getY() && tableBounds.getHeight() == awtBounds.getHeight() 
+								: "bounds " + tableBounds + " expected " + awtBounds;
+					}
+				}
+			}
+		}
+	}
+	
+	@Test
+	public void testNotCoveredText()
+	{
+		Font font = new Font(Font.SANS_SERIF, Font.PLAIN, 10);
+		GlyphAdvanceTable table = GlyphAdvanceTable.getTable(font, AwtTextRenderer.LINE_BREAK_FONT_RENDER_CONTEXT);
+		
+		String text = "abc \u0301 \u05d0\u05d1";
+		assert table.getStringBounds(text, 0, 4) != null;
+		assert table.getStringBounds(text, 0, 5) == null;
+		assert table.getStringBounds(text, 6, 8) == null;
+	}
+	
+	@DataProvider
+	public Object[][] wrappedTexts()
+	{
+		List<Object[]> texts = new ArrayList<Object[]>();
+		for (String text : TEXTS)
+		{
+			for (String fontName : new String[]{Font.SANS_SERIF, Font.SERIF, Font.MONOSPACED})
+			{
+				for (int width : new int[]{25, 60, 133})
+				{
+					texts.add(new Object[]{text, fontName, width, false});
+				}
+				texts.add(new Object[]{text, fontName, 40, true});
+			}
+		}
+		return texts.toArray(new Object[texts.size()][]);
+	}
+	
+	@Test(dataProvider = "wrappedTexts")
+	public void testWrapping(String text, String fontName, int width, boolean truncateAtChar)
+	{
+		List<Float> awtLines = wrap(text, fontName, width, truncateAtChar, false);
+		List<Float> tableLines = wrap(text, fontName, width, truncateAtChar, true);
+		assert tableLines.equals(awtLines) : "lines " + tableLines + " expected " + awtLines + " for " + text;
+	}
+	
+	protected boolean isCovered(String text, int start, int end)
+	{
+		for (int i = start; i < end; i++)
+		{
+			if (text.charAt(i) >= GlyphAdvanceTable.TABLE_SIZE)
+			{
+				return false;
+			}
+		}
+		return true;
+	}
+	
+	protected List<Integer> lineBreakPositions(String text)
+	{
+		BreakIterator breakIterator = BreakIterator.getLineInstance(Locale.US);
+		breakIterator.setText(text);
+		List<Integer> positions = new ArrayList<Integer>();
+		for (int position = breakIterator.first(); position != BreakIterator.DONE; position = breakIterator.next())
+		{
+			positions.add(position);
+		}
+		return positions;
+	}
+	
+	/**
+	 * Returns the end position and the advance of each line.
+	 */
+	protected List<Float> wrap(String text, String fontName, int width, boolean truncateAtChar, boolean advanceTables)
+	{
+		SimpleJasperReportsContext jasperReportsContext = new SimpleJasperReportsContext();
+		jasperReportsContext.setProperty(SimpleTextLineWrapper.PROPERTY_ADVANCE_TABLES, String.valueOf(advanceTables));
+		
+		JRBasePrintText textElement = new JRBasePrintText(null);
+		textElement.setFontName(fontName);
+		textElement.setFontSize(9);
+		textElement.setWidth(width);
+		textElement.setHeight(1000);
+		
+		SimpleTextLineWrapper lineWrapper = new SimpleTextLineWrapper();
+		lineWrapper.init(new SimpleTextLineWrapperTest.MeasureContext(jasperReportsContext, textElement));
+		
+		JRStyledText styledText = new JRStyledText(Locale.US, text, 
+				JRStyledTextAttributeSelector.getAllSelector(jasperReportsContext).getStyledTextAttributes(textElement));
+		assert lineWrapper.start(styledText);
+		
+		List<Float> lines = new ArrayList<Float>();
+		lineWrapper.startParagraph(0, text.length(), truncateAtChar);
+		while (lineWrapper.paragraphPosition() < lineWrapper.paragraphEnd())
+		{
+			TextLine line = lineWrapper.nextLine(width, text.length(), false);
+			assert line != null;
+			lines.add((float) lineWrapper.paragraphPosition());
+			lines.add(line.getAdvance());
+		}
+		return lines;
+	}
+}
@@ -0,0 +1,116 @@
+/*
+ * JasperReports - Free Java Reporting Library.
+ * Copyright (C) 2001 - 2016 TIBCO Software Inc. All rights reserved.
+ * http://www.jaspersoft.com
+ *
+ * Unless you have purchased a commercial license agreement from Jaspersoft,
+ * the following license terms apply:
+ *
+ * This program is part of JasperReports.
+ *
+ * JasperReports is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JasperReports is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with JasperReports. If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.sf.jasperreports.engine.fill;
+
+import java.math.BigDecimal;
+import java.util.Random;
+
+import org.testng.annotations.Test;
+
+public class NumericAccumulatorTest
+{
+	@Test
+	public void bigDecimalSum()
+	{
+		Random random = new Random(1);
+		for (int run = 0; run < 1000; run++)
+		{
+			BigDecimalAccumulator accumulator = new BigDecimalAccumulator();
+			BigDecimal sum = BigDecimal.ZERO;
+			for (int i = 0; i < 50; i++)
+			{
+				Number value;
+				BigDecimal decimalValue;
+				if (random.nextBoolean())
+				{
+					long longValue = random.nextLong() >> random.nextInt(64);
+					value = longValue;
+					decimalValue = BigDecimal.valueOf(longValue);
+				}
+				else
+				{
+					decimalValue = BigDecimal.valueOf(random.nextLong() >> random.nextInt(64), random.nextInt(22));
+					value = decimalValue;
+				}
+				
+				accumulator.add(value);
+				sum = sum.add(decimalValue);
+				
+				BigDecimal accumulated = (BigDecimal) accumulator.getValue();
+				assert accumulated.equals(sum) : accumulated + " vs " + sum;
+				
+				BigDecimalAccumulator copy = new BigDecimalAccumulator();
+				copy.copy(accumulator);
+				accumulator = copy;
+			}
+		}
+	}
+
+	@Test
+	public void integerSum()
+	{
+		Random random = new Random(1);
+		LongAccumulator accumulator = new LongAccumulator(true);
+		int sum = 0;
+		for (int i = 0; i < 10000; i++)
+		{
+			int value = random.nextInt();
+			accumulator.add(value);
+			sum += value;
+		}
+		assert accumulator.getValue().equals(sum);
+	}
+
+	@Test
+	public void doubleSum()
+	{
+		DoubleAccumulator accumulator = new DoubleAccumulator();
+		for (int i = 0; i < 1000000; i++)
+		{
+			accumulator.add(0.1);
+		}
+		assert accumulator.getValue().equals(100000d);
+		
+		accumulator.add(Double.POSITIVE_INFINITY);
+		accumulator.add(1d);
+		assert accumulator.getValue().equals(Double.POSITIVE_INFINITY);
+	}
+
+	@Test
+	public void valueIdentity()
+	{
+		Long value = 1234567L;
+		LongAccumulator accumulator = new LongAccumulator();
+		accumulator.setValue(value);
+		assert accumulator.getValue() == value;
+		
+		accumulator.addOne();
+		Object incremented = accumulator.getValue();
+		assert incremented.equals(1234568L);
+		assert accumulator.getValue() == incremented;
+		
+		accumulator.setNull();
+		assert accumulator.isNull() && accumulator.getValue() == null;
+	}
+}
@@ -0,0 +1,215 @@
+/*
+ * JasperReports - Free Java Reporting Library.
+ * Copyright (C) 2001 - 2016 TIBCO Software Inc. All rights reserved.
+ * http://www.jaspersoft.com
+ *
+ * Unless you have purchased a commercial license agreement from Jaspersoft,
+ * the following license terms apply:
+ *
+ * This program is part of JasperReports.
+ *
+ * JasperReports is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JasperReports is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with JasperReports. If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.sf.jasperreports.engine.fill;
+
+import java.awt.Font;
+import java.awt.font.FontRenderContext;
+import java.awt.font.LineBreakMeasurer;
+import java.awt.font.TextAttribute;
+import java.text.AttributedCharacterIterator.Attribute;
+import java.text.AttributedString;
+import java.text.BreakIterator;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import net.sf.jasperreports.engine.JRCommonText;
+import net.sf.jasperreports.engine.JRPropertiesHolder;
+import net.sf.jasperreports.engine.JRStyledTextAttributeSelector;
+import net.sf.jasperreports.engine.JasperReportsContext;
+import net.sf.jasperreports.engine.SimpleJasperReportsContext;
+import net.sf.jasperreports.engine.base.JRBasePrintText;
+import net.sf.jasperreports.engine.export.AwtTextRenderer;
+import net.sf.jasperreports.engine.util.JRStyledText;
+
+public class SimpleTextLineWrapperTest
+{
+	
+	@Test(dataProvider = "texts")
+	public void lineMeasurerBreaks(String text, int width, boolean truncateAtChar)
+	{
+		// by default each line is measured with a line break measurer created for the remaining text
+		LineBreaks breaks = measure(text, width, truncateAtChar, false);
+		assert breaks.offsets.equals(lineBreaks(text, breaks.font, width, truncateAtChar)) 
+				: "line breaks " + breaks.offsets + " for " + text;
+	}
+	
+	@Test(dataProvider = "texts")
+	public void paragraphMeasurerBreaks(String text, int width, boolean truncateAtChar)
+	{
+		LineBreaks breaks = measure(text, width, truncateAtChar, true);
+		assert breaks.offsets.equals(paragraphBreaks(text, breaks.font, width, truncateAtChar)) 
+				: "line breaks " + breaks.offsets + " for " + text;
+	}
+	
+	@DataProvider
+	public Object[][] texts()
+	{
+		String sentences = "The quick brown fox jumps over the lazy dog. Pack my box with five dozen liquor jugs.";
+		String numbers = "Growth of 12.5% per year, 33.3% in total, 1,234,567.89 units, (-0.25%) after taxes.";
+		String words = "Supercalifragilisticexpialidocious antidisestablishmentarianism pneumonoultramicroscopic";
+		return new Object[][]{
+				{sentences, 60, false},
+				{sentences, 60, true},
+				{numbers, 25, false},
+				{numbers, 40, false},
+				{numbers, 25, true},
+				{words, 30, false},
+				{words, 30, true},
+		};
+	}
+	
+	protected LineBreaks measure(String text, int width, boolean truncateAtChar, boolean reuseMeasurers)
+	{
+		SimpleJasperReportsContext jasperReportsContext = new SimpleJasperReportsContext();
+		jasperReportsContext.setProperty(SimpleTextLineWrapper.PROPERTY_MEASURE_EXACT, 
+				SimpleTextLineWrapper.MEASURE_EXACT_ALWAYS);
+		jasperReportsContext.setProperty(TextMeasurer.PROPERTY_REUSE_LINE_MEASURERS, 
+				String.valueOf(reuseMeasurers));
+		
+		JRBasePrintText textElement = new JRBasePrintText(null);
+		textElement.setWidth(width);
+		textElement.setHeight(1000);
+		
+		final LineBreaks breaks = new LineBreaks();
+		SimpleTextLineWrapper lineWrapper = new SimpleTextLineWrapper()
+		{
+			@Override
+			protected Font loadFont(Map<Attribute, Object> textAttributes)
+			{
+				breaks.font = super.loadFont(textAttributes);
+				return breaks.font;
+			}
+		};
+		lineWrapper.init(new MeasureContext(jasperReportsContext, textElement));
+		
+		JRStyledText styledText = new JRStyledText(Locale.US, text, 
+				JRStyledTextAttributeSelector.getAllSelector(jasperReportsContext).getStyledTextAttributes(textElement));
+		assert lineWrapper.start(styledText);
+		
+		lineWrapper.startParagraph(0, text.length(), truncateAtChar);
+		while (lineWrapper.paragraphPosition() < lineWrapper.paragraphEnd())
+		{
+			TextLine line = lineWrapper.nextLine(width, text.length(), false);
+			assert line != null;
+			breaks.offsets.add(lineWrapper.paragraphPosition());
+		}
+		return breaks;
+	}
+	
+	protected List<Integer> lineBreaks(String text, Font font, int width, boolean truncateAtChar)
+	{
+		List<Integer> offsets = new ArrayList<Integer>();
+		int position = 0;
+		while (position < text.length())
+		{
+			AttributedString line = new AttributedString(text.substring(position), fontAttributes(font));
+			LineBreakMeasurer measurer = new LineBreakMeasurer(line.getIterator(), 
+					breakIterator(truncateAtChar), AwtTextRenderer.LINE_BREAK_FONT_RENDER_CONTEXT);
+			position += measurer.nextOffset(width, text.length() - position, false);
+			offsets.add(position);
+		}
+		return offsets;
+	}
+	
+	protected List<Integer> paragraphBreaks(String text, Font font, int width, boolean truncateAtChar)
+	{
+		AttributedString paragraph = new AttributedString(text, fontAttributes(font));
+		LineBreakMeasurer measurer = new LineBreakMeasurer(paragraph.getIterator(), 
+				breakIterator(truncateAtChar), AwtTextRenderer.LINE_BREAK_FONT_RENDER_CONTEXT);
+		
+		List<Integer> offsets = new ArrayList<Integer>();
+		int position = 0;
+		while (position < text.length())
+		{
+			measurer.setPosition(position);
+			position = measurer.nextOffset(width, text.length(), false);
+			offsets.add(position);
+		}
+		return offsets;
+	}
+	
+	protected Map<Attribute, Object> fontAttributes(Font font)
+	{
+		return Collections.<Attribute, Object>singletonMap(TextAttribute.FONT, font);
+	}
+	
+	protected BreakIterator breakIterator(boolean truncateAtChar)
+	{
+		return truncateAtChar ? BreakIterator.getCharacterInstance(Locale.US) : BreakIterator.getLineInstance(Locale.US);
+	}
+	
+	protected static class LineBreaks
+	{
+		Font font;
+		List<Integer> offsets = new ArrayList<Integer>();
+	}
+	
+	protected static class MeasureContext implements TextMeasureContext
+	{
+		private final JasperReportsContext jasperReportsContext;
+		private final JRBasePrintText textElement;
+		
+		public MeasureContext(JasperReportsContext jasperReportsContext, JRBasePrintText textElement)
+		{
+			this.jasperReportsContext = jasperReportsContext;
+			this.textElement = textElement;
+		}
+
+		@Override
+		public JasperReportsContext getJasperReportsContext()
+		{
+			return jasperReportsContext;
+		}
+
+		@Override
+		public JRCommonText getElement()
+		{
+			return textElement;
+		}
+
+		@Override
+		public JRPropertiesHolder getPropertiesHolder()
+		{
+			return textElement;
+		}
+
+		@Override
+		public boolean isIgnoreMissingFont()
+		{
+			return false;
+		}
+
+		@Override
+		public FontRenderContext getFontRenderContext()
+		{
+			return AwtTextRenderer.LINE_BREAK_FONT_RENDER_CONTEXT;
+		}
+	}
+}
@@ -0,0 +1,71 @@
+/*
+ * JasperReports - Free Java Reporting Library.
+ * Copyright (C) 2001 - 2016 TIBCO Software Inc. All rights reserved.
+ * http://www.jaspersoft.com
+ *
+ * Unless you have purchased a commercial license agreement from Jaspersoft,
+ * the following license terms apply:
+ *
+ * This program is part of JasperReports.
+ *
+ * JasperReports is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JasperReports is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with JasperReports. If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.sf.jasperreports.engine.fill;
+
+import org.testng.annotations.Test;
+
+import net.sf.jasperreports.engine.SimpleJasperReportsContext;
+
+public class TextInternerTest
+{
+	
+	@Test
+	public void intern()
+	{
+		TextInterner interner = new TextInterner(10);
+		String value = interner.intern(new String("status"));
+		assert value.equals("status");
+		assert interner.intern(new String("status")) == value;
+		assert interner.internValue(new String("status")) == value;
+		
+		// texts over the maximum length are not pooled
+		String longValue = new String("a longer status");
+		assert interner.intern(longValue) == longValue;
+		assert interner.intern(new String("a longer status")) != longValue;
+		
+		Integer number = 12345;
+		assert interner.internValue(number) == number;
+		assert interner.intern(null) == null;
+	}
+	
+	@Test
+	public void disabled()
+	{
+		SimpleJasperReportsContext jasperReportsContext = new SimpleJasperReportsContext();
+		jasperReportsContext.setProperty(TextInterner.PROPERTY_MAX_LENGTH, "0");
+		TextInterner interner = TextInterner.create(jasperReportsContext);
+		
+		String value = new String("status");
+		assert interner.intern(value) == value;
+		assert interner.intern(new String("status")) != value;
+	}
+	
+	@Test
+	public void defaults()
+	{
+		TextInterner interner = TextInterner.create(null);
+		String value = interner.intern(new String("status"));
+		assert interner.intern(new String("status")) == value;
+	}
+}
@@ -0,0 +1,87 @@
+/*
+ * JasperReports - Free Java Reporting Library.
+ * Copyright (C) 2001 - 2016 TIBCO Software Inc. All rights reserved.
+ * http://www.jaspersoft.com
+ *
+ * Unless you have purchased a commercial license agreement from Jaspersoft,
+ * the following license terms apply:
+ *
+ * This program is part of JasperReports.
+ *
+ * JasperReports is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JasperReports is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with JasperReports. If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.sf.jasperreports.engine.fill;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+import org.testng.annotations.Test;
+
+import net.sf.jasperreports.engine.JRStyledTextAttributeSelector;
+import net.sf.jasperreports.engine.JRTextElement;
+import net.sf.jasperreports.engine.SimpleJasperReportsContext;
+import net.sf.jasperreports.engine.base.JRBasePrintText;
+import net.sf.jasperreports.engine.util.JRStyledText;
+
+public class TextMeasureCacheTest
+{
+	// Thai text without spaces, broken into lines at word boundaries determined by the locale
+	private static final String TEXT = "\u0e20\u0e32\u0e29\u0e32\u0e44\u0e17\u0e22\u0e40\u0e1b\u0e47\u0e19\u0e20\u0e32\u0e29\u0e32\u0e17\u0e35\u0e48\u0e44\u0e21\u0e48\u0e21\u0e35\u0e01\u0e32\u0e23\u0e40\u0e27\u0e49\u0e19\u0e27\u0e23\u0e23\u0e04\u0e23\u0e30\u0e2b\u0e27\u0e48\u0e32\u0e07\u0e04\u0e33\u0e43\u0e19\u0e1b\u0e23\u0e30\u0e42\u0e22\u0e04\u0e40\u0e14\u0e35\u0e22\u0e27\u0e01\u0e31\u0e19";
+	
+	@Test
+	public void locale()
+	{
+		SimpleJasperReportsContext context = new SimpleJasperReportsContext();
+		TextMeasureCache cache = TextMeasureCache.getInstance(context);
+		assert cache != null;
+		
+		JRBasePrintText textElement = createTextElement();
+		TextMeasurer measurer = new TextMeasurer(context, textElement);
+		String usMeasure = measure(context, measurer, textElement, Locale.US);
+		String thMeasure = measure(context, measurer, textElement, new Locale("th", "TH"));
+		
+		// the texts measured under different locales are cached separately
+		assert cache.size() == 2;
+		assert measure(context, measurer, textElement, Locale.US).equals(usMeasure);
+		assert measure(context, measurer, textElement, new Locale("th", "TH")).equals(thMeasure);
+		assert cache.getHitCount() == 2;
+		
+		SimpleJasperReportsContext noCacheContext = new SimpleJasperReportsContext();
+		noCacheContext.setProperty(TextMeasureCache.PROPERTY_SIZE, "0");
+		assert TextMeasureCache.getInstance(noCacheContext) == null;
+		
+		TextMeasurer noCacheMeasurer = new TextMeasurer(noCacheContext, textElement);
+		assert measure(noCacheContext, noCacheMeasurer, textElement, Locale.US).equals(usMeasure);
+		assert measure(noCacheContext, noCacheMeasurer, textElement, new Locale("th", "TH")).equals(thMeasure);
+	}
+	
+	protected JRBasePrintText createTextElement()
+	{
+		JRBasePrintText textElement = new JRBasePrintText(null);
+		textElement.setWidth(60);
+		textElement.setHeight(400);
+		textElement.getPropertiesMap().setProperty(JRTextElement.PROPERTY_SAVE_LINE_BREAKS, "true");
+		return textElement;
+	}
+	
+	protected String measure(SimpleJasperReportsContext context, TextMeasurer measurer, 
+			JRBasePrintText textElement, Locale locale)
+	{
+		JRStyledText styledText = new JRStyledText(locale, TEXT, 
+				JRStyledTextAttributeSelector.getAllSelector(context).getStyledTextAttributes(textElement));
+		JRMeasuredText measuredText = measurer.measure(styledText, 0, 0, false);
+		return measuredText.getTextOffset() + "/" + measuredText.getTextHeight()
+				+ "/" + Arrays.toString(measuredText.getLineBreakOffsets());
+	}
+}
@@ -0,0 +1,252 @@
+/*
+ * JasperReports - Free Java Reporting Library.
+ * Copyright (C) 2001 - 2016 TIBCO Software Inc. All rights reserved.
+ * http://www.jaspersoft.com
+ *
+ * Unless you have purchased a commercial license agreement from Jaspersoft,
+ * the following license terms apply:
+ *
+ * This program is part of JasperReports.
+ *
+ * JasperReports is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JasperReports is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with JasperReports. If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.sf.jasperreports.engine.fill;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TimeZone;
+
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import net.sf.jasperreports.engine.JRException;
+import net.sf.jasperreports.engine.JRParameter;
+import net.sf.jasperreports.engine.JRPrintElement;
+import net.sf.jasperreports.engine.JRPrintPage;
+import net.sf.jasperreports.engine.JRPrintText;
+import net.sf.jasperreports.engine.JRTextElement;
+import net.sf.jasperreports.engine.JasperCompileManager;
+import net.sf.jasperreports.engine.JasperFillManager;
+import net.sf.jasperreports.engine.JasperPrint;
+import net.sf.jasperreports.engine.JasperReport;
+import net.sf.jasperreports.engine.SimpleJasperReportsContext;
+import net.sf.jasperreports.engine.data.JRMapCollectionDataSource;
+import net.sf.jasperreports.engine.design.JRDesignBand;
+import net.sf.jasperreports.engine.design.JRDesignExpression;
+import net.sf.jasperreports.engine.design.JRDesignField;
+import net.sf.jasperreports.engine.design.JRDesignPropertyExpression;
+import net.sf.jasperreports.engine.design.JRDesignSection;
+import net.sf.jasperreports.engine.design.JRDesignTextField;
+import net.sf.jasperreports.engine.design.JasperDesign;
+import net.sf.jasperreports.engine.export.JRXmlExporter;
+import net.sf.jasperreports.engine.util.JRLoader;
+import net.sf.jasperreports.engine.xml.JRXmlLoader;
+import net.sf.jasperreports.export.SimpleExporterInput;
+import net.sf.jasperreports.export.SimpleXmlExporterOutput;
+
+/**
+ * Checks that reports filled with text elements measured concurrently by {@link TextPremeasurer}
+ * are identical to reports filled with text elements measured inline, including when measurement
+ * properties are set by property expressions.
+ */
+public class TextPremeasurerTest
+{
+
+	@DataProvider
+	public Object[][] reports()
+	{
+		Object[][] reports = new Object[6][];
+		for (int i = 0; i < reports.length; i++)
+		{
+			reports[i] = new Object[]{"net/sf/jasperreports/frames/repo/FramesReport." + (i + 1) + ".jrxml"};
+		}
+		return reports;
+	}
+
+	@Test(dataProvider = "reports")
+	public void testPremeasuredHeights(String jrxml) throws JRException, IOException
+	{
+		JasperReport report = compileReport(jrxml);
+		
+		SimpleJasperReportsContext inlineContext = new SimpleJasperReportsContext();
+		byte[] inlineOutput = xmlExport(fill(inlineContext, report));
+		
+		SimpleJasperReportsContext parallelContext = new SimpleJasperReportsContext();
+		parallelContext.setProperty(TextPremeasurer.PROPERTY_PARALLEL, "true");
+		parallelContext.setProperty(TextPremeasurer.PROPERTY_PARALLEL_MIN_ELEMENTS, "2");
+		parallelContext.setProperty(TextPremeasurer.PROPERTY_PARALLELISM, "4");
+		byte[] parallelOutput = xmlExport(fill(parallelContext, report));
+		
+		assert Arrays.equals(inlineOutput, parallelOutput);
+	}
+
+	@Test
+	public void testDynamicMeasureProperties() throws JRException
+	{
+		JasperReport report = compileDynamicPropertiesReport();
+		
+		List<String> inlineTexts = printedTexts(fillRecords(new SimpleJasperReportsContext(), report));
+		
+		SimpleJasperReportsContext parallelContext = new SimpleJasperReportsContext();
+		parallelContext.setProperty(TextPremeasurer.PROPERTY_PARALLEL, "true");
+		parallelContext.setProperty(TextPremeasurer.PROPERTY_PARALLEL_MIN_ELEMENTS, "2");
+		parallelContext.setProperty(TextPremeasurer.PROPERTY_PARALLELISM, "4");
+		List<String> parallelTexts = printedTexts(fillRecords(parallelContext, report));
+		
+		assert parallelTexts.equals(inlineTexts) : parallelTexts + " expected " + inlineTexts;
+		
+		// the line breaks are saved for the rows that set the property
+		boolean savedLineBreaks = false;
+		for (String text : inlineTexts)
+		{
+			savedLineBreaks |= text.startsWith("true") && !text.endsWith("null");
+		}
+		assert savedLineBreaks;
+	}
+
+	protected JasperReport compileDynamicPropertiesReport() throws JRException
+	{
+		JasperDesign design = new JasperDesign();
+		design.setName("TextPremeasurerTest");
+		design.setPageWidth(400);
+		design.setPageHeight(2000);
+		design.setColumnWidth(400);
+		design.setLeftMargin(0);
+		design.setRightMargin(0);
+		design.setTopMargin(0);
+		design.setBottomMargin(0);
+		
+		for (String name : new String[]{"saveLineBreaks", "text"})
+		{
+			JRDesignField field = new JRDesignField();
+			field.setName(name);
+			field.setValueClass(String.class);
+			design.addField(field);
+		}
+		
+		JRDesignBand detail = new JRDesignBand();
+		detail.setHeight(20);
+		for (int i = 0; i < 4; i++)
+		{
+			JRDesignTextField textField = new JRDesignTextField();
+			textField.setX(i * 100);
+			textField.setY(0);
+			textField.setWidth(80 + i * 5);
+			textField.setHeight(20);
+			textField.setStretchWithOverflow(true);
+			textField.setExpression(new JRDesignExpression("$F{saveLineBreaks} + \" \" + $F{text}"));
+			
+			JRDesignPropertyExpression propertyExpression = new JRDesignPropertyExpression();
+			propertyExpression.setName(JRTextElement.PROPERTY_SAVE_LINE_BREAKS);
+			propertyExpression.setValueExpression(new JRDesignExpression("$F{saveLineBreaks}"));
+			textField.addPropertyExpression(propertyExpression);
+			
+			detail.addElement(textField);
+		}
+		((JRDesignSection) design.getDetailSection()).addBand(detail);
+		
+		return JasperCompileManager.compileReport(design);
+	}
+
+	protected JasperPrint fillRecords(SimpleJasperReportsContext jasperReportsContext, JasperReport report) throws JRException
+	{
+		List<Map<String, ?>> records = new ArrayList<Map<String, ?>>();
+		for (int i = 0; i < 12; i++)
+		{
+			Map<String, Object> record = new HashMap<String, Object>();
+			record.put("saveLineBreaks", String.valueOf(i % 2 == 0));
+			StringBuilder text = new StringBuilder();
+			for (int j = 0; j <= i; j++)
+			{
+				text.append("word").append(j).append(' ');
+			}
+			record.put("text", text.toString());
+			records.add(record);
+		}
+		
+		Map<String, Object> params = new HashMap<String, Object>();
+		params.put(JRParameter.REPORT_LOCALE, Locale.US);
+		return JasperFillManager.getInstance(jasperReportsContext).fill(report, params, 
+				new JRMapCollectionDataSource(records));
+	}
+
+	/**
+	 * Returns the text, height and saved line breaks of each printed text element.
+	 */
+	protected List<String> printedTexts(JasperPrint print)
+	{
+		List<String> texts = new ArrayList<String>();
+		for (JRPrintPage page : print.getPages())
+		{
+			for (JRPrintElement element : page.getElements())
+			{
+				if (element instanceof JRPrintText)
+				{
+					JRPrintText text = (JRPrintText) element;
+					short[] lineBreakOffsets = text.getLineBreakOffsets();
+					texts.add(text.getFullText() + "|" + text.getHeight() + "|" 
+							+ (lineBreakOffsets == null ? null : Arrays.toString(lineBreakOffsets)));
+				}
+			}
+		}
+		return texts;
+	}
+
+	protected JasperReport compileReport(String jrxml) throws JRException, IOException
+	{
+		InputStream jrxmlInput = JRLoader.getResourceInputStream(jrxml);
+		JasperDesign design;
+		try
+		{
+			design = JRXmlLoader.load(jrxmlInput);
+		}
+		finally
+		{
+			jrxmlInput.close();
+		}
+		
+		return JasperCompileManager.compileReport(design);
+	}
+
+	protected JasperPrint fill(SimpleJasperReportsContext jasperReportsContext, JasperReport report) throws JRException
+	{
+		Map<String, Object> params = new HashMap<String, Object>();
+		params.put(JRParameter.REPORT_LOCALE, Locale.US);
+		params.put(JRParameter.REPORT_TIME_ZONE, TimeZone.getTimeZone("GMT"));
+		
+		JasperPrint print = JasperFillManager.getInstance(jasperReportsContext).fill(report, params);
+		assert !print.getPages().isEmpty();
+		return print;
+	}
+
+	protected byte[] xmlExport(JasperPrint print) throws JRException
+	{
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		JRXmlExporter exporter = new JRXmlExporter();
+		exporter.setExporterInput(new SimpleExporterInput(print));
+		SimpleXmlExporterOutput output = new SimpleXmlExporterOutput(out);
+		output.setEmbeddingImages(true);
+		exporter.setExporterOutput(output);
+		exporter.exportReport();
+		return out.toByteArray();
+	}
+
+}
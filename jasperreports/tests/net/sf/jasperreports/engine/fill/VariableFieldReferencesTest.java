@@ -0,0 +1,249 @@
+/*
+ * JasperReports - Free Java Reporting Library.
+ * Copyright (C) 2001 - 2016 TIBCO Software Inc. All rights reserved.
+ * http://www.jaspersoft.com
+ *
+ * Unless you have purchased a commercial license agreement from Jaspersoft,
+ * the following license terms apply:
+ *
+ * This program is part of JasperReports.
+ *
+ * JasperReports is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JasperReports is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with JasperReports. If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.sf.jasperreports.engine.fill;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import net.sf.jasperreports.engine.JRException;
+import net.sf.jasperreports.engine.JRPrintElement;
+import net.sf.jasperreports.engine.JRPrintPage;
+import net.sf.jasperreports.engine.JRPrintText;
+import net.sf.jasperreports.engine.JasperCompileManager;
+import net.sf.jasperreports.engine.JasperPrint;
+import net.sf.jasperreports.engine.JasperReport;
+import net.sf.jasperreports.engine.SimpleJasperReportsContext;
+import net.sf.jasperreports.engine.data.JRMapCollectionDataSource;
+import net.sf.jasperreports.engine.design.JRDesignBand;
+import net.sf.jasperreports.engine.design.JRDesignExpression;
+import net.sf.jasperreports.engine.design.JRDesignField;
+import net.sf.jasperreports.engine.design.JRDesignGroup;
+import net.sf.jasperreports.engine.design.JRDesignSection;
+import net.sf.jasperreports.engine.design.JRDesignTextField;
+import net.sf.jasperreports.engine.design.JRDesignVariable;
+import net.sf.jasperreports.engine.design.JasperDesign;
+import net.sf.jasperreports.engine.type.CalculationEnum;
+import net.sf.jasperreports.engine.type.ResetTypeEnum;
+
+/**
+ * Checks that variables having single field reference expressions get the same values
+ * when incremented directly from the field values as when their expressions are evaluated.
+ */
+public class VariableFieldReferencesTest
+{
+	
+	private static final int RECORD_COUNT = 30;
+	
+	@DataProvider
+	public Object[][] accumulators()
+	{
+		return new Object[][]{{false}, {true}};
+	}
+	
+	@Test(dataProvider = "accumulators")
+	public void testFieldReferenceValues(boolean accumulators) throws JRException
+	{
+		JasperReport report = compileReport();
+		
+		List<String> evaluatedTexts = printedTexts(fill(report, accumulators, false, null));
+		List<String> fieldTexts = printedTexts(fill(report, accumulators, true, null));
+		
+		assert !evaluatedTexts.isEmpty();
+		assert fieldTexts.equals(evaluatedTexts) : fieldTexts + " expected " + evaluatedTexts;
+		
+		if (!accumulators)
+		{
+			double amountSum = 0;
+			for (int i = 0; i < RECORD_COUNT; i++)
+			{
+				amountSum += amount(i);
+			}
+			assert fieldTexts.contains("amountSum=" + amountSum) : fieldTexts;
+		}
+	}
+	
+	@Test
+	public void testFieldReferenceProfiling() throws JRException
+	{
+		JasperReport report = compileReport();
+		
+		EvaluationProfiler evaluatedProfiler = new EvaluationProfiler();
+		fill(report, false, false, evaluatedProfiler);
+		EvaluationProfiler fieldProfiler = new EvaluationProfiler();
+		fill(report, false, true, fieldProfiler);
+		
+		Map<String, Long> evaluatedCounts = evaluationCounts(evaluatedProfiler);
+		Map<String, Long> fieldCounts = evaluationCounts(fieldProfiler);
+		
+		assert evaluatedCounts.get("$F{amount}") >= RECORD_COUNT : evaluatedCounts;
+		// the variables incremented from the field values are profiled as well
+		assert fieldCounts.equals(evaluatedCounts) : fieldCounts + " expected " + evaluatedCounts;
+	}
+	
+	protected JasperReport compileReport() throws JRException
+	{
+		JasperDesign design = new JasperDesign();
+		design.setName("VariableFieldReferencesTest");
+		design.setPageWidth(400);
+		design.setPageHeight(2000);
+		design.setColumnWidth(400);
+		design.setLeftMargin(0);
+		design.setRightMargin(0);
+		design.setTopMargin(0);
+		design.setBottomMargin(0);
+		
+		addField(design, "name", String.class);
+		addField(design, "amount", Double.class);
+		addField(design, "quantity", Integer.class);
+		addField(design, "price", BigDecimal.class);
+		addField(design, "id", Long.class);
+		
+		JRDesignGroup group = new JRDesignGroup();
+		group.setName("nameGroup");
+		group.setExpression(new JRDesignExpression("$F{name}"));
+		design.addGroup(group);
+		
+		JRDesignBand summary = new JRDesignBand();
+		design.setSummary(summary);
+		
+		addVariable(design, summary, "amountSum", Double.class, CalculationEnum.SUM, "$F{amount}", null);
+		addVariable(design, summary, "amountAverage", Double.class, CalculationEnum.AVERAGE, "$F{amount}", null);
+		addVariable(design, summary, "amountVariance", Double.class, CalculationEnum.VARIANCE, "$F{amount}", null);
+		addVariable(design, summary, "amountDoubleSum", Double.class, CalculationEnum.SUM, "$F{amount} * 2", null);
+		addVariable(design, summary, "quantitySum", Integer.class, CalculationEnum.SUM, "$F{quantity}", null);
+		addVariable(design, summary, "quantityHighest", Integer.class, CalculationEnum.HIGHEST, "$F{quantity}", null);
+		addVariable(design, summary, "priceSum", BigDecimal.class, CalculationEnum.SUM, "$F{price}", null);
+		addVariable(design, summary, "priceAverage", BigDecimal.class, CalculationEnum.AVERAGE, "$F{price}", null);
+		addVariable(design, summary, "idCount", Long.class, CalculationEnum.COUNT, "$F{id}", null);
+		addVariable(design, summary, "nameDistinctCount", Integer.class, CalculationEnum.DISTINCT_COUNT, "$F{name}", null);
+		addVariable(design, summary, "lastName", String.class, CalculationEnum.NOTHING, "$F{name}", null);
+		
+		JRDesignBand groupFooter = new JRDesignBand();
+		((JRDesignSection) group.getGroupFooterSection()).addBand(groupFooter);
+		addVariable(design, groupFooter, "groupAmountSum", Double.class, CalculationEnum.SUM, "$F{amount}", group);
+		addVariable(design, groupFooter, "groupPriceSum", BigDecimal.class, CalculationEnum.SUM, "$F{price}", group);
+		
+		return JasperCompileManager.compileReport(design);
+	}
+	
+	protected void addField(JasperDesign design, String name, Class<?> valueClass) throws JRException
+	{
+		JRDesignField field = new JRDesignField();
+		field.setName(name);
+		field.setValueClass(valueClass);
+		design.addField(field);
+	}
+	
+	protected void addVariable(JasperDesign design, JRDesignBand band, String name, Class<?> valueClass, 
+			CalculationEnum calculation, String expression, JRDesignGroup resetGroup) throws JRException
+	{
+		JRDesignVariable variable = new JRDesignVariable();
+		variable.setName(name);
+		variable.setValueClass(valueClass);
+		variable.setCalculation(calculation);
+		variable.setExpression(new JRDesignExpression(expression));
+		if (resetGroup != null)
+		{
+			variable.setResetType(ResetTypeEnum.GROUP);
+			variable.setResetGroup(resetGroup);
+		}
+		design.addVariable(variable);
+		
+		JRDesignTextField textField = new JRDesignTextField();
+		textField.setX(0);
+		textField.setY(band.getHeight());
+		textField.setWidth(400);
+		textField.setHeight(20);
+		textField.setExpression(new JRDesignExpression("\"" + name + "=\" + $V{" + name + "}"));
+		band.addElement(textField);
+		band.setHeight(band.getHeight() + 20);
+	}
+	
+	protected double amount(int index)
+	{
+		return index / 3d + 0.1;
+	}
+	
+	protected JasperPrint fill(JasperReport report, boolean accumulators, boolean fieldReferences, 
+			EvaluationProfiler profiler) throws JRException
+	{
+		SimpleJasperReportsContext jasperReportsContext = new SimpleJasperReportsContext();
+		jasperReportsContext.setProperty(JRFillDataset.PROPERTY_VARIABLE_ACCUMULATORS, String.valueOf(accumulators));
+		jasperReportsContext.setProperty(JRFillDataset.PROPERTY_VARIABLE_FIELD_REFERENCES, String.valueOf(fieldReferences));
+		
+		List<Map<String, ?>> records = new ArrayList<Map<String, ?>>();
+		for (int i = 0; i < RECORD_COUNT; i++)
+		{
+			Map<String, Object> record = new HashMap<String, Object>();
+			record.put("name", "name" + (i / 7));
+			record.put("amount", amount(i));
+			// some null values
+			record.put("quantity", i % 5 == 4 ? null : Integer.valueOf(i * 3 % 11));
+			record.put("price", new BigDecimal(i).movePointLeft(2).add(BigDecimal.ONE));
+			record.put("id", i % 6 == 5 ? null : Long.valueOf(i));
+			records.add(record);
+		}
+		
+		ReportFiller filler = JRFiller.createReportFiller(jasperReportsContext, report);
+		if (profiler != null)
+		{
+			filler.addFillListener(profiler);
+		}
+		return filler.fill(new HashMap<String, Object>(), new JRMapCollectionDataSource(records));
+	}
+	
+	protected List<String> printedTexts(JasperPrint print)
+	{
+		List<String> texts = new ArrayList<String>();
+		for (JRPrintPage page : print.getPages())
+		{
+			for (JRPrintElement element : page.getElements())
+			{
+				if (element instanceof JRPrintText)
+				{
+					texts.add(((JRPrintText) element).getFullText());
+				}
+			}
+		}
+		return texts;
+	}
+	
+	protected Map<String, Long> evaluationCounts(EvaluationProfiler profiler)
+	{
+		Map<String, Long> counts = new HashMap<String, Long>();
+		for (EvaluationProfiler.ExpressionProfile profile : profiler.getExpressionProfiles())
+		{
+			String key = profile.getExpressionText();
+			Long count = counts.get(key);
+			counts.put(key, (count == null ? 0 : count) + profile.getCount());
+		}
+		return counts;
+	}
+}
@@ -0,0 +1,168 @@
+/*
+ * JasperReports - Free Java Reporting Library.
+ * Copyright (C) 2001 - 2016 TIBCO Software Inc. All rights reserved.
+ * http://www.jaspersoft.com
+ *
+ * Unless you have purchased a commercial license agreement from Jaspersoft,
+ * the following license terms apply:
+ *
+ * This program is part of JasperReports.
+ *
+ * JasperReports is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JasperReports is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with JasperReports. If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.sf.jasperreports.engine.fonts;
+
+import java.awt.Font;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.testng.annotations.Test;
+
+import net.sf.jasperreports.engine.SimpleJasperReportsContext;
+import net.sf.jasperreports.engine.fonts.FontResolutionCache.Key;
+import net.sf.jasperreports.engine.fonts.FontResolutionCache.LruCache;
+import net.sf.jasperreports.engine.fonts.FontResolutionCache.State;
+
+/**
+ * Checks the eviction and the invalidation of cached font resolution results.
+ */
+public class FontResolutionCacheTest
+{
+
+	@Test
+	public void testLeastRecentlyUsedEviction()
+	{
+		LruCache cache = new LruCache(3);
+		Key key1 = new Key("key", 1);
+		Key key2 = new Key("key", 2);
+		Key key3 = new Key("key", 3);
+		cache.put(key1, "value1");
+		cache.put(key2, "value2");
+		cache.put(key3, null);
+		
+		assert "value1".equals(cache.get(key1));
+		cache.put(new Key("key", 4), "value4");
+		
+		assert cache.size() == 3 : "size " + cache.size();
+		assert cache.get(key2) == null : "least recently used entry not evicted";
+		assert "value1".equals(cache.get(new Key("key", 1)));
+		assert cache.get(key3) == FontResolutionCache.NULL_VALUE;
+	}
+	
+	@Test
+	public void testExtensionsNotRetrievedWithinInterval()
+	{
+		CountingContext context = new CountingContext();
+		context.setExtensions(FontFamily.class, Collections.singletonList(family("Family 1")));
+		FontResolutionCache cache = new FontResolutionCache(Long.MAX_VALUE, 10);
+		
+		State state = cache.getState(context);
+		int count = context.extensionsCount;
+		assert state.getFamilies().size() == 1;
+		
+		for (int i = 0; i < 5; i++)
+		{
+			assert cache.getState(context) == state;
+		}
+		assert context.extensionsCount == count : "extensions retrieved " + (context.extensionsCount - count) + " times";
+	}
+	
+	@Test
+	public void testUnchangedExtensionsKeepResults()
+	{
+		SimpleJasperReportsContext context = new SimpleJasperReportsContext();
+		context.setExtensions(FontFamily.class, Collections.singletonList(family("Family 1")));
+		FontResolutionCache cache = new FontResolutionCache(0, 10);
+		
+		State state = cache.getState(context);
+		Key key = new Key("fontInfo", "Family 1", null);
+		state.getLookups().put(key, "result");
+		
+		State nextState = cache.getState(context);
+		assert nextState == state;
+		assert "result".equals(nextState.getLookups().get(key));
+	}
+	
+	@Test
+	public void testChangedExtensionsDiscardResults()
+	{
+		SimpleFontFamily family = family("Family 1");
+		SimpleJasperReportsContext context = new SimpleJasperReportsContext();
+		context.setExtensions(FontFamily.class, Collections.singletonList(family));
+		FontResolutionCache cache = new FontResolutionCache(0, 10);
+		
+		State state = cache.getState(context);
+		Key lookupKey = new Key("fontInfo", "Family 1", null);
+		state.getLookups().put(lookupKey, "result");
+		Key fontKey = new Key(family, null, Font.PLAIN, Font.PLAIN, 10f, false);
+		state.getAwtFonts().put(fontKey, new Font("Dialog", Font.PLAIN, 10));
+		
+		List<FontFamily> families = new ArrayList<FontFamily>();
+		families.add(family);
+		families.add(family("Family 2"));
+		context.setExtensions(FontFamily.class, families);
+		
+		State nextState = cache.getState(context);
+		assert nextState != state;
+		assert nextState.getFamilies().size() == 2;
+		assert nextState.getLookups().get(lookupKey) == null : "lookup result not discarded";
+		assert nextState.getAwtFonts().size() == 0 : "AWT fonts not discarded";
+		
+		context.setExtensions(FontSet.class, Collections.singletonList(new SimpleFontSet()));
+		assert cache.getState(context) != nextState : "font set change not detected";
+	}
+	
+	@Test
+	public void testFontUtilResults()
+	{
+		SimpleFontFamily family = family("Family 1");
+		SimpleJasperReportsContext context = new SimpleJasperReportsContext();
+		context.setExtensions(FontFamily.class, Collections.singletonList(family));
+		FontUtil fontUtil = FontUtil.getInstance(context);
+		
+		FontInfo fontInfo = fontUtil.getFontInfo("Family 1", null);
+		assert fontInfo != null && fontInfo.getFontFamily() == family;
+		assert fontUtil.getFontInfo("Family 1", null) == fontInfo;
+		assert FontUtil.getInstance(context).getFontInfoIgnoreCase("family 1", null).getFontFamily() == family;
+		assert fontUtil.getFontInfo("Missing Family", null) == null;
+		assert fontUtil.getFontInfo("Missing Family", null) == null;
+		
+		Font font = fontUtil.getAwtFontFromBundles("Family 1", Font.BOLD, 12f, null, true);
+		assert font != null;
+		assert font.getStyle() == Font.BOLD && font.getSize2D() == 12f;
+		assert fontUtil.getAwtFontFromBundles("Family 1", Font.BOLD, 12f, null, true) == font;
+		assert !font.equals(fontUtil.getAwtFontFromBundles("Family 1", Font.PLAIN, 12f, null, true));
+	}
+	
+	protected SimpleFontFamily family(String name)
+	{
+		SimpleFontFamily family = new SimpleFontFamily(new SimpleJasperReportsContext());
+		family.setName(name);
+		return family;
+	}
+	
+	protected static class CountingContext extends SimpleJasperReportsContext
+	{
+		int extensionsCount;
+
+		@Override
+		public <T> List<T> getExtensions(Class<T> extensionType)
+		{
+			++extensionsCount;
+			return super.getExtensions(extensionType);
+		}
+	}
+
+}
@@ -0,0 +1,154 @@
+/*
+ * JasperReports - Free Java Reporting Library.
+ * Copyright (C) 2001 - 2016 TIBCO Software Inc. All rights reserved.
+ * http://www.jaspersoft.com
+ *
+ * Unless you have purchased a commercial license agreement from Jaspersoft,
+ * the following license terms apply:
+ *
+ * This program is part of JasperReports.
+ *
+ * JasperReports is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JasperReports is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with JasperReports. If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.sf.jasperreports.engine.fonts;
+
+import java.awt.Font;
+import java.util.Collections;
+
+import org.testng.annotations.Test;
+
+import net.sf.jasperreports.engine.JasperReportsContext;
+import net.sf.jasperreports.engine.SimpleJasperReportsContext;
+
+/**
+ * Checks font lookups by name for lazily loaded font faces.
+ */
+public class FontUtilTest
+{
+
+	private static final String MISSING_FONT = "net/sf/jasperreports/engine/fonts/missing.ttf";
+	
+	@Test
+	public void testDeclaredFaceName()
+	{
+		CountingFontFace face = lazyFace("Test Face Bold");
+		SimpleFontFamily family = family(null, face);
+		
+		FontInfo fontInfo = fontUtil(family).getFontInfo("Test Face Bold", null);
+		assert fontInfo != null;
+		assert fontInfo.getFontFace() == face;
+		assert fontInfo.getStyle() == Font.BOLD;
+		
+		fontInfo = fontUtil(family).getFontInfoIgnoreCase("test face bold", null);
+		assert fontInfo != null;
+		assert fontInfo.getFontFace() == face;
+		
+		assert face.loadCount == 0;
+	}
+	
+	@Test
+	public void testUnknownNameDoesNotLoadFonts()
+	{
+		CountingFontFace normalFace = lazyFace(null);
+		CountingFontFace boldFace = lazyFace("Test Face Bold");
+		SimpleFontFamily family = family(normalFace, boldFace);
+		
+		assert fontUtil(family).getFontInfo("Unknown Face", null) == null;
+		assert fontUtil(family).getFontInfoIgnoreCase("Unknown Face", null) == null;
+		
+		FontInfo fontInfo = fontUtil(family).getFontInfo("Test Family", null);
+		assert fontInfo != null;
+		assert fontInfo.getFontFamily() == family;
+		assert fontInfo.getFontFace() == null;
+		
+		assert normalFace.loadCount == 0;
+		assert boldFace.loadCount == 0;
+	}
+	
+	@Test
+	public void testFailedFaceIsSkipped()
+	{
+		CountingFontFace normalFace = lazyFace("Test Face");
+		CountingFontFace boldFace = lazyFace("Test Face Bold");
+		SimpleFontFamily family = family(normalFace, boldFace);
+		
+		assert normalFace.getFont() == null;
+		assert normalFace.getFont() == null;
+		assert normalFace.loadCount == 1;
+		
+		assert fontUtil(family).getFontInfo("Test Face", null) == null;
+		assert fontUtil(family).getFontInfoIgnoreCase("Test Face", null) == null;
+		assert fontUtil(family).getFontInfo("Unknown Face", null) == null;
+		
+		FontInfo fontInfo = fontUtil(family).getFontInfo("Test Face Bold", null);
+		assert fontInfo != null;
+		assert fontInfo.getFontFace() == boldFace;
+		assert boldFace.loadCount == 0;
+	}
+	
+	@Test
+	public void testEagerFaceName()
+	{
+		SimpleFontFace face = new SimpleFontFace(new SimpleJasperReportsContext());
+		face.setTtf("Dialog");
+		SimpleFontFamily family = family(face, null);
+		
+		FontInfo fontInfo = fontUtil(family).getFontInfo(face.getFont().getName(), null);
+		assert fontInfo != null;
+		assert fontInfo.getFontFace() == face;
+	}
+	
+	protected CountingFontFace lazyFace(String name)
+	{
+		CountingFontFace face = new CountingFontFace(new SimpleJasperReportsContext());
+		face.setName(name);
+		face.setTtf(MISSING_FONT, false);
+		return face;
+	}
+	
+	protected SimpleFontFamily family(SimpleFontFace normalFace, SimpleFontFace boldFace)
+	{
+		SimpleFontFamily family = new SimpleFontFamily(new SimpleJasperReportsContext());
+		family.setName("Test Family");
+		family.setNormalFace(normalFace);
+		family.setBoldFace(boldFace);
+		return family;
+	}
+	
+	protected FontUtil fontUtil(FontFamily family)
+	{
+		// new context for each lookup so that font resolution results are not cached
+		SimpleJasperReportsContext jasperReportsContext = new SimpleJasperReportsContext();
+		jasperReportsContext.setExtensions(FontFamily.class, Collections.singletonList(family));
+		return FontUtil.getInstance(jasperReportsContext);
+	}
+	
+	protected static class CountingFontFace extends SimpleFontFace
+	{
+		int loadCount;
+		
+		public CountingFontFace(JasperReportsContext jasperReportsContext)
+		{
+			super(jasperReportsContext);
+		}
+
+		@Override
+		public void loadFont() throws InvalidFontException
+		{
+			++loadCount;
+			super.loadFont();
+		}
+	}
+
+}
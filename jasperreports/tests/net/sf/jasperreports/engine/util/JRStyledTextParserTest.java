@@ -0,0 +1,195 @@
+/*
+ * JasperReports - Free Java Reporting Library.
+ * Copyright (C) 2001 - 2016 TIBCO Software Inc. All rights reserved.
+ * http://www.jaspersoft.com
+ *
+ * Unless you have purchased a commercial license agreement from Jaspersoft,
+ * the following license terms apply:
+ *
+ * This program is part of JasperReports.
+ *
+ * JasperReports is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JasperReports is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with JasperReports. If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.sf.jasperreports.engine.util;
+
+import java.text.AttributedCharacterIterator.Attribute;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+import org.xml.sax.SAXException;
+
+import net.sf.jasperreports.engine.JRPrintHyperlink;
+import net.sf.jasperreports.engine.JRPrintHyperlinkParameter;
+
+public class JRStyledTextParserTest
+{
+	
+	@Test(dataProvider = "markup")
+	public void markupParser(String text) throws SAXException
+	{
+		JRStyledTextParser parser = JRStyledTextParser.getInstance();
+		
+		String expected;
+		try
+		{
+			expected = describe(parser.parseDocument(text, Locale.US));
+		}
+		catch (SAXException e)
+		{
+			expected = null;
+		}
+		
+		String parsed;
+		try
+		{
+			parsed = describe(parser.parse(null, text, Locale.US));
+		}
+		catch (SAXException e)
+		{
+			parsed = null;
+		}
+		
+		assert expected == null ? parsed == null : expected.equals(parsed) 
+				: "markup " + text + " parsed as " + parsed + ", expected " + expected;
+	}
+	
+	@DataProvider
+	public Object[][] markup()
+	{
+		String[] texts = new String[]{
+				"",
+				"plain text",
+				"a <b>bold</b> and <i>it</i>",
+				"<style isBold=\"true\" forecolor=\"#ff0000\" size=\"12\">x<u>y</u></style>z",
+				"<style fontName = 'DejaVu Sans'\n isItalic='true'>q</style>",
+				"<style pdfFontName=\"a\tb\r\nc\">s</style>",
+				"<style forecolor=\"#00ff00\"/>",
+				"<style size='1' size='2'>x</style>",
+				"<style isBold=\"true\"isItalic=\"true\">x</style>",
+				"<font face=\"Arial, Serif\" color=\"#0000ff\" size=\"3\">f</font>",
+				"<font face=\"Serif\">a</font>",
+				"<sup>1</sup><sub>2</sub><B>up</B>",
+				"<b>x</B>",
+				"<b><i>n</b></i>",
+				"<b>unclosed",
+				"</b>",
+				"<b/>e",
+				"<b>x</b >",
+				"< b>x</b>",
+				"<b>x</ b>",
+				"<1b>x</1b>",
+				"<b attr=\"1\" attr=\"2\">d</b>",
+				"<unknown>u</unknown>",
+				"line<br/>next",
+				"line<br></br>next<br/>",
+				"<br>in</br>after",
+				"a<br/><br/>b<b>c<br/>d</b>",
+				"<i><br>q<b>r</b></br></i>s",
+				"<li>one</li><li>two</li>",
+				"<a href=\"http://x?a=1&amp;b=2\" target=\"_blank\">link <b>b</b></a> tail",
+				"<a href=\"x\"><a href=\"y\">z</a></a>",
+				"<a href=\"a\"/>b",
+				"<a href=\"h\">t<param name=\"p\" valueClass=\"java.lang.String\">v</param></a>",
+				"a\r\nb\rc",
+				"tab\there",
+				"<b>a</b>\n<i>b</i>\n",
+				"1 < 2",
+				"1 > 0",
+				"x ]]> y",
+				"a & b",
+				"x\u0001y",
+				"x\uD800y",
+				"\uD83D\uDE00 emoji",
+				"<!-- comment -->c",
+				"<![CDATA[<b>]]>",
+				"&lt;&amp;&gt;&quot;&apos;",
+				"&amp;lt;",
+				"&nbsp;",
+				"&#65;&#x42;",
+				"<b>&#13;</b>",
+				"&#X41;",
+				"&#x0041;",
+				"&#0065;",
+				"&#+65;",
+				"&#x+41;",
+				"&#-65;",
+				"&#x-41;",
+				"&# 65;",
+				"&#;",
+				"&#x;",
+				"&#65a;",
+				"&#x4G;",
+				"&#\u0663;",
+				"&#x\uFF21;",
+				"&#0;",
+				"&#xD800;",
+				"&#xfffe;",
+				"&#1114111;",
+				"&#1114112;",
+				"&#x110000;",
+				"&#99999999999;",
+				"&#xFFFFFFFFF41;",
+		};
+		
+		Object[][] data = new Object[texts.length][];
+		for (int i = 0; i < texts.length; i++)
+		{
+			data[i] = new Object[]{texts[i]};
+		}
+		return data;
+	}
+	
+	protected String describe(JRStyledText styledText)
+	{
+		StringBuilder sb = new StringBuilder();
+		sb.append(styledText.getText());
+		for (JRStyledText.Run run : styledText.getRuns())
+		{
+			sb.append(" [").append(run.startIndex).append(',').append(run.endIndex);
+			if (run.attributes != null)
+			{
+				Map<String,String> attributes = new TreeMap<String,String>();
+				for (Map.Entry<Attribute,Object> entry : run.attributes.entrySet())
+				{
+					Object value = entry.getValue();
+					attributes.put(entry.getKey().toString(), 
+							value instanceof JRPrintHyperlink ? describe((JRPrintHyperlink) value) : String.valueOf(value));
+				}
+				sb.append(' ').append(attributes);
+			}
+			sb.append(']');
+		}
+		return sb.toString();
+	}
+	
+	protected String describe(JRPrintHyperlink hyperlink)
+	{
+		List<String> parameters = new ArrayList<String>();
+		if (hyperlink.getHyperlinkParameters() != null)
+		{
+			for (JRPrintHyperlinkParameter parameter : hyperlink.getHyperlinkParameters().getParameters())
+			{
+				parameters.add(parameter.getName() + ":" + parameter.getValueClass() + ":" + parameter.getValue());
+			}
+		}
+		return hyperlink.getLinkType() + " " + hyperlink.getLinkTarget()
+				+ " " + hyperlink.getHyperlinkReference() + " " + hyperlink.getHyperlinkAnchor()
+				+ " " + hyperlink.getHyperlinkTooltip() + " " + parameters;
+	}
+}
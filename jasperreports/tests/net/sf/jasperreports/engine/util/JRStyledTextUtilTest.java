@@ -0,0 +1,89 @@
+/*
+ * JasperReports - Free Java Reporting Library.
+ * Copyright (C) 2001 - 2016 TIBCO Software Inc. All rights reserved.
+ * http://www.jaspersoft.com
+ *
+ * Unless you have purchased a commercial license agreement from Jaspersoft,
+ * the following license terms apply:
+ *
+ * This program is part of JasperReports.
+ *
+ * JasperReports is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JasperReports is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with JasperReports. If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.sf.jasperreports.engine.util;
+
+import java.util.Locale;
+
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import net.sf.jasperreports.engine.JRCommonText;
+import net.sf.jasperreports.engine.JRStyledTextAttributeSelector;
+import net.sf.jasperreports.engine.SimpleJasperReportsContext;
+import net.sf.jasperreports.engine.base.JRBasePrintText;
+
+public class JRStyledTextUtilTest
+{
+	
+	@Test(dataProvider = "markupTexts")
+	public void cachedStyledText(String text)
+	{
+		SimpleJasperReportsContext jasperReportsContext = new SimpleJasperReportsContext();
+		JRStyledTextUtil styledTextUtil = JRStyledTextUtil.getInstance(jasperReportsContext);
+		JRStyledTextAttributeSelector attributeSelector = JRStyledTextAttributeSelector.getAllSelector(jasperReportsContext);
+		
+		JRBasePrintText printText = new JRBasePrintText(null);
+		printText.setMarkup(JRCommonText.MARKUP_STYLED_TEXT);
+		printText.setText(text);
+		
+		JRStyledText parsed = JRStyledTextParser.getInstance().getStyledText(
+				attributeSelector.getStyledTextAttributes(printText), text, true, 
+				JRStyledTextAttributeSelector.getTextLocale(printText));
+		String expected = describe(parsed);
+		
+		JRStyledText styledText = styledTextUtil.getStyledText(printText, attributeSelector);
+		assert describe(styledText).equals(expected);
+		
+		// the cached text is not affected by changes in the returned copies
+		styledText.append(" appended");
+		styledText.addRun(new JRStyledText.Run(parsed.getGlobalAttributes(), 0, 1));
+		
+		JRStyledText cachedText = styledTextUtil.getStyledText(printText, attributeSelector);
+		assert cachedText != styledText;
+		assert describe(cachedText).equals(expected) : describe(cachedText) + ", expected " + expected;
+	}
+	
+	@DataProvider
+	public Object[][] markupTexts()
+	{
+		return new Object[][]{
+				{"plain text"},
+				{"a <b>bold</b> and <i>italic</i> text"},
+				{"<style isBold=\"true\" forecolor=\"#ff0000\">red <u>underlined</u></style> tail"},
+				{"line<br/>next <sup>1</sup>"},
+		};
+	}
+	
+	protected String describe(JRStyledText styledText)
+	{
+		StringBuilder sb = new StringBuilder();
+		sb.append(styledText.getText()).append(' ').append(styledText.getGlobalAttributes());
+		for (JRStyledText.Run run : styledText.getRuns())
+		{
+			sb.append(" [").append(run.startIndex).append(',').append(run.endIndex)
+					.append(' ').append(run.attributes).append(']');
+		}
+		return sb.toString();
+	}
+}